@@ -0,0 +1,148 @@
+/*******************************************************************************
+ * Copyright (c) 2009, 2011 The University of Memphis.  All rights reserved. 
+ * This program and the accompanying materials are made available 
+ * under the terms of the LIDA Software Framework Non-Commercial License v1.0 
+ * which accompanies this distribution, and is available at
+ * http://ccrg.cs.memphis.edu/assets/papers/2010/LIDA-framework-non-commercial-v1.0.pdf
+ *******************************************************************************/
+package edu.memphis.ccrg.lida.framework;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.junit.After;
+import org.junit.Test;
+
+import edu.memphis.ccrg.lida.framework.initialization.GlobalInitializer;
+import edu.memphis.ccrg.lida.framework.shared.ElementFactory;
+import edu.memphis.ccrg.lida.framework.tasks.FrameworkTaskImpl;
+import edu.memphis.ccrg.lida.framework.tasks.MapTaskScheduler;
+import edu.memphis.ccrg.lida.framework.tasks.TaskManager;
+import edu.memphis.ccrg.lida.framework.tasks.TaskSpawner;
+import edu.memphis.ccrg.lida.framework.tasks.TaskSpawnerImpl;
+
+public class AgentContextTest {
+
+	@After
+	public void tearDown() throws Exception {
+		AgentContext.setCurrent(null);
+	}
+
+	@Test
+	public void testSetCurrent() {
+		AgentContext def = AgentContext.getDefault();
+		assertSame(def, AgentContext.getCurrent());
+		AgentContext c = new AgentContext();
+		assertSame(def, AgentContext.setCurrent(c));
+		assertSame(c, AgentContext.getCurrent());
+		assertSame(c, AgentContext.setCurrent(null));
+		assertSame(def, AgentContext.getCurrent());
+	}
+
+	@Test
+	public void testScopedInstances() {
+		ElementFactory defFactory = ElementFactory.getInstance();
+		GlobalInitializer defInitializer = GlobalInitializer.getInstance();
+		defInitializer.setAttribute("agentContextTest", 1);
+
+		AgentContext c = new AgentContext();
+		AgentContext.setCurrent(c);
+		ElementFactory factory = ElementFactory.getInstance();
+		assertSame(factory, ElementFactory.getInstance());
+		assertSame(factory, c.getElementFactory());
+		assertNotSame(defFactory, factory);
+		assertTrue(GlobalInitializer.getInstance().getAttribute(
+				"agentContextTest") == null);
+		AgentContext.setCurrent(null);
+
+		assertSame(defFactory, ElementFactory.getInstance());
+		assertEquals(1, defInitializer.getAttribute("agentContextTest"));
+	}
+
+	@Test
+	public void testIds() {
+		AgentContext c1 = new AgentContext();
+		AgentContext c2 = new AgentContext();
+		assertEquals(0, c1.getNextSchemeId());
+		assertEquals(1, c1.getNextSchemeId());
+		assertEquals(0, c2.getNextSchemeId());
+		assertEquals(0, c1.getNextActionId());
+		assertEquals(0, c1.getNextCoalitionId());
+	}
+
+	@Test
+	public void testAgentsSharingExecutor() {
+		ExecutorService executor = Executors.newFixedThreadPool(4);
+		AgentContext c1 = new AgentContext(executor);
+		AgentContext c2 = new AgentContext(executor);
+		TickRecordingTask task1 = new TickRecordingTask(1);
+		TickRecordingTask task2 = new TickRecordingTask(5);
+		TaskManager tm1 = startAgent(c1, task1);
+		TaskManager tm2 = startAgent(c2, task2);
+		assertSame(c1, tm1.getAgentContext());
+		assertSame(tm2, c2.getTaskManager());
+		assertTrue(AgentContext.getDefault().getTaskManager() != tm1);
+
+		tm1.resumeTasks();
+		tm2.resumeTasks();
+		try {
+			Thread.sleep(300);
+		} catch (InterruptedException e) {
+			e.printStackTrace();
+		}
+		tm1.pauseTasks();
+		tm2.pauseTasks();
+		// Each task sees the tick of its own agent
+		assertEquals(10, task1.lastTick);
+		assertEquals(50, task2.lastTick);
+		assertSame(c1, task1.context);
+		assertSame(c2, task2.context);
+
+		tm1.setExitOnShutdown(false);
+		tm1.stopRunning();
+		assertFalse(executor.isShutdown());
+		executor.shutdown();
+	}
+
+	private TaskManager startAgent(AgentContext c, TickRecordingTask task) {
+		AgentContext previous = AgentContext.setCurrent(c);
+		try {
+			TaskManager tm = new TaskManager(0, -1, null,
+					new MapTaskScheduler(), c.getExecutorService());
+			TaskSpawner ts = new TaskSpawnerImpl(tm);
+			ts.addRecurringTask(task);
+			return tm;
+		} finally {
+			AgentContext.setCurrent(previous);
+		}
+	}
+
+	/*
+	 * Records the tick and context seen when run, stops after 10 runs.
+	 */
+	private static class TickRecordingTask extends FrameworkTaskImpl {
+
+		private volatile long lastTick;
+		private volatile AgentContext context;
+		private int runs;
+
+		public TickRecordingTask(int ticksPerRun) {
+			super(ticksPerRun);
+		}
+
+		@Override
+		protected void runThisFrameworkTask() {
+			lastTick = TaskManager.getCurrentTick();
+			context = AgentContext.getCurrent();
+			if (++runs == 10) {
+				cancel();
+			}
+		}
+	}
+}
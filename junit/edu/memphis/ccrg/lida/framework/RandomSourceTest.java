@@ -0,0 +1,75 @@
+/*******************************************************************************
+ * Copyright (c) 2009, 2011 The University of Memphis.  All rights reserved. 
+ * This program and the accompanying materials are made available 
+ * under the terms of the LIDA Software Framework Non-Commercial License v1.0 
+ * which accompanies this distribution, and is available at
+ * http://ccrg.cs.memphis.edu/assets/papers/2010/LIDA-framework-non-commercial-v1.0.pdf
+ *******************************************************************************/
+package edu.memphis.ccrg.lida.framework;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import org.junit.Test;
+
+public class RandomSourceTest {
+
+	@Test
+	public void testSameSeed() {
+		RandomSource r1 = new RandomSource(42);
+		RandomSource r2 = new RandomSource(42);
+		for (int i = 0; i < 100; i++) {
+			assertEquals(r1.nextLong(), r2.nextLong());
+		}
+		assertFalse(new RandomSource(1).nextLong() == new RandomSource(2)
+				.nextLong());
+	}
+
+	@Test
+	public void testSplit() {
+		RandomSource r = new RandomSource(42);
+		long first = new RandomSource(42).nextLong();
+		RandomSource s1 = r.split(7);
+		RandomSource s2 = r.split(7);
+		assertEquals(s1.getSeed(), s2.getSeed());
+		assertFalse(s1.getSeed() == r.split(8).getSeed());
+		assertEquals(first, r.nextLong());
+	}
+
+	@Test
+	public void testBounds() {
+		RandomSource r = new RandomSource(3);
+		for (int i = 0; i < 1000; i++) {
+			double d = r.nextDouble();
+			assertTrue(d >= 0.0 && d < 1.0);
+			int n = r.nextInt(7);
+			assertTrue(n >= 0 && n < 7);
+			n = r.nextInt(8);
+			assertTrue(n >= 0 && n < 8);
+		}
+	}
+
+	@Test
+	public void testNonPositiveBound() {
+		try {
+			new RandomSource(3).nextInt(0);
+			fail();
+		} catch (IllegalArgumentException e) {
+		}
+	}
+
+	@Test
+	public void testBind() {
+		RandomSource r = new RandomSource(5);
+		assertSame(AgentContext.getCurrent().getRandomSource(), RandomSource
+				.getCurrent());
+		RandomSource previous = RandomSource.bind(r);
+		assertSame(r, RandomSource.getCurrent());
+		RandomSource.bind(previous);
+		assertSame(AgentContext.getCurrent().getRandomSource(), RandomSource
+				.getCurrent());
+	}
+}
@@ -0,0 +1,122 @@
+/*******************************************************************************
+ * Copyright (c) 2009, 2011 The University of Memphis.  All rights reserved. 
+ * This program and the accompanying materials are made available 
+ * under the terms of the LIDA Software Framework Non-Commercial License v1.0 
+ * which accompanies this distribution, and is available at
+ * http://ccrg.cs.memphis.edu/assets/papers/2010/LIDA-framework-non-commercial-v1.0.pdf
+ *******************************************************************************/
+package edu.memphis.ccrg.lida.framework.gui.events;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import edu.memphis.ccrg.lida.framework.ModuleName;
+
+public class GuiEventDispatcherTest {
+
+	private GuiEventDispatcher dispatcher;
+	private BlockingListener listener;
+
+	@Before
+	public void setUp() throws Exception {
+		dispatcher = new GuiEventDispatcher("test", null, 2);
+		listener = new BlockingListener();
+		dispatcher.addListener(listener);
+	}
+
+	@After
+	public void tearDown() throws Exception {
+		listener.release.countDown();
+		dispatcher.shutdown();
+	}
+
+	@Test
+	public void testCoalesce() throws Exception {
+		dispatcher.dispatch(new FrameworkGuiEvent(ModuleName.Agent,
+				"TicksEvent", 0));
+		assertTrue(listener.started.await(1, TimeUnit.SECONDS));
+		for (int i = 1; i <= 5; i++) {
+			dispatcher.dispatch(new FrameworkGuiEvent(ModuleName.Agent,
+					"TicksEvent", i));
+		}
+		assertEquals(4, dispatcher.getCoalescedCount());
+		assertEquals(1, dispatcher.getPendingCount());
+
+		listener.release.countDown();
+		waitForDelivery(2);
+		assertEquals(2, listener.contents.size());
+		assertEquals(0, listener.contents.get(0));
+		assertEquals(5, listener.contents.get(1));
+	}
+
+	@Test
+	public void testDropOldest() throws Exception {
+		dispatcher.dispatch(new FrameworkGuiEvent(ModuleName.Agent, "a", 0));
+		assertTrue(listener.started.await(1, TimeUnit.SECONDS));
+		dispatcher.dispatch(new FrameworkGuiEvent(ModuleName.Agent, "b", 1));
+		dispatcher.dispatch(new FrameworkGuiEvent(ModuleName.Agent, "c", 2));
+		dispatcher.dispatch(new FrameworkGuiEvent(ModuleName.Agent, "d", 3));
+		assertEquals(1, dispatcher.getDroppedCount());
+
+		listener.release.countDown();
+		waitForDelivery(3);
+		assertEquals(3, listener.contents.size());
+		assertEquals(0, listener.contents.get(0));
+		assertEquals(2, listener.contents.get(1));
+		assertEquals(3, listener.contents.get(2));
+	}
+
+	@Test
+	public void testTickOfEvent() throws Exception {
+		listener.release.countDown();
+		dispatcher.dispatch(new FrameworkGuiEvent(ModuleName.Agent, "a", 0, 7));
+		waitForDelivery(1);
+		assertEquals(1, listener.ticks.size());
+		assertEquals(7L, listener.ticks.get(0).longValue());
+	}
+
+	@Test
+	public void testShutdown() throws Exception {
+		dispatcher.shutdown();
+		dispatcher.dispatch(new FrameworkGuiEvent(ModuleName.Agent, "a", 0));
+		assertEquals(0, dispatcher.getPendingCount());
+	}
+
+	private void waitForDelivery(long count) throws InterruptedException {
+		for (int i = 0; i < 100 && dispatcher.getDeliveredCount() < count; i++) {
+			Thread.sleep(10);
+		}
+	}
+
+	/*
+	 * Listener that blocks on the first event until released
+	 */
+	private static class BlockingListener implements
+			FrameworkGuiEventListener {
+
+		final List<Object> contents = new CopyOnWriteArrayList<Object>();
+		final List<Long> ticks = new CopyOnWriteArrayList<Long>();
+		final CountDownLatch started = new CountDownLatch(1);
+		final CountDownLatch release = new CountDownLatch(1);
+
+		@Override
+		public void receiveFrameworkGuiEvent(FrameworkGuiEvent event) {
+			contents.add(event.getContent());
+			ticks.add(event.getTick());
+			started.countDown();
+			try {
+				release.await();
+			} catch (InterruptedException e) {
+			}
+		}
+	}
+}
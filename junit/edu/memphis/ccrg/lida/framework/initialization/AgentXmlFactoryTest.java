@@ -36,6 +36,7 @@ import edu.memphis.ccrg.lida.framework.mockclasses.MockInitializer2;
 import edu.memphis.ccrg.lida.framework.mockclasses.MockTaskSpawner;
 import edu.memphis.ccrg.lida.framework.shared.ElementFactory;
 import edu.memphis.ccrg.lida.framework.shared.NodeStructure;
+import edu.memphis.ccrg.lida.framework.tasks.ExecutorType;
 import edu.memphis.ccrg.lida.framework.tasks.MockFrameworkTask;
 import edu.memphis.ccrg.lida.framework.tasks.TaskManager;
 import edu.memphis.ccrg.lida.framework.tasks.TaskSpawner;
@@ -106,7 +107,24 @@ public class AgentXmlFactoryTest {
 		tm = factory.getTaskManager(docEle);
 		assertTrue(tm != null);
 		assertEquals(1, tm.getTickDuration());
+		assertEquals(TaskManager.DEFAULT_TICKS_PER_BATCH, tm.getTicksPerBatch());
 
+		xml = "	<lida><taskmanager> \n"
+				+ "<param name=\"taskManager.ticksPerBatch\" type=\"int\">500 </param> \n"
+				+ "</taskmanager></lida>";
+
+		docEle = parseDomElement(xml);
+		tm = factory.getTaskManager(docEle);
+		assertEquals(500, tm.getTicksPerBatch());
+		assertEquals(ExecutorType.THREAD_POOL, tm.getExecutorType());
+
+		xml = "	<lida><taskmanager> \n"
+				+ "<param name=\"taskManager.executor\">fork_join</param> \n"
+				+ "</taskmanager></lida>";
+
+		docEle = parseDomElement(xml);
+		tm = factory.getTaskManager(docEle);
+		assertEquals(ExecutorType.FORK_JOIN, tm.getExecutorType());
 	}
 
 	@Test
@@ -31,6 +31,11 @@ public class ExecutingMockTaskSpawner extends TaskSpawnerImpl implements
 		}
 	}
 
+	@Override
+	public void addRecurringTask(FrameworkTask task) {
+		addTask(task);
+	}
+
 	@Override
 	public boolean cancelTask(FrameworkTask task) {
 		return tasks.remove(task);
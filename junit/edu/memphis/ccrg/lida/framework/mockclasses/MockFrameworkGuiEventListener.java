@@ -9,7 +9,6 @@ package edu.memphis.ccrg.lida.framework.mockclasses;
 
 import edu.memphis.ccrg.lida.framework.gui.events.FrameworkGuiEvent;
 import edu.memphis.ccrg.lida.framework.gui.events.FrameworkGuiEventListener;
-import edu.memphis.ccrg.lida.framework.tasks.TaskManager;
 
 public class MockFrameworkGuiEventListener implements FrameworkGuiEventListener {
 
@@ -19,7 +18,7 @@ public class MockFrameworkGuiEventListener implements FrameworkGuiEventListener
 	@Override
 	public void receiveFrameworkGuiEvent(FrameworkGuiEvent event) {
 		this.event = event;
-		tick = TaskManager.getCurrentTick();
+		tick = event.getTick();
 	}
 
 }
@@ -26,6 +26,11 @@ public class MockTaskSpawner extends TaskSpawnerImpl implements TaskSpawner {
 		task.setControllingTaskSpawner(this);
 	}
 
+	@Override
+	public void addRecurringTask(FrameworkTask task) {
+		addTask(task);
+	}
+
 	@Override
 	public boolean cancelTask(FrameworkTask task) {
 		return tasks.remove(task);
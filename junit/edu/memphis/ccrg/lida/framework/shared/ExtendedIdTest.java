@@ -11,6 +11,9 @@ import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
 
+import java.util.HashSet;
+import java.util.Set;
+
 import org.junit.Test;
 
 /**
@@ -174,4 +177,25 @@ public class ExtendedIdTest {
 		assertFalse(complex.isNodeId());
 	}
 
+	@Test
+	public void testHashSpread() {
+		// swapped source and sink
+		ExtendedId ab = new ExtendedId(1, new ExtendedId(2), category1);
+		ExtendedId ba = new ExtendedId(2, new ExtendedId(1), category1);
+		assertDifferentHashCodeEquals(ab, ba);
+
+		// all links among a block of nodes with a few categories
+		Set<Integer> hashes = new HashSet<Integer>();
+		int count = 0;
+		for (int cat = 0; cat < 4; cat++) {
+			for (int src = 0; src < 64; src++) {
+				for (int snk = 0; snk < 64; snk++) {
+					hashes.add(new ExtendedId(src, new ExtendedId(snk), cat).hashCode());
+					count++;
+				}
+			}
+		}
+		assertTrue(hashes.size() > count * 0.99);
+	}
+
 }
@@ -0,0 +1,106 @@
+/*******************************************************************************
+ * Copyright (c) 2009, 2011 The University of Memphis.  All rights reserved. 
+ * This program and the accompanying materials are made available 
+ * under the terms of the LIDA Software Framework Non-Commercial License v1.0 
+ * which accompanies this distribution, and is available at
+ * http://ccrg.cs.memphis.edu/assets/papers/2010/LIDA-framework-non-commercial-v1.0.pdf
+ *******************************************************************************/
+package edu.memphis.ccrg.lida.framework.shared;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests {@link IntNodeMap}
+ */
+public class IntNodeMapTest {
+
+	private IntNodeMap map;
+
+	@Before
+	public void setUp() throws Exception {
+		map = new IntNodeMap();
+	}
+
+	private static Node newNode(int id) {
+		Node n = new NodeImpl();
+		n.setId(id);
+		return n;
+	}
+
+	@Test
+	public void testPutGetRemove() {
+		Node n = newNode(7);
+		map.put(n);
+		assertSame(n, map.get(7));
+		assertTrue(map.containsKey(7));
+		assertNull(map.get(8));
+		assertEquals(1, map.size());
+
+		Node n2 = newNode(7);
+		map.put(n2);
+		assertSame(n2, map.get(7));
+		assertEquals(1, map.size());
+
+		assertSame(n2, map.remove(7));
+		assertNull(map.get(7));
+		assertNull(map.remove(7));
+		assertEquals(0, map.size());
+
+		map.put(n);
+		assertSame(n, map.get(7));
+		assertEquals(1, map.size());
+	}
+
+	@Test
+	public void testEmptyKeyId() {
+		Node n = newNode(Integer.MIN_VALUE);
+		map.put(n);
+		map.put(newNode(0));
+		assertSame(n, map.get(Integer.MIN_VALUE));
+		assertEquals(2, map.size());
+		assertEquals(2, map.values().size());
+		assertSame(n, map.remove(Integer.MIN_VALUE));
+		assertFalse(map.containsKey(Integer.MIN_VALUE));
+		assertEquals(1, map.size());
+	}
+
+	@Test
+	public void testResize() {
+		int count = 10000;
+		for (int i = 0; i < count; i++) {
+			map.put(newNode(i * 31));
+		}
+		for (int i = 0; i < count; i += 2) {
+			map.remove(i * 31);
+		}
+		assertEquals(count / 2, map.size());
+		for (int i = 0; i < count; i++) {
+			assertEquals(i % 2 == 1, map.containsKey(i * 31));
+		}
+		Set<Integer> ids = new HashSet<Integer>();
+		for (Node n : map.values()) {
+			ids.add(n.getId());
+		}
+		assertEquals(count / 2, ids.size());
+	}
+
+	@Test
+	public void testClear() {
+		map.put(newNode(1));
+		map.put(newNode(Integer.MIN_VALUE));
+		map.clear();
+		assertEquals(0, map.size());
+		assertFalse(map.values().iterator().hasNext());
+		assertNull(map.get(1));
+	}
+}
@@ -0,0 +1,111 @@
+/*******************************************************************************
+ * Copyright (c) 2009, 2011 The University of Memphis.  All rights reserved. 
+ * This program and the accompanying materials are made available 
+ * under the terms of the LIDA Software Framework Non-Commercial License v1.0 
+ * which accompanies this distribution, and is available at
+ * http://ccrg.cs.memphis.edu/assets/papers/2010/LIDA-framework-non-commercial-v1.0.pdf
+ *******************************************************************************/
+package edu.memphis.ccrg.lida.framework.shared;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+
+/**
+ * Measures the node lookup latency and the bytes allocated per lookup of a
+ * {@link NodeStructureImpl} with each node storage. Lookups cycle over the ids
+ * of the stored nodes, and one in four misses. Allocated bytes are only
+ * reported on JVMs that count them per thread.
+ * <p>
+ * Usage: NodeStructureBenchmark [nodes] [lookups] [rounds]
+ * 
+ * @see NodeStructureImpl#setIntKeyedNodes(boolean)
+ */
+public class NodeStructureBenchmark {
+
+	private static final int DEFAULT_NODES = 10000;
+	private static final int DEFAULT_LOOKUPS = 10000000;
+	private static final int DEFAULT_ROUNDS = 5;
+
+	private static volatile Object sink;
+
+	/**
+	 * Runs the benchmark and prints the lookup latency and allocation of each
+	 * storage, best of the rounds.
+	 * 
+	 * @param args
+	 *            nodes, lookups per round, rounds
+	 */
+	public static void main(String[] args) {
+		int nodes = (args.length > 0) ? Integer.parseInt(args[0])
+				: DEFAULT_NODES;
+		int lookups = (args.length > 1) ? Integer.parseInt(args[1])
+				: DEFAULT_LOOKUPS;
+		int rounds = (args.length > 2) ? Integer.parseInt(args[2])
+				: DEFAULT_ROUNDS;
+		System.out.println("storage\tnodes\tns/lookup\tbytes/lookup");
+		for (boolean intKeyed : new boolean[] { false, true }) {
+			double[] best = { Double.MAX_VALUE, Double.MAX_VALUE };
+			for (int r = 0; r < rounds; r++) {
+				double[] result = run(intKeyed, nodes, lookups);
+				best[0] = Math.min(best[0], result[0]);
+				best[1] = Math.min(best[1], result[1]);
+			}
+			System.out.printf("%s\t%d\t%.2f\t%.2f%n", intKeyed ? "int"
+					: "hash", nodes, best[0], best[1]);
+		}
+	}
+
+	/**
+	 * Fills a NodeStructure with specified storage then looks up its nodes.
+	 * 
+	 * @param intKeyed
+	 *            true for int-keyed node storage
+	 * @param nodes
+	 *            number of nodes added
+	 * @param lookups
+	 *            number of lookups
+	 * @return the nanoseconds per lookup and the bytes allocated per lookup, -1
+	 *         if allocation is not measured
+	 */
+	public static double[] run(boolean intKeyed, int nodes, int lookups) {
+		ElementFactory factory = ElementFactory.getInstance();
+		NodeStructureImpl ns = new NodeStructureImpl(factory
+				.getDefaultNodeType(), factory.getDefaultLinkType(), intKeyed);
+		int[] ids = new int[nodes + nodes / 3];
+		for (int i = 0; i < nodes; i++) {
+			ids[i] = ns.addDefaultNode("n" + i, 0.5, 0.0).getId();
+		}
+		for (int i = nodes; i < ids.length; i++) {
+			ids[i] = -1 - i;
+		}
+		long startBytes = getAllocatedBytes();
+		long start = System.nanoTime();
+		Node last = null;
+		for (int i = 0; i < lookups; i++) {
+			Node n = ns.getNode(ids[i % ids.length]);
+			if (n != null) {
+				last = n;
+			}
+		}
+		long elapsed = System.nanoTime() - start;
+		long bytes = getAllocatedBytes() - startBytes;
+		sink = last;
+		return new double[] { (double) elapsed / lookups,
+				(startBytes < 0) ? -1.0 : (double) bytes / lookups };
+	}
+
+	/*
+	 * Bytes allocated by the current thread or -1 if not supported
+	 */
+	private static long getAllocatedBytes() {
+		ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+		if (bean instanceof com.sun.management.ThreadMXBean) {
+			com.sun.management.ThreadMXBean b = (com.sun.management.ThreadMXBean) bean;
+			if (b.isThreadAllocatedMemorySupported()
+					&& b.isThreadAllocatedMemoryEnabled()) {
+				return b.getThreadAllocatedBytes(Thread.currentThread().getId());
+			}
+		}
+		return -1L;
+	}
+}
@@ -7,9 +7,13 @@
  *******************************************************************************/
 package edu.memphis.ccrg.lida.framework.shared;
 
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 
 import java.util.Collection;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -160,4 +164,76 @@ public class NodeStructureConcurrencyTest {
 			}
 		}
 	}
+
+	@Test
+	public void lockStripingTest() throws Exception {
+		final NodeStructureImpl ns = new NodeStructureImpl();
+		ns.setLockStriping(true);
+		assertTrue(ns.isLockStriping());
+		final Node[] pool = new Node[50];
+		for (int i = 0; i < pool.length; i++) {
+			pool[i] = ns.addDefaultNode(factory.getNode());
+		}
+		final AtomicReference<Throwable> error = new AtomicReference<Throwable>();
+		Thread[] threads = new Thread[8];
+		for (int i = 0; i < threads.length; i++) {
+			final long seed = i;
+			threads[i] = new Thread(new Runnable() {
+				@Override
+				public void run() {
+					Random r = new Random(seed);
+					try {
+						for (int j = 0; j < 5000; j++) {
+							Node src = pool[r.nextInt(pool.length)];
+							Node snk = pool[r.nextInt(pool.length)];
+							switch (r.nextInt(10)) {
+							case 0:
+								ns.addDefaultNode(src);
+								break;
+							case 1:
+								Link l = ns.addDefaultLink(src.getId(), snk.getId(), category1, 0.5, 0.0);
+								Node other = pool[r.nextInt(pool.length)];
+								if (l != null) {
+									ns.addDefaultLink(other, l, category2, 0.5, 0.0);
+								}
+								break;
+							case 2:
+								if (r.nextInt(10) == 0) {
+									ns.removeNode(src);
+								}
+								break;
+							case 3:
+								ns.getConnectedSinks(src);
+								break;
+							default:
+								ns.addDefaultLink(src.getId(), snk.getId(), category2, 0.5, 0.0);
+								break;
+							}
+						}
+					} catch (Throwable t) {
+						error.compareAndSet(null, t);
+					}
+				}
+			});
+		}
+		for (Thread t : threads) {
+			t.start();
+		}
+		for (Thread t : threads) {
+			t.join();
+		}
+		assertNull(error.get());
+
+		for (Link l : ns.getLinks()) {
+			assertTrue(ns.containsNode(l.getSource()));
+			assertTrue(ns.containsLinkable(l.getSink()));
+			assertTrue(ns.getAttachedLinks(l.getSource()).contains(l));
+			assertTrue(ns.getAttachedLinks(l.getSink()).contains(l));
+		}
+		for (Linkable lnk : ns.getLinkables()) {
+			for (Link l : ns.getAttachedLinks(lnk)) {
+				assertTrue(ns.containsLink(l));
+			}
+		}
+	}
 }
@@ -28,7 +28,9 @@ import org.junit.Test;
 import edu.memphis.ccrg.lida.framework.initialization.AgentStarter;
 import edu.memphis.ccrg.lida.framework.initialization.ConfigUtils;
 import edu.memphis.ccrg.lida.framework.initialization.FactoriesDataXmlLoader;
+import edu.memphis.ccrg.lida.framework.shared.activation.ActivatibleImpl;
 import edu.memphis.ccrg.lida.framework.strategies.LinearDecayStrategy;
+import edu.memphis.ccrg.lida.framework.tasks.ChangeSignal;
 import edu.memphis.ccrg.lida.pam.PamLink;
 import edu.memphis.ccrg.lida.pam.PamLinkImpl;
 import edu.memphis.ccrg.lida.pam.PamLinkImplSubclass;
@@ -1281,6 +1283,85 @@ public class NodeStructureImplTest {
 		assertTrue(ns2.getAttachedLinks(node5).size() == 1);
 	}
 
+	/**
+	 * {@link NodeStructureImpl#mergeWith(NodeStructure)} updates present
+	 * elements only with a higher activation
+	 */
+	@Test
+	public void testMergeActivation() {
+		ns1.addDefaultNode(node1);
+		ns1.addDefaultNode(node2);
+		ns1.addDefaultLink(node1.getId(), node2.getId(), category1, 0.5, 0.0);
+		ns1.getNode(node1.getId()).setActivation(0.5);
+
+		ns2.addDefaultNode(node1);
+		ns2.addDefaultNode(node2);
+		Link l = ns2.addDefaultLink(node1.getId(), node2.getId(), category1, 0.5, 0.0);
+		Node n1 = ns2.getNode(node1.getId());
+		Node n2 = ns2.getNode(node2.getId());
+		n1.setActivation(0.8);
+		n2.setActivation(0.1);
+		l.setActivation(0.9);
+
+		ns1.setLockStriping(true);
+		ns1.mergeWith(ns2);
+		assertEquals(2, ns1.getNodeCount());
+		assertEquals(1, ns1.getLinkCount());
+		assertEquals(0.8, ns1.getNode(node1.getId()).getActivation(), epsilon);
+		assertEquals(node2.getActivation(), ns1.getNode(node2.getId()).getActivation(), epsilon);
+		assertEquals(0.9, ns1.getLink(l.getExtendedId()).getActivation(), epsilon);
+
+		// merging again leaves the merged elements unchanged
+		ns1.mergeWith(ns2);
+		ns1.mergeWith(ns1);
+		assertTrue(NodeStructureImpl.compareNodeStructures(ns1, new NodeStructureImpl(ns1)));
+		assertEquals(0.8, ns1.getNode(node1.getId()).getActivation(), epsilon);
+	}
+
+	/**
+	 * {@link NodeStructureImpl#mergeWith(NodeStructure)} updates the
+	 * base-level activation of a present {@link PamNode} whose activation is
+	 * unchanged
+	 */
+	@Test
+	public void testMergeBaseLevelActivation() {
+		PamNode pn1 = (PamNode) ns1.addNode("PamNodeImpl", "pn", 0.5, 0.0);
+		PamNode pn2 = (PamNode) ns2.addNode(pn1, "PamNodeImpl");
+		pn1.setBaseLevelActivation(0.2);
+		pn2.setBaseLevelActivation(0.7);
+		assertEquals(pn1.getActivation(), pn2.getActivation(), epsilon);
+
+		ns1.mergeWith(ns2);
+		PamNode merged = (PamNode) ns1.getNode(pn1.getId());
+		assertEquals(0.7, merged.getBaseLevelActivation(), epsilon);
+		assertEquals(0.5, merged.getActivation(), epsilon);
+	}
+
+	/**
+	 * {@link NodeStructureImpl#mergeWith(NodeStructure)} into int-keyed
+	 * storage grown once for the batch
+	 */
+	@Test
+	public void testMergeIntKeyed() {
+		NodeStructureImpl source = new NodeStructureImpl();
+		Node previous = null;
+		for (int i = 0; i < 100; i++) {
+			Node n = source.addDefaultNode(factory.getNode());
+			if (previous != null) {
+				source.addDefaultLink(previous, n, category1, 0.5, 0.0);
+			}
+			previous = n;
+		}
+		ns1.setIntKeyedNodes(true);
+		ns1.addDefaultNode(node1);
+		ns1.mergeWith(source);
+		assertEquals(101, ns1.getNodeCount());
+		assertEquals(99, ns1.getLinkCount());
+		for (Node n : source.getNodes()) {
+			assertTrue(ns1.containsNode(n));
+		}
+	}
+
 	/**
 	 * {@link NodeStructureImpl#mergeWith(NodeStructure)}
 	 */
@@ -1430,6 +1511,87 @@ public class NodeStructureImplTest {
 		assertFalse(ns.containsLink(storedLink));
 	}
 
+	/**
+	 * {@link NodeStructureImpl#setLazyDecay(boolean)}
+	 */
+	@Test
+	public void testLazyDecayNodeStructure() {
+		NodeStructureImpl ns = new NodeStructureImpl();
+		ns.setLazyDecay(true);
+		assertTrue(ns.isLazyDecay());
+
+		node1.setDecayStrategy(new LinearDecayStrategy());
+		node1.setActivatibleRemovalThreshold(0.05);
+		node1.setActivation(0.1);
+		Node storedNode1 = ns.addDefaultNode(node1);
+		assertTrue(((ActivatibleImpl) storedNode1).isLazyDecay());
+
+		// Elements are not swept, only checked at their expiry tick
+		ns.decayNodeStructure(3);
+		assertTrue(ns.containsNode(storedNode1));
+		assertEquals(0.1, storedNode1.getActivation(), 0.00001);
+
+		ns.setLazyDecay(false);
+		assertFalse(((ActivatibleImpl) storedNode1).isLazyDecay());
+		ns.decayNodeStructure(3);
+		assertFalse(ns.containsNode(storedNode1));
+	}
+
+	@Test
+	public void testChangeSignal() {
+		ChangeSignal signal = ns1.getChangeSignal();
+		assertSame(signal, ns1.getChangeSignal());
+		assertEquals(0, signal.getVersion());
+
+		ns1.addDefaultNode(node1);
+		ns1.addDefaultNode(node2);
+		long version = signal.getVersion();
+		assertEquals(2, version);
+
+		// Updating an existing node does not change the structure
+		ns1.addDefaultNode(node1);
+		ns1.getNode(node1.getId()).setActivation(0.9);
+		assertEquals(version, signal.getVersion());
+
+		ns1.addDefaultLink(link1);
+		assertTrue(signal.getVersion() > version);
+		version = signal.getVersion();
+
+		ns1.removeNode(node1);
+		assertTrue(signal.getVersion() > version);
+		version = signal.getVersion();
+
+		ns1.clearNodeStructure();
+		assertTrue(signal.getVersion() > version);
+	}
+
+	@Test
+	public void testIntKeyedNodes() {
+		assertFalse(ns1.isIntKeyedNodes());
+		ns1.addDefaultNode(node1);
+		ns1.addDefaultNode(node2);
+		ns1.addDefaultLink(link1);
+
+		ns1.setIntKeyedNodes(true);
+		assertTrue(ns1.isIntKeyedNodes());
+		assertEquals(2, ns1.getNodeCount());
+		assertTrue(ns1.containsNode(node1.getId()));
+		assertTrue(ns1.containsLink(link1));
+
+		ns1.addDefaultNode(node3);
+		assertEquals(3, ns1.getNodeCount());
+		ns1.removeNode(node1);
+		assertFalse(ns1.containsNode(node1));
+		assertFalse(ns1.containsLink(link1));
+
+		NodeStructureImpl copy = (NodeStructureImpl) ns1.copy();
+		assertTrue(copy.isIntKeyedNodes());
+		assertTrue(NodeStructureImpl.compareNodeStructures(ns1, copy));
+
+		NodeStructure created = factory.getNodeStructure(factory.getDefaultNodeType(), factory.getDefaultLinkType(), true);
+		assertTrue(((NodeStructureImpl) created).isIntKeyedNodes());
+	}
+
 	/**
 	 * {@link NodeStructureImpl#decayNodeStructure(long)}
 	 */
@@ -0,0 +1,158 @@
+/*******************************************************************************
+ * Copyright (c) 2009, 2011 The University of Memphis.  All rights reserved. 
+ * This program and the accompanying materials are made available 
+ * under the terms of the LIDA Software Framework Non-Commercial License v1.0 
+ * which accompanies this distribution, and is available at
+ * http://ccrg.cs.memphis.edu/assets/papers/2010/LIDA-framework-non-commercial-v1.0.pdf
+ *******************************************************************************/
+package edu.memphis.ccrg.lida.framework.shared;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import org.junit.Test;
+
+/**
+ * Tests {@link PersistentHashMap}
+ */
+public class PersistentHashMapTest {
+
+	/*
+	 * Key whose hash is its value modulo 8, so keys collide
+	 */
+	private static class Key {
+		private final int value;
+
+		public Key(int value) {
+			this.value = value;
+		}
+
+		@Override
+		public boolean equals(Object o) {
+			return (o instanceof Key) && ((Key) o).value == value;
+		}
+
+		@Override
+		public int hashCode() {
+			return value % 8;
+		}
+	}
+
+	@Test
+	public void testPlusMinus() {
+		PersistentHashMap<Integer, String> empty = PersistentHashMap.empty();
+		PersistentHashMap<Integer, String> m1 = empty.plus(1, "a");
+		PersistentHashMap<Integer, String> m2 = m1.plus(2, "b");
+		assertEquals(0, empty.size());
+		assertEquals(1, m1.size());
+		assertEquals(2, m2.size());
+		assertNull(m1.get(2));
+		assertEquals("b", m2.get(2));
+
+		PersistentHashMap<Integer, String> m3 = m2.plus(1, "c");
+		assertEquals("a", m2.get(1));
+		assertEquals("c", m3.get(1));
+		assertEquals(2, m3.size());
+		assertSame(m3, m3.plus(1, m3.get(1)));
+
+		PersistentHashMap<Integer, String> m4 = m3.minus(1);
+		assertFalse(m4.containsKey(1));
+		assertTrue(m3.containsKey(1));
+		assertEquals(1, m4.size());
+		assertSame(m4, m4.minus(7));
+		assertTrue(m4.minus(2).isEmpty());
+	}
+
+	@Test
+	public void testAgainstHashMap() {
+		Random r = new Random(1);
+		Map<Integer, Integer> expected = new HashMap<Integer, Integer>();
+		PersistentHashMap<Integer, Integer> m = PersistentHashMap.empty();
+		for (int i = 0; i < 20000; i++) {
+			int k = r.nextInt(3000) - 1500;
+			if (r.nextInt(3) == 0) {
+				expected.remove(k);
+				m = m.minus(k);
+			} else {
+				expected.put(k, i);
+				m = m.plus(k, i);
+			}
+		}
+		assertEquals(expected.size(), m.size());
+		for (int k = -1500; k < 1500; k++) {
+			assertEquals(expected.get(k), m.get(k));
+		}
+		int count = 0;
+		for (Map.Entry<Integer, Integer> e : m) {
+			assertEquals(expected.get(e.getKey()), e.getValue());
+			count++;
+		}
+		assertEquals(expected.size(), count);
+	}
+
+	@Test
+	public void testCollisions() {
+		PersistentHashMap<Key, Integer> m = PersistentHashMap.empty();
+		for (int i = 0; i < 64; i++) {
+			m = m.plus(new Key(i), i);
+		}
+		assertEquals(64, m.size());
+		for (int i = 0; i < 64; i++) {
+			assertEquals(Integer.valueOf(i), m.get(new Key(i)));
+		}
+		for (int i = 0; i < 64; i += 2) {
+			m = m.minus(new Key(i));
+		}
+		assertEquals(32, m.size());
+		assertEquals(32, m.values().size());
+		for (int i = 0; i < 64; i++) {
+			assertEquals(i % 2 == 1, m.containsKey(new Key(i)));
+		}
+	}
+
+	@Test
+	public void testBuilder() {
+		Random r = new Random(2);
+		Map<Integer, Integer> expected = new HashMap<Integer, Integer>();
+		PersistentHashMap.Builder<Integer, Integer> b = new PersistentHashMap.Builder<Integer, Integer>(4);
+		for (int i = 0; i < 5000; i++) {
+			int k = r.nextInt(3000) - 1500;
+			expected.put(k, i);
+			b.put(k, i);
+		}
+		PersistentHashMap<Integer, Integer> m = b.build();
+		assertEquals(expected.size(), m.size());
+		for (int k = -1500; k < 1500; k++) {
+			assertEquals(expected.get(k), m.get(k));
+		}
+		// the built trie supports the path copying operations
+		PersistentHashMap<Integer, Integer> m2 = m.plus(5000, 1).minus(
+				expected.keySet().iterator().next());
+		assertEquals(expected.size(), m2.size());
+		assertTrue(new PersistentHashMap.Builder<Integer, Integer>(0).build()
+				.isEmpty());
+	}
+
+	@Test
+	public void testBuilderCollisions() {
+		PersistentHashMap.Builder<Key, Integer> b = new PersistentHashMap.Builder<Key, Integer>(8);
+		for (int i = 0; i < 64; i++) {
+			b.put(new Key(i), i);
+		}
+		b.put(new Key(3), 100);
+		PersistentHashMap<Key, Integer> m = b.build();
+		assertEquals(64, m.size());
+		assertEquals(Integer.valueOf(100), m.get(new Key(3)));
+		assertEquals(Integer.valueOf(63), m.get(new Key(63)));
+		m = m.minus(new Key(3));
+		assertEquals(63, m.size());
+		assertFalse(m.containsKey(new Key(3)));
+	}
+}
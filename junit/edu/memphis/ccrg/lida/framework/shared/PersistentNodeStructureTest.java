@@ -0,0 +1,115 @@
+/*******************************************************************************
+ * Copyright (c) 2009, 2011 The University of Memphis.  All rights reserved. 
+ * This program and the accompanying materials are made available 
+ * under the terms of the LIDA Software Framework Non-Commercial License v1.0 
+ * which accompanies this distribution, and is available at
+ * http://ccrg.cs.memphis.edu/assets/papers/2010/LIDA-framework-non-commercial-v1.0.pdf
+ *******************************************************************************/
+package edu.memphis.ccrg.lida.framework.shared;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import edu.memphis.ccrg.lida.pam.PerceptualAssociativeMemoryImpl;
+
+/**
+ * Tests {@link PersistentNodeStructure}
+ */
+public class PersistentNodeStructureTest {
+
+	private ElementFactory factory = ElementFactory.getInstance();
+	private NodeStructureImpl ns;
+	private Node n1, n2, n3;
+	private Link l1, l2;
+	private LinkCategory category = PerceptualAssociativeMemoryImpl.DEFAULT_LINK_CATEGORY;
+
+	@Before
+	public void setUp() throws Exception {
+		ns = new NodeStructureImpl();
+		n1 = ns.addDefaultNode(factory.getNode());
+		n2 = ns.addDefaultNode(factory.getNode());
+		n3 = ns.addDefaultNode(factory.getNode());
+		l1 = ns.addDefaultLink(n1, n2, category, 0.5, 0.0);
+		l2 = ns.addDefaultLink(n3, l1, category, 0.5, 0.0);
+	}
+
+	@Test
+	public void testSnapshot() {
+		PersistentNodeStructure p = PersistentNodeStructure.snapshot(ns);
+		assertTrue(NodeStructureImpl.compareNodeStructures(ns, p));
+		assertEquals(3, p.getNodeCount());
+		assertEquals(2, p.getLinkCount());
+		assertEquals(1, p.getAttachedLinks(p.getLink(l1.getExtendedId())).size());
+		assertTrue(p.getAttachedLinks(p.getNode(n1.getId())).contains(l1));
+		assertSame(p.getNode(n1.getId()), p.getLink(l1.getExtendedId())
+				.getSource());
+		assertSame(p.getLink(l1.getExtendedId()), p.getLink(
+				l2.getExtendedId()).getSink());
+
+		// the snapshot holds copies and does not follow the original
+		assertNotSame(n1, p.getNode(n1.getId()));
+		ns.removeNode(n1);
+		assertTrue(p.containsNode(n1));
+		assertTrue(p.containsLink(l2));
+
+		assertSame(p, p.copy());
+		assertSame(p, PersistentNodeStructure.snapshot(p));
+	}
+
+	@Test
+	public void testStructuralSharing() {
+		PersistentNodeStructure p = PersistentNodeStructure.snapshot(ns);
+		Node n4 = factory.getNode();
+		PersistentNodeStructure p2 = p.withNode(n4);
+		assertTrue(p2.containsNode(n4));
+		assertFalse(p.containsNode(n4));
+		assertSame(p2, p2.withNode(n4));
+
+		Link l3 = factory.getLink(p2.getNode(n4.getId()), p2.getNode(n2.getId()), category);
+		PersistentNodeStructure p3 = p2.withLink(l3);
+		assertTrue(p3.containsLink(l3));
+		assertFalse(p2.containsLink(l3));
+		assertEquals(2, p3.getConnectedSources(p3.getNode(n2.getId())).size());
+
+		// removing n1 removes l1 and the link to l1
+		PersistentNodeStructure p4 = p3.without(p3.getNode(n1.getId()));
+		assertFalse(p4.containsNode(n1));
+		assertFalse(p4.containsLink(l1));
+		assertFalse(p4.containsLink(l2));
+		assertTrue(p4.containsLink(l3));
+		assertEquals(1, p4.getAttachedLinks(p4.getNode(n2.getId())).size());
+		assertEquals(0, p4.getAttachedLinks(p4.getNode(n3.getId())).size());
+		assertTrue(p3.containsLink(l2));
+	}
+
+	@Test
+	public void testInvalidLink() {
+		PersistentNodeStructure p = PersistentNodeStructure.snapshot(ns);
+		Link l = factory.getLink(factory.getNode(), n2, category);
+		assertSame(p, p.withLink(l));
+		assertNull(p.getAttachedLinks(factory.getNode()));
+	}
+
+	@Test
+	public void testUnmodifiable() {
+		PersistentNodeStructure p = PersistentNodeStructure.snapshot(ns);
+		try {
+			p.addDefaultNode(factory.getNode());
+			fail();
+		} catch (UnsupportedOperationException e) {
+		}
+		try {
+			p.decayNodeStructure(1);
+			fail();
+		} catch (UnsupportedOperationException e) {
+		}
+	}
+}
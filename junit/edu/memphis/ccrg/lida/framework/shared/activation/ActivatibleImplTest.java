@@ -171,4 +171,21 @@ public class ActivatibleImplTest {
 		assertFalse(act1.isRemovable());
 	}
 
+	@Test
+	public void testLazyDecay() {
+		act1.setDecayStrategy(new LinearDecayStrategy());
+		act1.setActivation(0.5);
+		assertFalse(act1.isLazyDecay());
+		act1.setLazyDecay(true);
+		assertTrue(act1.isLazyDecay());
+
+		// Sweep decay has no effect, decay is applied when the tick advances
+		act1.decay(3);
+		assertEquals(0.5, act1.getActivation(), 0.00001);
+
+		act1.setLazyDecay(false);
+		act1.decay(3);
+		assertEquals(0.2, act1.getActivation(), 0.00001);
+	}
+
 }
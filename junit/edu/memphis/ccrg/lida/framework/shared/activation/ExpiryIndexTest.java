@@ -0,0 +1,100 @@
+/*******************************************************************************
+ * Copyright (c) 2009, 2011 The University of Memphis.  All rights reserved. 
+ * This program and the accompanying materials are made available 
+ * under the terms of the LIDA Software Framework Non-Commercial License v1.0 
+ * which accompanies this distribution, and is available at
+ * http://ccrg.cs.memphis.edu/assets/papers/2010/LIDA-framework-non-commercial-v1.0.pdf
+ *******************************************************************************/
+package edu.memphis.ccrg.lida.framework.shared.activation;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.List;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import edu.memphis.ccrg.lida.framework.strategies.LinearDecayStrategy;
+
+public class ExpiryIndexTest {
+
+	private ExpiryIndex<Activatible> index;
+	private ActivatibleImpl a1;
+	private ActivatibleImpl a2;
+
+	@Before
+	public void setUp() throws Exception {
+		index = new ExpiryIndex<Activatible>();
+		a1 = newActivatible(0.5);
+		a2 = newActivatible(1.0);
+	}
+
+	private ActivatibleImpl newActivatible(double activation) {
+		ActivatibleImpl a = new ActivatibleImpl();
+		a.setDecayStrategy(new LinearDecayStrategy());
+		a.setIncentiveSalienceDecayStrategy(new LinearDecayStrategy());
+		a.setActivatibleRemovalThreshold(0.05);
+		a.setActivation(activation);
+		a.setIncentiveSalience(0.0);
+		return a;
+	}
+
+	@Test
+	public void testGetTicksUntilRemovable() {
+		assertEquals(5, ExpiryIndex.getTicksUntilRemovable(a1, 100));
+		assertEquals(10, ExpiryIndex.getTicksUntilRemovable(a2, 100));
+		assertEquals(3, ExpiryIndex.getTicksUntilRemovable(a2, 3));
+		a1.setActivation(0.0);
+		assertEquals(0, ExpiryIndex.getTicksUntilRemovable(a1, 100));
+	}
+
+	@Test
+	public void testUpdate() {
+		index.update(a1, 10);
+		index.update(a2, 10);
+		assertEquals(2, index.size());
+		assertEquals(15L, (long) index.getExpiryTick(a1));
+		assertEquals(20L, (long) index.getExpiryTick(a2));
+
+		a1.setActivation(1.0);
+		index.update(a1, 12);
+		assertEquals(2, index.size());
+		assertEquals(22L, (long) index.getExpiryTick(a1));
+	}
+
+	@Test
+	public void testPollRemovable() {
+		index.update(a1, 0);
+		index.update(a2, 0);
+		assertTrue(index.pollRemovable(4).isEmpty());
+
+		a1.setActivation(0.0);
+		List<Activatible> removable = index.pollRemovable(5);
+		assertEquals(1, removable.size());
+		assertTrue(removable.contains(a1));
+		assertNull(index.getExpiryTick(a1));
+		assertEquals(1, index.size());
+
+		// Not removable when checked, indexed again
+		removable = index.pollRemovable(10);
+		assertTrue(removable.isEmpty());
+		assertEquals(20L, (long) index.getExpiryTick(a2));
+	}
+
+	@Test
+	public void testRemoveAndClear() {
+		index.update(a1, 0);
+		index.update(a2, 0);
+		index.remove(a1);
+		assertNull(index.getExpiryTick(a1));
+		assertEquals(1, index.size());
+		a1.setActivation(0.0);
+		assertTrue(index.pollRemovable(100).isEmpty());
+		index.update(a1, 0);
+		index.clear();
+		assertEquals(0, index.size());
+		assertTrue(index.pollRemovable(1000).isEmpty());
+	}
+}
@@ -12,6 +12,9 @@ package edu.memphis.ccrg.lida.framework.shared.activation;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
 
 import org.junit.Before;
@@ -52,6 +55,26 @@ public class LearnableImplTest {
 		learnable1 = new LearnableImpl();
 	}
 
+	/**
+	 * The default strategies are looked up on first use, strategies set before
+	 * are kept
+	 */
+	@Test
+	public void testDefaultStrategies() {
+		assertNotNull(learnable1.getDecayStrategy());
+		assertNotNull(learnable1.getIncentiveSalienceDecayStrategy());
+		assertNotNull(learnable1.getBaseLevelExciteStrategy());
+		assertNotNull(learnable1.getTotalActivationStrategy());
+
+		DecayStrategy ds = new LinearDecayStrategy();
+		learnable2 = new LearnableImpl();
+		learnable2.setBaseLevelDecayStrategy(ds);
+		learnable2.setExciteStrategy(null);
+		assertSame(ds, learnable2.getBaseLevelDecayStrategy());
+		assertNull(learnable2.getExciteStrategy());
+		assertNotNull(learnable2.getDecayStrategy());
+	}
+
 	@Test
 	public void testArgConstructor() {
 		double activation = 0.6;
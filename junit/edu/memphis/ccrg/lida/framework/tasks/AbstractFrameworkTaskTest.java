@@ -0,0 +1,89 @@
+/*******************************************************************************
+ * Copyright (c) 2009, 2011 The University of Memphis.  All rights reserved. 
+ * This program and the accompanying materials are made available 
+ * under the terms of the LIDA Software Framework Non-Commercial License v1.0 
+ * which accompanies this distribution, and is available at
+ * http://ccrg.cs.memphis.edu/assets/papers/2010/LIDA-framework-non-commercial-v1.0.pdf
+ *******************************************************************************/
+package edu.memphis.ccrg.lida.framework.tasks;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.junit.Before;
+import org.junit.Test;
+
+public class AbstractFrameworkTaskTest {
+
+	private OneShotTask task;
+	private MockTaskSpawner taskSpawner;
+	private double epsilon = 10e-9;
+
+	private static class OneShotTask extends AbstractFrameworkTask {
+		private boolean wasRun;
+		private int initCount;
+
+		public OneShotTask(TaskSpawner ts) {
+			super(1, ts);
+		}
+
+		@Override
+		public void init() {
+			super.init();
+			initCount++;
+		}
+
+		@Override
+		protected void runThisFrameworkTask() {
+			wasRun = true;
+			cancel();
+		}
+	}
+
+	@Before
+	public void setUp() throws Exception {
+		taskSpawner = new MockTaskSpawner();
+		task = new OneShotTask(taskSpawner);
+	}
+
+	@Test
+	public void testCall() {
+		task.call();
+		assertTrue(task.wasRun);
+		assertEquals(TaskStatus.CANCELED, task.getTaskStatus());
+		assertEquals(task, taskSpawner.lastReceived);
+	}
+
+	@Test
+	public void testInitCallsSubclass() {
+		Map<String, Object> params = new HashMap<String, Object>();
+		params.put("learnable.baseLevelActivation", 0.3);
+		task.init(params);
+		assertEquals(1, task.initCount);
+		assertEquals(0.3, task.getBaseLevelActivation(), epsilon);
+	}
+
+	@Test
+	public void testLearnableCreatedOnDemand() {
+		task.setActivation(0.4);
+		assertEquals(0.4, task.getActivation(), epsilon);
+		task.reinforceBaseLevelActivation(0.2);
+		assertTrue(task.getBaseLevelActivation() > 0.0);
+		assertFalse(task.isRemovable());
+	}
+
+	@Test
+	public void testResetTask() {
+		long id = task.getTaskId();
+		task.call();
+		task.resetTask(5);
+		assertEquals(TaskStatus.RUNNING, task.getTaskStatus());
+		assertEquals(5, task.getTicksPerRun());
+		assertTrue(id != task.getTaskId());
+		assertEquals(null, task.getControllingTaskSpawner());
+	}
+}
@@ -0,0 +1,110 @@
+/*******************************************************************************
+ * Copyright (c) 2009, 2011 The University of Memphis.  All rights reserved. 
+ * This program and the accompanying materials are made available 
+ * under the terms of the LIDA Software Framework Non-Commercial License v1.0 
+ * which accompanies this distribution, and is available at
+ * http://ccrg.cs.memphis.edu/assets/papers/2010/LIDA-framework-non-commercial-v1.0.pdf
+ *******************************************************************************/
+package edu.memphis.ccrg.lida.framework.tasks;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class AdaptivePoolSizerTest {
+
+	private ThreadPoolExecutor pool;
+
+	@Before
+	public void setUp() throws Exception {
+		pool = new ThreadPoolExecutor(8, 8, 10, TimeUnit.SECONDS,
+				new LinkedBlockingQueue<Runnable>());
+	}
+
+	@After
+	public void tearDown() throws Exception {
+		pool.shutdownNow();
+	}
+
+	@Test
+	public void testShrink() {
+		AdaptivePoolSizer sizer = new AdaptivePoolSizer(1, 16, 2, 100000L);
+		assertNull(sizer.endTick(pool, 1, 2, 1000000L));
+		PoolSizingDecision d = sizer.endTick(pool, 2, 2, 1000000L);
+		assertEquals(8, d.getOldSize());
+		assertEquals(7, d.getNewSize());
+		assertEquals(2.0, d.getTasksPerTick(), 0.0);
+		assertEquals(7, pool.getCorePoolSize());
+		assertEquals(1, sizer.getDecisions().size());
+	}
+
+	@Test
+	public void testMinThreads() {
+		AdaptivePoolSizer sizer = new AdaptivePoolSizer(8, 16, 1, 100000L);
+		assertNull(sizer.endTick(pool, 1, 1, 1000000L));
+		assertEquals(8, pool.getCorePoolSize());
+		assertTrue(sizer.getDecisions().isEmpty());
+	}
+
+	@Test
+	public void testGrowWhenBlocked() throws Exception {
+		AdaptivePoolSizer.resize(pool, 1);
+		AdaptivePoolSizer sizer = new AdaptivePoolSizer(1, 16, 1, 100000L);
+		List<FrameworkTask> tasks = new ArrayList<FrameworkTask>();
+		for (int i = 0; i < 8; i++) {
+			tasks.add(new SleepTask());
+		}
+		long start = System.nanoTime();
+		pool.invokeAll(sizer.wrap(tasks));
+		PoolSizingDecision d = sizer.endTick(pool, 1, tasks.size(), System
+				.nanoTime()
+				- start);
+		assertEquals(1, d.getOldSize());
+		assertEquals(2, d.getNewSize());
+		assertTrue(d.getQueueWait() > 100000L);
+		assertEquals(2, pool.getCorePoolSize());
+	}
+
+	@Test
+	public void testResizeAboveMax() {
+		AdaptivePoolSizer.resize(pool, 12);
+		assertEquals(12, pool.getCorePoolSize());
+		assertEquals(12, pool.getMaximumPoolSize());
+	}
+
+	@Test
+	public void testTaskManager() {
+		TaskManager manager = new TaskManager(0, 4, -1, null,
+				new MapTaskScheduler(), ExecutorType.FORK_JOIN);
+		assertFalse(manager.setAdaptivePoolSizer(new AdaptivePoolSizer(1, 4)));
+		assertNull(manager.getAdaptivePoolSizer());
+
+		manager = new TaskManager(0, 64, -1, null);
+		AdaptivePoolSizer sizer = new AdaptivePoolSizer(2, 3);
+		assertTrue(manager.setAdaptivePoolSizer(sizer));
+		assertEquals(sizer.getInitialSize(), manager.getPoolSize());
+		assertTrue(manager.getPoolSize() >= 2 && manager.getPoolSize() <= 3);
+	}
+
+	private static class SleepTask extends FrameworkTaskImpl {
+		@Override
+		protected void runThisFrameworkTask() {
+			try {
+				Thread.sleep(2);
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+		}
+	}
+}
@@ -0,0 +1,145 @@
+/*******************************************************************************
+ * Copyright (c) 2009, 2011 The University of Memphis.  All rights reserved. 
+ * This program and the accompanying materials are made available 
+ * under the terms of the LIDA Software Framework Non-Commercial License v1.0 
+ * which accompanies this distribution, and is available at
+ * http://ccrg.cs.memphis.edu/assets/papers/2010/LIDA-framework-non-commercial-v1.0.pdf
+ *******************************************************************************/
+package edu.memphis.ccrg.lida.framework.tasks;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class ChangeSignalTest {
+
+	private TaskManager manager;
+	private TaskSpawner ts;
+	private ChangeSignal signal;
+
+	@Before
+	public void setUp() throws Exception {
+		manager = new TaskManager(0, 4, -1, null);
+		ts = new TaskSpawnerImpl(manager);
+		signal = new ChangeSignal();
+	}
+
+	@After
+	public void tearDown() throws Exception {
+		manager.pauseTasks();
+		manager.reset();
+	}
+
+	@Test
+	public void testParkAndSignal() throws InterruptedException {
+		IdleTask task = new IdleTask(signal);
+		ts.addTask(task);
+		manager.resumeTasks();
+		Thread.sleep(200);
+		assertEquals(1, task.runs.get());
+		assertEquals(TaskStatus.PARKED, task.getTaskStatus());
+		assertEquals(1, manager.getParkedTaskCount());
+		assertEquals(1, signal.getParkedCount());
+		long tick = TaskManager.getCurrentTick();
+
+		Thread.sleep(200);
+		assertEquals(1, task.runs.get());
+		assertEquals(tick, TaskManager.getCurrentTick());
+
+		task.work.set(3);
+		signal.signal();
+		Thread.sleep(200);
+		assertEquals(5, task.runs.get());
+		assertEquals(1, signal.getParkedCount());
+		assertEquals(1, manager.getParkedTaskCount());
+		assertTrue(ts.containsTask(task));
+	}
+
+	@Test
+	public void testParkRecurringTask() throws InterruptedException {
+		IdleTask task = new IdleTask(signal);
+		task.work.set(2);
+		ts.addRecurringTask(task);
+		manager.resumeTasks();
+		Thread.sleep(200);
+		assertEquals(3, task.runs.get());
+		assertFalse(manager.isRecurringTask(task));
+		assertTrue(manager.getParkedTasks().contains(task));
+
+		signal.signal();
+		Thread.sleep(200);
+		assertEquals(4, task.runs.get());
+		assertTrue(manager.getParkedTasks().contains(task));
+	}
+
+	@Test
+	public void testSignalDuringRun() throws InterruptedException {
+		FrameworkTaskImpl task = new IdleTask(signal) {
+			@Override
+			protected void runThisFrameworkTask() {
+				super.runThisFrameworkTask();
+				if (runs.get() == 1) {
+					signal.signal();
+				}
+			}
+		};
+		ts.addTask(task);
+		manager.resumeTasks();
+		Thread.sleep(200);
+		assertEquals(2, ((IdleTask) task).runs.get());
+		assertEquals(1, manager.getParkedTaskCount());
+	}
+
+	@Test
+	public void testCancelParkedTask() throws InterruptedException {
+		IdleTask task = new IdleTask(signal);
+		ts.addTask(task);
+		manager.resumeTasks();
+		Thread.sleep(200);
+		assertTrue(manager.cancelTask(task));
+		assertEquals(0, manager.getParkedTaskCount());
+		assertEquals(0, signal.getParkedCount());
+		signal.signal();
+		Thread.sleep(100);
+		assertEquals(1, task.runs.get());
+	}
+
+	@Test
+	public void testParkWithoutSignal() throws InterruptedException {
+		IdleTask task = new IdleTask(null);
+		task.work.set(0);
+		ts.addTask(task);
+		manager.resumeTasks();
+		Thread.sleep(100);
+		assertTrue(task.runs.get() > 1);
+		assertEquals(TaskStatus.RUNNING, task.getTaskStatus());
+		assertEquals(0, manager.getParkedTaskCount());
+	}
+
+	/*
+	 * Task that parks once it has no work left
+	 */
+	private static class IdleTask extends FrameworkTaskImpl {
+
+		final AtomicInteger runs = new AtomicInteger();
+		final AtomicInteger work = new AtomicInteger();
+
+		public IdleTask(ChangeSignal signal) {
+			setWakeupSignal(signal);
+		}
+
+		@Override
+		protected void runThisFrameworkTask() {
+			runs.incrementAndGet();
+			if (work.getAndDecrement() <= 0) {
+				park();
+			}
+		}
+	}
+}
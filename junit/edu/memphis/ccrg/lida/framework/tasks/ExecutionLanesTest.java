@@ -0,0 +1,120 @@
+/*******************************************************************************
+ * Copyright (c) 2009, 2011 The University of Memphis.  All rights reserved. 
+ * This program and the accompanying materials are made available 
+ * under the terms of the LIDA Software Framework Non-Commercial License v1.0 
+ * which accompanies this distribution, and is available at
+ * http://ccrg.cs.memphis.edu/assets/papers/2010/LIDA-framework-non-commercial-v1.0.pdf
+ *******************************************************************************/
+package edu.memphis.ccrg.lida.framework.tasks;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import edu.memphis.ccrg.lida.framework.ModuleName;
+
+public class ExecutionLanesTest {
+
+	private ExecutionLanes lanes;
+	private TaskSpawner laned;
+	private TaskSpawner free;
+
+	@Before
+	public void setUp() throws Exception {
+		lanes = new ExecutionLanes();
+		laned = new TaskSpawnerImpl();
+		free = new TaskSpawnerImpl();
+	}
+
+	@Test
+	public void testSetLanes() {
+		assertTrue(lanes.isEmpty());
+		lanes.setLanes(laned, 2);
+		assertEquals(2, lanes.getLanes(laned));
+		assertEquals(0, lanes.getLanes(free));
+		assertEquals(0, lanes.getLanes(null));
+		lanes.setLanes(laned, 0);
+		assertTrue(lanes.isEmpty());
+	}
+
+	@Test
+	public void testPartition() {
+		lanes.setLanes(laned, 2);
+		List<FrameworkTask> tasks = new ArrayList<FrameworkTask>();
+		for (int i = 0; i < 10; i++) {
+			tasks.add(new MockFrameworkTask(1, (i % 2 == 0) ? laned : free));
+		}
+		tasks.add(new MockFrameworkTask(1));
+		List<FrameworkTask> freeTasks = new ArrayList<FrameworkTask>();
+		List<List<FrameworkTask>> result = lanes.partition(tasks, freeTasks);
+		assertEquals(6, freeTasks.size());
+		int laneTasks = 0;
+		for (List<FrameworkTask> lane : result) {
+			long parity = lane.get(0).getTaskId() % 2;
+			for (FrameworkTask t : lane) {
+				assertEquals(laned, t.getControllingTaskSpawner());
+				assertEquals(parity, t.getTaskId() % 2);
+			}
+			laneTasks += lane.size();
+		}
+		assertEquals(5, laneTasks);
+		assertTrue(result.size() <= 2);
+	}
+
+	@Test
+	public void testPartitionByModule() {
+		lanes.setLanes(laned, 8);
+		List<FrameworkTask> tasks = new ArrayList<FrameworkTask>();
+		List<FrameworkTask> csmTasks = new ArrayList<FrameworkTask>();
+		for (int i = 0; i < 8; i++) {
+			MockFrameworkTask t = new MockFrameworkTask(1, laned);
+			if (i % 2 == 0) {
+				t.addReadModule(ModuleName.PerceptualBuffer);
+				t.addWrittenModule(ModuleName.CurrentSituationalModel);
+				csmTasks.add(t);
+			} else if (i == 1) {
+				t.addReadModule(ModuleName.CurrentSituationalModel);
+				csmTasks.add(t);
+			}
+			tasks.add(t);
+		}
+		List<FrameworkTask> freeTasks = new ArrayList<FrameworkTask>();
+		List<List<FrameworkTask>> result = lanes.partition(tasks, freeTasks);
+		assertTrue(freeTasks.isEmpty());
+		List<FrameworkTask> csmLane = null;
+		for (List<FrameworkTask> lane : result) {
+			if (lane.contains(csmTasks.get(0))) {
+				csmLane = lane;
+			}
+		}
+		assertTrue(csmLane.containsAll(csmTasks));
+	}
+
+	@Test
+	public void testLane() throws Exception {
+		final List<Integer> order = new ArrayList<Integer>();
+		List<Callable<FrameworkTask>> callables = new ArrayList<Callable<FrameworkTask>>();
+		for (int i = 0; i < 3; i++) {
+			final int n = i;
+			callables.add(new Callable<FrameworkTask>() {
+				@Override
+				public FrameworkTask call() throws Exception {
+					order.add(n);
+					if (n == 1) {
+						throw new IllegalStateException("test");
+					}
+					return null;
+				}
+			});
+		}
+		ExecutionLanes.lane(callables).call();
+		assertEquals(3, order.size());
+		assertEquals(2, (int) order.get(2));
+	}
+}
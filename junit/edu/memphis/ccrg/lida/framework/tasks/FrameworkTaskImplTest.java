@@ -8,6 +8,7 @@
 package edu.memphis.ccrg.lida.framework.tasks;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotSame;
 import static org.junit.Assert.assertTrue;
 
@@ -81,4 +82,19 @@ public class FrameworkTaskImplTest {
 				+ task1.getTaskId() + "]", task1.toString());
 	}
 
+	@Test
+	public void testResetTask() {
+		long id = task1.getTaskId();
+		task1.setOrderKey(42L);
+		task1.nextScheduledTaskNumber();
+		task1.cancel();
+
+		task1.resetTask(5);
+		assertEquals(TaskStatus.RUNNING, task1.getTaskStatus());
+		assertEquals(5, task1.getTicksPerRun());
+		assertFalse(id == task1.getTaskId());
+		assertFalse(task1.isOrderKeyAssigned());
+		assertEquals(0L, task1.nextScheduledTaskNumber());
+	}
+
 }
@@ -0,0 +1,80 @@
+/*******************************************************************************
+ * Copyright (c) 2009, 2011 The University of Memphis.  All rights reserved. 
+ * This program and the accompanying materials are made available 
+ * under the terms of the LIDA Software Framework Non-Commercial License v1.0 
+ * which accompanies this distribution, and is available at
+ * http://ccrg.cs.memphis.edu/assets/papers/2010/LIDA-framework-non-commercial-v1.0.pdf
+ *******************************************************************************/
+package edu.memphis.ccrg.lida.framework.tasks;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.Test;
+
+public class MapTaskSchedulerTest {
+
+	private static final int PRODUCERS = 4;
+	private static final int TASKS_PER_PRODUCER = 20000;
+
+	/*
+	 * Producers schedule tasks at the tick following the polled one while the
+	 * scheduler is polled. Every task must be polled exactly once.
+	 */
+	@Test
+	public void testConcurrentScheduleAndPoll() throws Exception {
+		final MapTaskScheduler scheduler = new MapTaskScheduler();
+		final AtomicLong polledTick = new AtomicLong();
+		Thread[] producers = new Thread[PRODUCERS];
+		for (int i = 0; i < PRODUCERS; i++) {
+			producers[i] = new Thread() {
+				@Override
+				public void run() {
+					for (int j = 0; j < TASKS_PER_PRODUCER; j++) {
+						scheduler.scheduleTask(new MockFrameworkTask(), polledTick.get() + 1);
+					}
+				}
+			};
+			producers[i].start();
+		}
+		Set<FrameworkTask> polled = Collections.newSetFromMap(new ConcurrentHashMap<FrameworkTask, Boolean>());
+		int count = 0;
+		boolean producing = true;
+		while (producing || scheduler.getNextScheduledTick() >= 0) {
+			producing = false;
+			for (Thread t : producers) {
+				producing |= t.isAlive();
+			}
+			long tick = Math.max(polledTick.get() + 1, scheduler.getNextScheduledTick());
+			Collection<FrameworkTask> tasks = scheduler.pollTasks(tick);
+			polledTick.set(tick);
+			if (tasks != null) {
+				for (FrameworkTask t : tasks) {
+					assertTrue(polled.add(t));
+					count++;
+				}
+			}
+		}
+		assertEquals(PRODUCERS * TASKS_PER_PRODUCER, count);
+	}
+
+	@Test
+	public void testClear() {
+		MapTaskScheduler scheduler = new MapTaskScheduler();
+		Map<Long, Set<FrameworkTask>> scheduled = scheduler.getScheduledTasks();
+		scheduler.scheduleTask(new MockFrameworkTask(), 3);
+		assertEquals(1, scheduled.size());
+		scheduler.clear();
+		assertTrue(scheduled.isEmpty());
+		assertEquals(-1L, scheduler.getNextScheduledTick());
+		scheduler.scheduleTask(new MockFrameworkTask(), 2);
+		assertEquals(1, scheduler.pollTasks(2).size());
+	}
+}
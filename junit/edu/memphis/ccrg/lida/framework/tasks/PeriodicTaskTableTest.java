@@ -0,0 +1,118 @@
+/*******************************************************************************
+ * Copyright (c) 2009, 2011 The University of Memphis.  All rights reserved. 
+ * This program and the accompanying materials are made available 
+ * under the terms of the LIDA Software Framework Non-Commercial License v1.0 
+ * which accompanies this distribution, and is available at
+ * http://ccrg.cs.memphis.edu/assets/papers/2010/LIDA-framework-non-commercial-v1.0.pdf
+ *******************************************************************************/
+package edu.memphis.ccrg.lida.framework.tasks;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Before;
+import org.junit.Test;
+
+public class PeriodicTaskTableTest {
+
+	private PeriodicTaskTable table;
+
+	@Before
+	public void setUp() throws Exception {
+		table = new PeriodicTaskTable();
+	}
+
+	@Test
+	public void testPollAndReschedule() {
+		MockFrameworkTask task1 = new MockFrameworkTask(2);
+		MockFrameworkTask task2 = new MockFrameworkTask(5);
+		table.add(task1, 2);
+		table.add(task2, 5);
+		assertEquals(2, table.size());
+		assertEquals(2, table.getNextScheduledTick());
+		assertNull(table.pollTasks(1));
+
+		List<FrameworkTask> due = table.pollTasks(2);
+		assertEquals(1, due.size());
+		assertTrue(due.contains(task1));
+		assertEquals(5, table.getNextScheduledTick());
+		table.reschedule(2);
+		assertEquals(4, table.getNextScheduledTick());
+		assertEquals(4, task1.getScheduledTick());
+
+		assertTrue(table.pollTasks(4).contains(task1));
+		task1.setNextTicksPerRun(10);
+		table.reschedule(4);
+		due = table.pollTasks(5);
+		assertEquals(1, due.size());
+		assertTrue(due.contains(task2));
+		table.reschedule(5);
+		assertEquals(10, table.getNextScheduledTick());
+		assertEquals(14, task1.getScheduledTick());
+	}
+
+	@Test
+	public void testFinishedTaskDropped() {
+		MockFrameworkTask task = new MockFrameworkTask(1);
+		table.add(task, 1);
+		table.pollTasks(1);
+		task.cancel();
+		table.reschedule(1);
+		assertFalse(table.contains(task));
+		assertEquals(-1, table.getNextScheduledTick());
+	}
+
+	@Test
+	public void testRemove() {
+		MockFrameworkTask task1 = new MockFrameworkTask(1);
+		MockFrameworkTask task2 = new MockFrameworkTask(1);
+		table.add(task1, 3);
+		table.add(task2, 4);
+		assertTrue(table.remove(task1));
+		assertFalse(table.remove(task1));
+		assertEquals(4, table.getNextScheduledTick());
+
+		// Removed while running
+		table.pollTasks(4);
+		assertTrue(table.remove(task2));
+		table.reschedule(4);
+		assertEquals(0, table.size());
+		assertEquals(-1, table.getNextScheduledTick());
+	}
+
+	@Test
+	public void testRandomTicks() {
+		Random random = new Random(11);
+		for (int i = 0; i < 500; i++) {
+			table.add(new MockFrameworkTask(1 + random.nextInt(50)), 1 + random
+					.nextInt(100));
+		}
+		long last = 0;
+		int runs = 0;
+		long tick;
+		while (runs < 5000 && (tick = table.getNextScheduledTick()) >= 0) {
+			assertTrue(tick >= last);
+			List<FrameworkTask> due = table.pollTasks(tick);
+			for (FrameworkTask t : due) {
+				assertEquals(tick, t.getScheduledTick());
+			}
+			runs += due.size();
+			table.reschedule(tick);
+			last = tick;
+		}
+		assertEquals(500, table.size());
+	}
+
+	@Test
+	public void testClear() {
+		table.add(new MockFrameworkTask(1), 1);
+		table.clear();
+		assertEquals(0, table.size());
+		assertNull(table.pollTasks(10));
+	}
+}
@@ -52,4 +52,24 @@ public class RandomizingTsTest {
 			logger.log(Level.INFO, result + "");
 		}
 	}
+
+	@Test
+	public void testAddRecurringTask() {
+		TaskManager tm = new TaskManager(0, 1, -1, null);
+		ts.setTaskManager(tm);
+		ts.setVariation(0.5);
+		boolean randomized = false;
+		for (int i = 0; i < 20; i++) {
+			FrameworkTask task = new MockFrameworkTask(100);
+			ts.addRecurringTask(task);
+			long ticks = task.getNextTicksPerRun();
+			assertTrue(ticks >= 50);
+			assertTrue(ticks <= 150);
+			assertTrue(tm.isRecurringTask(task));
+			if (ticks != 100) {
+				randomized = true;
+			}
+		}
+		assertTrue(randomized);
+	}
 }
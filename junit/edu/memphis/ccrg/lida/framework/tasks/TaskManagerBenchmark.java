@@ -0,0 +1,118 @@
+/*******************************************************************************
+ * Copyright (c) 2009, 2011 The University of Memphis.  All rights reserved. 
+ * This program and the accompanying materials are made available 
+ * under the terms of the LIDA Software Framework Non-Commercial License v1.0 
+ * which accompanies this distribution, and is available at
+ * http://ccrg.cs.memphis.edu/assets/papers/2010/LIDA-framework-non-commercial-v1.0.pdf
+ *******************************************************************************/
+package edu.memphis.ccrg.lida.framework.tasks;
+
+/**
+ * Measures the tick throughput of the {@link TaskManager} for each
+ * {@link ExecutorType} and number of threads. Every tick runs a fixed number of
+ * synthetic tasks each doing a fixed amount of work. The TaskManager runs
+ * headless with a tick duration of 0 until its shutdown tick.
+ * <p>
+ * Usage: TaskManagerBenchmark [ticks] [tasksPerTick] [workPerTask]
+ * [threads...]. Default threads are 8, 32 and 64.
+ */
+public class TaskManagerBenchmark {
+
+	private static final int DEFAULT_TICKS = 2000;
+	private static final int DEFAULT_TASKS_PER_TICK = 1000;
+	private static final int DEFAULT_WORK_PER_TASK = 2000;
+	private static final int[] DEFAULT_THREADS = { 8, 32, 64 };
+
+	/**
+	 * Runs the benchmark and prints the ticks per second of each configuration.
+	 *
+	 * @param args
+	 *            ticks, tasks per tick, work per task, then the thread counts
+	 */
+	public static void main(String[] args) {
+		int ticks = (args.length > 0) ? Integer.parseInt(args[0])
+				: DEFAULT_TICKS;
+		int tasksPerTick = (args.length > 1) ? Integer.parseInt(args[1])
+				: DEFAULT_TASKS_PER_TICK;
+		int work = (args.length > 2) ? Integer.parseInt(args[2])
+				: DEFAULT_WORK_PER_TASK;
+		int[] threads = DEFAULT_THREADS;
+		if (args.length > 3) {
+			threads = new int[args.length - 3];
+			for (int i = 3; i < args.length; i++) {
+				threads[i - 3] = Integer.parseInt(args[i]);
+			}
+		}
+		System.out.println("Available processors: "
+				+ Runtime.getRuntime().availableProcessors());
+		System.out.println("executor\tthreads\tticks/s");
+		for (int n : threads) {
+			for (ExecutorType type : ExecutorType.values()) {
+				double rate = run(type, n, ticks, tasksPerTick, work);
+				System.out.printf("%s\t%d\t%.1f%n", type, n, rate);
+			}
+		}
+	}
+
+	/**
+	 * Runs the TaskManager with specified configuration until all ticks are
+	 * executed.
+	 *
+	 * @param type
+	 *            the {@link ExecutorType}
+	 * @param threads
+	 *            max number of threads
+	 * @param ticks
+	 *            number of ticks to run
+	 * @param tasksPerTick
+	 *            number of tasks run in every tick
+	 * @param work
+	 *            iterations of work done by each task
+	 * @return the ticks executed per second
+	 */
+	public static double run(ExecutorType type, int threads, int ticks,
+			int tasksPerTick, int work) {
+		TaskManager tm = new TaskManager(0, threads, ticks, null,
+				new MapTaskScheduler(), type);
+		tm.setExitOnShutdown(false);
+		TaskSpawner ts = new TaskSpawnerImpl(tm);
+		for (int i = 0; i < tasksPerTick; i++) {
+			ts.addTask(new WorkTask(work));
+		}
+		long start = System.nanoTime();
+		synchronized (tm) {
+			tm.resumeTasks();
+			while (TaskManager.getCurrentTick() < ticks) {
+				try {
+					tm.wait(100);
+				} catch (InterruptedException e) {
+					break;
+				}
+			}
+		}
+		long elapsed = System.nanoTime() - start;
+		return TaskManager.getCurrentTick() * 1e9 / elapsed;
+	}
+
+	/*
+	 * Task that runs every tick doing a fixed amount of arithmetic.
+	 */
+	private static class WorkTask extends FrameworkTaskImpl {
+
+		private final int work;
+		private volatile double result;
+
+		public WorkTask(int work) {
+			this.work = work;
+		}
+
+		@Override
+		protected void runThisFrameworkTask() {
+			double x = result;
+			for (int i = 0; i < work; i++) {
+				x = x * 0.999 + i;
+			}
+			result = x;
+		}
+	}
+}
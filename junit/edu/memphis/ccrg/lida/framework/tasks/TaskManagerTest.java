@@ -8,21 +8,30 @@
 package edu.memphis.ccrg.lida.framework.tasks;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
 
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
 
+import edu.memphis.ccrg.lida.framework.AgentContext;
 import edu.memphis.ccrg.lida.framework.FrameworkModule;
+import edu.memphis.ccrg.lida.framework.RandomSource;
+import edu.memphis.ccrg.lida.framework.shared.NodeStructure;
 import edu.memphis.ccrg.lida.framework.mockclasses.MockFrameworkGuiEventListener;
 import edu.memphis.ccrg.lida.framework.mockclasses.MockFrameworkModule;
+import edu.memphis.ccrg.lida.workspace.workspacebuffers.WorkspaceBuffer;
 
 public class TaskManagerTest {
 
@@ -242,6 +251,26 @@ public class TaskManagerTest {
 		assertTrue(!tm.cancelTask(task2));
 	}
 
+	@Test
+	public void testRecycleFinishedTasks() {
+		RecyclingTask finished = new RecyclingTask(true);
+		finished.setControllingTaskSpawner(taskSpawner);
+		tm.scheduleTask(finished, 10);
+		RecyclingTask running = new RecyclingTask(false);
+		running.setControllingTaskSpawner(taskSpawner);
+		tm.scheduleTask(running, 10);
+
+		tm.resumeTasks();
+		try {
+			Thread.sleep(1000);
+		} catch (InterruptedException e) {
+			e.printStackTrace();
+		}
+		assertEquals(1, finished.recycled.get());
+		assertFalse(finished.recycledInCall);
+		assertEquals(0, running.recycled.get());
+	}
+
 	@Test
 	public void testAddTicksToExecute() {
 		tm.setTickDuration(1);
@@ -365,9 +394,531 @@ public class TaskManagerTest {
 		assertTrue(module.wasDecayed);
 	}
 
+	@Test
+	public void testSkipToNextScheduledTick() {
+		List<FrameworkModule> modules = new ArrayList<FrameworkModule>();
+		MockFrameworkModule module = new MockFrameworkModule();
+		modules.add(module);
+		tm.setDecayingModules(modules);
+		tm.setTickDuration(0);
+		MockFrameworkTask task1 = new MockFrameworkTask(10);
+		task1.setControllingTaskSpawner(taskSpawner);
+		tm.scheduleTask(task1, 1000);
+		MockFrameworkTask task2 = new MockFrameworkTask(10);
+		task2.setControllingTaskSpawner(taskSpawner);
+		tm.scheduleTask(task2, 50000);
+		tm.resumeTasks();
+		try {
+			Thread.sleep(500);
+		} catch (InterruptedException e) {
+			e.printStackTrace();
+		}
+		assertTrue(task1.wasRun);
+		assertTrue(task2.wasRun);
+		assertEquals(50000, TaskManager.getCurrentTick());
+		assertEquals(49000L, module.decayTicks);
+		assertTrue(tm.getTaskQueue().isEmpty());
+	}
+
+	@Test
+	public void testShutdownTickNotSkipped() {
+		TaskManager manager = new TaskManager(0, 10, 25, null);
+		manager.setExitOnShutdown(false);
+		MockFrameworkTask task1 = new MockFrameworkTask(10);
+		task1.setControllingTaskSpawner(taskSpawner);
+		manager.scheduleTask(task1, 10);
+		MockFrameworkTask task2 = new MockFrameworkTask(10);
+		task2.setControllingTaskSpawner(taskSpawner);
+		manager.scheduleTask(task2, 100);
+		manager.resumeTasks();
+		try {
+			Thread.sleep(2000);
+		} catch (InterruptedException e) {
+			e.printStackTrace();
+		}
+		assertTrue(task1.wasRun);
+		assertTrue(!task2.wasRun);
+		assertEquals(25, TaskManager.getCurrentTick());
+	}
+
+	@Test
+	public void testSetTicksPerBatch() {
+		assertEquals(TaskManager.DEFAULT_TICKS_PER_BATCH, tm.getTicksPerBatch());
+		tm.setTicksPerBatch(0);
+		assertEquals(TaskManager.DEFAULT_TICKS_PER_BATCH, tm.getTicksPerBatch());
+		tm.setTicksPerBatch(100);
+		assertEquals(100, tm.getTicksPerBatch());
+	}
+
+	@Test
+	public void testBatchModeHonorsInterval() {
+		tm.setTicksPerBatch(1000);
+		tm.setInIntervalMode(true);
+		tm.addTicksToExecute(35);
+		for (int i = 1; i <= 100; i++) {
+			MockFrameworkTask task = new MockFrameworkTask(10);
+			task.setControllingTaskSpawner(taskSpawner);
+			tm.scheduleTask(task, i);
+		}
+		tm.resumeTasks();
+		try {
+			Thread.sleep(500);
+		} catch (InterruptedException e) {
+			e.printStackTrace();
+		}
+		assertEquals(35, TaskManager.getCurrentTick());
+	}
+
+	@Test
+	public void testBatchModeCoalescesGuiEvents() {
+		tm.setTicksPerBatch(50);
+		tm.setGuiEventsInterval(15);
+		MockFrameworkGuiEventListener listener = new MockFrameworkGuiEventListener();
+		tm.addFrameworkGuiEventListener(listener);
+		MockFrameworkTask task1 = new MockFrameworkTask(10);
+		task1.setControllingTaskSpawner(taskSpawner);
+		tm.scheduleTask(task1, 20);
+		MockFrameworkTask task2 = new MockFrameworkTask(10);
+		task2.setControllingTaskSpawner(taskSpawner);
+		tm.scheduleTask(task2, 40);
+		tm.resumeTasks();
+		try {
+			Thread.sleep(500);
+		} catch (InterruptedException e) {
+			e.printStackTrace();
+		}
+		assertTrue(task2.wasRun);
+		assertNotNull(listener.event);
+		assertEquals(40, listener.tick);
+	}
+
+	@Test
+	public void testBatchModeHonorsShutdownTick() {
+		TaskManager manager = new TaskManager(10, 10, 25, null);
+		manager.setExitOnShutdown(false);
+		manager.setTicksPerBatch(1000);
+		for (int i = 1; i <= 100; i++) {
+			MockFrameworkTask task = new MockFrameworkTask(10);
+			task.setControllingTaskSpawner(taskSpawner);
+			manager.scheduleTask(task, i);
+		}
+		manager.resumeTasks();
+		try {
+			Thread.sleep(2000);
+		} catch (InterruptedException e) {
+			e.printStackTrace();
+		}
+		assertEquals(25, TaskManager.getCurrentTick());
+	}
+
+	@Test
+	public void testForkJoinExecutor() {
+		TaskManager manager = new TaskManager(0, 4, -1, null,
+				new MapTaskScheduler(), ExecutorType.FORK_JOIN);
+		assertEquals(ExecutorType.FORK_JOIN, manager.getExecutorType());
+		List<FrameworkModule> modules = new ArrayList<FrameworkModule>();
+		MockFrameworkModule module = new MockFrameworkModule();
+		modules.add(module);
+		manager.setDecayingModules(modules);
+		List<MockFrameworkTask> tasks = new ArrayList<MockFrameworkTask>();
+		for (int i = 0; i < 100; i++) {
+			MockFrameworkTask task = new MockFrameworkTask(10);
+			task.setControllingTaskSpawner(taskSpawner);
+			manager.scheduleTask(task, 10 + i % 3);
+			tasks.add(task);
+		}
+		manager.resumeTasks();
+		try {
+			Thread.sleep(500);
+		} catch (InterruptedException e) {
+			e.printStackTrace();
+		}
+		for (MockFrameworkTask task : tasks) {
+			assertTrue(task.wasRun);
+		}
+		assertTrue(module.wasDecayed);
+		assertEquals(12, TaskManager.getCurrentTick());
+		manager.pauseTasks();
+	}
+
+	@Test
+	public void testVirtualThreadExecutor() {
+		TaskManager manager = new TaskManager(0, 4, -1, null,
+				new MapTaskScheduler(), ExecutorType.VIRTUAL_THREAD);
+		assertNull(manager.getLastTickExecutionStats());
+		for (int i = 0; i < 20; i++) {
+			FrameworkTask task = new FrameworkTaskImpl() {
+				@Override
+				protected void runThisFrameworkTask() {
+					try {
+						Thread.sleep(50);
+					} catch (InterruptedException e) {
+					}
+					cancel();
+				}
+			};
+			task.setControllingTaskSpawner(taskSpawner);
+			manager.scheduleTask(task, 5);
+		}
+		manager.resumeTasks();
+		try {
+			Thread.sleep(1000);
+		} catch (InterruptedException e) {
+			e.printStackTrace();
+		}
+		TickExecutionStats stats = manager.getLastTickExecutionStats();
+		assertNotNull(stats);
+		assertEquals(5, stats.getTick());
+		assertEquals(20, stats.getTaskCount());
+		assertTrue(stats.getPeakInFlight() > 4);
+		assertTrue(stats.getWallTime() >= 20 * 50000000L);
+		manager.pauseTasks();
+	}
+
+	@Test
+	public void testRecurringTask() {
+		TaskManager manager = new TaskManager(0, 4, -1, null);
+		TaskSpawner ts = new TaskSpawnerImpl(manager);
+		final List<Long> runTicks = new ArrayList<Long>();
+		FrameworkTask task = new FrameworkTaskImpl(3) {
+			@Override
+			protected void runThisFrameworkTask() {
+				runTicks.add(TaskManager.getCurrentTick());
+				if (runTicks.size() == 2) {
+					setNextTicksPerRun(10); // refractory period
+				} else if (runTicks.size() == 4) {
+					cancel();
+				}
+			}
+		};
+		ts.addRecurringTask(task);
+		assertTrue(manager.isRecurringTask(task));
+		assertTrue(manager.getTaskQueue().get(3L).contains(task));
+		manager.resumeTasks();
+		try {
+			Thread.sleep(500);
+		} catch (InterruptedException e) {
+			e.printStackTrace();
+		}
+		List<Long> expected = new ArrayList<Long>();
+		expected.add(3L);
+		expected.add(6L);
+		expected.add(16L);
+		expected.add(19L);
+		assertEquals(expected, runTicks);
+		assertFalse(manager.isRecurringTask(task));
+		assertFalse(ts.containsTask(task));
+		manager.pauseTasks();
+	}
+
+	@Test
+	public void testCancelRecurringTask() {
+		TaskSpawner ts = new TaskSpawnerImpl(tm);
+		MockFrameworkTask task = new MockFrameworkTask(5);
+		ts.addRecurringTask(task);
+		assertTrue(tm.isRecurringTask(task));
+		assertEquals(1, tm.getRecurringTasks().size());
+		assertTrue(ts.cancelTask(task));
+		assertFalse(tm.isRecurringTask(task));
+		assertTrue(tm.getTaskQueue().isEmpty());
+	}
+
 	@Test
 	public void testToString() {
 		assertEquals("TaskManager", tm.toString());
 	}
 
+	@Test
+	public void testTickBudget() {
+		TaskManager manager = new TaskManager(0, 1, -1, null);
+		manager.setTickBudget(50);
+		TaskSpawner ts = new TaskSpawnerImpl(manager);
+		final List<String> runs = Collections
+				.synchronizedList(new ArrayList<String>());
+		ts.addTask(new FrameworkTaskImpl() {
+			@Override
+			protected void runThisFrameworkTask() {
+				try {
+					Thread.sleep(100);
+				} catch (InterruptedException e) {
+				}
+				runs.add("slow" + TaskManager.getCurrentTick());
+				cancel();
+			}
+		});
+		ts.addTask(new BudgetCodelet("low", 0.1, runs));
+		ts.addTask(new BudgetCodelet("high", 0.9, runs));
+		manager.resumeTasks();
+		try {
+			Thread.sleep(500);
+		} catch (InterruptedException e) {
+			e.printStackTrace();
+		}
+		List<String> expected = new ArrayList<String>();
+		expected.add("slow1");
+		expected.add("high2");
+		expected.add("low2");
+		assertEquals(expected, runs);
+		assertEquals(0, manager.getLastTickShedCount());
+		assertEquals(2, manager.getTotalShedCount());
+		manager.pauseTasks();
+	}
+
+	@Test
+	public void testShedCodeletRunsUnderOverload() {
+		TaskManager manager = new TaskManager(0, 1, -1, null);
+		manager.setTickBudget(5);
+		manager.setMaxShedTicks(2);
+		assertEquals(2, manager.getMaxShedTicks());
+		TaskSpawner ts = new TaskSpawnerImpl(manager);
+		final List<String> runs = Collections
+				.synchronizedList(new ArrayList<String>());
+		// exceeds the budget on every tick
+		ts.addTask(new FrameworkTaskImpl() {
+			@Override
+			protected void runThisFrameworkTask() {
+				try {
+					Thread.sleep(20);
+				} catch (InterruptedException e) {
+				}
+			}
+		});
+		ts.addTask(new BudgetCodelet("low", 0.1, runs));
+		ts.addTask(new BudgetCodelet("high", 0.9, runs));
+		manager.resumeTasks();
+		try {
+			Thread.sleep(500);
+		} catch (InterruptedException e) {
+			e.printStackTrace();
+		}
+		manager.pauseTasks();
+		assertEquals(2, runs.size());
+		assertTrue(runs.contains("high3"));
+		assertTrue(runs.contains("low3"));
+		assertEquals(2, manager.getTotalShedCount());
+	}
+
+	@Test
+	public void testExecutionLanes() {
+		TaskManager manager = new TaskManager(0, 8, -1, null);
+		TaskSpawner ts = new TaskSpawnerImpl(manager);
+		manager.setExecutionLanes(ts, 1);
+		assertEquals(1, manager.getExecutionLanes(ts));
+		final AtomicInteger running = new AtomicInteger();
+		final AtomicInteger maxRunning = new AtomicInteger();
+		final AtomicInteger runs = new AtomicInteger();
+		for (int i = 0; i < 8; i++) {
+			ts.addTask(new FrameworkTaskImpl() {
+				@Override
+				protected void runThisFrameworkTask() {
+					int n = running.incrementAndGet();
+					if (n > maxRunning.get()) {
+						maxRunning.set(n);
+					}
+					try {
+						Thread.sleep(2);
+					} catch (InterruptedException e) {
+					}
+					running.decrementAndGet();
+					runs.incrementAndGet();
+					cancel();
+				}
+			});
+		}
+		manager.resumeTasks();
+		try {
+			Thread.sleep(300);
+		} catch (InterruptedException e) {
+			e.printStackTrace();
+		}
+		assertEquals(8, runs.get());
+		assertEquals(1, maxRunning.get());
+		manager.pauseTasks();
+	}
+
+	@Test
+	public void testTaskGraph() {
+		TaskManager manager = new TaskManager(0, 4, -1, null);
+		manager.setTaskGraphEnabled(true);
+		assertTrue(manager.isTaskGraphEnabled());
+		List<FrameworkModule> modules = new ArrayList<FrameworkModule>();
+		MockFrameworkModule module = new MockFrameworkModule();
+		modules.add(module);
+		manager.setDecayingModules(modules);
+		List<MockFrameworkTask> tasks = new ArrayList<MockFrameworkTask>();
+		for (int i = 0; i < 20; i++) {
+			MockFrameworkTask task = new MockFrameworkTask(10);
+			task.setControllingTaskSpawner(taskSpawner);
+			manager.scheduleTask(task, 10);
+			tasks.add(task);
+		}
+		manager.resumeTasks();
+		try {
+			Thread.sleep(300);
+		} catch (InterruptedException e) {
+			e.printStackTrace();
+		}
+		for (MockFrameworkTask task : tasks) {
+			assertTrue(task.wasRun);
+		}
+		assertTrue(module.wasDecayed);
+		assertEquals(10, module.decayTicks);
+		manager.pauseTasks();
+	}
+
+	@Test
+	public void testDeterministic() {
+		assertEquals(runSeeded(42), runSeeded(42));
+		assertFalse(runSeeded(42).equals(runSeeded(43)));
+	}
+
+	@Test
+	public void testOrderKeys() {
+		List<Long> keys = scheduleSeeded(42);
+		assertEquals(keys, scheduleSeeded(42));
+		assertEquals(4, keys.size());
+		assertEquals(4, new HashSet<Long>(keys).size());
+
+		MockFrameworkTask task = new MockFrameworkTask(10);
+		task.setControllingTaskSpawner(taskSpawner);
+		tm.scheduleTask(task, 10);
+		assertFalse(task.isOrderKeyAssigned());
+	}
+
+	/*
+	 * Schedules a task which schedules a task in each of 3 ticks, returns the
+	 * order keys of the 4 tasks
+	 */
+	private List<Long> scheduleSeeded(long seed) {
+		TaskManager manager = new TaskManager(0, 4, 3, null);
+		manager.setExitOnShutdown(false);
+		manager.setRandomSeed(seed);
+		final TaskSpawner ts = new TaskSpawnerImpl(manager);
+		final List<Long> keys = Collections
+				.synchronizedList(new ArrayList<Long>());
+		FrameworkTaskImpl parent = new FrameworkTaskImpl() {
+			@Override
+			protected void runThisFrameworkTask() {
+				FrameworkTaskImpl child = new MockFrameworkTask(100);
+				ts.addTask(child);
+				keys.add(child.getOrderKey());
+			}
+		};
+		ts.addTask(parent);
+		keys.add(0, parent.getOrderKey());
+		manager.resumeTasks();
+		try {
+			Thread.sleep(200);
+		} catch (InterruptedException e) {
+			e.printStackTrace();
+		}
+		manager.pauseTasks();
+		AgentContext.getCurrent().setRandomSource(new RandomSource());
+		return keys;
+	}
+
+	/*
+	 * Runs 3 ticks of 10 tasks drawing random numbers, returns the draws of
+	 * each task in creation order
+	 */
+	private List<List<Long>> runSeeded(long seed) {
+		TaskManager manager = new TaskManager(0, 4, 3, null);
+		manager.setExitOnShutdown(false);
+		manager.setRandomSeed(seed);
+		assertTrue(manager.isDeterministic());
+		TaskSpawner ts = new TaskSpawnerImpl(manager);
+		List<List<Long>> draws = new ArrayList<List<Long>>();
+		for (int i = 0; i < 10; i++) {
+			final List<Long> taskDraws = Collections
+					.synchronizedList(new ArrayList<Long>());
+			draws.add(taskDraws);
+			ts.addTask(new FrameworkTaskImpl() {
+				@Override
+				protected void runThisFrameworkTask() {
+					taskDraws.add(RandomSource.getCurrent().nextLong());
+				}
+			});
+		}
+		manager.resumeTasks();
+		try {
+			Thread.sleep(200);
+		} catch (InterruptedException e) {
+			e.printStackTrace();
+		}
+		manager.pauseTasks();
+		AgentContext.getCurrent().setRandomSource(new RandomSource());
+		for (List<Long> taskDraws : draws) {
+			assertEquals(3, taskDraws.size());
+		}
+		return draws;
+	}
+
+	/*
+	 * Task recording when it is recycled
+	 */
+	private static class RecyclingTask extends FrameworkTaskImpl implements
+			RecyclableTask {
+
+		private final boolean finish;
+		private final AtomicInteger recycled = new AtomicInteger();
+		private volatile boolean inCall;
+		private volatile boolean recycledInCall;
+
+		public RecyclingTask(boolean finish) {
+			super(10);
+			this.finish = finish;
+		}
+
+		@Override
+		public FrameworkTask call() {
+			inCall = true;
+			FrameworkTask t = super.call();
+			inCall = false;
+			return t;
+		}
+
+		@Override
+		protected void runThisFrameworkTask() {
+			if (finish) {
+				cancel();
+			}
+		}
+
+		@Override
+		public void recycle() {
+			recycledInCall |= inCall;
+			recycled.incrementAndGet();
+		}
+	}
+
+	/*
+	 * Codelet that records its run once
+	 */
+	private static class BudgetCodelet extends CodeletImpl {
+
+		private final String name;
+		private final List<String> runs;
+
+		public BudgetCodelet(String name, double activation, List<String> runs) {
+			this.name = name;
+			this.runs = runs;
+			setActivation(activation);
+		}
+
+		@Override
+		protected void runThisFrameworkTask() {
+			runs.add(name + TaskManager.getCurrentTick());
+			cancel();
+		}
+
+		@Override
+		public boolean bufferContainsSoughtContent(WorkspaceBuffer buffer) {
+			return false;
+		}
+
+		@Override
+		public NodeStructure retrieveWorkspaceContent(WorkspaceBuffer buffer) {
+			return null;
+		}
+	}
 }
@@ -0,0 +1,53 @@
+/*******************************************************************************
+ * Copyright (c) 2009, 2011 The University of Memphis.  All rights reserved. 
+ * This program and the accompanying materials are made available 
+ * under the terms of the LIDA Software Framework Non-Commercial License v1.0 
+ * which accompanies this distribution, and is available at
+ * http://ccrg.cs.memphis.edu/assets/papers/2010/LIDA-framework-non-commercial-v1.0.pdf
+ *******************************************************************************/
+package edu.memphis.ccrg.lida.framework.tasks;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Before;
+import org.junit.Test;
+
+public class TaskPoolTest {
+
+	private TaskPool<MockFrameworkTask> pool;
+
+	@Before
+	public void setUp() throws Exception {
+		pool = new TaskPool<MockFrameworkTask>(2);
+	}
+
+	@Test
+	public void testAcquireEmpty() {
+		assertNull(pool.acquire());
+		assertEquals(0, pool.size());
+	}
+
+	@Test
+	public void testReleaseAndAcquire() {
+		MockFrameworkTask task = new MockFrameworkTask();
+		assertTrue(pool.release(task));
+		assertEquals(1, pool.size());
+		assertSame(task, pool.acquire());
+		assertEquals(0, pool.size());
+	}
+
+	@Test
+	public void testCapacity() {
+		assertEquals(2, pool.getCapacity());
+		assertTrue(pool.release(new MockFrameworkTask()));
+		assertTrue(pool.release(new MockFrameworkTask()));
+		assertFalse(pool.release(new MockFrameworkTask()));
+		assertEquals(2, pool.size());
+		pool.clear();
+		assertEquals(0, pool.size());
+	}
+}
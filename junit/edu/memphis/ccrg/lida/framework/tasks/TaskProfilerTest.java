@@ -0,0 +1,111 @@
+/*******************************************************************************
+ * Copyright (c) 2009, 2011 The University of Memphis.  All rights reserved. 
+ * This program and the accompanying materials are made available 
+ * under the terms of the LIDA Software Framework Non-Commercial License v1.0 
+ * which accompanies this distribution, and is available at
+ * http://ccrg.cs.memphis.edu/assets/papers/2010/LIDA-framework-non-commercial-v1.0.pdf
+ *******************************************************************************/
+package edu.memphis.ccrg.lida.framework.tasks;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.StringWriter;
+
+import org.junit.Before;
+import org.junit.Test;
+
+public class TaskProfilerTest {
+
+	private TaskProfiler profiler;
+
+	@Before
+	public void setUp() throws Exception {
+		profiler = new TaskProfiler();
+	}
+
+	@Test
+	public void testGetBucket() {
+		assertEquals(0, TaskClassProfile.getBucket(0));
+		assertEquals(0, TaskClassProfile.getBucket(1));
+		assertEquals(1, TaskClassProfile.getBucket(2));
+		assertEquals(1, TaskClassProfile.getBucket(3));
+		assertEquals(10, TaskClassProfile.getBucket(1024));
+		assertEquals(62, TaskClassProfile.getBucket(Long.MAX_VALUE));
+	}
+
+	@Test
+	public void testRecordTask() {
+		profiler.recordTask(String.class, 1000, 600);
+		profiler.recordTask(String.class, 3000, -1);
+		TaskClassProfile p = profiler.getProfile(String.class);
+		assertEquals(2, p.getInvocationCount());
+		assertEquals(4000, p.getTotalWallTime());
+		assertEquals(600, p.getTotalCpuTime());
+		assertEquals(1, p.getCpuSampleCount());
+		assertEquals(2000.0, p.getMeanWallTime(), 0.00001);
+		assertEquals(1, p.getWallTimeHistogram()[9]);
+		assertEquals(1, p.getWallTimeHistogram()[11]);
+		assertEquals(1, p.getCpuTimeHistogram()[9]);
+		assertNull(profiler.getProfile(Integer.class));
+
+		profiler.reset();
+		assertEquals(0, p.getInvocationCount());
+		assertEquals(0, p.getWallTimeHistogram()[9]);
+	}
+
+	@Test
+	public void testRecordTick() {
+		profiler.recordTick(5, 100, 300);
+		profiler.recordTick(6, 50, 200);
+		assertEquals(2, profiler.getTickCount());
+		assertEquals(150, profiler.getTotalDecayTime());
+		assertEquals(500, profiler.getTotalTaskTime());
+		assertEquals(6, profiler.getLastTick());
+		assertEquals(50, profiler.getLastTickDecayTime());
+		assertEquals(200, profiler.getLastTickTaskTime());
+	}
+
+	@Test
+	public void testProfileTaskManager() throws Exception {
+		TaskManager manager = new TaskManager(0, 4, -1, null);
+		manager.setProfiler(profiler);
+		TaskSpawner ts = new TaskSpawnerImpl(manager);
+		for (int i = 0; i < 3; i++) {
+			ts.addTask(new MockFrameworkTask(1));
+		}
+		manager.setInIntervalMode(true);
+		manager.addTicksToExecute(5);
+		manager.resumeTasks();
+		Thread.sleep(300);
+		manager.pauseTasks();
+
+		assertEquals(5, profiler.getTickCount());
+		TaskClassProfile p = profiler.getProfile(MockFrameworkTask.class);
+		assertNotNull(p);
+		assertEquals(15, p.getInvocationCount());
+		assertTrue(p.getTotalWallTime() > 0);
+
+		StringWriter writer = new StringWriter();
+		profiler.writeReport(writer);
+		assertTrue(writer.toString().contains(
+				MockFrameworkTask.class.getName() + "\t15\t"));
+	}
+
+	@Test
+	public void testDump() throws Exception {
+		profiler.recordTask(String.class, 1000, 600);
+		File file = File.createTempFile("profile", ".txt");
+		file.deleteOnExit();
+		file.delete();
+		profiler.startDumping(file, 20);
+		for (int i = 0; i < 100 && !file.exists(); i++) {
+			Thread.sleep(20);
+		}
+		profiler.stopDumping();
+		assertTrue(file.length() > 0);
+	}
+}
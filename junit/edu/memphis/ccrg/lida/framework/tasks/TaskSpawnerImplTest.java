@@ -8,6 +8,7 @@
 package edu.memphis.ccrg.lida.framework.tasks;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
 
 import java.util.ArrayList;
@@ -235,4 +236,24 @@ public class TaskSpawnerImplTest {
 		assertEquals(1, taskSpawner.getTasks().size());
 	}
 
+	@Test
+	public void testReceiveFinishedTaskDoesNotRecycle() {
+		RecyclableMockTask task = new RecyclableMockTask();
+		taskSpawner.addTask(task);
+		task.cancel();
+		taskSpawner.receiveFinishedTask(task);
+		assertFalse(task.recycled);
+		assertFalse(taskSpawner.containsTask(task));
+	}
+
+	private static class RecyclableMockTask extends MockFrameworkTask implements
+			RecyclableTask {
+		private boolean recycled;
+
+		@Override
+		public void recycle() {
+			recycled = true;
+		}
+	}
+
 }
@@ -0,0 +1,119 @@
+/*******************************************************************************
+ * Copyright (c) 2009, 2011 The University of Memphis.  All rights reserved. 
+ * This program and the accompanying materials are made available 
+ * under the terms of the LIDA Software Framework Non-Commercial License v1.0 
+ * which accompanies this distribution, and is available at
+ * http://ccrg.cs.memphis.edu/assets/papers/2010/LIDA-framework-non-commercial-v1.0.pdf
+ *******************************************************************************/
+package edu.memphis.ccrg.lida.framework.tasks;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.concurrent.locks.LockSupport;
+
+import org.junit.Before;
+import org.junit.Test;
+
+public class TickPacerTest {
+
+	private static final long PERIOD = 1000000L;
+
+	private TickPacer pacer;
+
+	@Before
+	public void setUp() throws Exception {
+		pacer = new TickPacer();
+	}
+
+	@Test
+	public void testSteadyTicks() {
+		long start = System.nanoTime();
+		pacer.startTick();
+		for (int i = 0; i < 20; i++) {
+			pacer.awaitNextTick(PERIOD, 1);
+		}
+		assertTrue(System.nanoTime() - start >= 20 * PERIOD);
+		TickJitterStats stats = pacer.getStats();
+		assertEquals(20, stats.getTickCount());
+		assertTrue(stats.getMaxJitter() >= 0);
+	}
+
+	@Test
+	public void testSkippedTicks() {
+		long start = System.nanoTime();
+		pacer.startTick();
+		pacer.awaitNextTick(PERIOD, 5);
+		assertTrue(System.nanoTime() - start >= 5 * PERIOD);
+	}
+
+	@Test
+	public void testSkip() {
+		pacer.setCatchUpPolicy(CatchUpPolicy.SKIP);
+		long start = System.nanoTime();
+		pacer.startTick();
+		busyWait(start + 3 * PERIOD + PERIOD / 2);
+		pacer.awaitNextTick(PERIOD, 1);
+		assertTrue(System.nanoTime() - start >= 4 * PERIOD);
+		TickJitterStats stats = pacer.getStats();
+		assertTrue(stats.getLateTickCount() >= 1);
+		assertTrue(stats.getSkippedSlotCount() >= 3);
+	}
+
+	@Test
+	public void testBurst() {
+		pacer.setCatchUpPolicy(CatchUpPolicy.BURST);
+		long start = System.nanoTime();
+		pacer.startTick();
+		busyWait(start + 3 * PERIOD + PERIOD / 2);
+		for (int i = 0; i < 4; i++) {
+			pacer.awaitNextTick(PERIOD, 1);
+		}
+		// the missed ticks are made up, 4 ticks take 4 periods in total
+		assertTrue(System.nanoTime() - start >= 4 * PERIOD);
+		TickJitterStats stats = pacer.getStats();
+		assertTrue(stats.getLateTickCount() >= 3);
+		assertEquals(0, stats.getSkippedSlotCount());
+	}
+
+	@Test
+	public void testStretch() {
+		pacer.setCatchUpPolicy(CatchUpPolicy.STRETCH);
+		long start = System.nanoTime();
+		pacer.startTick();
+		busyWait(start + 3 * PERIOD + PERIOD / 2);
+		pacer.awaitNextTick(PERIOD, 1);
+		pacer.awaitNextTick(PERIOD, 1);
+		assertTrue(System.nanoTime() - start >= 4 * PERIOD + PERIOD / 2);
+		TickJitterStats stats = pacer.getStats();
+		assertTrue(stats.getLateTickCount() >= 1);
+		assertEquals(0, stats.getSkippedSlotCount());
+	}
+
+	@Test
+	public void testResetStats() {
+		pacer.startTick();
+		pacer.awaitNextTick(PERIOD, 1);
+		pacer.resetStats();
+		assertEquals(0, pacer.getStats().getTickCount());
+	}
+
+	@Test
+	public void testTaskManagerTickDuration() {
+		TaskManager tm = new TaskManager(3, 1, -1, null);
+		assertEquals(3, tm.getTickDuration());
+		assertEquals(3 * PERIOD, tm.getTickDurationNanos());
+		tm.setTickDurationNanos(500000L);
+		assertEquals(0, tm.getTickDuration());
+		assertEquals(500000L, tm.getTickDurationNanos());
+		assertEquals(CatchUpPolicy.SKIP, tm.getCatchUpPolicy());
+		tm.setCatchUpPolicy(CatchUpPolicy.BURST);
+		assertEquals(CatchUpPolicy.BURST, tm.getCatchUpPolicy());
+	}
+
+	private static void busyWait(long until) {
+		while (System.nanoTime() < until) {
+			LockSupport.parkNanos(until - System.nanoTime());
+		}
+	}
+}
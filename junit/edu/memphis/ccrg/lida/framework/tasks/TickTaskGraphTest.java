@@ -0,0 +1,171 @@
+/*******************************************************************************
+ * Copyright (c) 2009, 2011 The University of Memphis.  All rights reserved. 
+ * This program and the accompanying materials are made available 
+ * under the terms of the LIDA Software Framework Non-Commercial License v1.0 
+ * which accompanies this distribution, and is available at
+ * http://ccrg.cs.memphis.edu/assets/papers/2010/LIDA-framework-non-commercial-v1.0.pdf
+ *******************************************************************************/
+package edu.memphis.ccrg.lida.framework.tasks;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import edu.memphis.ccrg.lida.framework.AgentContext;
+import edu.memphis.ccrg.lida.framework.ModuleDependencies;
+import edu.memphis.ccrg.lida.framework.ModuleName;
+import edu.memphis.ccrg.lida.framework.mockclasses.MockFrameworkModule;
+
+public class TickTaskGraphTest {
+
+	private ExecutorService executor;
+	private TickTaskGraph graph;
+	private List<String> events;
+	private MockFrameworkModule moduleA;
+	private MockFrameworkModule moduleB;
+	private MockFrameworkModule bufferB;
+
+	@Before
+	public void setUp() throws Exception {
+		executor = Executors.newFixedThreadPool(4);
+		graph = new TickTaskGraph();
+		events = Collections.synchronizedList(new ArrayList<String>());
+		moduleA = newModule("GraphTestA");
+		moduleB = newModule("GraphTestB");
+		bufferB = newModule("GraphTestBufferB");
+		moduleB.addSubModule(bufferB);
+	}
+
+	@After
+	public void tearDown() throws Exception {
+		executor.shutdownNow();
+	}
+
+	private static MockFrameworkModule newModule(String name) {
+		MockFrameworkModule m = new MockFrameworkModule();
+		m.setModuleName(ModuleName.addModuleName(name));
+		return m;
+	}
+
+	@Test
+	public void testIndependentTaskRunsDuringDecay() throws Exception {
+		final CountDownLatch taskRan = new CountDownLatch(1);
+		graph.addDecay(moduleA, record("decayA"));
+		graph.addDecay(moduleB, new Callable<Void>() {
+			@Override
+			public Void call() throws Exception {
+				taskRan.await(2, TimeUnit.SECONDS);
+				events.add("decayB");
+				return null;
+			}
+		});
+		DependentTask task = new DependentTask();
+		task.addReadModule(moduleA.getModuleName());
+		graph.addTask(tasks(task), new Callable<Void>() {
+			@Override
+			public Void call() {
+				events.add("task");
+				taskRan.countDown();
+				return null;
+			}
+		});
+		graph.run(executor, AgentContext.getDefault());
+		assertEquals(3, events.size());
+		assertTrue(events.indexOf("decayA") < events.indexOf("task"));
+		assertTrue(events.indexOf("task") < events.indexOf("decayB"));
+	}
+
+	@Test
+	public void testSubmoduleDependency() throws Exception {
+		graph.addDecay(moduleA, record("decayA"));
+		graph.addDecay(moduleB, slow("decayB"));
+		DependentTask task = new DependentTask();
+		task.addWrittenModule(bufferB.getModuleName());
+		graph.addTask(tasks(task), record("task"));
+		graph.run(executor, AgentContext.getDefault());
+		assertTrue(events.indexOf("decayB") < events.indexOf("task"));
+	}
+
+	@Test
+	public void testUndeclaredTaskWaitsForAllDecays() throws Exception {
+		graph.addDecay(moduleA, slow("decayA"));
+		graph.addDecay(moduleB, slow("decayB"));
+		graph.addTask(tasks(new DependentTask()), record("task"));
+		graph.run(executor, AgentContext.getDefault());
+		assertEquals("task", events.get(2));
+		assertEquals(1, graph.getGroupCount());
+	}
+
+	@Test
+	public void testWrittenModulesOfModule() throws Exception {
+		DependentModule notifier = new DependentModule();
+		notifier.setModuleName(ModuleName.addModuleName("GraphTestNotifier"));
+		notifier.written.add(moduleB.getModuleName());
+		graph.addDecay(notifier, record("decayNotifier"));
+		graph.addDecay(moduleB, slow("decayB"));
+		DependentTask task = new DependentTask();
+		task.addWrittenModule(notifier.getModuleName());
+		graph.addTask(tasks(task), record("task"));
+		graph.run(executor, AgentContext.getDefault());
+		assertEquals("task", events.get(2));
+	}
+
+	private static Collection<FrameworkTask> tasks(FrameworkTask t) {
+		return Collections.singletonList(t);
+	}
+
+	private Callable<Void> record(final String event) {
+		return new Callable<Void>() {
+			@Override
+			public Void call() {
+				events.add(event);
+				return null;
+			}
+		};
+	}
+
+	private Callable<Void> slow(final String event) {
+		return new Callable<Void>() {
+			@Override
+			public Void call() throws Exception {
+				Thread.sleep(20);
+				events.add(event);
+				return null;
+			}
+		};
+	}
+
+	private static class DependentTask extends FrameworkTaskImpl {
+		@Override
+		protected void runThisFrameworkTask() {
+		}
+	}
+
+	private static class DependentModule extends MockFrameworkModule implements
+			ModuleDependencies {
+		private final List<ModuleName> written = new ArrayList<ModuleName>();
+
+		@Override
+		public Collection<ModuleName> getReadModules() {
+			return Collections.emptyList();
+		}
+
+		@Override
+		public Collection<ModuleName> getWrittenModules() {
+			return written;
+		}
+	}
+}
@@ -0,0 +1,157 @@
+/*******************************************************************************
+ * Copyright (c) 2009, 2011 The University of Memphis.  All rights reserved. 
+ * This program and the accompanying materials are made available 
+ * under the terms of the LIDA Software Framework Non-Commercial License v1.0 
+ * which accompanies this distribution, and is available at
+ * http://ccrg.cs.memphis.edu/assets/papers/2010/LIDA-framework-non-commercial-v1.0.pdf
+ *******************************************************************************/
+package edu.memphis.ccrg.lida.framework.tasks;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+import org.junit.Before;
+import org.junit.Test;
+
+public class TimingWheelTaskSchedulerTest {
+
+	private TimingWheelTaskScheduler scheduler;
+
+	@Before
+	public void setUp() throws Exception {
+		scheduler = new TimingWheelTaskScheduler();
+	}
+
+	/*
+	 * Polls the scheduler the way the TaskManager does, recording the tick at
+	 * which each task is returned.
+	 */
+	private Map<FrameworkTask, Long> runAll() {
+		Map<FrameworkTask, Long> ran = new HashMap<FrameworkTask, Long>();
+		long next;
+		while ((next = scheduler.getNextScheduledTick()) >= 0) {
+			Collection<FrameworkTask> tasks = scheduler.pollTasks(next);
+			if (tasks != null) {
+				for (FrameworkTask t : tasks) {
+					assertNull(ran.put(t, next));
+				}
+			}
+		}
+		return ran;
+	}
+
+	@Test
+	public void testTasksRunAtTheirTick() {
+		long[] ticks = { 1, 2, 63, 64, 65, 127, 128, 4095, 4096, 4097, 100000,
+				1L << 30, (1L << 40) + 3 };
+		Map<FrameworkTask, Long> expected = new HashMap<FrameworkTask, Long>();
+		for (long tick : ticks) {
+			MockFrameworkTask task = new MockFrameworkTask();
+			assertEquals(tick, scheduler.scheduleTask(task, tick));
+			assertEquals(tick, task.getScheduledTick());
+			expected.put(task, tick);
+		}
+		assertEquals(expected, runAll());
+		assertEquals(-1, scheduler.getNextScheduledTick());
+	}
+
+	@Test
+	public void testRandomTicks() {
+		Random random = new Random(7);
+		Map<FrameworkTask, Long> expected = new HashMap<FrameworkTask, Long>();
+		for (int i = 0; i < 2000; i++) {
+			long tick = 1 + random.nextInt(200000);
+			MockFrameworkTask task = new MockFrameworkTask();
+			scheduler.scheduleTask(task, tick);
+			expected.put(task, tick);
+		}
+		assertEquals(expected, runAll());
+	}
+
+	@Test
+	public void testSameTickScheduledTwice() {
+		MockFrameworkTask task = new MockFrameworkTask();
+		scheduler.scheduleTask(task, 70);
+		scheduler.scheduleTask(task, 70);
+		Collection<FrameworkTask> tasks = scheduler.pollTasks(70);
+		assertEquals(1, tasks.size());
+	}
+
+	@Test
+	public void testCancelTask() {
+		MockFrameworkTask task1 = new MockFrameworkTask();
+		MockFrameworkTask task2 = new MockFrameworkTask();
+		scheduler.scheduleTask(task1, 300);
+		scheduler.scheduleTask(task2, 300);
+		assertTrue(scheduler.cancelTask(task1));
+		assertFalse(scheduler.cancelTask(task1));
+		Map<FrameworkTask, Long> ran = runAll();
+		assertFalse(ran.containsKey(task1));
+		assertEquals(300L, (long) ran.get(task2));
+	}
+
+	@Test
+	public void testRescheduleTask() {
+		MockFrameworkTask task = new MockFrameworkTask();
+		scheduler.scheduleTask(task, 5000);
+		scheduler.scheduleTask(task, 20);
+		Map<FrameworkTask, Long> ran = runAll();
+		assertEquals(1, ran.size());
+		assertEquals(20L, (long) ran.get(task));
+	}
+
+	@Test
+	public void testScheduleInThePast() {
+		scheduler.pollTasks(100);
+		MockFrameworkTask task = new MockFrameworkTask();
+		assertEquals(101, scheduler.scheduleTask(task, 50));
+		assertEquals(101, task.getScheduledTick());
+		assertTrue(scheduler.pollTasks(101).contains(task));
+	}
+
+	@Test
+	public void testGetScheduledTasks() {
+		MockFrameworkTask task1 = new MockFrameworkTask();
+		MockFrameworkTask task2 = new MockFrameworkTask();
+		scheduler.scheduleTask(task1, 40);
+		scheduler.scheduleTask(task2, 80);
+		Map<Long, Set<FrameworkTask>> queue = scheduler
+				.getScheduledTasks();
+		assertTrue(queue.get(40L).contains(task1));
+		assertTrue(queue.get(80L).contains(task2));
+		scheduler.clear();
+		assertTrue(scheduler.getScheduledTasks().isEmpty());
+		assertEquals(-1, scheduler.getNextScheduledTick());
+	}
+
+	@Test
+	public void testTaskManagerWithTimingWheel() {
+		TaskManager tm = new TaskManager(0, 10, -1, null,
+				new TimingWheelTaskScheduler());
+		MockFrameworkTask task1 = new MockFrameworkTask(10);
+		task1.setControllingTaskSpawner(new MockTaskSpawner());
+		tm.scheduleTask(task1, 100);
+		MockFrameworkTask task2 = new MockFrameworkTask(10);
+		task2.setControllingTaskSpawner(new MockTaskSpawner());
+		tm.scheduleTask(task2, 10000);
+		assertEquals(10000, tm.getMaxTick());
+		tm.resumeTasks();
+		try {
+			Thread.sleep(500);
+		} catch (InterruptedException e) {
+			e.printStackTrace();
+		}
+		assertTrue(task1.wasRun);
+		assertTrue(task2.wasRun);
+		assertEquals(10000, TaskManager.getCurrentTick());
+		tm.pauseTasks();
+	}
+}
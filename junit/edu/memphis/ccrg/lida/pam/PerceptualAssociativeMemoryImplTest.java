@@ -47,6 +47,7 @@ import edu.memphis.ccrg.lida.framework.strategies.TotalActivationStrategy;
 import edu.memphis.ccrg.lida.framework.tasks.FrameworkTask;
 import edu.memphis.ccrg.lida.framework.tasks.TaskSpawner;
 import edu.memphis.ccrg.lida.pam.tasks.DetectionAlgorithm;
+import edu.memphis.ccrg.lida.pam.tasks.ExcitationTask;
 
 /**
  * Tests {@link PerceptualAssociativeMemoryImpl}
@@ -789,4 +790,59 @@ public class PerceptualAssociativeMemoryImplTest {
 		assertEquals(categoryCount + 1, pam.getLinkCategories().size());
 	}
 
+	@Test
+	public void testCoalesceExcitations() {
+		MockTaskSpawner ts = new MockTaskSpawner();
+		pam.setAssistingTaskSpawner(ts);
+		pam.setCoalesceExcitations(true);
+		pam.setPerceptThreshold(1.0);
+		assertTrue(pam.isCoalesceExcitations());
+		PamNode n = pam.addDefaultNode("coalesced");
+		PamNode other = pam.addDefaultNode("other");
+
+		pam.receiveExcitation(n, 0.2);
+		pam.receiveExcitation(n, 0.3);
+		pam.receiveExcitation(other, 0.1);
+		pam.receiveExcitation(n, 0.1);
+
+		assertEquals(2, ts.getTasks().size());
+		ExcitationTask task = (ExcitationTask) ts.tasks.get(0);
+		assertEquals(0.6, task.getExcitationAmount(), epsilon);
+
+		task.call();
+		assertEquals(0.6, n.getActivation(), epsilon);
+		pam.receiveExcitation(n, 0.2);
+		assertEquals(3, ts.getTasks().size());
+	}
+
+	@Test
+	public void testExcitationCombiner() {
+		MockTaskSpawner ts = new MockTaskSpawner();
+		pam.setAssistingTaskSpawner(ts);
+		pam.setCoalesceExcitations(true);
+		assertEquals(BasicExcitationCombiner.SUM, pam.getExcitationCombiner());
+		pam.setExcitationCombiner(BasicExcitationCombiner.MAX);
+		PamNode n = pam.addDefaultNode("coalesced");
+
+		pam.receiveExcitation(n, 0.2);
+		pam.receiveExcitation(n, 0.3);
+		pam.receiveExcitation(n, 0.1);
+
+		assertEquals(1, ts.getTasks().size());
+		ExcitationTask task = (ExcitationTask) ts.tasks.get(0);
+		assertEquals(0.3, task.getExcitationAmount(), epsilon);
+	}
+
+	@Test
+	public void testNoCoalescingByDefault() {
+		MockTaskSpawner ts = new MockTaskSpawner();
+		pam.setAssistingTaskSpawner(ts);
+		PamNode n = pam.addDefaultNode("coalesced");
+
+		pam.receiveExcitation(n, 0.2);
+		pam.receiveExcitation(n, 0.3);
+
+		assertEquals(2, ts.getTasks().size());
+	}
+
 }
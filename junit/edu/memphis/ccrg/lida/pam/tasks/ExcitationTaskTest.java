@@ -8,6 +8,9 @@
 package edu.memphis.ccrg.lida.pam.tasks;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
 
 import java.util.Collection;
@@ -15,6 +18,7 @@ import java.util.Collection;
 import org.junit.Before;
 import org.junit.Test;
 
+import edu.memphis.ccrg.lida.framework.AgentContext;
 import edu.memphis.ccrg.lida.framework.mockclasses.MockPAM;
 import edu.memphis.ccrg.lida.framework.mockclasses.MockTaskSpawner;
 import edu.memphis.ccrg.lida.framework.strategies.LinearExciteStrategy;
@@ -77,4 +81,57 @@ public class ExcitationTaskTest {
 		assertEquals(TaskStatus.CANCELED, excite.getTaskStatus());
 	}
 
+	@Test
+	public void testAcquireRecycled() {
+		ExcitationTask.getPool().clear();
+		pam.setPerceptThreshold(1.0);
+		pamNode.setExciteStrategy(new LinearExciteStrategy());
+		ExcitationTask excite = ExcitationTask.acquire(1, pamNode, 0.5, pam);
+		excite.call();
+		assertEquals(TaskStatus.CANCELED, excite.getTaskStatus());
+		long id = excite.getTaskId();
+
+		excite.recycle();
+		assertEquals(1, ExcitationTask.getPool().size());
+		excite.recycle();
+		assertEquals(1, ExcitationTask.getPool().size());
+
+		ExcitationTask excite2 = ExcitationTask.acquire(2, pamNode, 0.25, pam);
+		assertSame(excite, excite2);
+		assertFalse(id == excite2.getTaskId());
+		assertEquals(TaskStatus.RUNNING, excite2.getTaskStatus());
+		assertEquals(2, excite2.getTicksPerRun());
+		assertNull(excite2.getControllingTaskSpawner());
+		excite2.call();
+		assertEquals(pamNode.getActivation(), 0.75, epsilon);
+	}
+
+	@Test
+	public void testNewTaskNotRecycled() {
+		ExcitationTask.getPool().clear();
+		ExcitationTask excite = new ExcitationTask(1, pamNode, 0.5, pam);
+		excite.recycle();
+		assertEquals(0, ExcitationTask.getPool().size());
+	}
+
+	@Test
+	public void testPoolPerAgent() {
+		ExcitationTask.getPool().clear();
+		ExcitationTask excite = ExcitationTask.acquire(1, pamNode, 0.5, pam);
+		excite.call();
+		excite.recycle();
+		assertEquals(1, ExcitationTask.getPool().size());
+
+		AgentContext previous = AgentContext.setCurrent(new AgentContext());
+		try {
+			assertEquals(0, ExcitationTask.getPool().size());
+			ExcitationTask other = ExcitationTask.acquire(1, pamNode, 0.5,
+					pam);
+			assertFalse(excite == other);
+		} finally {
+			AgentContext.setCurrent(previous);
+		}
+		assertEquals(1, ExcitationTask.getPool().size());
+	}
+
 }
@@ -19,6 +19,7 @@ import org.junit.Before;
 import org.junit.BeforeClass;
 import org.junit.Test;
 
+import edu.memphis.ccrg.lida.framework.ModuleName;
 import edu.memphis.ccrg.lida.framework.initialization.ModuleUsage;
 import edu.memphis.ccrg.lida.framework.mockclasses.MockWorkspaceBufferImpl;
 import edu.memphis.ccrg.lida.framework.shared.ElementFactory;
@@ -165,4 +166,26 @@ public class BasicStructureBuildingCodeletTest {
 		assertTrue(NodeStructureImpl.compareNodeStructures(readableContent, ns));
 	}
 
+	@Test
+	public void testModuleDependencies() {
+		readableBuffer.setModuleName(ModuleName.PerceptualBuffer);
+		writeableBuffer.setModuleName(ModuleName.CurrentSituationalModel);
+		codelet.setAssociatedModule(readableBuffer, ModuleUsage.TO_READ_FROM);
+		codelet.setAssociatedModule(writeableBuffer, ModuleUsage.TO_WRITE_TO);
+		assertTrue(codelet.getReadModules().contains(
+				ModuleName.PerceptualBuffer));
+		assertTrue(codelet.getWrittenModules().contains(
+				ModuleName.CurrentSituationalModel));
+
+		codelet.reset();
+		assertNull(codelet.getReadModules());
+		assertNull(codelet.getWrittenModules());
+
+		MockStructureBuildingCodeletImpl mock = new MockStructureBuildingCodeletImpl();
+		mock.setAssociatedModule(readableBuffer, ModuleUsage.TO_READ_FROM);
+		mock.setAssociatedModule(writeableBuffer, ModuleUsage.TO_WRITE_TO);
+		assertNull(mock.getReadModules());
+		assertNull(mock.getWrittenModules());
+	}
+
 }
@@ -7,6 +7,7 @@
  *******************************************************************************/
 package edu.memphis.ccrg.lida.actionselection;
 
+import edu.memphis.ccrg.lida.framework.AgentContext;
 import edu.memphis.ccrg.lida.framework.initialization.InitializableImpl;
 
 /**
@@ -18,7 +19,6 @@ import edu.memphis.ccrg.lida.framework.initialization.InitializableImpl;
  */
 public class ActionImpl extends InitializableImpl implements Action {
 
-	private static int idGenerator = 0;
 	private int id;
 	private String label;
 
@@ -26,7 +26,7 @@ public class ActionImpl extends InitializableImpl implements Action {
 	 * Default constructor
 	 */
 	public ActionImpl() {
-		id = idGenerator++;
+		id = AgentContext.getCurrent().getNextActionId();
 	}
 
 	/**
@@ -23,6 +23,7 @@ import edu.memphis.ccrg.lida.framework.ModuleListener;
 import edu.memphis.ccrg.lida.framework.initialization.Initializable;
 import edu.memphis.ccrg.lida.framework.shared.ElementFactory;
 import edu.memphis.ccrg.lida.framework.strategies.DecayStrategy;
+import edu.memphis.ccrg.lida.framework.tasks.ChangeSignal;
 import edu.memphis.ccrg.lida.framework.tasks.FrameworkTaskImpl;
 import edu.memphis.ccrg.lida.framework.tasks.TaskManager;
 import edu.memphis.ccrg.lida.globalworkspace.BroadcastListener;
@@ -44,6 +45,7 @@ public class BasicActionSelection extends FrameworkModuleImpl implements
 
 	private List<ActionSelectionListener> listeners = new ArrayList<ActionSelectionListener>();
 	private Set<Behavior> behaviors = Collections.newSetFromMap(new ConcurrentHashMap<Behavior,Boolean>());
+	private final ChangeSignal behaviorSignal = new ChangeSignal();
 	private double maxActivationThreshold;
 	private DecayStrategy behaviorDecayStrategy;
 
@@ -105,7 +107,7 @@ public class BasicActionSelection extends FrameworkModuleImpl implements
 		ticksPerRun = (Integer) getParam(
 				"actionSelection.backgroundTaskTicksPerRun",
 				DEFAULT_TICKS_PER_RUN);
-		taskSpawner.addTask(new ActionSelectionBackgroundTask(ticksPerRun));
+		taskSpawner.addRecurringTask(new ActionSelectionBackgroundTask(ticksPerRun));
 
 		ElementFactory factory = ElementFactory.getInstance();
 		String decayType = (String) getParam(
@@ -133,9 +135,14 @@ public class BasicActionSelection extends FrameworkModuleImpl implements
 		listeners.add(listener);
 	}
 
+	/*
+	 * Parks when there are no behaviors and the candidate threshold is 0,
+	 * until a behavior is received.
+	 */
 	private class ActionSelectionBackgroundTask extends FrameworkTaskImpl {
 		public ActionSelectionBackgroundTask(int ticksPerRun) {
 			super(ticksPerRun);
+			setWakeupSignal(behaviorSignal);
 		}
 
 		@Override
@@ -148,6 +155,9 @@ public class BasicActionSelection extends FrameworkModuleImpl implements
 				if (candidateThreshold < 0.0) {
 					candidateThreshold = 0.0;
 				}
+				if (candidateThreshold == 0.0 && behaviors.isEmpty()) {
+					park();
+				}
 			}
 		}
 	}
@@ -161,6 +171,7 @@ public class BasicActionSelection extends FrameworkModuleImpl implements
 				b.setActivation(b.getScheme().getTotalActivation());
 				behaviors.add(b);
 			}
+			behaviorSignal.signal();
 			logger.log(Level.FINE, "Behavior added {1}", new Object[] {
 					TaskManager.getCurrentTick(), b });
 		} else {
@@ -26,9 +26,11 @@ import edu.memphis.ccrg.lida.actionselection.Behavior;
 import edu.memphis.ccrg.lida.actionselection.PreafferenceListener;
 import edu.memphis.ccrg.lida.framework.FrameworkModuleImpl;
 import edu.memphis.ccrg.lida.framework.ModuleListener;
+import edu.memphis.ccrg.lida.framework.RandomSource;
 import edu.memphis.ccrg.lida.framework.initialization.Initializable;
 import edu.memphis.ccrg.lida.framework.shared.ElementFactory;
 import edu.memphis.ccrg.lida.framework.strategies.DecayStrategy;
+import edu.memphis.ccrg.lida.framework.tasks.ChangeSignal;
 import edu.memphis.ccrg.lida.framework.tasks.FrameworkTaskImpl;
 import edu.memphis.ccrg.lida.framework.tasks.TaskManager;
 import edu.memphis.ccrg.lida.proceduralmemory.Condition;
@@ -115,6 +117,11 @@ public class BehaviorNetwork extends FrameworkModuleImpl implements
 	 */
 	private ConcurrentMap<Integer, Behavior> behaviors = new ConcurrentHashMap<Integer, Behavior>();
 
+	/*
+	 * Raised when a behavior is received, wakes up the parked background task
+	 */
+	private final ChangeSignal behaviorSignal = new ChangeSignal();
+
 	/*
 	 * Map of behaviors indexed by the elements appearing in their context
 	 * conditions.
@@ -201,7 +208,7 @@ public class BehaviorNetwork extends FrameworkModuleImpl implements
 				DEFAULT_BEHAVIOR_DECAY_NAME);
 		behaviorDecayStrategy = factory.getDecayStrategy(name);
 
-		taskSpawner.addTask(new BehaviorNetworkBackgroundTask());
+		taskSpawner.addRecurringTask(new BehaviorNetworkBackgroundTask());
 	}
 
 	@Override
@@ -237,6 +244,7 @@ public class BehaviorNetwork extends FrameworkModuleImpl implements
 			indexBehaviorByElements(b, b.getAddingList(), behaviorsByAddingItem);
 			indexBehaviorByElements(b, b.getDeletingList(),
 					behaviorsByDeletingItem);
+			behaviorSignal.signal();
 		}
 	}
 
@@ -257,15 +265,28 @@ public class BehaviorNetwork extends FrameworkModuleImpl implements
 		}
 	}
 
+	/*
+	 * Parks when there are no behaviors and the candidate threshold cannot be
+	 * reduced any further, until a behavior is received.
+	 */
 	private class BehaviorNetworkBackgroundTask extends FrameworkTaskImpl {
+
+		public BehaviorNetworkBackgroundTask() {
+			setWakeupSignal(behaviorSignal);
+		}
+
 		@Override
 		public void runThisFrameworkTask() {
+			double threshold = candidateThreshold;
 			passActivationFromSchemes();
 			passActivationAmongBehaviors();
 			attemptActionSelection();
 			logger.log(Level.FINEST,
 					"BehaviorNetwork completes one execution cycle.",
 					TaskManager.getCurrentTick());
+			if (behaviors.isEmpty() && threshold == candidateThreshold) {
+				park();
+			}
 		}
 	}
 
@@ -304,8 +325,9 @@ public class BehaviorNetwork extends FrameworkModuleImpl implements
 	 */
 	private Object[] getRandomPermutation() {
 		Object[] keys = (Object[]) behaviors.keySet().toArray();
+		RandomSource random = RandomSource.getCurrent();
 		for (int i = 0; i < keys.length - 1; i++) {
-			int swapPosition = (int) (Math.random() * (keys.length - i)) + i;
+			int swapPosition = random.nextInt(keys.length - i) + i;
 			Object stored = keys[i];
 			keys[i] = keys[swapPosition];
 			keys[swapPosition] = stored;
@@ -525,7 +547,8 @@ public class BehaviorNetwork extends FrameworkModuleImpl implements
 							winner.getLabel(), maxActivation });
 			break;
 		default:
-			winner = winners.get((int) (Math.random() * winners.size()));
+			winner = winners.get(RandomSource.getCurrent().nextInt(
+					winners.size()));
 			logger.log(Level.FINER, "Winner: {1}  activation: {2}",
 					new Object[] { TaskManager.getCurrentTick(),
 							winner.getLabel(), maxActivation });
@@ -19,6 +19,7 @@ import edu.memphis.ccrg.lida.globalworkspace.Coalition;
 import edu.memphis.ccrg.lida.globalworkspace.CoalitionImpl;
 import edu.memphis.ccrg.lida.globalworkspace.GlobalWorkspace;
 import edu.memphis.ccrg.lida.workspace.workspacebuffers.WorkspaceBuffer;
+import edu.memphis.ccrg.lida.workspace.workspacebuffers.WorkspaceBufferImpl;
 
 /**
  * Abstract implementation of {@link AttentionCodelet} that checks the CSM for
@@ -70,20 +71,51 @@ public abstract class AttentionCodeletImpl extends CodeletImpl implements
 	public void setAssociatedModule(FrameworkModule module, String usage) {
 		if (module instanceof WorkspaceBuffer) {
 			currentSituationalModel = (WorkspaceBuffer) module;
+			if (declaresModuleDependencies()) {
+				addReadModule(module.getModuleName());
+			}
+			if (module instanceof WorkspaceBufferImpl) {
+				setWakeupSignal(((WorkspaceBufferImpl) module)
+						.getChangeSignal());
+			}
 		} else if (module instanceof GlobalWorkspace) {
 			globalWorkspace = (GlobalWorkspace) module;
+			if (declaresModuleDependencies()) {
+				addWrittenModule(module.getModuleName());
+			}
 		} else {
 			logger.log(Level.WARNING, "module {1} cannot be associated",
 					new Object[] { TaskManager.getCurrentTick(), module });
 		}
 	}
 
+	/**
+	 * Returns whether the associated modules are declared as the only modules
+	 * this codelet touches: the current situational model read and the
+	 * {@link GlobalWorkspace} written. False by default since a subclass may
+	 * touch other modules; subclasses known to touch no other module return
+	 * true.
+	 * 
+	 * @return true if the associated modules are declared dependencies
+	 * @see #addReadModule(edu.memphis.ccrg.lida.framework.ModuleName)
+	 */
+	protected boolean declaresModuleDependencies() {
+		return false;
+	}
+
 	/**
 	 * If sought content is found it the CSM, then retrieve it and create a
 	 * coalition from it finally adding it to the {@link GlobalWorkspace}.
+	 * Parks while the CSM is empty.
 	 */
 	@Override
 	protected void runThisFrameworkTask() {
+		if (getWakeupSignal() != null
+				&& currentSituationalModel.getBufferContent(null)
+						.getLinkableCount() == 0) {
+			park();
+			return;
+		}
 		if (bufferContainsSoughtContent(currentSituationalModel)) {
 			NodeStructure csmContent = retrieveWorkspaceContent(currentSituationalModel);
 			if (csmContent == null) {
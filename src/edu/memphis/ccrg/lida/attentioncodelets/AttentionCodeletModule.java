@@ -38,7 +38,7 @@ public class AttentionCodeletModule extends FrameworkModuleImpl implements
 
 	private static final Logger logger = Logger
 			.getLogger(AttentionCodeletModule.class.getCanonicalName());
-	private static ElementFactory factory = ElementFactory.getInstance();
+	private final ElementFactory factory = ElementFactory.getInstance();
 
 	private static final String DEFAULT_CODELET_TYPE = NeighborhoodAttentionCodelet.class
 			.getSimpleName();
@@ -75,6 +75,14 @@ public class BasicAttentionCodelet extends AttentionCodeletImpl {
 	 *            the WorkspaceBuffer to be checked for content
 	 * @return true, if successful
 	 */
+	/**
+	 * Touches only its associated modules.
+	 */
+	@Override
+	protected boolean declaresModuleDependencies() {
+		return true;
+	}
+
 	@Override
 	public boolean bufferContainsSoughtContent(WorkspaceBuffer buffer) {
 		NodeStructure model = (NodeStructure) buffer.getBufferContent(null);
@@ -65,6 +65,14 @@ public class DefaultAttentionCodelet extends AttentionCodeletImpl {
 	 * {@link #attentionThreshold}. Sets the most activated node as the
 	 * codelet's new sought content
 	 */
+	/**
+	 * Touches only its associated modules.
+	 */
+	@Override
+	protected boolean declaresModuleDependencies() {
+		return true;
+	}
+
 	@Override
 	public boolean bufferContainsSoughtContent(WorkspaceBuffer buffer) {
 		double maxActivation = -1.0;
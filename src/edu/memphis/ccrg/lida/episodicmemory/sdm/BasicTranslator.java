@@ -26,7 +26,7 @@ import edu.memphis.ccrg.lida.pam.PerceptualAssociativeMemory;
  */
 public class BasicTranslator implements Translator {
 
-	private static final ElementFactory factory = ElementFactory.getInstance();
+	private final ElementFactory factory = ElementFactory.getInstance();
 	private int size;
 	private PerceptualAssociativeMemory pam;
 
@@ -8,6 +8,7 @@
 package edu.memphis.ccrg.lida.episodicmemory.sdm;
 
 import cern.colt.bitvector.BitVector;
+import edu.memphis.ccrg.lida.framework.RandomSource;
 
 /**
  * Utilities for {@link BitVector}
@@ -25,8 +26,9 @@ public class BitVectorUtils {
 	 */
 	public static BitVector getRandomVector(int s) {
 		BitVector v = new BitVector(s);
+		RandomSource random = RandomSource.getCurrent();
 		for (int i = 0; i < s; i++) {
-			v.putQuick(i, Math.random() > .5);
+			v.putQuick(i, random.nextBoolean());
 		}
 		return v;
 	}
@@ -59,8 +61,9 @@ public class BitVectorUtils {
 	public static BitVector getNoisyVector(BitVector original, int noise) {
 		BitVector v = original.copy();
 		int size = v.size();
+		RandomSource random = RandomSource.getCurrent();
 		for (int i = 0; i < noise; i++) {
-			int pos = (int) (Math.random() * size);
+			int pos = random.nextInt(size);
 			v.putQuick(pos, !v.getQuick(pos));
 		}
 		return v;
@@ -140,10 +143,11 @@ public class BitVectorUtils {
 	 */
 	public static BitVector getNormalizedVector(int[] buff) {
 		BitVector res = new BitVector(buff.length);
+		RandomSource random = RandomSource.getCurrent();
 		for (int i = 0; i < buff.length; i++) {
 			res.putQuick(i, buff[i] > 0);
 			if (buff[i] == 0) {
-				res.putQuick(i, (Math.random() > .5));
+				res.putQuick(i, random.nextBoolean());
 			}
 		}
 		return res;
@@ -11,6 +11,7 @@ import java.util.logging.Level;
 import java.util.logging.Logger;
 
 import cern.colt.bitvector.BitVector;
+import edu.memphis.ccrg.lida.framework.RandomSource;
 import edu.memphis.ccrg.lida.framework.tasks.TaskManager;
 
 /**
@@ -148,11 +149,12 @@ public class SparseDistributedMemoryImpl implements SparseDistributedMemory {
 			}
 		}
 		BitVector res = new BitVector(wordLength);
+		RandomSource random = RandomSource.getCurrent();
 		for (int i = 0; i < wordLength; i++) {
 			boolean aux;
 			if (locationsSum[i] == 0) {
 				// not clear if sum is positive or negative, so assign randomly
-				aux = (Math.random() > 0.5);
+				aux = random.nextBoolean();
 			} else {
 				aux = (locationsSum[i] > 0);
 			}
@@ -0,0 +1,231 @@
+/*******************************************************************************
+ * Copyright (c) 2009, 2011 The University of Memphis.  All rights reserved. 
+ * This program and the accompanying materials are made available 
+ * under the terms of the LIDA Software Framework Non-Commercial License v1.0 
+ * which accompanies this distribution, and is available at
+ * http://ccrg.cs.memphis.edu/assets/papers/2010/LIDA-framework-non-commercial-v1.0.pdf
+ *******************************************************************************/
+package edu.memphis.ccrg.lida.framework;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import edu.memphis.ccrg.lida.framework.initialization.AgentXmlFactory;
+import edu.memphis.ccrg.lida.framework.initialization.GlobalInitializer;
+import edu.memphis.ccrg.lida.framework.shared.ElementFactory;
+import edu.memphis.ccrg.lida.framework.tasks.FrameworkTask;
+import edu.memphis.ccrg.lida.framework.tasks.TaskManager;
+import edu.memphis.ccrg.lida.framework.tasks.TaskPool;
+
+/**
+ * The simulation state of one {@link Agent}: its {@link TaskManager}, its
+ * {@link ElementFactory}, its {@link GlobalInitializer}, its
+ * {@link RandomSource}, its id counters and its {@link TaskPool}s.
+ * Static accessors such as {@link TaskManager#getCurrentTick()} and
+ * {@link ElementFactory#getInstance()} resolve through the context bound to
+ * the current thread, so several agents can run in one JVM. Threads without a
+ * bound context use the default context, the only one used by a single agent.
+ * <p>
+ * A {@link TaskManager} belongs to the context in which it is created. It
+ * binds that context to its main loop thread and to every task it executes.
+ * Agents whose contexts have the same {@link ExecutorService} share its
+ * threads.
+ *
+ * @see AgentXmlFactory#getAgent(java.util.Properties, AgentContext)
+ */
+public class AgentContext {
+
+	private static final AgentContext defaultContext = new AgentContext();
+	private static final ThreadLocal<AgentContext> current = new ThreadLocal<AgentContext>();
+
+	private final ExecutorService executorService;
+	private volatile TaskManager taskManager;
+	private volatile ElementFactory elementFactory;
+	private volatile GlobalInitializer globalInitializer;
+	private volatile RandomSource randomSource = new RandomSource();
+
+	private final AtomicInteger schemeIds = new AtomicInteger();
+	private final AtomicInteger actionIds = new AtomicInteger();
+	private final AtomicInteger coalitionIds = new AtomicInteger();
+	private final ConcurrentMap<Class<?>, TaskPool<?>> taskPools = new ConcurrentHashMap<Class<?>, TaskPool<?>>();
+
+	/**
+	 * Constructs a new context whose {@link TaskManager} creates its own
+	 * {@link ExecutorService}.
+	 */
+	public AgentContext() {
+		this(null);
+	}
+
+	/**
+	 * Constructs a new context whose {@link TaskManager} uses specified
+	 * {@link ExecutorService}. The service may be shared by several contexts
+	 * and is not shut down by the TaskManager.
+	 *
+	 * @param executor
+	 *            the shared {@link ExecutorService} or null
+	 */
+	public AgentContext(ExecutorService executor) {
+		executorService = executor;
+	}
+
+	/**
+	 * @return the context bound to the current thread or the default context
+	 */
+	public static AgentContext getCurrent() {
+		AgentContext c = current.get();
+		return (c == null) ? defaultContext : c;
+	}
+
+	/**
+	 * @return the context used by threads without a bound context
+	 */
+	public static AgentContext getDefault() {
+		return defaultContext;
+	}
+
+	/**
+	 * Binds specified context to the current thread. Callers should restore
+	 * the returned context when done.
+	 *
+	 * @param c
+	 *            the context to bind, null for the default context
+	 * @return the context previously bound to the current thread
+	 */
+	public static AgentContext setCurrent(AgentContext c) {
+		AgentContext previous = getCurrent();
+		if (c == null || c == defaultContext) {
+			current.remove();
+		} else {
+			current.set(c);
+		}
+		return previous;
+	}
+
+	/**
+	 * @return the shared {@link ExecutorService} or null if the
+	 *         {@link TaskManager} creates its own
+	 */
+	public ExecutorService getExecutorService() {
+		return executorService;
+	}
+
+	/**
+	 * @return the {@link TaskManager} of this context or null
+	 */
+	public TaskManager getTaskManager() {
+		return taskManager;
+	}
+
+	/**
+	 * Sets the {@link TaskManager} of this context. Called by the TaskManager
+	 * when it is created.
+	 *
+	 * @param tm
+	 *            the {@link TaskManager}
+	 */
+	public void setTaskManager(TaskManager tm) {
+		taskManager = tm;
+	}
+
+	/**
+	 * @return the {@link ElementFactory} of this context or null if it has not
+	 *         been created yet
+	 * @see ElementFactory#getInstance()
+	 */
+	public ElementFactory getElementFactory() {
+		return elementFactory;
+	}
+
+	/**
+	 * Sets the {@link ElementFactory} of this context.
+	 *
+	 * @param factory
+	 *            the {@link ElementFactory}
+	 */
+	public void setElementFactory(ElementFactory factory) {
+		elementFactory = factory;
+	}
+
+	/**
+	 * @return the {@link GlobalInitializer} of this context or null if it has
+	 *         not been created yet
+	 * @see GlobalInitializer#getInstance()
+	 */
+	public GlobalInitializer getGlobalInitializer() {
+		return globalInitializer;
+	}
+
+	/**
+	 * Sets the {@link GlobalInitializer} of this context.
+	 *
+	 * @param initializer
+	 *            the {@link GlobalInitializer}
+	 */
+	public void setGlobalInitializer(GlobalInitializer initializer) {
+		globalInitializer = initializer;
+	}
+
+	/**
+	 * @return the {@link RandomSource} of this context
+	 */
+	public RandomSource getRandomSource() {
+		return randomSource;
+	}
+
+	/**
+	 * Sets the {@link RandomSource} of this context.
+	 *
+	 * @param source
+	 *            the {@link RandomSource}
+	 */
+	public void setRandomSource(RandomSource source) {
+		randomSource = source;
+	}
+
+	/**
+	 * @return a new scheme id unique in this context
+	 */
+	public int getNextSchemeId() {
+		return schemeIds.getAndIncrement();
+	}
+
+	/**
+	 * @return a new action id unique in this context
+	 */
+	public int getNextActionId() {
+		return actionIds.getAndIncrement();
+	}
+
+	/**
+	 * @return a new coalition id unique in this context
+	 */
+	public int getNextCoalitionId() {
+		return coalitionIds.getAndIncrement();
+	}
+
+	/**
+	 * Returns the pool of recycled tasks of specified type of this context,
+	 * creating it on first use.
+	 *
+	 * @param <T>
+	 *            the type of the pooled tasks
+	 * @param type
+	 *            the class of the pooled tasks
+	 * @return the {@link TaskPool} of specified type
+	 */
+	@SuppressWarnings("unchecked")
+	public <T extends FrameworkTask> TaskPool<T> getTaskPool(Class<T> type) {
+		TaskPool<?> pool = taskPools.get(type);
+		if (pool == null) {
+			TaskPool<T> newPool = new TaskPool<T>();
+			pool = taskPools.putIfAbsent(type, newPool);
+			if (pool == null) {
+				pool = newPool;
+			}
+		}
+		return (TaskPool<T>) pool;
+	}
+}
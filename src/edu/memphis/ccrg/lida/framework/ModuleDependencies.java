@@ -0,0 +1,36 @@
+/*******************************************************************************
+ * Copyright (c) 2009, 2011 The University of Memphis.  All rights reserved. 
+ * This program and the accompanying materials are made available 
+ * under the terms of the LIDA Software Framework Non-Commercial License v1.0 
+ * which accompanies this distribution, and is available at
+ * http://ccrg.cs.memphis.edu/assets/papers/2010/LIDA-framework-non-commercial-v1.0.pdf
+ *******************************************************************************/
+package edu.memphis.ccrg.lida.framework;
+
+import java.util.Collection;
+
+import edu.memphis.ccrg.lida.framework.tasks.TaskManager;
+
+/**
+ * Declares the {@link FrameworkModule}s whose content an object reads and
+ * writes. A task declaring its dependencies only waits, within a tick, for the
+ * decay of the modules it touches, see
+ * {@link TaskManager#setTaskGraphEnabled(boolean)}. A module declares the
+ * other modules written when its own content is written or decayed, e.g. the
+ * listeners it notifies synchronously. Writing or decaying a module also
+ * touches its submodules.
+ */
+public interface ModuleDependencies {
+
+	/**
+	 * @return the {@link ModuleName}s of the modules read, null if they are
+	 *         not known
+	 */
+	public Collection<ModuleName> getReadModules();
+
+	/**
+	 * @return the {@link ModuleName}s of the modules written, null if they are
+	 *         not known
+	 */
+	public Collection<ModuleName> getWrittenModules();
+}
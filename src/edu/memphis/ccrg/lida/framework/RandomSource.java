@@ -0,0 +1,151 @@
+/*******************************************************************************
+ * Copyright (c) 2009, 2011 The University of Memphis.  All rights reserved. 
+ * This program and the accompanying materials are made available 
+ * under the terms of the LIDA Software Framework Non-Commercial License v1.0 
+ * which accompanies this distribution, and is available at
+ * http://ccrg.cs.memphis.edu/assets/papers/2010/LIDA-framework-non-commercial-v1.0.pdf
+ *******************************************************************************/
+package edu.memphis.ccrg.lida.framework;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import edu.memphis.ccrg.lida.framework.tasks.TaskManager;
+
+/**
+ * Seeded and splittable source of random numbers (SplitMix64). Each
+ * {@link AgentContext} has one. Framework code draws its random numbers from
+ * {@link #getCurrent()} instead of {@link Math#random()}.
+ * <p>
+ * {@link #split(long)} derives an independent source from the seed and a key
+ * without advancing this source. In deterministic mode the
+ * {@link TaskManager} binds to each task run a source split from the agent's
+ * seed, the task and the tick, so the numbers a task draws do not depend on
+ * which thread runs it or when. The methods are thread safe.
+ * 
+ * @see TaskManager#setRandomSeed(long)
+ */
+public class RandomSource {
+
+	private static final long GOLDEN_GAMMA = 0x9e3779b97f4a7c15L;
+	private static final double DOUBLE_UNIT = 1.0 / (1L << 53);
+	private static final AtomicLong seedUniquifier = new AtomicLong(
+			0x5deece66dL);
+	private static final ThreadLocal<RandomSource> bound = new ThreadLocal<RandomSource>();
+
+	private final long seed;
+	private final AtomicLong state;
+
+	/**
+	 * Constructs a source with a seed differing from the other unseeded
+	 * sources
+	 */
+	public RandomSource() {
+		this(mix64(System.nanoTime())
+				^ seedUniquifier.addAndGet(GOLDEN_GAMMA));
+	}
+
+	/**
+	 * @param seed
+	 *            the seed
+	 */
+	public RandomSource(long seed) {
+		this.seed = seed;
+		state = new AtomicLong(seed);
+	}
+
+	/**
+	 * @return the source bound to the current thread or the source of the
+	 *         current {@link AgentContext}
+	 */
+	public static RandomSource getCurrent() {
+		RandomSource r = bound.get();
+		return (r == null) ? AgentContext.getCurrent().getRandomSource() : r;
+	}
+
+	/**
+	 * Binds specified source to the current thread. Callers should restore the
+	 * returned source when done.
+	 * 
+	 * @param r
+	 *            the source to bind, null to use the source of the
+	 *            {@link AgentContext}
+	 * @return the source previously bound to the current thread or null
+	 */
+	public static RandomSource bind(RandomSource r) {
+		RandomSource previous = bound.get();
+		if (r == null) {
+			bound.remove();
+		} else {
+			bound.set(r);
+		}
+		return previous;
+	}
+
+	/**
+	 * @return the seed of this source
+	 */
+	public long getSeed() {
+		return seed;
+	}
+
+	/**
+	 * Returns a new source whose seed is derived from the seed of this source
+	 * and specified key. This source is not advanced.
+	 * 
+	 * @param key
+	 *            the key
+	 * @return the derived source
+	 */
+	public RandomSource split(long key) {
+		return new RandomSource(mix64(seed ^ mix64(key + GOLDEN_GAMMA)));
+	}
+
+	/**
+	 * @return the next pseudorandom long
+	 */
+	public long nextLong() {
+		return mix64(state.addAndGet(GOLDEN_GAMMA));
+	}
+
+	/**
+	 * @return the next pseudorandom double in [0, 1)
+	 */
+	public double nextDouble() {
+		return (nextLong() >>> 11) * DOUBLE_UNIT;
+	}
+
+	/**
+	 * @return the next pseudorandom boolean
+	 */
+	public boolean nextBoolean() {
+		return nextLong() < 0;
+	}
+
+	/**
+	 * @param bound
+	 *            the upper bound (exclusive), must be positive
+	 * @return the next pseudorandom int in [0, bound)
+	 */
+	public int nextInt(int bound) {
+		if (bound <= 0) {
+			throw new IllegalArgumentException("bound must be positive");
+		}
+		int r = (int) (nextLong() >>> 33);
+		int m = bound - 1;
+		if ((bound & m) == 0) {
+			return (int) ((bound * (long) r) >> 31);
+		}
+		// reject the values of the last partial range so the result is unbiased
+		int u = r;
+		while (u - (r = u % bound) + m < 0) {
+			u = (int) (nextLong() >>> 33);
+		}
+		return r;
+	}
+
+	private static long mix64(long z) {
+		z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+		z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+		return z ^ (z >>> 31);
+	}
+}
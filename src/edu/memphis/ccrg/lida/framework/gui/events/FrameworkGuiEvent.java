@@ -9,6 +9,7 @@ package edu.memphis.ccrg.lida.framework.gui.events;
 
 import edu.memphis.ccrg.lida.framework.Agent;
 import edu.memphis.ccrg.lida.framework.ModuleName;
+import edu.memphis.ccrg.lida.framework.tasks.TaskManager;
 
 /**
  * Event generated by the {@link Agent} to be handled by the GUI.
@@ -34,6 +35,13 @@ public class FrameworkGuiEvent {
 	private Object content;
 
 	/**
+	 * Tick at which the event was created
+	 */
+	private final long tick;
+
+	/**
+	 * Creates an event at the current tick of the sender.
+	 * 
 	 * @param name
 	 *            ModuleName of module where event is coming from
 	 * @param message
@@ -42,9 +50,24 @@ public class FrameworkGuiEvent {
 	 *            sent content
 	 */
 	public FrameworkGuiEvent(ModuleName name, String message, Object content) {
+		this(name, message, content, TaskManager.getCurrentTick());
+	}
+
+	/**
+	 * @param name
+	 *            ModuleName of module where event is coming from
+	 * @param message
+	 *            optional message, differentiate from various events
+	 * @param content
+	 *            sent content
+	 * @param tick
+	 *            tick at which the event is sent
+	 */
+	public FrameworkGuiEvent(ModuleName name, String message, Object content, long tick) {
 		this.module = name;
 		this.message = message;
 		this.content = content;
+		this.tick = tick;
 	}
 
 	/**
@@ -95,4 +118,14 @@ public class FrameworkGuiEvent {
 	public Object getContent() {
 		return content;
 	}
+
+	/**
+	 * Events are delivered asynchronously, so listeners should use this tick
+	 * rather than {@link TaskManager#getCurrentTick()}.
+	 * 
+	 * @return the tick at which the event was sent
+	 */
+	public long getTick() {
+		return tick;
+	}
 }
@@ -0,0 +1,219 @@
+/*******************************************************************************
+ * Copyright (c) 2009, 2011 The University of Memphis.  All rights reserved. 
+ * This program and the accompanying materials are made available 
+ * under the terms of the LIDA Software Framework Non-Commercial License v1.0 
+ * which accompanies this distribution, and is available at
+ * http://ccrg.cs.memphis.edu/assets/papers/2010/LIDA-framework-non-commercial-v1.0.pdf
+ *******************************************************************************/
+package edu.memphis.ccrg.lida.framework.gui.events;
+
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import edu.memphis.ccrg.lida.framework.AgentContext;
+import edu.memphis.ccrg.lida.framework.ModuleName;
+import edu.memphis.ccrg.lida.framework.tasks.TaskManager;
+
+/**
+ * Delivers {@link FrameworkGuiEvent}s to {@link FrameworkGuiEventListener}s
+ * on its own daemon thread, so the sender never waits for the GUI. Events of
+ * the same type, i.e. with the same {@link ModuleName} and message, that are
+ * still pending are coalesced: only the latest one is delivered. At most
+ * capacity types of events are pending, when a new type arrives on a full
+ * queue the oldest pending event is dropped.
+ * <p>
+ * The simulation goes on while an event is delivered, so listeners get the
+ * tick of the event from {@link FrameworkGuiEvent#getTick()}.
+ */
+public class GuiEventDispatcher {
+
+	private static final Logger logger = Logger
+			.getLogger(GuiEventDispatcher.class.getCanonicalName());
+
+	/**
+	 * Default max number of pending events
+	 */
+	public static final int DEFAULT_CAPACITY = 64;
+
+	private final List<FrameworkGuiEventListener> listeners = new CopyOnWriteArrayList<FrameworkGuiEventListener>();
+	private final ConcurrentMap<EventType, FrameworkGuiEvent> pending = new ConcurrentHashMap<EventType, FrameworkGuiEvent>();
+	private final BlockingQueue<EventType> queue;
+	private final AgentContext context;
+	private final String name;
+	private Thread thread;
+	private volatile boolean shutdown;
+
+	private final AtomicLong deliveredCount = new AtomicLong();
+	private final AtomicLong coalescedCount = new AtomicLong();
+	private final AtomicLong droppedCount = new AtomicLong();
+
+	/**
+	 * @param name
+	 *            name of the dispatching thread
+	 * @param context
+	 *            {@link AgentContext} bound to the dispatching thread, may be
+	 *            null
+	 * @param capacity
+	 *            max number of pending events
+	 */
+	public GuiEventDispatcher(String name, AgentContext context, int capacity) {
+		this.name = name;
+		this.context = context;
+		queue = new ArrayBlockingQueue<EventType>(Math.max(1, capacity));
+	}
+
+	/**
+	 * Adds a listener. The dispatching thread is started with the first one.
+	 * 
+	 * @param listener
+	 *            the listener
+	 */
+	public synchronized void addListener(FrameworkGuiEventListener listener) {
+		listeners.add(listener);
+		if (thread == null && !shutdown) {
+			thread = new Thread(new Dispatcher(), name);
+			thread.setDaemon(true);
+			thread.start();
+		}
+	}
+
+	/**
+	 * @return true if there is a listener
+	 */
+	public boolean hasListeners() {
+		return !listeners.isEmpty();
+	}
+
+	/**
+	 * Queues specified event for delivery, replacing a pending event of the
+	 * same type. Never blocks.
+	 * 
+	 * @param event
+	 *            the event
+	 */
+	public void dispatch(FrameworkGuiEvent event) {
+		if (shutdown || listeners.isEmpty()) {
+			return;
+		}
+		EventType type = new EventType(event.getModule(), event.getMessage());
+		if (pending.put(type, event) != null) {
+			coalescedCount.incrementAndGet();
+			return;
+		}
+		while (!queue.offer(type)) {
+			EventType oldest = queue.poll();
+			if (oldest != null && pending.remove(oldest) != null) {
+				droppedCount.incrementAndGet();
+			}
+		}
+	}
+
+	/**
+	 * Stops the dispatching thread. Pending events are dropped.
+	 */
+	public synchronized void shutdown() {
+		shutdown = true;
+		if (thread != null) {
+			thread.interrupt();
+		}
+		queue.clear();
+		pending.clear();
+	}
+
+	/**
+	 * @return number of events delivered, once for all listeners
+	 */
+	public long getDeliveredCount() {
+		return deliveredCount.get();
+	}
+
+	/**
+	 * @return number of events replaced by a newer event of the same type
+	 */
+	public long getCoalescedCount() {
+		return coalescedCount.get();
+	}
+
+	/**
+	 * @return number of events dropped because the queue was full
+	 */
+	public long getDroppedCount() {
+		return droppedCount.get();
+	}
+
+	/**
+	 * @return number of events waiting for delivery
+	 */
+	public int getPendingCount() {
+		return pending.size();
+	}
+
+	private void deliver(FrameworkGuiEvent event) {
+		for (FrameworkGuiEventListener listener : listeners) {
+			try {
+				listener.receiveFrameworkGuiEvent(event);
+			} catch (Exception e) {
+				logger.log(Level.WARNING, "Listener {1} failed handling {2}",
+						new Object[] { TaskManager.getCurrentTick(), listener,
+								e });
+			}
+		}
+		deliveredCount.incrementAndGet();
+	}
+
+	private class Dispatcher implements Runnable {
+		@Override
+		public void run() {
+			AgentContext.setCurrent(context);
+			while (!shutdown) {
+				EventType type;
+				try {
+					type = queue.take();
+				} catch (InterruptedException e) {
+					return;
+				}
+				FrameworkGuiEvent event = pending.remove(type);
+				if (event != null) {
+					deliver(event);
+				}
+			}
+		}
+	}
+
+	/*
+	 * Events with the same module and message are of the same type
+	 */
+	private static class EventType {
+		private final ModuleName module;
+		private final String message;
+
+		public EventType(ModuleName module, String message) {
+			this.module = module;
+			this.message = message;
+		}
+
+		@Override
+		public boolean equals(Object o) {
+			if (!(o instanceof EventType)) {
+				return false;
+			}
+			EventType t = (EventType) o;
+			return (module == null ? t.module == null : module.equals(t.module))
+					&& (message == null ? t.message == null : message
+							.equals(t.message));
+		}
+
+		@Override
+		public int hashCode() {
+			return 31 * (module == null ? 0 : module.hashCode())
+					+ (message == null ? 0 : message.hashCode());
+		}
+	}
+}
@@ -7,11 +7,13 @@
  *******************************************************************************/
 package edu.memphis.ccrg.lida.framework.initialization;
 
+import java.io.File;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Properties;
+import java.util.concurrent.ExecutorService;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -19,13 +21,20 @@ import org.w3c.dom.Document;
 import org.w3c.dom.Element;
 
 import edu.memphis.ccrg.lida.framework.Agent;
+import edu.memphis.ccrg.lida.framework.AgentContext;
 import edu.memphis.ccrg.lida.framework.AgentImpl;
 import edu.memphis.ccrg.lida.framework.FrameworkModule;
 import edu.memphis.ccrg.lida.framework.ModuleListener;
 import edu.memphis.ccrg.lida.framework.ModuleName;
 import edu.memphis.ccrg.lida.framework.shared.ElementFactory;
+import edu.memphis.ccrg.lida.framework.tasks.AdaptivePoolSizer;
+import edu.memphis.ccrg.lida.framework.tasks.CatchUpPolicy;
+import edu.memphis.ccrg.lida.framework.tasks.ExecutorType;
 import edu.memphis.ccrg.lida.framework.tasks.FrameworkTask;
+import edu.memphis.ccrg.lida.framework.tasks.MapTaskScheduler;
 import edu.memphis.ccrg.lida.framework.tasks.TaskManager;
+import edu.memphis.ccrg.lida.framework.tasks.TaskProfiler;
+import edu.memphis.ccrg.lida.framework.tasks.TaskScheduler;
 import edu.memphis.ccrg.lida.framework.tasks.TaskSpawner;
 
 /**
@@ -57,6 +66,8 @@ public class AgentXmlFactory implements AgentFactory {
 	private static final String DEFAULT_XML_FILE_PATH = "configs/agent.xml";
 	private static final String DEFAULT_SCHEMA_FILE_PATH = "edu/memphis/ccrg/lida/framework/initialization/config/LidaXMLSchema.xsd";
 	private static final String AGENT_DATA_PROPERTY_NAME = "lida.agentdata";
+	private static final String TASK_SCHEDULER_PROPERTY_NAME = "lida.taskmanager.scheduler";
+	private static final int DEFAULT_PROFILE_DUMP_PERIOD = 10000;
 
 	@Override
 	public Agent getAgent(Properties properties) {
@@ -71,10 +82,34 @@ public class AgentXmlFactory implements AgentFactory {
 
 		Document dom = XmlUtils
 				.parseXmlFile(fileName, DEFAULT_SCHEMA_FILE_PATH);
-		Agent agent = parseDocument(dom);
+		Agent agent = parseDocument(dom, properties);
 		return agent;
 	}
 
+	/**
+	 * Creates an {@link Agent} in specified {@link AgentContext}. The factories
+	 * data and the agent XML are loaded into the context's
+	 * {@link ElementFactory} and the agent's {@link TaskManager} belongs to the
+	 * context, so each call with a new context builds an independent agent.
+	 * Agents whose contexts share an ExecutorService run concurrently on the
+	 * same threads.
+	 * 
+	 * @param properties
+	 *            the agent's Properties
+	 * @param context
+	 *            the {@link AgentContext} of the new agent
+	 * @return the Agent
+	 */
+	public Agent getAgent(Properties properties, AgentContext context) {
+		AgentContext previous = AgentContext.setCurrent(context);
+		try {
+			FactoriesDataXmlLoader.loadFactoriesData(properties);
+			return getAgent(properties);
+		} finally {
+			AgentContext.setCurrent(previous);
+		}
+	}
+
 	/**
 	 * Parses the xml document creating the TaskManager, TaskSpawners, Modules,
 	 * submodules. Sets up listeners and associates modules and creates a new
@@ -85,6 +120,21 @@ public class AgentXmlFactory implements AgentFactory {
 	 * @return the Agent
 	 */
 	Agent parseDocument(Document dom) {
+		return parseDocument(dom, null);
+	}
+
+	/**
+	 * Parses the xml document creating the TaskManager, TaskSpawners, Modules,
+	 * submodules. Sets up listeners and associates modules and creates a new
+	 * {@link Agent}.
+	 * 
+	 * @param dom
+	 *            the xml dom Document
+	 * @param properties
+	 *            the agent's Properties, may be null
+	 * @return the Agent
+	 */
+	Agent parseDocument(Document dom, Properties properties) {
 		if (dom == null) {
 			logger.log(Level.SEVERE, "Document dom was null. Cannot parse it");
 			return null;
@@ -107,7 +157,7 @@ public class AgentXmlFactory implements AgentFactory {
 			g.setAttribute(s, globalParamters.get(s));
 		}
 
-		tm = getTaskManager(docEle);
+		tm = getTaskManager(docEle, properties);
 		logger.log(Level.INFO, "Finished obtaining TaskManager\n", 0L);
 		agent = new AgentImpl(tm);
 
@@ -174,6 +224,18 @@ public class AgentXmlFactory implements AgentFactory {
 	 * @return {@link TaskManager}
 	 */
 	static TaskManager getTaskManager(Element element) {
+		return getTaskManager(element, null);
+	}
+
+	/**
+	 * @param element
+	 *            Element containing the task manager
+	 * @param properties
+	 *            the agent's Properties specifying the {@link TaskScheduler},
+	 *            may be null
+	 * @return {@link TaskManager}
+	 */
+	static TaskManager getTaskManager(Element element, Properties properties) {
 		List<Element> nl = XmlUtils.getChildren(element, "taskmanager");
 		Element taskManagerElement = null;
 		if (nl != null && nl.size() > 0) {
@@ -236,10 +298,130 @@ public class AgentXmlFactory implements AgentFactory {
 		if(pec instanceof String){
 			className = (String) pec;
 		}
-		TaskManager taskManager = new TaskManager(tickDuration,maxNumberOfThreads,shutdownTick,className);
+		ExecutorType executorType = ExecutorType.THREAD_POOL;
+		Object et = params.get("taskManager.executor");
+		if (et instanceof String) {
+			try {
+				executorType = ExecutorType.valueOf(((String) et).trim()
+						.toUpperCase());
+			} catch (IllegalArgumentException e) {
+				logger.warning("Could not load executor type, using default");
+			}
+		}
+		TaskManager taskManager;
+		ExecutorService executor = AgentContext.getCurrent()
+				.getExecutorService();
+		if (executor != null) {
+			taskManager = new TaskManager(tickDuration, shutdownTick,
+					className, getTaskScheduler(properties), executor);
+		} else {
+			taskManager = new TaskManager(tickDuration, maxNumberOfThreads,
+					shutdownTick, className, getTaskScheduler(properties),
+					executorType);
+		}
+		taskManager.setTicksPerBatch(getIntParam(params,
+				"taskManager.ticksPerBatch", TaskManager.DEFAULT_TICKS_PER_BATCH));
+		taskManager.setTickBudget(getIntParam(params,
+				"taskManager.tickBudget", 0));
+		int nanos = getIntParam(params, "taskManager.tickDurationNanos", -1);
+		if (nanos >= 0) {
+			taskManager.setTickDurationNanos(nanos);
+		}
+		Object policy = params.get("taskManager.catchUpPolicy");
+		if (policy instanceof String) {
+			try {
+				taskManager.setCatchUpPolicy(CatchUpPolicy
+						.valueOf(((String) policy).trim().toUpperCase()));
+			} catch (IllegalArgumentException e) {
+				logger.warning("Could not load catch-up policy, using default");
+			}
+		}
+		Object seed = params.get("taskManager.randomSeed");
+		if (seed instanceof Number) {
+			taskManager.setRandomSeed(((Number) seed).longValue());
+		} else if (seed instanceof String) {
+			try {
+				taskManager.setRandomSeed(Long.parseLong(((String) seed).trim()));
+			} catch (NumberFormatException e) {
+				logger.warning("Could not load random seed, using none");
+			}
+		}
+		Object graph = params.get("taskManager.taskGraph");
+		if (Boolean.TRUE.equals(graph) || "true".equals(graph)) {
+			taskManager.setTaskGraphEnabled(true);
+		}
+		Object adaptive = params.get("taskManager.adaptivePool");
+		if (Boolean.TRUE.equals(adaptive) || "true".equals(adaptive)) {
+			taskManager.setAdaptivePoolSizer(new AdaptivePoolSizer(
+					getIntParam(params, "taskManager.minThreads", 1),
+					getIntParam(params, "taskManager.maxThreads",
+							maxNumberOfThreads), getIntParam(params,
+							"taskManager.poolSampleTicks",
+							AdaptivePoolSizer.DEFAULT_SAMPLE_TICKS),
+					AdaptivePoolSizer.DEFAULT_WAIT_THRESHOLD));
+		}
+		Object profile = params.get("taskManager.profile");
+		if (Boolean.TRUE.equals(profile) || "true".equals(profile)) {
+			TaskProfiler profiler = new TaskProfiler();
+			taskManager.setProfiler(profiler);
+			Object file = params.get("taskManager.profileFile");
+			if (file instanceof String) {
+				profiler.startDumping(new File(((String) file).trim()),
+						getIntParam(params, "taskManager.profileDumpPeriod",
+								DEFAULT_PROFILE_DUMP_PERIOD));
+			}
+		}
 		return taskManager;
 	}
 
+	/*
+	 * Returns the value of an optional int parameter or the default value if
+	 * the parameter is missing or invalid.
+	 */
+	private static int getIntParam(Map<String, Object> params, String name,
+			int defaultValue) {
+		Object o = params.get(name);
+		if (o instanceof Integer) {
+			return (Integer) o;
+		} else if (o instanceof String) {
+			try {
+				return Integer.parseInt(((String) o).trim());
+			} catch (NumberFormatException e) {
+				logger.warning("Could not load " + name + ", using default");
+			}
+		} else if (o != null) {
+			logger.warning("Could not load " + name + ", using default");
+		}
+		return defaultValue;
+	}
+
+	/**
+	 * Creates the {@link TaskScheduler} whose class name is specified by the
+	 * 'lida.taskmanager.scheduler' property. Uses a {@link MapTaskScheduler}
+	 * if none is specified.
+	 * 
+	 * @param properties
+	 *            the agent's Properties, may be null
+	 * @return a new {@link TaskScheduler}
+	 */
+	static TaskScheduler getTaskScheduler(Properties properties) {
+		String className = null;
+		if (properties != null) {
+			className = properties.getProperty(TASK_SCHEDULER_PROPERTY_NAME);
+		}
+		if (className != null) {
+			try {
+				return (TaskScheduler) Class.forName(className.trim())
+						.getDeclaredConstructor().newInstance();
+			} catch (Exception e) {
+				logger.log(Level.WARNING, "Exception \"" + e.toString()
+						+ "\" occurred during creation of TaskScheduler "
+						+ className + ", using default.", 0L);
+			}
+		}
+		return new MapTaskScheduler();
+	}
+
 	/**
 	 * Reads in and creates all {@link TaskSpawner}s specified in
 	 * {@link Element}
@@ -270,7 +452,8 @@ public class AgentXmlFactory implements AgentFactory {
 
 	/**
 	 * Creates a {@link TaskSpawner} from specified {@link Element} and
-	 * {@link TaskManager}
+	 * {@link TaskManager}. An int parameter 'lanes' sets the number of
+	 * execution lanes of its tasks.
 	 * 
 	 * @param element
 	 *            Dom element
@@ -308,6 +491,10 @@ public class AgentXmlFactory implements AgentFactory {
 					+ ts.toString(), 0L);
 			e.printStackTrace();
 		}
+		int lanes = getIntParam(params, "lanes", 0);
+		if (lanes > 0) {
+			tm.setExecutionLanes(ts, lanes);
+		}
 		spawners.put(name, ts);
 		logger.log(Level.INFO, "TaskSpawner: " + name + " added.", 0L);
 	}
@@ -761,7 +948,7 @@ public class AgentXmlFactory implements AgentFactory {
 
 	/**
 	 * Creates the tasks specified and adds them to their associated
-	 * {@link TaskSpawner}
+	 * {@link TaskSpawner} as recurring tasks
 	 * 
 	 * @param moduleMap
 	 *            Map of all {@link FrameworkModule} indexed by
@@ -779,7 +966,7 @@ public class AgentXmlFactory implements AgentFactory {
 				if (td.ticksPerRun > 0) {// TODO remove?
 					task.setTicksPerRun(td.ticksPerRun);
 				}
-				td.taskSpawner.addTask(task);
+				td.taskSpawner.addRecurringTask(task);
 			} else {
 				logger.log(Level.WARNING, "unable to run task: {1}",
 						new Object[] { TaskManager.getCurrentTick(), td.name });
@@ -42,8 +42,6 @@ public class FactoriesDataXmlLoader {
 	private static final Logger logger = Logger
 			.getLogger(FactoriesDataXmlLoader.class.getCanonicalName());
 
-	private static ElementFactory nfactory = ElementFactory.getInstance();
-
 	/**
 	 * Loads {@link ElementFactory} with object types specified in
 	 * {@link Properties}
@@ -88,30 +86,30 @@ public class FactoriesDataXmlLoader {
 
 	private static void fillNodes(Map<String, LinkableDef> nodes) {
 		for (LinkableDef ld : nodes.values()) {
-			nfactory.addNodeType(ld);
+			ElementFactory.getInstance().addNodeType(ld);
 		}
 	}
 
 	private static void fillLinks(Map<String, LinkableDef> links) {
 		for (LinkableDef ld : links.values()) {
-			nfactory.addLinkType(ld);
+			ElementFactory.getInstance().addLinkType(ld);
 		}
 	}
 
 	private static void fillStrategies(Map<String, StrategyDef> strategies) {
 		for (StrategyDef sd : strategies.values()) {
 			if (sd.getType().equalsIgnoreCase("decay")) {
-				nfactory.addDecayStrategy(sd.getName(), sd);
+				ElementFactory.getInstance().addDecayStrategy(sd.getName(), sd);
 			} else if (sd.getType().equalsIgnoreCase("excite")) {
-				nfactory.addExciteStrategy(sd.getName(), sd);
+				ElementFactory.getInstance().addExciteStrategy(sd.getName(), sd);
 			}
-			nfactory.addStrategy(sd.getName(), sd);
+			ElementFactory.getInstance().addStrategy(sd.getName(), sd);
 		}
 	}
 
 	private static void fillTasks(Map<String, FrameworkTaskDef> tasks) {
 		for (FrameworkTaskDef cd : tasks.values()) {
-			nfactory.addFrameworkTaskType(cd);
+			ElementFactory.getInstance().addFrameworkTaskType(cd);
 		}
 	}
 
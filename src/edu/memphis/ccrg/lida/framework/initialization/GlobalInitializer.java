@@ -10,6 +10,8 @@ package edu.memphis.ccrg.lida.framework.initialization;
 import java.util.HashMap;
 import java.util.Map;
 
+import edu.memphis.ccrg.lida.framework.AgentContext;
+
 /**
  * This class is intended for use by Initializers during initialization only. It
  * allows Initializers to access the same attributes. Attributes can be added by
@@ -21,20 +23,68 @@ import java.util.Map;
  */
 public class GlobalInitializer {
 
+	private final Map<String, Object> globalAttributes = new HashMap<String, Object>();
+
 	/*
-	 * Sole instance of this class that will be used.
+	 * Delegates every call to the instance of the current context
 	 */
-	private static final GlobalInitializer instance = new GlobalInitializer();
-	private final Map<String, Object> globalAttributes = new HashMap<String, Object>();
+	private static final GlobalInitializer contextDelegate = new GlobalInitializer() {
+		@Override
+		public Object getAttribute(String key) {
+			return getInstance().getAttribute(key);
+		}
+
+		@Override
+		public Object getAttribute(String key, Object defaultValue) {
+			return getInstance().getAttribute(key, defaultValue);
+		}
+
+		@Override
+		public void setAttribute(String key, Object value) {
+			getInstance().setAttribute(key, value);
+		}
+
+		@Override
+		public Object removeAttribute(String key) {
+			return getInstance().removeAttribute(key);
+		}
+
+		@Override
+		public void clearAttributes() {
+			getInstance().clearAttributes();
+		}
+	};
 
 	/**
-	 * Returns the sole instance of this class. Implements the Singleton
-	 * pattern.
+	 * Returns the instance of this class of the current {@link AgentContext},
+	 * creating it on first use. There is a single instance per agent.
 	 * 
-	 * @return instance sole instance of this class
+	 * @return instance of this class of the current agent
 	 */
 	public static GlobalInitializer getInstance() {
-		return instance;
+		AgentContext context = AgentContext.getCurrent();
+		GlobalInitializer initializer = context.getGlobalInitializer();
+		if (initializer == null) {
+			synchronized (context) {
+				initializer = context.getGlobalInitializer();
+				if (initializer == null) {
+					initializer = new GlobalInitializer();
+					context.setGlobalInitializer(initializer);
+				}
+			}
+		}
+		return initializer;
+	}
+
+	/**
+	 * Returns an initializer delegating every call to the instance of the
+	 * {@link AgentContext} current at the time of the call. Lets references
+	 * kept in static fields follow the current agent.
+	 * 
+	 * @return the delegating initializer
+	 */
+	public static GlobalInitializer getContextDelegate() {
+		return contextDelegate;
 	}
 
 	/*
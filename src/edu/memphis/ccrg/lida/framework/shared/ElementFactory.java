@@ -14,6 +14,7 @@ import java.util.logging.Logger;
 
 import edu.memphis.ccrg.lida.actionselection.Behavior;
 import edu.memphis.ccrg.lida.actionselection.BehaviorImpl;
+import edu.memphis.ccrg.lida.framework.AgentContext;
 import edu.memphis.ccrg.lida.framework.FrameworkModule;
 import edu.memphis.ccrg.lida.framework.ModuleName;
 import edu.memphis.ccrg.lida.framework.initialization.FrameworkTaskDef;
@@ -50,12 +51,12 @@ public class ElementFactory {
 	/*
 	 * Used to assign unique IDs to nodes.
 	 */
-	private static int nodeIdCount;
+	private int nodeIdCount;
 
 	/*
 	 * Used to assign unique IDs to schemes.
 	 */
-	private static int behaviorIdCount;
+	private int behaviorIdCount;
 
 	/*
 	 * Used to retrieve default decay strategy from 'decayStrategies' map.
@@ -132,11 +133,6 @@ public class ElementFactory {
 	 */
 	private Map<String, FrameworkTaskDef> tasks = new HashMap<String, FrameworkTaskDef>();
 
-	/*
-	 * Sole instance of this class that will be used.
-	 */
-	private static final ElementFactory instance = new ElementFactory();
-
 	/*
 	 * Name of decay strategy type
 	 * 
@@ -163,13 +159,24 @@ public class ElementFactory {
 	private static final String propagationStrategyType = "propagation";
 
 	/**
-	 * Returns the sole instance of this factory. Implements the Singleton
-	 * pattern.
+	 * Returns the factory of the current {@link AgentContext}, creating it on
+	 * first use. There is a single instance per agent.
 	 * 
-	 * @return the sole {@link ElementFactory} instance of this class
+	 * @return the {@link ElementFactory} instance of the current agent
 	 */
 	public static ElementFactory getInstance() {
-		return instance;
+		AgentContext context = AgentContext.getCurrent();
+		ElementFactory factory = context.getElementFactory();
+		if (factory == null) {
+			synchronized (context) {
+				factory = context.getElementFactory();
+				if (factory == null) {
+					factory = new ElementFactory();
+					context.setElementFactory(factory);
+				}
+			}
+		}
+		return factory;
 	}
 
 	/*
@@ -1151,9 +1158,28 @@ public class ElementFactory {
 	 *         type or null if types do not exist in this factory.
 	 */
 	public NodeStructure getNodeStructure(String nodeType, String linkType) {
+		return getNodeStructure(nodeType, linkType, false);
+	}
+
+	/**
+	 * Returns a new NodeStructure with specified {@link Node} and {@link Link}
+	 * types and node storage.
+	 * 
+	 * @param nodeType
+	 *            type of node in returned {@link NodeStructure}
+	 * @param linkType
+	 *            type of Link in returned {@link NodeStructure}
+	 * @param intKeyedNodes
+	 *            true to store the nodes in an open-addressing table with
+	 *            primitive int keys
+	 * @return a new NodeStructure with specified node type and specified link
+	 *         type or null if types do not exist in this factory.
+	 * @see NodeStructureImpl#setIntKeyedNodes(boolean)
+	 */
+	public NodeStructure getNodeStructure(String nodeType, String linkType, boolean intKeyedNodes) {
 		if (containsNodeType(nodeType)) {
 			if (containsLinkType(linkType)) {
-				return new NodeStructureImpl(nodeType, linkType);
+				return new NodeStructureImpl(nodeType, linkType, intKeyedNodes);
 			}
 			logger.log(Level.WARNING, "Cannot get NodeStructure. Factory does not contain link type {1}", new Object[] {
 					TaskManager.getCurrentTick(), linkType });
@@ -10,17 +10,22 @@ package edu.memphis.ccrg.lida.framework.shared;
 /**
  * Generalized Id for Both {@link Node}s and {@link Link}s. Link's source must
  * be a {@link Node}. Link's sink can be a Node or a Link.
+ * <p>
+ * Instances are immutable. The hash code mixes the fields in order, so links
+ * differing only by the order or the combination of their ids, e.g. with
+ * source and sink swapped, hash differently. It is computed once.
  * 
  * @author Javier Snaider
  * @author Ryan J. McCall
  */
 public class ExtendedId {
 
-	private int linkCategory;
-	private int sourceNodeId;
-	private int sinkLinkCategory;
-	private int sinkNode1Id;
-	private int sinkNode2Id;
+	private final int linkCategory;
+	private final int sourceNodeId;
+	private final int sinkLinkCategory;
+	private final int sinkNode1Id;
+	private final int sinkNode2Id;
+	private final int hash;
 
 	private static final int UNDEFINED = Integer.MIN_VALUE;
 
@@ -59,6 +64,8 @@ public class ExtendedId {
 		this.sinkLinkCategory = sinkId.linkCategory;
 		this.sinkNode1Id = sinkId.sourceNodeId;
 		this.sinkNode2Id = sinkId.sinkNode1Id;
+		this.hash = hash(linkCategory, sourceNodeId, sinkLinkCategory,
+				sinkNode1Id, sinkNode2Id);
 	}
 
 	/**
@@ -74,6 +81,8 @@ public class ExtendedId {
 		this.sinkLinkCategory = UNDEFINED;
 		this.sinkNode1Id = UNDEFINED;
 		this.sinkNode2Id = UNDEFINED;
+		this.hash = hash(linkCategory, sourceNodeId, sinkLinkCategory,
+				sinkNode1Id, sinkNode2Id);
 	}
 
 	/**
@@ -119,7 +128,7 @@ public class ExtendedId {
 	public boolean equals(Object o) {
 		if (o instanceof ExtendedId) {
 			ExtendedId otherId = (ExtendedId) o;
-			return (linkCategory == otherId.linkCategory
+			return (hash == otherId.hash && linkCategory == otherId.linkCategory
 					&& sourceNodeId == otherId.sourceNodeId
 					&& sinkLinkCategory == otherId.sinkLinkCategory
 					&& sinkNode1Id == otherId.sinkNode1Id && sinkNode2Id == otherId.sinkNode2Id);
@@ -129,7 +138,27 @@ public class ExtendedId {
 
 	@Override
 	public int hashCode() {
-		return (linkCategory ^ sourceNodeId ^ sinkLinkCategory ^ sinkNode1Id ^ sinkNode2Id);
+		return hash;
+	}
+
+	/*
+	 * Multiplicative combination of the fields in order followed by the
+	 * finalizer of MurmurHash3 so that every bit of the fields affects every
+	 * bit of the hash
+	 */
+	private static int hash(int linkCategory, int sourceNodeId,
+			int sinkLinkCategory, int sinkNode1Id, int sinkNode2Id) {
+		int h = linkCategory;
+		h = h * 0x9e3779b1 + sourceNodeId;
+		h = h * 0x9e3779b1 + sinkLinkCategory;
+		h = h * 0x9e3779b1 + sinkNode1Id;
+		h = h * 0x9e3779b1 + sinkNode2Id;
+		h ^= h >>> 16;
+		h *= 0x85ebca6b;
+		h ^= h >>> 13;
+		h *= 0xc2b2ae35;
+		h ^= h >>> 16;
+		return h;
 	}
 
 	@Override
@@ -0,0 +1,258 @@
+/*******************************************************************************
+ * Copyright (c) 2009, 2011 The University of Memphis.  All rights reserved. 
+ * This program and the accompanying materials are made available 
+ * under the terms of the LIDA Software Framework Non-Commercial License v1.0 
+ * which accompanies this distribution, and is available at
+ * http://ccrg.cs.memphis.edu/assets/papers/2010/LIDA-framework-non-commercial-v1.0.pdf
+ *******************************************************************************/
+package edu.memphis.ccrg.lida.framework.shared;
+
+import java.util.AbstractCollection;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * {@link NodeMap} with primitive int keys in an open-addressing table with
+ * linear probing, so lookups do not box the id. Reads take no lock. Writes
+ * are serialized on the map. The key of a slot is written once per table: a
+ * removed node leaves its key with a null value, which the same id can reuse.
+ * When the used slots reach half the table, the live nodes are copied into a
+ * new table which is then published.
+ * <p>
+ * Colt's OpenIntObjectHashMap is not used because it cannot be read while
+ * being written.
+ */
+class IntNodeMap extends NodeMap {
+
+	/*
+	 * Marks an empty slot. A node with this id is kept apart.
+	 */
+	private static final int EMPTY = Integer.MIN_VALUE;
+	private static final int MIN_CAPACITY = 16;
+
+	private volatile Table table = new Table(MIN_CAPACITY);
+	private volatile int size;
+	private volatile Node emptyKeyNode;
+
+	@Override
+	Node get(int id) {
+		if (id == EMPTY) {
+			return emptyKeyNode;
+		}
+		Table t = table;
+		int mask = t.mask;
+		int i = spread(id) & mask;
+		while (true) {
+			int k = t.keys.get(i);
+			if (k == id) {
+				return t.values.get(i);
+			} else if (k == EMPTY) {
+				return null;
+			}
+			i = (i + 1) & mask;
+		}
+	}
+
+	@Override
+	boolean containsKey(int id) {
+		return get(id) != null;
+	}
+
+	@Override
+	synchronized void put(Node n) {
+		int id = n.getId();
+		if (id == EMPTY) {
+			if (emptyKeyNode == null) {
+				size++;
+			}
+			emptyKeyNode = n;
+			return;
+		}
+		Table t = table;
+		int i = indexFor(t, id);
+		if (t.keys.get(i) == EMPTY) {
+			if ((t.used + 1) << 1 > t.keys.length()) {
+				t = resize(size + 1);
+				i = indexFor(t, id);
+			}
+			t.keys.set(i, id);
+			t.used++;
+		}
+		if (t.values.get(i) == null) {
+			size++;
+		}
+		t.values.set(i, n);
+	}
+
+	@Override
+	synchronized Node remove(int id) {
+		if (id == EMPTY) {
+			Node n = emptyKeyNode;
+			if (n != null) {
+				emptyKeyNode = null;
+				size--;
+			}
+			return n;
+		}
+		Table t = table;
+		int i = indexFor(t, id);
+		if (t.keys.get(i) == EMPTY) {
+			return null;
+		}
+		Node n = t.values.get(i);
+		if (n != null) {
+			t.values.set(i, null);
+			size--;
+		}
+		return n;
+	}
+
+	@Override
+	synchronized void ensureCapacity(int additional) {
+		Table t = table;
+		if ((t.used + additional) << 1 > t.keys.length()) {
+			resize(size + additional);
+		}
+	}
+
+	@Override
+	synchronized void clear() {
+		table = new Table(MIN_CAPACITY);
+		emptyKeyNode = null;
+		size = 0;
+	}
+
+	@Override
+	int size() {
+		return size;
+	}
+
+	@Override
+	Collection<Node> values() {
+		return new AbstractCollection<Node>() {
+			@Override
+			public Iterator<Node> iterator() {
+				return new ValueIterator(table, emptyKeyNode);
+			}
+
+			@Override
+			public int size() {
+				return size;
+			}
+		};
+	}
+
+	/*
+	 * Slot of the id or of the empty slot ending its probe sequence
+	 */
+	private static int indexFor(Table t, int id) {
+		int mask = t.mask;
+		int i = spread(id) & mask;
+		while (true) {
+			int k = t.keys.get(i);
+			if (k == id || k == EMPTY) {
+				return i;
+			}
+			i = (i + 1) & mask;
+		}
+	}
+
+	/*
+	 * Copies the live nodes into a table at most a quarter full with the
+	 * specified number of nodes, then publishes it
+	 */
+	private Table resize(int nodeCount) {
+		int capacity = MIN_CAPACITY;
+		while (capacity < nodeCount << 2) {
+			capacity <<= 1;
+		}
+		Table old = table;
+		Table t = new Table(capacity);
+		for (int j = 0; j < old.keys.length(); j++) {
+			Node n = old.values.get(j);
+			if (n != null) {
+				int i = indexFor(t, old.keys.get(j));
+				t.keys.set(i, old.keys.get(j));
+				t.values.set(i, n);
+				t.used++;
+			}
+		}
+		table = t;
+		return t;
+	}
+
+	private static int spread(int id) {
+		int h = id * 0x9e3779b9;
+		return h ^ (h >>> 16);
+	}
+
+	/*
+	 * Keys and values of a table. The used slots are counted by the writer.
+	 */
+	private static class Table {
+		private final AtomicIntegerArray keys;
+		private final AtomicReferenceArray<Node> values;
+		private final int mask;
+		private int used;
+
+		public Table(int capacity) {
+			keys = new AtomicIntegerArray(capacity);
+			for (int i = 0; i < capacity; i++) {
+				keys.lazySet(i, EMPTY);
+			}
+			values = new AtomicReferenceArray<Node>(capacity);
+			mask = capacity - 1;
+		}
+	}
+
+	/*
+	 * Weakly consistent iterator over the nodes of a table
+	 */
+	private static class ValueIterator implements Iterator<Node> {
+		private final Table table;
+		private Node emptyKeyNode;
+		private int index;
+		private Node next;
+
+		public ValueIterator(Table table, Node emptyKeyNode) {
+			this.table = table;
+			this.emptyKeyNode = emptyKeyNode;
+			advance();
+		}
+
+		private void advance() {
+			next = null;
+			int length = table.values.length();
+			while (index < length && next == null) {
+				next = table.values.get(index++);
+			}
+			if (next == null && emptyKeyNode != null) {
+				next = emptyKeyNode;
+				emptyKeyNode = null;
+			}
+		}
+
+		@Override
+		public boolean hasNext() {
+			return next != null;
+		}
+
+		@Override
+		public Node next() {
+			if (next == null) {
+				throw new NoSuchElementException();
+			}
+			Node n = next;
+			advance();
+			return n;
+		}
+
+		@Override
+		public void remove() {
+			throw new UnsupportedOperationException();
+		}
+	}
+}
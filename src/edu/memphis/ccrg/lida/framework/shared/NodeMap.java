@@ -0,0 +1,138 @@
+/*******************************************************************************
+ * Copyright (c) 2009, 2011 The University of Memphis.  All rights reserved. 
+ * This program and the accompanying materials are made available 
+ * under the terms of the LIDA Software Framework Non-Commercial License v1.0 
+ * which accompanies this distribution, and is available at
+ * http://ccrg.cs.memphis.edu/assets/papers/2010/LIDA-framework-non-commercial-v1.0.pdf
+ *******************************************************************************/
+package edu.memphis.ccrg.lida.framework.shared;
+
+import java.util.Collection;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * The {@link Node}s of a {@link NodeStructureImpl} indexed by id. Reads are
+ * safe concurrently with writes and iteration is weakly consistent.
+ */
+abstract class NodeMap {
+
+	/**
+	 * @param id
+	 *            a node id
+	 * @return the node with specified id or null
+	 */
+	abstract Node get(int id);
+
+	/**
+	 * @param id
+	 *            a node id
+	 * @return true if there is a node with specified id
+	 */
+	abstract boolean containsKey(int id);
+
+	/**
+	 * Adds a node, replacing the node with the same id.
+	 * 
+	 * @param n
+	 *            the node
+	 */
+	abstract void put(Node n);
+
+	/**
+	 * @param id
+	 *            a node id
+	 * @return the removed node or null
+	 */
+	abstract Node remove(int id);
+
+	/**
+	 * @return a live view of the nodes
+	 */
+	abstract Collection<Node> values();
+
+	/**
+	 * @return the number of nodes
+	 */
+	abstract int size();
+
+	/**
+	 * Removes all nodes.
+	 */
+	abstract void clear();
+
+	/**
+	 * Makes room for specified number of additional nodes so they are added
+	 * without growing the storage. Does nothing by default.
+	 * 
+	 * @param additional
+	 *            the number of nodes about to be added
+	 */
+	void ensureCapacity(int additional) {
+	}
+
+	/**
+	 * @param expectedSize
+	 *            a number of entries
+	 * @return the initial capacity of a hash map holding that many entries
+	 *         without resizing
+	 */
+	static int capacityFor(int expectedSize) {
+		return Math.max(16, (int) (expectedSize / 0.75f) + 1);
+	}
+
+	/**
+	 * Nodes in a {@link ConcurrentHashMap} with boxed keys, the default.
+	 */
+	static class HashNodeMap extends NodeMap {
+
+		private final ConcurrentMap<Integer, Node> nodes;
+
+		HashNodeMap() {
+			nodes = new ConcurrentHashMap<Integer, Node>();
+		}
+
+		/**
+		 * @param expectedSize
+		 *            the number of nodes the map is sized for
+		 */
+		HashNodeMap(int expectedSize) {
+			nodes = new ConcurrentHashMap<Integer, Node>(NodeMap.capacityFor(expectedSize));
+		}
+
+		@Override
+		Node get(int id) {
+			return nodes.get(id);
+		}
+
+		@Override
+		boolean containsKey(int id) {
+			return nodes.containsKey(id);
+		}
+
+		@Override
+		void put(Node n) {
+			nodes.put(n.getId(), n);
+		}
+
+		@Override
+		Node remove(int id) {
+			return nodes.remove(id);
+		}
+
+		@Override
+		Collection<Node> values() {
+			return nodes.values();
+		}
+
+		@Override
+		int size() {
+			return nodes.size();
+		}
+
+		@Override
+		void clear() {
+			nodes.clear();
+		}
+	}
+}
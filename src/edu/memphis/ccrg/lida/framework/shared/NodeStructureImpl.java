@@ -20,6 +20,10 @@ import java.util.logging.Level;
 import java.util.logging.Logger;
 
 import edu.memphis.ccrg.lida.framework.shared.activation.Activatible;
+import edu.memphis.ccrg.lida.framework.shared.activation.ActivatibleImpl;
+import edu.memphis.ccrg.lida.framework.shared.activation.ExpiryIndex;
+import edu.memphis.ccrg.lida.framework.tasks.ChangeSignal;
+import edu.memphis.ccrg.lida.framework.tasks.FrameworkTaskImpl;
 import edu.memphis.ccrg.lida.framework.tasks.TaskManager;
 import edu.memphis.ccrg.lida.globalworkspace.BroadcastContent;
 import edu.memphis.ccrg.lida.pam.PamLink;
@@ -42,16 +46,18 @@ public class NodeStructureImpl implements NodeStructure, BroadcastContent, Works
 
 	private static final Logger logger = Logger.getLogger(NodeStructureImpl.class.getCanonicalName());
 
+	private static final int DEFAULT_LOCK_STRIPES = 64;
+
 	/*
 	 * Standard factory for new objects. Used to create copies when adding
 	 * linkables to this NodeStructure
 	 */
-	private static ElementFactory factory = ElementFactory.getInstance();
+	private final ElementFactory factory = ElementFactory.getInstance();
 
 	/*
 	 * Nodes contained in this NodeStructure indexed by their id
 	 */
-	private ConcurrentMap<Integer, Node> nodes = new ConcurrentHashMap<Integer, Node>();
+	private volatile NodeMap nodes = new NodeMap.HashNodeMap();
 
 	/*
 	 * Links contained in this NodeStructure indexed by their id String.
@@ -63,6 +69,21 @@ public class NodeStructureImpl implements NodeStructure, BroadcastContent, Works
 	 */
 	private ConcurrentMap<Linkable, Set<Link>> linkableMap = new ConcurrentHashMap<Linkable, Set<Link>>();
 
+	/*
+	 * Linkables by expected expiry tick, null unless decay is lazy
+	 */
+	private volatile ExpiryIndex<Linkable> expiryIndex;
+
+	/*
+	 * Raised when a linkable is added or removed, created on demand
+	 */
+	private volatile ChangeSignal changeSignal;
+
+	/*
+	 * Guards the writes, replaced when lock striping is switched
+	 */
+	private volatile StructureLock structureLock = new StructureLock(0);
+
 	/*
 	 * Default Node type used.
 	 */
@@ -110,6 +131,24 @@ public class NodeStructureImpl implements NodeStructure, BroadcastContent, Works
 		}
 	}
 
+	/**
+	 * Creates a new NodeStructureImpl with specified default Node type and link
+	 * Type and node storage.
+	 * 
+	 * @param nodeType
+	 *            kind of node used in this NodeStructure
+	 * @param linkType
+	 *            kind of link used in this NodeStructure
+	 * @param intKeyedNodes
+	 *            true to store the nodes in an open-addressing table with
+	 *            primitive int keys
+	 * @see #setIntKeyedNodes(boolean)
+	 */
+	public NodeStructureImpl(String nodeType, String linkType, boolean intKeyedNodes) {
+		this(nodeType, linkType);
+		setIntKeyedNodes(intKeyedNodes);
+	}
+
 	/**
 	 * Copy constructor. Specifies Node and Link types used to copy Node and
 	 * Links. Specified types are the default types for the copy.
@@ -119,10 +158,140 @@ public class NodeStructureImpl implements NodeStructure, BroadcastContent, Works
 	 * @see #mergeWith(NodeStructure)
 	 */
 	public NodeStructureImpl(NodeStructure ns) {
-		this(ns.getDefaultNodeType(), ns.getDefaultLinkType());
+		this(ns.getDefaultNodeType(), ns.getDefaultLinkType(), (ns instanceof NodeStructureImpl) && ((NodeStructureImpl) ns).isIntKeyedNodes());
+		if (ns instanceof NodeStructureImpl) {
+			setLockStriping(((NodeStructureImpl) ns).isLockStriping());
+		}
+		presize(ns.getNodeCount(), ns.getLinkCount());
 		internalMerge(ns);
 	}
 
+	/*
+	 * Replaces the empty maps of a new NodeStructure with maps sized for
+	 * specified number of nodes and links. Only called by constructors.
+	 */
+	private void presize(int nodeCount, int linkCount) {
+		if (isIntKeyedNodes()) {
+			nodes.ensureCapacity(nodeCount);
+		} else {
+			nodes = new NodeMap.HashNodeMap(nodeCount);
+		}
+		links = new ConcurrentHashMap<ExtendedId, Link>(NodeMap.capacityFor(linkCount));
+		linkableMap = new ConcurrentHashMap<Linkable, Set<Link>>(NodeMap.capacityFor(nodeCount + linkCount));
+	}
+
+	/**
+	 * Selects how the nodes are stored. By default they are in a
+	 * {@link ConcurrentHashMap} keyed by boxed ids. Int-keyed storage is an
+	 * open-addressing table with primitive keys, looked up without allocation
+	 * and without lock. Nodes already present are moved to the new storage.
+	 * 
+	 * @param intKeyedNodes
+	 *            true to store the nodes in an open-addressing table with
+	 *            primitive int keys
+	 */
+	public void setIntKeyedNodes(boolean intKeyedNodes) {
+		StructureLock lock = lockAll();
+		try {
+			if (intKeyedNodes == isIntKeyedNodes()) {
+				return;
+			}
+			NodeMap map = intKeyedNodes ? new IntNodeMap() : new NodeMap.HashNodeMap();
+			for (Node n : nodes.values()) {
+				map.put(n);
+			}
+			nodes = map;
+		} finally {
+			lock.unlockAll();
+		}
+	}
+
+	/**
+	 * @return true if the nodes are stored in an open-addressing table with
+	 *         primitive int keys
+	 */
+	public boolean isIntKeyedNodes() {
+		return nodes instanceof IntNodeMap;
+	}
+
+	/**
+	 * Selects how concurrent writes are guarded. By default every write is
+	 * exclusive. With lock striping, adding a node or a link only locks the
+	 * stripes of the node ids it connects, so writers working on different
+	 * neighborhoods, e.g. structure building codelets on the CSM, run in
+	 * parallel. Removals and clears still lock the whole structure, which
+	 * keeps the links and their attached sets consistent. With lock striping
+	 * the attached link sets are concurrent so they can be read during writes.
+	 * 
+	 * @param striped
+	 *            true to lock the neighborhoods of the written linkables
+	 *            instead of the whole structure
+	 */
+	public void setLockStriping(boolean striped) {
+		StructureLock lock = lockAll();
+		try {
+			if (striped == lock.isStriped()) {
+				return;
+			}
+			structureLock = new StructureLock(striped ? DEFAULT_LOCK_STRIPES : 0);
+			for (Map.Entry<Linkable, Set<Link>> e : linkableMap.entrySet()) {
+				Set<Link> set = newLinkSet();
+				set.addAll(e.getValue());
+				e.setValue(set);
+			}
+		} finally {
+			lock.unlockAll();
+		}
+	}
+
+	/**
+	 * @return true if writes lock the neighborhoods of the written linkables
+	 *         instead of the whole structure
+	 */
+	public boolean isLockStriping() {
+		return structureLock.isStriped();
+	}
+
+	/*
+	 * Locks the neighborhood of specified node ids with the current
+	 * StructureLock, which is returned to unlock it.
+	 */
+	private StructureLock lock(int id1, int id2) {
+		while (true) {
+			StructureLock lock = structureLock;
+			lock.lock(id1, id2);
+			if (lock == structureLock) {
+				return lock;
+			}
+			lock.unlock(id1, id2);
+		}
+	}
+
+	/*
+	 * Locks the whole structure with the current StructureLock, which is
+	 * returned to unlock it.
+	 */
+	private StructureLock lockAll() {
+		while (true) {
+			StructureLock lock = structureLock;
+			lock.lockAll();
+			if (lock == structureLock) {
+				return lock;
+			}
+			lock.unlockAll();
+		}
+	}
+
+	/*
+	 * New set of attached links, concurrent with lock striping
+	 */
+	private Set<Link> newLinkSet() {
+		if (structureLock.isStriped()) {
+			return Collections.newSetFromMap(new ConcurrentHashMap<Link, Boolean>());
+		}
+		return new HashSet<Link>();
+	}
+
 	@Override
 	public Node addDefaultNode(Node n) {
 		return addNode(n, defaultNodeType);
@@ -146,7 +315,7 @@ public class NodeStructureImpl implements NodeStructure, BroadcastContent, Works
 	}
 
 	@Override
-	public synchronized Node addNode(Node n, String type) {
+	public Node addNode(Node n, String type) {
 		if (n == null) {
 			logger.log(Level.WARNING, "Cannot add null Node.", TaskManager.getCurrentTick());
 			return null;
@@ -156,45 +325,59 @@ public class NodeStructureImpl implements NodeStructure, BroadcastContent, Works
 					new Object[] { TaskManager.getCurrentTick(), type, n });
 			return null;
 		}
-		Node node = nodes.get(n.getId());
-		if (node == null) {
-			node = getNewNode(n, type);// Calls #updateNodeValues
-			if (node != null) {
-				nodes.put(node.getId(), node);
-				linkableMap.put(node, new HashSet<Link>());
+		int id = n.getId();
+		StructureLock lock = lock(id, id);
+		try {
+			Node node = nodes.get(id);
+			if (node == null) {
+				node = getNewNode(n, type);// Calls #updateNodeValues
+				if (node != null) {
+					nodes.put(node);
+					linkableMap.put(node, newLinkSet());
+					linkableAdded(node);
+				} else {
+					logger.log(Level.WARNING, "Could not create new node of type: {1} ", new Object[] { TaskManager.getCurrentTick(), type });
+				}
+			} else if (type.equals(node.getFactoryType())) {
+				if (node.getActivation() < n.getActivation()) {
+					node.setActivation(n.getActivation());
+				}
+				node.updateNodeValues(n);
 			} else {
-				logger.log(Level.WARNING, "Could not create new node of type: {1} ", new Object[] { TaskManager.getCurrentTick(), type });
-			}
-		} else if (type.equals(node.getFactoryType())) {
-			if (node.getActivation() < n.getActivation()) {
-				node.setActivation(n.getActivation());
+				logger.log(
+						Level.WARNING,
+						"Cannot add Node {1} of type {2} because another Node {3} having a different type {4} and the same id is already present. Existing Node returned.",
+						new Object[] { TaskManager.getCurrentTick(), n, type, node, node.getFactoryType() });
+				node = null;
+				throw new IllegalArgumentException();
 			}
-			node.updateNodeValues(n);
-		} else {
-			logger.log(
-					Level.WARNING,
-					"Cannot add Node {1} of type {2} because another Node {3} having a different type {4} and the same id is already present. Existing Node returned.",
-					new Object[] { TaskManager.getCurrentTick(), n, type, node, node.getFactoryType() });
-			node = null;
-			throw new IllegalArgumentException();
+			return node;
+		} finally {
+			lock.unlock(id, id);
 		}
-		return node;
 	}
 
 	@Override
-	public synchronized Node addDefaultNode(String label, double a, double rt) {
+	public Node addDefaultNode(String label, double a, double rt) {
 		return addNode(defaultNodeType, label, a, rt);
 	}
 
 	@Override
-	public synchronized Node addNode(String type, String label, double a, double rt) {
+	public Node addNode(String type, String label, double a, double rt) {
 		Node n = factory.getNode(defaultNodeType, null, type);
 		if (n != null) {
 			n.setLabel(label);
 			n.setActivation(a);
 			n.setActivatibleRemovalThreshold(rt);
-			nodes.put(n.getId(), n);
-			linkableMap.put(n, new HashSet<Link>());
+			int id = n.getId();
+			StructureLock lock = lock(id, id);
+			try {
+				nodes.put(n);
+				linkableMap.put(n, newLinkSet());
+				linkableAdded(n);
+			} finally {
+				lock.unlock(id, id);
+			}
 		}
 		return n;
 	}
@@ -220,15 +403,22 @@ public class NodeStructureImpl implements NodeStructure, BroadcastContent, Works
 			logger.log(Level.WARNING, "Cannot add null Node.", TaskManager.getCurrentTick());
 			return null;
 		} else {
-			Node node = nodes.get(n.getId());
-			if (node == null) {
-				node = n;
-				nodes.put(node.getId(), node);
-				linkableMap.put(node, new HashSet<Link>());
-			} else {
-				logger.log(Level.FINE, "Cannot add node, it is already in this NodeStructure.", TaskManager.getCurrentTick());
+			int id = n.getId();
+			StructureLock lock = lock(id, id);
+			try {
+				Node node = nodes.get(id);
+				if (node == null) {
+					node = n;
+					nodes.put(node);
+					linkableMap.put(node, newLinkSet());
+					linkableAdded(node);
+				} else {
+					logger.log(Level.FINE, "Cannot add node, it is already in this NodeStructure.", TaskManager.getCurrentTick());
+				}
+				return node;
+			} finally {
+				lock.unlock(id, id);
 			}
-			return node;
 		}
 	}
 
@@ -251,7 +441,7 @@ public class NodeStructureImpl implements NodeStructure, BroadcastContent, Works
 	}
 
 	@Override
-	public synchronized Link addDefaultLink(Link l) {
+	public Link addDefaultLink(Link l) {
 		return addLink(l, defaultLinkType);
 	}
 
@@ -290,7 +480,7 @@ public class NodeStructureImpl implements NodeStructure, BroadcastContent, Works
 	}
 
 	@Override
-	public synchronized Link addLink(Link l, String type) {
+	public Link addLink(Link l, String type) {
 		if (!factory.containsLinkType(type)) {
 			logger.log(
 					Level.WARNING,
@@ -298,41 +488,51 @@ public class NodeStructureImpl implements NodeStructure, BroadcastContent, Works
 					new Object[] { TaskManager.getCurrentTick(), l, type });
 			return null;
 		}
-		if (!isLinkValid(l)) {
+		if (!hasSourceAndSink(l)) {
 			return null;
 		}
-		double newActivation = l.getActivation();
-		Link link = links.get(l.getExtendedId());
-		if (link == null) {
-			Node source = l.getSource();
-			Node newSource = nodes.get(source.getId());
-			Linkable sink = l.getSink();
-			Linkable newSink = null;
-			if (sink instanceof Node) {
-				Node snode = (Node) sink;
-				newSink = nodes.get(snode.getId());
-			} else {
-				newSink = links.get(sink.getExtendedId());
+		Node source = l.getSource();
+		Linkable sink = l.getSink();
+		int srcId = source.getId();
+		int sinkNodeId = sink.getExtendedId().getSourceNodeId();
+		StructureLock lock = lock(srcId, sinkNodeId);
+		try {
+			if (!isConnectionValid(srcId, sink.getExtendedId())) {
+				return null;
 			}
-			link = generateNewLink(l, type, newSource, newSink, l.getCategory(), newActivation, l.getActivatibleRemovalThreshold(),
-					l.getGroundingPamLink());// Calls #updateLinkValues
-		} else if (type.equals(link.getFactoryType())) {
-			if (newActivation > link.getActivation()) {
-				link.setActivation(newActivation);
+			double newActivation = l.getActivation();
+			Link link = links.get(l.getExtendedId());
+			if (link == null) {
+				Node newSource = nodes.get(srcId);
+				Linkable newSink = null;
+				if (sink instanceof Node) {
+					Node snode = (Node) sink;
+					newSink = nodes.get(snode.getId());
+				} else {
+					newSink = links.get(sink.getExtendedId());
+				}
+				link = generateNewLink(l, type, newSource, newSink, l.getCategory(), newActivation, l.getActivatibleRemovalThreshold(),
+						l.getGroundingPamLink());// Calls #updateLinkValues
+			} else if (type.equals(link.getFactoryType())) {
+				if (newActivation > link.getActivation()) {
+					link.setActivation(newActivation);
+				}
+				link.updateLinkValues(l);
+			} else {
+				logger.log(
+						Level.WARNING,
+						"Cannot add Link {1} of type {2} because another Link {3} having a different type {4} and the same id is already present. Existing Link returned.",
+						new Object[] { TaskManager.getCurrentTick(), l, type, link, link.getFactoryType() });
+				link = null;
 			}
-			link.updateLinkValues(l);
-		} else {
-			logger.log(
-					Level.WARNING,
-					"Cannot add Link {1} of type {2} because another Link {3} having a different type {4} and the same id is already present. Existing Link returned.",
-					new Object[] { TaskManager.getCurrentTick(), l, type, link, link.getFactoryType() });
-			link = null;
+			return link;
+		} finally {
+			lock.unlock(srcId, sinkNodeId);
 		}
-		return link;
 	}
 
 	@Override
-	public synchronized Link addDefaultLink(Node source, Linkable sink, LinkCategory category, double activation, double removalThreshold) {
+	public Link addDefaultLink(Node source, Linkable sink, LinkCategory category, double activation, double removalThreshold) {
 		if (source == null) {
 			logger.log(Level.WARNING, "Cannot add link because source is null", TaskManager.getCurrentTick());
 			return null;
@@ -345,33 +545,40 @@ public class NodeStructureImpl implements NodeStructure, BroadcastContent, Works
 	}
 
 	@Override
-	public synchronized Link addDefaultLink(int sourceId, ExtendedId sinkId, LinkCategory category, double activation, double removalThreshold) {
+	public Link addDefaultLink(int sourceId, ExtendedId sinkId, LinkCategory category, double activation, double removalThreshold) {
 		return addLink(defaultLinkType, sourceId, sinkId, category, activation, removalThreshold);
 	}
 
 	@Override
-	public synchronized Link addDefaultLink(int sourceId, int sinkId, LinkCategory cat, double activation, double removalThreshold) {
+	public Link addDefaultLink(int sourceId, int sinkId, LinkCategory cat, double activation, double removalThreshold) {
 		if (cat == null) {
 			logger.log(Level.WARNING, "Cannot add new link because category is null.", TaskManager.getCurrentTick());
 			return null;
 		}
-		if (!isConnectionValid(sourceId, new ExtendedId(sinkId))) {
-			return null;
-		}
-		Node source = getNode(sourceId);
-		Linkable sink = getNode(sinkId);
-		ExtendedId newLinkId = new ExtendedId(sourceId, sink.getExtendedId(), cat.getId());
-		Link link = getLink(newLinkId);
-		if (link == null) {
-			link = generateNewLink(null, defaultLinkType, source, sink, cat, activation, removalThreshold, null);
-		} else if (activation > link.getActivation()) {
-			link.setActivation(activation);
+		StructureLock lock = lock(sourceId, sinkId);
+		try {
+			Node sink = getNode(sinkId);
+			// The id of a present sink is reused, a new one is only needed to
+			// report a missing sink
+			if (!isConnectionValid(sourceId, (sink == null) ? new ExtendedId(sinkId) : sink.getExtendedId())) {
+				return null;
+			}
+			Node source = getNode(sourceId);
+			ExtendedId newLinkId = new ExtendedId(sourceId, sink.getExtendedId(), cat.getId());
+			Link link = getLink(newLinkId);
+			if (link == null) {
+				link = generateNewLink(null, defaultLinkType, source, sink, cat, activation, removalThreshold, null);
+			} else if (activation > link.getActivation()) {
+				link.setActivation(activation);
+			}
+			return link;
+		} finally {
+			lock.unlock(sourceId, sinkId);
 		}
-		return link;
 	}
 
 	@Override
-	public synchronized Link addLink(String type, Node src, Linkable sink, LinkCategory cat, double a, double rt) {
+	public Link addLink(String type, Node src, Linkable sink, LinkCategory cat, double a, double rt) {
 		if (src == null) {
 			logger.log(Level.WARNING, "Cannot add link because source is null", TaskManager.getCurrentTick());
 			return null;
@@ -384,7 +591,7 @@ public class NodeStructureImpl implements NodeStructure, BroadcastContent, Works
 	}
 
 	@Override
-	public synchronized Link addLink(String type, int srcId, ExtendedId snkId, LinkCategory cat, double a, double rt) {
+	public Link addLink(String type, int srcId, ExtendedId snkId, LinkCategory cat, double a, double rt) {
 		if (!factory.containsLinkType(type)) {
 			logger.log(
 					Level.WARNING,
@@ -396,36 +603,43 @@ public class NodeStructureImpl implements NodeStructure, BroadcastContent, Works
 			logger.log(Level.WARNING, "Cannot add new link because category is null.", TaskManager.getCurrentTick());
 			return null;
 		}
-		if (!isConnectionValid(srcId, snkId)) {
-			return null;
-		}
-		ExtendedId newLinkId = new ExtendedId(srcId, snkId, cat.getId());
-		Link link = getLink(newLinkId);
-		if (link == null) {
-			Node source = getNode(srcId);
-			Linkable sink = getLinkable(snkId);
-			link = generateNewLink(null, type, source, sink, cat, a, rt, null);
-		} else if (type.equals(link.getFactoryType())) {
-			if (a > link.getActivation()) {
-				link.setActivation(a);
+		int sinkNodeId = (snkId == null) ? srcId : snkId.getSourceNodeId();
+		StructureLock lock = lock(srcId, sinkNodeId);
+		try {
+			if (!isConnectionValid(srcId, snkId)) {
+				return null;
 			}
-		} else {
-			logger.log(
-					Level.WARNING,
-					"Cannot add new Link of type {2} because another Link {3} having a different type {4} and the same id is already present. Existing Link returned.",
-					new Object[] { TaskManager.getCurrentTick(), type, link, link.getFactoryType() });
-			link = null;
+			ExtendedId newLinkId = new ExtendedId(srcId, snkId, cat.getId());
+			Link link = getLink(newLinkId);
+			if (link == null) {
+				Node source = getNode(srcId);
+				Linkable sink = getLinkable(snkId);
+				link = generateNewLink(null, type, source, sink, cat, a, rt, null);
+			} else if (type.equals(link.getFactoryType())) {
+				if (a > link.getActivation()) {
+					link.setActivation(a);
+				}
+			} else {
+				logger.log(
+						Level.WARNING,
+						"Cannot add new Link of type {2} because another Link {3} having a different type {4} and the same id is already present. Existing Link returned.",
+						new Object[] { TaskManager.getCurrentTick(), type, link, link.getFactoryType() });
+				link = null;
+			}
+			return link;
+		} finally {
+			lock.unlock(srcId, sinkNodeId);
 		}
-		return link;
 	}
 
 	/*
-	 * Returns true if Link l can currently be added to the NodeStructure. Calls
-	 * isConnectionValid().
+	 * Returns true if Link l has a source and a sink. Whether they can be
+	 * connected is checked by isConnectionValid() once the neighborhood is
+	 * locked.
 	 * 
 	 * @see #isConnectionValid
 	 */
-	private boolean isLinkValid(Link l) {
+	private boolean hasSourceAndSink(Link l) {
 		if (l == null) {
 			logger.log(Level.WARNING, "Cannot add null", TaskManager.getCurrentTick());
 			return false;
@@ -440,7 +654,7 @@ public class NodeStructureImpl implements NodeStructure, BroadcastContent, Works
 			logger.log(Level.WARNING, "Cannot add Link, its sink is null.", TaskManager.getCurrentTick());
 			return false;
 		}
-		return isConnectionValid(src.getId(), sink.getExtendedId());
+		return true;
 	}
 
 	/*
@@ -484,19 +698,20 @@ public class NodeStructureImpl implements NodeStructure, BroadcastContent, Works
 
 			links.put(newLink.getExtendedId(), newLink);
 			if (!linkableMap.containsKey(newLink)) {
-				linkableMap.put(newLink, new HashSet<Link>());
+				linkableMap.put(newLink, newLinkSet());
 			}
+			linkableAdded(newLink);
 
 			Set<Link> tempLinks = linkableMap.get(newSource);
 			if (tempLinks == null) {
-				tempLinks = new HashSet<Link>();
+				tempLinks = newLinkSet();
 				linkableMap.put(newSource, tempLinks);
 			}
 			tempLinks.add(newLink);
 
 			tempLinks = linkableMap.get(newSink);
 			if (tempLinks == null) {
-				tempLinks = new HashSet<Link>();
+				tempLinks = newLinkSet();
 				linkableMap.put(newSink, tempLinks);
 			}
 			tempLinks.add(newLink);
@@ -536,6 +751,18 @@ public class NodeStructureImpl implements NodeStructure, BroadcastContent, Works
 		return new NodeStructureImpl(this);
 	}
 
+	/**
+	 * Merges specified NodeStructure into this one in a single batch. The
+	 * whole structure is locked once for the batch, each factory type is
+	 * checked once and the node storage is grown once. Elements are added as
+	 * by {@link #addNode(Node, String)} and {@link #addLink(Link, String)}
+	 * with their own factory type, except that an element already present
+	 * whose activation and incentive salience equal those of the merged
+	 * element is left unchanged.
+	 * 
+	 * @param ns
+	 *            the NodeStructure to merge
+	 */
 	@Override
 	public void mergeWith(NodeStructure ns) {
 		internalMerge(ns);
@@ -550,24 +777,116 @@ public class NodeStructureImpl implements NodeStructure, BroadcastContent, Works
 			logger.log(Level.WARNING, "Cannot merge with null", TaskManager.getCurrentTick());
 			return;
 		}
-		// Add nodes
-		for (Node n : ns.getNodes()) {
-			addNode(n, n.getFactoryType());
+		Collection<Node> nc = ns.getNodes();
+		Collection<Link> cl = ns.getLinks();
+		Map<String, Boolean> nodeTypes = new HashMap<String, Boolean>();
+		Map<String, Boolean> linkTypes = new HashMap<String, Boolean>();
+		StructureLock lock = lockAll();
+		try {
+			nodes.ensureCapacity(nc.size());
+			// Add nodes
+			for (Node n : nc) {
+				if (n != null && containsType(nodeTypes, n.getFactoryType(), true)) {
+					mergeNode(n, n.getFactoryType());
+				}
+			}
+			// Add simple links
+			for (Link l : cl) {
+				if (l != null && l.isSimpleLink() && containsType(linkTypes, l.getFactoryType(), false)) {
+					mergeLink(l, l.getFactoryType());
+				}
+			}
+			// Add complex links
+			for (Link l : cl) {
+				if (l != null && l.isSimpleLink() == false && containsType(linkTypes, l.getFactoryType(), false)) {
+					mergeLink(l, l.getFactoryType());
+				}
+			}
+		} finally {
+			lock.unlockAll();
 		}
+	}
 
-		Collection<Link> cl = ns.getLinks();
-		// Add simple links
-		for (Link l : cl) {
-			if (l.isSimpleLink()) {
-				addLink(l, l.getFactoryType());
+	/*
+	 * Returns true if the factory contains specified node or link type. The
+	 * answer is kept in specified map so each type of a merge is checked once.
+	 */
+	private boolean containsType(Map<String, Boolean> resolved, String type, boolean nodeType) {
+		Boolean contained = resolved.get(type);
+		if (contained == null) {
+			contained = nodeType ? factory.containsNodeType(type) : factory.containsLinkType(type);
+			if (!contained) {
+				logger.log(Level.WARNING, "Factory does not contain {1} type {2}. Check that type is defined in factoryData.xml. Elements of that type not merged",
+						new Object[] { TaskManager.getCurrentTick(), nodeType ? "Node" : "Link", type });
 			}
+			resolved.put(type, contained);
 		}
+		return contained;
+	}
 
-		// Add complex links
-		for (Link l : cl) {
-			if (l.isSimpleLink() == false) {
-				addLink(l, l.getFactoryType());
+	/*
+	 * Adds or updates specified Node of a merged NodeStructure. The whole
+	 * structure must be locked and the type supported by the factory.
+	 */
+	private void mergeNode(Node n, String type) {
+		Node node = nodes.get(n.getId());
+		if (node == null) {
+			node = getNewNode(n, type);// Calls #updateNodeValues
+			if (node != null) {
+				nodes.put(node);
+				linkableMap.put(node, newLinkSet());
+				linkableAdded(node);
+			} else {
+				logger.log(Level.WARNING, "Could not create new node of type: {1} ", new Object[] { TaskManager.getCurrentTick(), type });
 			}
+		} else if (!type.equals(node.getFactoryType())) {
+			logger.log(
+					Level.WARNING,
+					"Cannot add Node {1} of type {2} because another Node {3} having a different type {4} and the same id is already present. Existing Node returned.",
+					new Object[] { TaskManager.getCurrentTick(), n, type, node, node.getFactoryType() });
+			throw new IllegalArgumentException();
+		} else if (node != n) {
+			if (node.getActivation() < n.getActivation()) {
+				node.setActivation(n.getActivation());
+			}
+			node.updateNodeValues(n);
+		}
+	}
+
+	/*
+	 * Adds or updates specified Link of a merged NodeStructure. The whole
+	 * structure must be locked and the type supported by the factory. The
+	 * connection is only checked for a new Link.
+	 */
+	private void mergeLink(Link l, String type) {
+		Link link = links.get(l.getExtendedId());
+		if (link == null) {
+			if (!hasSourceAndSink(l)) {
+				return;
+			}
+			int srcId = l.getSource().getId();
+			Linkable sink = l.getSink();
+			if (!isConnectionValid(srcId, sink.getExtendedId())) {
+				return;
+			}
+			Linkable newSink = null;
+			if (sink instanceof Node) {
+				newSink = nodes.get(((Node) sink).getId());
+			} else {
+				newSink = links.get(sink.getExtendedId());
+			}
+			generateNewLink(l, type, nodes.get(srcId), newSink, l.getCategory(), l.getActivation(), l.getActivatibleRemovalThreshold(),
+					l.getGroundingPamLink());// Calls #updateLinkValues
+		} else if (!type.equals(link.getFactoryType())) {
+			logger.log(
+					Level.WARNING,
+					"Cannot add Link {1} of type {2} because another Link {3} having a different type {4} and the same id is already present. Existing Link returned.",
+					new Object[] { TaskManager.getCurrentTick(), l, type, link, link.getFactoryType() });
+		} else if (link != l) {
+			if (l.getActivation() > link.getActivation()) {
+				link.setActivation(l.getActivation());
+			}
+			link.updateLinkValues(l);
 		}
 	}
 
@@ -582,46 +901,56 @@ public class NodeStructureImpl implements NodeStructure, BroadcastContent, Works
 	}
 
 	@Override
-	public synchronized void removeLinkable(Linkable linkable) {
-		// First check if the NS actually contains specified linkable to prevent
-		// null pointers.
-		if (!containsLinkable(linkable)) {
-			return;
-		}
+	public void removeLinkable(Linkable linkable) {
+		StructureLock lock = lockAll();
+		try {
+			// First check if the NS actually contains specified linkable to prevent
+			// null pointers.
+			if (!containsLinkable(linkable)) {
+				return;
+			}
 
-		// Need to remove all links connected to the linkable specified to be
-		// removed.
-		Set<Link> tempLinks = linkableMap.get(linkable);
-		if (tempLinks != null) {
-			// must put these links in another collection to prevent concurrent
-			// modification exception in a recursive call
-			Set<Link> connectedLinks = new HashSet<Link>(tempLinks);
-			for (Link connectedLink : connectedLinks) {
-				// for all of the links connected to linkable
-				removeLinkable(connectedLink);
+			// Need to remove all links connected to the linkable specified to be
+			// removed.
+			Set<Link> tempLinks = linkableMap.get(linkable);
+			if (tempLinks != null) {
+				// must put these links in another collection to prevent concurrent
+				// modification exception in a recursive call
+				Set<Link> connectedLinks = new HashSet<Link>(tempLinks);
+				for (Link connectedLink : connectedLinks) {
+					// for all of the links connected to linkable
+					removeLinkable(connectedLink);
+				}
 			}
-		}
 
-		// finally remove the linkable and its links
-		linkableMap.remove(linkable);
-		if (linkable instanceof Node) {
-			nodes.remove(((Node) linkable).getId());
-		} else if (linkable instanceof Link) {
-			// if removing a link then must also remove the 2 references to the
-			// link get actual link object
-			Link aux = links.get(linkable.getExtendedId());
-			// get and remove source's reference to link
-			Set<Link> sourceLinks = linkableMap.get(aux.getSource());
-			if (sourceLinks != null) {
-				sourceLinks.remove(aux);
+			// finally remove the linkable and its links
+			linkableMap.remove(linkable);
+			ExpiryIndex<Linkable> index = expiryIndex;
+			if (index != null) {
+				index.remove(linkable);
 			}
-			// get and remove sink's reference to link
-			Set<Link> sinkLinks = linkableMap.get(aux.getSink());
-			if (sinkLinks != null) {
-				sinkLinks.remove(aux);
+			if (linkable instanceof Node) {
+				nodes.remove(((Node) linkable).getId());
+			} else if (linkable instanceof Link) {
+				// if removing a link then must also remove the 2 references to the
+				// link get actual link object
+				Link aux = links.get(linkable.getExtendedId());
+				// get and remove source's reference to link
+				Set<Link> sourceLinks = linkableMap.get(aux.getSource());
+				if (sourceLinks != null) {
+					sourceLinks.remove(aux);
+				}
+				// get and remove sink's reference to link
+				Set<Link> sinkLinks = linkableMap.get(aux.getSink());
+				if (sinkLinks != null) {
+					sinkLinks.remove(aux);
+				}
+				// finally remove the link from links map
+				links.remove(linkable.getExtendedId());
 			}
-			// finally remove the link from links map
-			links.remove(linkable.getExtendedId());
+			raiseChangeSignal();
+		} finally {
+			lock.unlockAll();
 		}
 	}
 
@@ -638,22 +967,138 @@ public class NodeStructureImpl implements NodeStructure, BroadcastContent, Works
 	}
 
 	@Override
-	public synchronized void clearLinks() {
-		for (Link l : links.values()) {
-			removeLink(l);
+	public void clearLinks() {
+		StructureLock lock = lockAll();
+		try {
+			for (Link l : links.values()) {
+				removeLink(l);
+			}
+			links.clear();
+		} finally {
+			lock.unlockAll();
 		}
-		links.clear();
 	}
 
 	@Override
-	public synchronized void clearNodeStructure() {
-		linkableMap.clear();
-		nodes.clear();
-		links.clear();
+	public void clearNodeStructure() {
+		StructureLock lock = lockAll();
+		try {
+			linkableMap.clear();
+			nodes.clear();
+			links.clear();
+			ExpiryIndex<Linkable> index = expiryIndex;
+			if (index != null) {
+				index.clear();
+			}
+			raiseChangeSignal();
+		} finally {
+			lock.unlockAll();
+		}
+	}
+
+	/**
+	 * Returns the {@link ChangeSignal} raised each time a {@link Linkable} is
+	 * added to or removed from this NodeStructure. Changes in the activation
+	 * of the linkables do not raise it. Tasks reading this NodeStructure may
+	 * park on it when they find nothing to do.
+	 * 
+	 * @return the change signal of this NodeStructure
+	 * @see FrameworkTaskImpl#park()
+	 */
+	public ChangeSignal getChangeSignal() {
+		ChangeSignal signal = changeSignal;
+		if (signal == null) {
+			synchronized (this) {
+				if (changeSignal == null) {
+					changeSignal = new ChangeSignal();
+				}
+				signal = changeSignal;
+			}
+		}
+		return signal;
+	}
+
+	private void raiseChangeSignal() {
+		ChangeSignal signal = changeSignal;
+		if (signal != null) {
+			signal.signal();
+		}
+	}
+
+	/*
+	 * Indexes a new linkable and raises the change signal.
+	 */
+	private void linkableAdded(Linkable lnk) {
+		indexLinkable(lnk);
+		raiseChangeSignal();
+	}
+
+	/**
+	 * Sets whether the linkables of this NodeStructure decay lazily. In lazy
+	 * mode each {@link ActivatibleImpl} applies its decay when its values are
+	 * read and {@link #decayNodeStructure(long)} only checks the linkables
+	 * expected to be removable, using an {@link ExpiryIndex}, instead of
+	 * decaying every linkable.
+	 * 
+	 * @param lazy
+	 *            true to use lazy decay
+	 * @see ActivatibleImpl#setLazyDecay(boolean)
+	 */
+	public void setLazyDecay(boolean lazy) {
+		StructureLock lock = lockAll();
+		try {
+			if (lazy == (expiryIndex != null)) {
+				return;
+			}
+			if (lazy) {
+				expiryIndex = new ExpiryIndex<Linkable>();
+				for (Linkable lnk : linkableMap.keySet()) {
+					indexLinkable(lnk);
+				}
+			} else {
+				expiryIndex = null;
+				for (Linkable lnk : linkableMap.keySet()) {
+					if (lnk instanceof ActivatibleImpl) {
+						((ActivatibleImpl) lnk).setLazyDecay(false);
+					}
+				}
+			}
+		} finally {
+			lock.unlockAll();
+		}
+	}
+
+	/**
+	 * @return true if the linkables of this NodeStructure decay lazily
+	 */
+	public boolean isLazyDecay() {
+		return expiryIndex != null;
+	}
+
+	/*
+	 * In lazy decay mode sets the linkable to lazy decay and indexes its
+	 * expiry tick.
+	 */
+	private void indexLinkable(Linkable lnk) {
+		ExpiryIndex<Linkable> index = expiryIndex;
+		if (index != null) {
+			if (lnk instanceof ActivatibleImpl) {
+				((ActivatibleImpl) lnk).setLazyDecay(true);
+			}
+			index.update(lnk, TaskManager.getCurrentTick());
+		}
 	}
 
 	@Override
 	public void decayNodeStructure(long ticks) {
+		ExpiryIndex<Linkable> index = expiryIndex;
+		if (index != null) {
+			for (Linkable lnk : index.pollRemovable(TaskManager
+					.getCurrentTick())) {
+				removeLinkable(lnk);
+			}
+			return;
+		}
 		for (Linkable lnk : linkableMap.keySet()) {
 			Activatible a = (Activatible) lnk;
 			a.decay(ticks);
@@ -0,0 +1,689 @@
+/*******************************************************************************
+ * Copyright (c) 2009, 2011 The University of Memphis.  All rights reserved. 
+ * This program and the accompanying materials are made available 
+ * under the terms of the LIDA Software Framework Non-Commercial License v1.0 
+ * which accompanies this distribution, and is available at
+ * http://ccrg.cs.memphis.edu/assets/papers/2010/LIDA-framework-non-commercial-v1.0.pdf
+ *******************************************************************************/
+package edu.memphis.ccrg.lida.framework.shared;
+
+import java.util.AbstractCollection;
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+/**
+ * Immutable hash map based on a hash array mapped trie. Each level of the
+ * trie consumes 5 bits of the hash and keeps only its present children, so
+ * {@link #plus(Object, Object)} and {@link #minus(Object)} copy a single path
+ * of at most 7 small arrays and share everything else with the original map.
+ * Keys with the same hash are kept in a collision node. Null keys and values
+ * are not supported.
+ * 
+ * @param <K>
+ *            the type of keys
+ * @param <V>
+ *            the type of values
+ */
+final class PersistentHashMap<K, V> implements Iterable<Map.Entry<K, V>> {
+
+	private static final PersistentHashMap<Object, Object> EMPTY = new PersistentHashMap<Object, Object>(
+			null, 0);
+
+	private static final int BITS = 5;
+	private static final int MASK = (1 << BITS) - 1;
+
+	private final TrieNode<K, V> root;
+	private final int size;
+
+	private PersistentHashMap(TrieNode<K, V> root, int size) {
+		this.root = root;
+		this.size = size;
+	}
+
+	/**
+	 * @param <K>
+	 *            the type of keys
+	 * @param <V>
+	 *            the type of values
+	 * @return the empty map
+	 */
+	@SuppressWarnings("unchecked")
+	static <K, V> PersistentHashMap<K, V> empty() {
+		return (PersistentHashMap<K, V>) (PersistentHashMap<?, ?>) EMPTY;
+	}
+
+	/**
+	 * @param key
+	 *            a key
+	 * @return the value of the key or null
+	 */
+	V get(Object key) {
+		if (root == null) {
+			return null;
+		}
+		Leaf<K, V> leaf = root.find(hash(key), 0, key);
+		return (leaf == null) ? null : leaf.value;
+	}
+
+	/**
+	 * @param key
+	 *            a key
+	 * @return true if the map contains the key
+	 */
+	boolean containsKey(Object key) {
+		return root != null && root.find(hash(key), 0, key) != null;
+	}
+
+	/**
+	 * @param key
+	 *            the key
+	 * @param value
+	 *            the value
+	 * @return a map with the key mapped to the value, this map if it already
+	 *         is
+	 */
+	PersistentHashMap<K, V> plus(K key, V value) {
+		Leaf<K, V> leaf = new Leaf<K, V>(hash(key), key, value);
+		if (root == null) {
+			return new PersistentHashMap<K, V>(leaf, 1);
+		}
+		boolean[] added = new boolean[1];
+		TrieNode<K, V> r = root.plus(0, leaf, added);
+		return (r == root) ? this : new PersistentHashMap<K, V>(r, added[0] ? size + 1 : size);
+	}
+
+	/**
+	 * @param key
+	 *            the key
+	 * @return a map without the key, this map if it has not the key
+	 */
+	PersistentHashMap<K, V> minus(Object key) {
+		if (root == null) {
+			return this;
+		}
+		TrieNode<K, V> r = root.minus(hash(key), 0, key);
+		if (r == root) {
+			return this;
+		}
+		return (r == null) ? PersistentHashMap.<K, V> empty() : new PersistentHashMap<K, V>(r, size - 1);
+	}
+
+	/**
+	 * @return the number of keys
+	 */
+	int size() {
+		return size;
+	}
+
+	/**
+	 * @return true if the map has no key
+	 */
+	boolean isEmpty() {
+		return size == 0;
+	}
+
+	/**
+	 * Iterates the entries. {@link Map.Entry#setValue(Object)} is not
+	 * supported.
+	 */
+	@Override
+	public Iterator<Map.Entry<K, V>> iterator() {
+		return new EntryIterator<K, V>(root);
+	}
+
+	/**
+	 * @return an unmodifiable view of the keys
+	 */
+	Set<K> keySet() {
+		return new AbstractSet<K>() {
+			@Override
+			public Iterator<K> iterator() {
+				final Iterator<Map.Entry<K, V>> i = PersistentHashMap.this.iterator();
+				return new Iterator<K>() {
+					@Override
+					public boolean hasNext() {
+						return i.hasNext();
+					}
+
+					@Override
+					public K next() {
+						return i.next().getKey();
+					}
+
+					@Override
+					public void remove() {
+						throw new UnsupportedOperationException();
+					}
+				};
+			}
+
+			@Override
+			public boolean contains(Object o) {
+				return containsKey(o);
+			}
+
+			@Override
+			public int size() {
+				return size;
+			}
+		};
+	}
+
+	/**
+	 * @return an unmodifiable view of the values
+	 */
+	Collection<V> values() {
+		return new AbstractCollection<V>() {
+			@Override
+			public Iterator<V> iterator() {
+				final Iterator<Map.Entry<K, V>> i = PersistentHashMap.this.iterator();
+				return new Iterator<V>() {
+					@Override
+					public boolean hasNext() {
+						return i.hasNext();
+					}
+
+					@Override
+					public V next() {
+						return i.next().getValue();
+					}
+
+					@Override
+					public void remove() {
+						throw new UnsupportedOperationException();
+					}
+				};
+			}
+
+			@Override
+			public int size() {
+				return size;
+			}
+		};
+	}
+
+	/**
+	 * Collects entries and builds a map from them in one pass, without the
+	 * path copying of {@link PersistentHashMap#plus(Object, Object)}. A later
+	 * entry replaces an earlier one with the same key.
+	 * 
+	 * @param <K>
+	 *            the type of keys
+	 * @param <V>
+	 *            the type of values
+	 */
+	static final class Builder<K, V> {
+		private Leaf<K, V>[] leaves;
+		private int count;
+
+		/**
+		 * @param capacity
+		 *            expected number of entries
+		 */
+		Builder(int capacity) {
+			leaves = newLeaves(Math.max(capacity, 1));
+		}
+
+		/**
+		 * @param key
+		 *            the key
+		 * @param value
+		 *            the value
+		 */
+		void put(K key, V value) {
+			if (count == leaves.length) {
+				leaves = Arrays.copyOf(leaves, count * 2);
+			}
+			leaves[count++] = new Leaf<K, V>(hash(key), key, value);
+		}
+
+		/**
+		 * @return a map with the collected entries
+		 */
+		PersistentHashMap<K, V> build() {
+			if (count == 0) {
+				return empty();
+			}
+			int[] size = { count };
+			TrieNode<K, V> root = buildNode(leaves, 0, count, 0, size);
+			return new PersistentHashMap<K, V>(root, size[0]);
+		}
+	}
+
+	/*
+	 * Node holding leaves[from, to) at specified level. The leaves are
+	 * reordered in place by the bits of each level, keeping their order within
+	 * a child. size[0] is decremented for each replaced key.
+	 */
+	private static <K, V> TrieNode<K, V> buildNode(Leaf<K, V>[] leaves,
+			int from, int to, int shift, int[] size) {
+		if (to - from == 1) {
+			return leaves[from];
+		}
+		int hash = leaves[from].hash;
+		boolean sameHash = true;
+		for (int i = from + 1; i < to && sameHash; i++) {
+			sameHash = leaves[i].hash == hash;
+		}
+		if (sameHash) {
+			return buildCollision(leaves, from, to, size);
+		}
+		int[] start = new int[MASK + 2];
+		for (int i = from; i < to; i++) {
+			start[((leaves[i].hash >>> shift) & MASK) + 1]++;
+		}
+		int childCount = 0;
+		for (int b = 0; b <= MASK; b++) {
+			if (start[b + 1] > 0) {
+				childCount++;
+			}
+			start[b + 1] += start[b];
+		}
+		int[] next = start.clone();
+		Leaf<K, V>[] sorted = newLeaves(to - from);
+		for (int i = from; i < to; i++) {
+			sorted[next[(leaves[i].hash >>> shift) & MASK]++] = leaves[i];
+		}
+		System.arraycopy(sorted, 0, leaves, from, sorted.length);
+		int bitmap = 0;
+		TrieNode<K, V>[] children = newNodes(childCount);
+		int c = 0;
+		for (int b = 0; b <= MASK; b++) {
+			if (start[b + 1] > start[b]) {
+				bitmap |= 1 << b;
+				children[c++] = buildNode(leaves, from + start[b], from
+						+ start[b + 1], shift + BITS, size);
+			}
+		}
+		return new BitmapNode<K, V>(bitmap, children);
+	}
+
+	/*
+	 * Node holding leaves[from, to) which have the same hash
+	 */
+	private static <K, V> TrieNode<K, V> buildCollision(Leaf<K, V>[] leaves,
+			int from, int to, int[] size) {
+		Leaf<K, V>[] a = newLeaves(to - from);
+		int n = 0;
+		for (int i = from; i < to; i++) {
+			int j = 0;
+			while (j < n && !a[j].key.equals(leaves[i].key)) {
+				j++;
+			}
+			if (j < n) {
+				a[j] = leaves[i];
+				size[0]--;
+			} else {
+				a[n++] = leaves[i];
+			}
+		}
+		if (n == 1) {
+			return a[0];
+		}
+		return new CollisionNode<K, V>(leaves[from].hash, (n == a.length) ? a
+				: Arrays.copyOf(a, n));
+	}
+
+	private static int hash(Object key) {
+		int h = key.hashCode() * 0x9e3779b9;
+		return h ^ (h >>> 16);
+	}
+
+	/*
+	 * A node of the trie: a leaf, a collision node or a bitmap node
+	 */
+	private static abstract class TrieNode<K, V> {
+
+		/*
+		 * Leaf with the key or null
+		 */
+		abstract Leaf<K, V> find(int hash, int shift, Object key);
+
+		/*
+		 * Node with the leaf added at specified level, this node if unchanged.
+		 * added[0] is set if the key was not present.
+		 */
+		abstract TrieNode<K, V> plus(int shift, Leaf<K, V> leaf, boolean[] added);
+
+		/*
+		 * Node without the key, this node if unchanged, null if empty
+		 */
+		abstract TrieNode<K, V> minus(int hash, int shift, Object key);
+
+		/*
+		 * Number of children, 0 for leaves
+		 */
+		abstract int arity();
+
+		abstract TrieNode<K, V> child(int i);
+	}
+
+	private static class Leaf<K, V> extends TrieNode<K, V> implements Map.Entry<K, V> {
+		private final int hash;
+		private final K key;
+		private final V value;
+
+		public Leaf(int hash, K key, V value) {
+			this.hash = hash;
+			this.key = key;
+			this.value = value;
+		}
+
+		@Override
+		Leaf<K, V> find(int h, int shift, Object k) {
+			return (h == hash && key.equals(k)) ? this : null;
+		}
+
+		@Override
+		TrieNode<K, V> plus(int shift, Leaf<K, V> leaf, boolean[] added) {
+			if (leaf.hash == hash) {
+				if (key.equals(leaf.key)) {
+					return (value == leaf.value) ? this : leaf;
+				}
+				added[0] = true;
+				Leaf<K, V>[] a = newLeaves(2);
+				a[0] = this;
+				a[1] = leaf;
+				return new CollisionNode<K, V>(hash, a);
+			}
+			added[0] = true;
+			return BitmapNode.pair(shift, this, hash, leaf, leaf.hash);
+		}
+
+		@Override
+		TrieNode<K, V> minus(int h, int shift, Object k) {
+			return (h == hash && key.equals(k)) ? null : this;
+		}
+
+		@Override
+		int arity() {
+			return 0;
+		}
+
+		@Override
+		TrieNode<K, V> child(int i) {
+			throw new IndexOutOfBoundsException();
+		}
+
+		@Override
+		public K getKey() {
+			return key;
+		}
+
+		@Override
+		public V getValue() {
+			return value;
+		}
+
+		@Override
+		public V setValue(V v) {
+			throw new UnsupportedOperationException();
+		}
+	}
+
+	/*
+	 * Leaves whose keys have the same hash
+	 */
+	private static class CollisionNode<K, V> extends TrieNode<K, V> {
+		private final int hash;
+		private final Leaf<K, V>[] leaves;
+
+		public CollisionNode(int hash, Leaf<K, V>[] leaves) {
+			this.hash = hash;
+			this.leaves = leaves;
+		}
+
+		@Override
+		Leaf<K, V> find(int h, int shift, Object k) {
+			if (h == hash) {
+				for (Leaf<K, V> l : leaves) {
+					if (l.key.equals(k)) {
+						return l;
+					}
+				}
+			}
+			return null;
+		}
+
+		@Override
+		TrieNode<K, V> plus(int shift, Leaf<K, V> leaf, boolean[] added) {
+			if (leaf.hash != hash) {
+				added[0] = true;
+				return BitmapNode.pair(shift, this, hash, leaf, leaf.hash);
+			}
+			for (int i = 0; i < leaves.length; i++) {
+				if (leaves[i].key.equals(leaf.key)) {
+					if (leaves[i].value == leaf.value) {
+						return this;
+					}
+					Leaf<K, V>[] a = leaves.clone();
+					a[i] = leaf;
+					return new CollisionNode<K, V>(hash, a);
+				}
+			}
+			Leaf<K, V>[] a = newLeaves(leaves.length + 1);
+			System.arraycopy(leaves, 0, a, 0, leaves.length);
+			a[leaves.length] = leaf;
+			added[0] = true;
+			return new CollisionNode<K, V>(hash, a);
+		}
+
+		@Override
+		TrieNode<K, V> minus(int h, int shift, Object k) {
+			if (h != hash) {
+				return this;
+			}
+			for (int i = 0; i < leaves.length; i++) {
+				if (leaves[i].key.equals(k)) {
+					if (leaves.length == 2) {
+						return leaves[1 - i];
+					}
+					Leaf<K, V>[] a = newLeaves(leaves.length - 1);
+					System.arraycopy(leaves, 0, a, 0, i);
+					System.arraycopy(leaves, i + 1, a, i, a.length - i);
+					return new CollisionNode<K, V>(hash, a);
+				}
+			}
+			return this;
+		}
+
+		@Override
+		int arity() {
+			return leaves.length;
+		}
+
+		@Override
+		TrieNode<K, V> child(int i) {
+			return leaves[i];
+		}
+	}
+
+	/*
+	 * Children indexed by 5 bits of the hash, only the present ones are stored
+	 */
+	private static class BitmapNode<K, V> extends TrieNode<K, V> {
+		private final int bitmap;
+		private final TrieNode<K, V>[] children;
+
+		public BitmapNode(int bitmap, TrieNode<K, V>[] children) {
+			this.bitmap = bitmap;
+			this.children = children;
+		}
+
+		/*
+		 * Node holding two nodes of different hashes
+		 */
+		static <K, V> TrieNode<K, V> pair(int shift, TrieNode<K, V> a, int hashA, TrieNode<K, V> b, int hashB) {
+			int ia = (hashA >>> shift) & MASK;
+			int ib = (hashB >>> shift) & MASK;
+			if (ia == ib) {
+				TrieNode<K, V>[] c = newNodes(1);
+				c[0] = pair(shift + BITS, a, hashA, b, hashB);
+				return new BitmapNode<K, V>(1 << ia, c);
+			}
+			TrieNode<K, V>[] c = newNodes(2);
+			c[(ia < ib) ? 0 : 1] = a;
+			c[(ia < ib) ? 1 : 0] = b;
+			return new BitmapNode<K, V>((1 << ia) | (1 << ib), c);
+		}
+
+		private int index(int bit) {
+			return Integer.bitCount(bitmap & (bit - 1));
+		}
+
+		@Override
+		Leaf<K, V> find(int h, int shift, Object k) {
+			int bit = 1 << ((h >>> shift) & MASK);
+			if ((bitmap & bit) == 0) {
+				return null;
+			}
+			return children[index(bit)].find(h, shift + BITS, k);
+		}
+
+		@Override
+		TrieNode<K, V> plus(int shift, Leaf<K, V> leaf, boolean[] added) {
+			int bit = 1 << ((leaf.hash >>> shift) & MASK);
+			int i = index(bit);
+			if ((bitmap & bit) == 0) {
+				TrieNode<K, V>[] c = newNodes(children.length + 1);
+				System.arraycopy(children, 0, c, 0, i);
+				c[i] = leaf;
+				System.arraycopy(children, i, c, i + 1, children.length - i);
+				added[0] = true;
+				return new BitmapNode<K, V>(bitmap | bit, c);
+			}
+			TrieNode<K, V> child = children[i].plus(shift + BITS, leaf, added);
+			if (child == children[i]) {
+				return this;
+			}
+			TrieNode<K, V>[] c = children.clone();
+			c[i] = child;
+			return new BitmapNode<K, V>(bitmap, c);
+		}
+
+		@Override
+		TrieNode<K, V> minus(int h, int shift, Object k) {
+			int bit = 1 << ((h >>> shift) & MASK);
+			if ((bitmap & bit) == 0) {
+				return this;
+			}
+			int i = index(bit);
+			TrieNode<K, V> child = children[i].minus(h, shift + BITS, k);
+			if (child == children[i]) {
+				return this;
+			}
+			if (child != null) {
+				if (children.length == 1 && child instanceof Leaf) {
+					return child;
+				}
+				TrieNode<K, V>[] c = children.clone();
+				c[i] = child;
+				return new BitmapNode<K, V>(bitmap, c);
+			}
+			if (children.length == 1) {
+				return null;
+			}
+			if (children.length == 2 && children[1 - i] instanceof Leaf) {
+				// a leaf can be kept at any level
+				return children[1 - i];
+			}
+			TrieNode<K, V>[] c = newNodes(children.length - 1);
+			System.arraycopy(children, 0, c, 0, i);
+			System.arraycopy(children, i + 1, c, i, c.length - i);
+			return new BitmapNode<K, V>(bitmap & ~bit, c);
+		}
+
+		@Override
+		int arity() {
+			return children.length;
+		}
+
+		@Override
+		TrieNode<K, V> child(int i) {
+			return children[i];
+		}
+	}
+
+	/*
+	 * Generic arrays cannot be created directly
+	 */
+	@SuppressWarnings({ "unchecked", "rawtypes" })
+	private static <K, V> Leaf<K, V>[] newLeaves(int n) {
+		return new Leaf[n];
+	}
+
+	@SuppressWarnings({ "unchecked", "rawtypes" })
+	private static <K, V> TrieNode<K, V>[] newNodes(int n) {
+		return new TrieNode[n];
+	}
+
+	/*
+	 * Depth first iterator over the leaves
+	 */
+	private static class EntryIterator<K, V> implements Iterator<Map.Entry<K, V>> {
+		private final TrieNode<K, V>[] nodes = newNodes(16);
+		private final int[] positions = new int[16];
+		private int depth = -1;
+		private Leaf<K, V> next;
+
+		public EntryIterator(TrieNode<K, V> root) {
+			if (root instanceof Leaf) {
+				next = (Leaf<K, V>) root;
+			} else if (root != null) {
+				depth = 0;
+				nodes[0] = root;
+				advance();
+			}
+		}
+
+		private void advance() {
+			next = null;
+			while (depth >= 0) {
+				TrieNode<K, V> n = nodes[depth];
+				int p = positions[depth];
+				if (p == n.arity()) {
+					nodes[depth--] = null;
+					continue;
+				}
+				positions[depth] = p + 1;
+				TrieNode<K, V> c = n.child(p);
+				if (c instanceof Leaf) {
+					next = (Leaf<K, V>) c;
+					return;
+				}
+				depth++;
+				nodes[depth] = c;
+				positions[depth] = 0;
+			}
+		}
+
+		@Override
+		public boolean hasNext() {
+			return next != null;
+		}
+
+		@Override
+		public Map.Entry<K, V> next() {
+			if (next == null) {
+				throw new NoSuchElementException();
+			}
+			Leaf<K, V> n = next;
+			if (depth >= 0) {
+				advance();
+			} else {
+				next = null;
+			}
+			return n;
+		}
+
+		@Override
+		public void remove() {
+			throw new UnsupportedOperationException();
+		}
+	}
+}
@@ -0,0 +1,818 @@
+/*******************************************************************************
+ * Copyright (c) 2009, 2011 The University of Memphis.  All rights reserved. 
+ * This program and the accompanying materials are made available 
+ * under the terms of the LIDA Software Framework Non-Commercial License v1.0 
+ * which accompanies this distribution, and is available at
+ * http://ccrg.cs.memphis.edu/assets/papers/2010/LIDA-framework-non-commercial-v1.0.pdf
+ *******************************************************************************/
+package edu.memphis.ccrg.lida.framework.shared;
+
+import java.util.AbstractSet;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import edu.memphis.ccrg.lida.framework.tasks.TaskManager;
+import edu.memphis.ccrg.lida.globalworkspace.BroadcastContent;
+import edu.memphis.ccrg.lida.workspace.WorkspaceContent;
+
+/**
+ * An immutable {@link NodeStructure} whose nodes, links and attached links
+ * are kept in hash array mapped tries. {@link #copy()} returns the same
+ * instance, so a snapshot can be shared by any number of readers, e.g. a
+ * broadcast by the {@link BroadcastContent} of a coalition, the broadcast
+ * queue and the GUI. {@link #withNode(Node)}, {@link #withLink(Link)} and
+ * {@link #without(Linkable)} return new structures sharing all but one path
+ * of each trie with this one. The methods of {@link NodeStructure} which
+ * modify it throw {@link UnsupportedOperationException}.
+ * <p>
+ * The nodes and links themselves are not copied by those methods. A snapshot
+ * taken with {@link #snapshot(NodeStructure)} holds its own copies, which
+ * readers must not modify.
+ */
+public class PersistentNodeStructure implements NodeStructure,
+		BroadcastContent, WorkspaceContent {
+
+	private static final Logger logger = Logger
+			.getLogger(PersistentNodeStructure.class.getCanonicalName());
+
+	private final String defaultNodeType;
+	private final String defaultLinkType;
+	private final PersistentHashMap<Integer, Node> nodes;
+	private final PersistentHashMap<ExtendedId, Link> links;
+	/*
+	 * Links attached to each linkable by their ids, absent if none
+	 */
+	private final PersistentHashMap<ExtendedId, PersistentHashMap<ExtendedId, Link>> attached;
+
+	/**
+	 * Creates an empty structure with the default node and link types of the
+	 * factory.
+	 */
+	public PersistentNodeStructure() {
+		this(ElementFactory.getInstance().getDefaultNodeType(), ElementFactory
+				.getInstance().getDefaultLinkType());
+	}
+
+	/**
+	 * Creates an empty structure.
+	 * 
+	 * @param nodeType
+	 *            default node type reported by this structure
+	 * @param linkType
+	 *            default link type reported by this structure
+	 */
+	public PersistentNodeStructure(String nodeType, String linkType) {
+		this(nodeType, linkType, PersistentHashMap.<Integer, Node> empty(),
+				PersistentHashMap.<ExtendedId, Link> empty(), PersistentHashMap
+						.<ExtendedId, PersistentHashMap<ExtendedId, Link>> empty());
+	}
+
+	private PersistentNodeStructure(String nodeType, String linkType,
+			PersistentHashMap<Integer, Node> nodes,
+			PersistentHashMap<ExtendedId, Link> links,
+			PersistentHashMap<ExtendedId, PersistentHashMap<ExtendedId, Link>> attached) {
+		this.defaultNodeType = nodeType;
+		this.defaultLinkType = linkType;
+		this.nodes = nodes;
+		this.links = links;
+		this.attached = attached;
+	}
+
+	/**
+	 * Returns an immutable snapshot of specified structure. A
+	 * PersistentNodeStructure is returned as is. Otherwise the nodes and links
+	 * are copied once, as by {@link NodeStructureImpl#copy()}, so the
+	 * snapshot does not change with the original. The tries are built in a
+	 * single pass over the copies.
+	 * 
+	 * @param ns
+	 *            a NodeStructure
+	 * @return an immutable snapshot of the structure
+	 */
+	public static PersistentNodeStructure snapshot(NodeStructure ns) {
+		if (ns instanceof PersistentNodeStructure) {
+			return (PersistentNodeStructure) ns;
+		}
+		ElementFactory factory = ElementFactory.getInstance();
+		String nodeType = ns.getDefaultNodeType();
+		String linkType = ns.getDefaultLinkType();
+		Collection<Node> sourceNodes = ns.getNodes();
+		Collection<Link> sourceLinks = ns.getLinks();
+		PersistentHashMap.Builder<Integer, Node> nodeBuilder = new PersistentHashMap.Builder<Integer, Node>(
+				sourceNodes.size());
+		for (Node n : sourceNodes) {
+			Node copy = (n == null) ? null : factory.getNode(nodeType, n, n
+					.getFactoryType());
+			if (copy != null) {
+				nodeBuilder.put(copy.getId(), copy);
+			}
+		}
+		PersistentHashMap<Integer, Node> nodes = nodeBuilder.build();
+		LinkCopier copier = new LinkCopier(factory, linkType, nodes,
+				sourceLinks.size());
+		// Complex links need the copies of the simple links they point to
+		for (Link l : sourceLinks) {
+			if (l != null && l.isSimpleLink()) {
+				copier.copy(l);
+			}
+		}
+		for (Link l : sourceLinks) {
+			if (l != null && !l.isSimpleLink()) {
+				copier.copy(l);
+			}
+		}
+		return new PersistentNodeStructure(nodeType, linkType, nodes, copier
+				.buildLinks(), copier.buildAttached());
+	}
+
+	/*
+	 * Copies the links of a snapshot onto the copied nodes and collects them
+	 * with their attachments
+	 */
+	private static class LinkCopier {
+		private final ElementFactory factory;
+		private final String linkType;
+		private final PersistentHashMap<Integer, Node> nodes;
+		private final PersistentHashMap.Builder<ExtendedId, Link> links;
+		private final Map<ExtendedId, Link> simpleLinks = new HashMap<ExtendedId, Link>();
+		private final Map<ExtendedId, PersistentHashMap.Builder<ExtendedId, Link>> attached = new HashMap<ExtendedId, PersistentHashMap.Builder<ExtendedId, Link>>();
+
+		public LinkCopier(ElementFactory factory, String linkType,
+				PersistentHashMap<Integer, Node> nodes, int linkCount) {
+			this.factory = factory;
+			this.linkType = linkType;
+			this.nodes = nodes;
+			links = new PersistentHashMap.Builder<ExtendedId, Link>(linkCount);
+		}
+
+		void copy(Link l) {
+			Node source = l.getSource();
+			Linkable sink = l.getSink();
+			if (source == null || sink == null) {
+				logger.log(Level.WARNING,
+						"Cannot add Link, its source or sink is null.",
+						TaskManager.getCurrentTick());
+				return;
+			}
+			Node newSource = nodes.get(source.getId());
+			ExtendedId sinkId = sink.getExtendedId();
+			Linkable newSink = sinkId.isNodeId() ? nodes.get(sinkId
+					.getSourceNodeId()) : simpleLinks.get(sinkId);
+			if (newSource == null || newSink == null || newSource == newSink) {
+				logger.log(Level.WARNING,
+						"Cannot add Link {1}, its source or sink is not valid.",
+						new Object[] { TaskManager.getCurrentTick(), l });
+				return;
+			}
+			Link copy = factory.getLink(linkType, l.getFactoryType(),
+					newSource, newSink, l.getCategory());
+			if (copy == null) {
+				return;
+			}
+			copy.updateLinkValues(l);
+			copy.setActivation(l.getActivation());
+			copy.setActivatibleRemovalThreshold(l
+					.getActivatibleRemovalThreshold());
+			if (l.getGroundingPamLink() != null) {
+				copy.setGroundingPamLink(l.getGroundingPamLink());
+			}
+			ExtendedId id = copy.getExtendedId();
+			links.put(id, copy);
+			if (copy.isSimpleLink()) {
+				simpleLinks.put(id, copy);
+			}
+			attach(newSource.getExtendedId(), id, copy);
+			attach(sinkId, id, copy);
+		}
+
+		private void attach(ExtendedId end, ExtendedId id, Link l) {
+			PersistentHashMap.Builder<ExtendedId, Link> b = attached.get(end);
+			if (b == null) {
+				b = new PersistentHashMap.Builder<ExtendedId, Link>(4);
+				attached.put(end, b);
+			}
+			b.put(id, l);
+		}
+
+		PersistentHashMap<ExtendedId, Link> buildLinks() {
+			return links.build();
+		}
+
+		PersistentHashMap<ExtendedId, PersistentHashMap<ExtendedId, Link>> buildAttached() {
+			PersistentHashMap.Builder<ExtendedId, PersistentHashMap<ExtendedId, Link>> b = new PersistentHashMap.Builder<ExtendedId, PersistentHashMap<ExtendedId, Link>>(
+					attached.size());
+			for (Map.Entry<ExtendedId, PersistentHashMap.Builder<ExtendedId, Link>> e : attached
+					.entrySet()) {
+				b.put(e.getKey(), e.getValue().build());
+			}
+			return b.build();
+		}
+	}
+
+	/**
+	 * Returns a structure with specified node added. The node is not copied.
+	 * 
+	 * @param n
+	 *            the node
+	 * @return a new structure with the node, this structure if a node with the
+	 *         same id is present
+	 */
+	public PersistentNodeStructure withNode(Node n) {
+		if (n == null) {
+			logger.log(Level.WARNING, "Cannot add null Node.", TaskManager
+					.getCurrentTick());
+			return this;
+		}
+		if (nodes.containsKey(n.getId())) {
+			return this;
+		}
+		return new PersistentNodeStructure(defaultNodeType, defaultLinkType,
+				nodes.plus(n.getId(), n), links, attached);
+	}
+
+	/**
+	 * Returns a structure with specified link added. The link is not copied.
+	 * Its source must be present and its sink must be a present node or simple
+	 * link.
+	 * 
+	 * @param l
+	 *            the link
+	 * @return a new structure with the link, this structure if the link is
+	 *         already present or cannot be added
+	 */
+	public PersistentNodeStructure withLink(Link l) {
+		if (l == null || l.getSource() == null || l.getSink() == null) {
+			logger.log(Level.WARNING,
+					"Cannot add Link, it or its source or sink is null.",
+					TaskManager.getCurrentTick());
+			return this;
+		}
+		ExtendedId id = l.getExtendedId();
+		if (links.containsKey(id)) {
+			return this;
+		}
+		ExtendedId sourceId = l.getSource().getExtendedId();
+		ExtendedId sinkId = l.getSink().getExtendedId();
+		if (!containsNode(sourceId) || !containsLinkable(sinkId)
+				|| sinkId.isComplexLink() || sourceId.equals(sinkId)) {
+			logger.log(Level.WARNING,
+					"Cannot add Link {1}, its source or sink is not valid.",
+					new Object[] { TaskManager.getCurrentTick(), l });
+			return this;
+		}
+		PersistentHashMap<ExtendedId, PersistentHashMap<ExtendedId, Link>> a = attached;
+		a = a.plus(sourceId, attachedTo(sourceId).plus(id, l));
+		a = a.plus(sinkId, attachedTo(sinkId).plus(id, l));
+		return new PersistentNodeStructure(defaultNodeType, defaultLinkType,
+				nodes, links.plus(id, l), a);
+	}
+
+	/**
+	 * Returns a structure without specified linkable and the links attached to
+	 * it.
+	 * 
+	 * @param lnk
+	 *            the linkable
+	 * @return a new structure without the linkable, this structure if it is
+	 *         not present
+	 */
+	public PersistentNodeStructure without(Linkable lnk) {
+		if (lnk == null || !containsLinkable(lnk.getExtendedId())) {
+			return this;
+		}
+		PersistentHashMap<Integer, Node> n = nodes;
+		PersistentHashMap<ExtendedId, Link> l = links;
+		PersistentHashMap<ExtendedId, PersistentHashMap<ExtendedId, Link>> a = attached;
+		List<ExtendedId> pending = new ArrayList<ExtendedId>();
+		pending.add(lnk.getExtendedId());
+		while (!pending.isEmpty()) {
+			ExtendedId id = pending.remove(pending.size() - 1);
+			PersistentHashMap<ExtendedId, Link> linked = a.get(id);
+			if (linked != null) {
+				pending.addAll(linked.keySet());
+				a = a.minus(id);
+			}
+			if (id.isNodeId()) {
+				n = n.minus(id.getSourceNodeId());
+				continue;
+			}
+			Link link = l.get(id);
+			if (link == null) {
+				continue;
+			}
+			l = l.minus(id);
+			for (ExtendedId end : new ExtendedId[] {
+					link.getSource().getExtendedId(),
+					link.getSink().getExtendedId() }) {
+				PersistentHashMap<ExtendedId, Link> endLinks = a.get(end);
+				if (endLinks != null) {
+					endLinks = endLinks.minus(id);
+					a = endLinks.isEmpty() ? a.minus(end) : a.plus(end, endLinks);
+				}
+			}
+		}
+		return new PersistentNodeStructure(defaultNodeType, defaultLinkType,
+				n, l, a);
+	}
+
+	private PersistentHashMap<ExtendedId, Link> attachedTo(ExtendedId id) {
+		PersistentHashMap<ExtendedId, Link> a = attached.get(id);
+		return (a == null) ? PersistentHashMap.<ExtendedId, Link> empty() : a;
+	}
+
+	/**
+	 * Returns this structure, which is immutable.
+	 */
+	@Override
+	public NodeStructure copy() {
+		return this;
+	}
+
+	@Override
+	public Node getNode(int id) {
+		return nodes.get(id);
+	}
+
+	@Override
+	public Node getNode(ExtendedId id) {
+		return (id != null && id.isNodeId()) ? nodes.get(id.getSourceNodeId())
+				: null;
+	}
+
+	@Override
+	public Collection<Node> getNodes() {
+		return nodes.values();
+	}
+
+	@Override
+	public Link getLink(ExtendedId id) {
+		return (id == null) ? null : links.get(id);
+	}
+
+	@Override
+	public Collection<Link> getLinks() {
+		return links.values();
+	}
+
+	@Override
+	public Set<Link> getLinks(LinkCategory cat) {
+		if (cat == null) {
+			return null;
+		}
+		Set<Link> results = new HashSet<Link>();
+		for (Link l : links.values()) {
+			if (cat.equals(l.getCategory())) {
+				results.add(l);
+			}
+		}
+		return Collections.unmodifiableSet(results);
+	}
+
+	@Override
+	public Linkable getLinkable(ExtendedId id) {
+		if (id == null) {
+			return null;
+		}
+		return id.isNodeId() ? getNode(id.getSourceNodeId()) : getLink(id);
+	}
+
+	@Override
+	public Collection<Linkable> getLinkables() {
+		List<Linkable> result = new ArrayList<Linkable>(getLinkableCount());
+		result.addAll(nodes.values());
+		result.addAll(links.values());
+		return Collections.unmodifiableList(result);
+	}
+
+	/**
+	 * Builds an unmodifiable map of every linkable to its attached links.
+	 */
+	@Override
+	public Map<Linkable, Set<Link>> getLinkableMap() {
+		Map<Linkable, Set<Link>> result = new HashMap<Linkable, Set<Link>>();
+		for (Linkable lnk : getLinkables()) {
+			result.put(lnk, getAttachedLinks(lnk));
+		}
+		return Collections.unmodifiableMap(result);
+	}
+
+	@Override
+	public Set<Link> getAttachedLinks(Linkable lnk) {
+		if (lnk == null || !containsLinkable(lnk.getExtendedId())) {
+			return null;
+		}
+		return new LinkSet(attachedTo(lnk.getExtendedId()));
+	}
+
+	@Override
+	public Set<Link> getAttachedLinks(Linkable lnk, LinkCategory cat) {
+		if (lnk == null || cat == null || !containsLinkable(lnk.getExtendedId())) {
+			return null;
+		}
+		Set<Link> results = new HashSet<Link>();
+		for (Link l : attachedTo(lnk.getExtendedId()).values()) {
+			if (cat.equals(l.getCategory())) {
+				results.add(l);
+			}
+		}
+		return Collections.unmodifiableSet(results);
+	}
+
+	@Override
+	public Map<Linkable, Link> getConnectedSinks(Node n) {
+		if (n == null) {
+			return null;
+		}
+		Map<Linkable, Link> sinkLinkMap = new HashMap<Linkable, Link>();
+		for (Link link : attachedTo(n.getExtendedId()).values()) {
+			Linkable sink = link.getSink();
+			if (!sink.equals(n)) {
+				sinkLinkMap.put(sink, link);
+			}
+		}
+		return Collections.unmodifiableMap(sinkLinkMap);
+	}
+
+	@Override
+	public Map<Node, Link> getConnectedSources(Linkable lnk) {
+		if (lnk == null) {
+			return null;
+		}
+		Map<Node, Link> sourceLinkMap = new HashMap<Node, Link>();
+		for (Link link : attachedTo(lnk.getExtendedId()).values()) {
+			Node source = link.getSource();
+			if (!source.equals(lnk)) {
+				sourceLinkMap.put(source, link);
+			}
+		}
+		return Collections.unmodifiableMap(sourceLinkMap);
+	}
+
+	@Override
+	public int getNodeCount() {
+		return nodes.size();
+	}
+
+	@Override
+	public int getLinkCount() {
+		return links.size();
+	}
+
+	@Override
+	public int getLinkableCount() {
+		return nodes.size() + links.size();
+	}
+
+	@Override
+	public String getDefaultNodeType() {
+		return defaultNodeType;
+	}
+
+	@Override
+	public String getDefaultLinkType() {
+		return defaultLinkType;
+	}
+
+	@Override
+	public boolean containsNode(Node n) {
+		return n != null && nodes.containsKey(n.getId());
+	}
+
+	@Override
+	public boolean containsNode(int id) {
+		return nodes.containsKey(id);
+	}
+
+	@Override
+	public boolean containsNode(ExtendedId id) {
+		return id != null && id.isNodeId()
+				&& nodes.containsKey(id.getSourceNodeId());
+	}
+
+	@Override
+	public boolean containsLink(Link l) {
+		return l != null && links.containsKey(l.getExtendedId());
+	}
+
+	@Override
+	public boolean containsLink(ExtendedId id) {
+		return id != null && links.containsKey(id);
+	}
+
+	@Override
+	public boolean containsLinkable(Linkable l) {
+		return l != null && containsLinkable(l.getExtendedId());
+	}
+
+	@Override
+	public boolean containsLinkable(ExtendedId id) {
+		return containsNode(id) || containsLink(id);
+	}
+
+	@Override
+	public NodeStructure getSubgraph(Collection<Node> nodes, int d) {
+		return new NodeStructureImpl(this).getSubgraph(nodes, d);
+	}
+
+	@Override
+	public NodeStructure getSubgraph(Collection<Node> nodes, int d,
+			double threshold) {
+		return new NodeStructureImpl(this).getSubgraph(nodes, d, threshold);
+	}
+
+	/**
+	 * Returns true if both NodeStructures have the same nodes and links.
+	 * 
+	 * @see NodeStructureImpl#compareNodeStructures(NodeStructure,
+	 *      NodeStructure)
+	 */
+	@Override
+	public boolean equals(Object o) {
+		return (o instanceof NodeStructure)
+				&& NodeStructureImpl.compareNodeStructures(this,
+						(NodeStructure) o);
+	}
+
+	@Override
+	public int hashCode() {
+		int hash = 47;
+		for (Node n : nodes.values()) {
+			hash += n.hashCode();
+		}
+		for (Link l : links.values()) {
+			hash += l.hashCode();
+		}
+		return hash * 53 + getLinkableCount();
+	}
+
+	@Override
+	public String toString() {
+		StringBuilder result = new StringBuilder("Nodes (");
+		for (Node n : nodes.values()) {
+			result.append(n.toString()).append(",");
+		}
+		if (nodes.size() != 0) {
+			result.deleteCharAt(result.length() - 1);
+		}
+		result.append(") Links (");
+		for (Link l : links.values()) {
+			result.append(l.toString()).append(",");
+		}
+		if (links.size() != 0) {
+			result.deleteCharAt(result.length() - 1);
+		}
+		result.append(")");
+		return result.toString();
+	}
+
+	/*
+	 * Set view of the links attached to a linkable
+	 */
+	private static class LinkSet extends AbstractSet<Link> {
+		private final PersistentHashMap<ExtendedId, Link> links;
+
+		public LinkSet(PersistentHashMap<ExtendedId, Link> links) {
+			this.links = links;
+		}
+
+		@Override
+		public Iterator<Link> iterator() {
+			return links.values().iterator();
+		}
+
+		@Override
+		public boolean contains(Object o) {
+			return (o instanceof Link)
+					&& links.containsKey(((Link) o).getExtendedId());
+		}
+
+		@Override
+		public int size() {
+			return links.size();
+		}
+	}
+
+	/**
+	 * @throws UnsupportedOperationException
+	 *             Cannot modify this object once created.
+	 */
+	@Override
+	public Node addDefaultNode(String label, double a, double rt) {
+		throw new UnsupportedOperationException(
+				"PersistentNodeStructure cannot be modified");
+	}
+
+	/**
+	 * @throws UnsupportedOperationException
+	 *             Cannot modify this object once created.
+	 */
+	@Override
+	public Node addDefaultNode(Node n) {
+		throw new UnsupportedOperationException(
+				"PersistentNodeStructure cannot be modified");
+	}
+
+	/**
+	 * @throws UnsupportedOperationException
+	 *             Cannot modify this object once created.
+	 */
+	@Override
+	public Collection<Node> addDefaultNodes(Collection<Node> nodes) {
+		throw new UnsupportedOperationException(
+				"PersistentNodeStructure cannot be modified");
+	}
+
+	/**
+	 * @throws UnsupportedOperationException
+	 *             Cannot modify this object once created.
+	 */
+	@Override
+	public Node addNode(String type, String label, double a, double rt) {
+		throw new UnsupportedOperationException(
+				"PersistentNodeStructure cannot be modified");
+	}
+
+	/**
+	 * @throws UnsupportedOperationException
+	 *             Cannot modify this object once created.
+	 */
+	@Override
+	public Node addNode(Node n, String type) {
+		throw new UnsupportedOperationException(
+				"PersistentNodeStructure cannot be modified");
+	}
+
+	/**
+	 * @throws UnsupportedOperationException
+	 *             Cannot modify this object once created.
+	 */
+	@Override
+	public Link addDefaultLink(Node source, Linkable sink,
+			LinkCategory category, double activation, double removalThreshold) {
+		throw new UnsupportedOperationException(
+				"PersistentNodeStructure cannot be modified");
+	}
+
+	/**
+	 * @throws UnsupportedOperationException
+	 *             Cannot modify this object once created.
+	 */
+	@Override
+	public Link addDefaultLink(int idSource, ExtendedId idSink,
+			LinkCategory type, double activation, double removalThreshold) {
+		throw new UnsupportedOperationException(
+				"PersistentNodeStructure cannot be modified");
+	}
+
+	/**
+	 * @throws UnsupportedOperationException
+	 *             Cannot modify this object once created.
+	 */
+	@Override
+	public Link addDefaultLink(int idSource, int idSink, LinkCategory type,
+			double activation, double removalThreshold) {
+		throw new UnsupportedOperationException(
+				"PersistentNodeStructure cannot be modified");
+	}
+
+	/**
+	 * @throws UnsupportedOperationException
+	 *             Cannot modify this object once created.
+	 */
+	@Override
+	public Link addDefaultLink(Link l) {
+		throw new UnsupportedOperationException(
+				"PersistentNodeStructure cannot be modified");
+	}
+
+	/**
+	 * @throws UnsupportedOperationException
+	 *             Cannot modify this object once created.
+	 */
+	@Override
+	public Collection<Link> addDefaultLinks(Collection<Link> links) {
+		throw new UnsupportedOperationException(
+				"PersistentNodeStructure cannot be modified");
+	}
+
+	/**
+	 * @throws UnsupportedOperationException
+	 *             Cannot modify this object once created.
+	 */
+	@Override
+	public Link addLink(String type, int srcId, ExtendedId snkId,
+			LinkCategory cat, double a, double rt) {
+		throw new UnsupportedOperationException(
+				"PersistentNodeStructure cannot be modified");
+	}
+
+	/**
+	 * @throws UnsupportedOperationException
+	 *             Cannot modify this object once created.
+	 */
+	@Override
+	public Link addLink(String type, Node src, Linkable sink, LinkCategory cat,
+			double a, double rt) {
+		throw new UnsupportedOperationException(
+				"PersistentNodeStructure cannot be modified");
+	}
+
+	/**
+	 * @throws UnsupportedOperationException
+	 *             Cannot modify this object once created.
+	 */
+	@Override
+	public Link addLink(Link l, String linkType) {
+		throw new UnsupportedOperationException(
+				"PersistentNodeStructure cannot be modified");
+	}
+
+	/**
+	 * @throws UnsupportedOperationException
+	 *             Cannot modify this object once created.
+	 */
+	@Override
+	public void removeNode(Node n) {
+		throw new UnsupportedOperationException(
+				"PersistentNodeStructure cannot be modified");
+	}
+
+	/**
+	 * @throws UnsupportedOperationException
+	 *             Cannot modify this object once created.
+	 */
+	@Override
+	public void removeLink(Link l) {
+		throw new UnsupportedOperationException(
+				"PersistentNodeStructure cannot be modified");
+	}
+
+	/**
+	 * @throws UnsupportedOperationException
+	 *             Cannot modify this object once created.
+	 */
+	@Override
+	public void removeLinkable(Linkable l) {
+		throw new UnsupportedOperationException(
+				"PersistentNodeStructure cannot be modified");
+	}
+
+	/**
+	 * @throws UnsupportedOperationException
+	 *             Cannot modify this object once created.
+	 */
+	@Override
+	public void removeLinkable(ExtendedId id) {
+		throw new UnsupportedOperationException(
+				"PersistentNodeStructure cannot be modified");
+	}
+
+	/**
+	 * @throws UnsupportedOperationException
+	 *             Cannot modify this object once created.
+	 */
+	@Override
+	public void clearLinks() {
+		throw new UnsupportedOperationException(
+				"PersistentNodeStructure cannot be modified");
+	}
+
+	/**
+	 * @throws UnsupportedOperationException
+	 *             Cannot modify this object once created.
+	 */
+	@Override
+	public void clearNodeStructure() {
+		throw new UnsupportedOperationException(
+				"PersistentNodeStructure cannot be modified");
+	}
+
+	/**
+	 * @throws UnsupportedOperationException
+	 *             Cannot modify this object once created.
+	 */
+	@Override
+	public void mergeWith(NodeStructure ns) {
+		throw new UnsupportedOperationException(
+				"PersistentNodeStructure cannot be modified");
+	}
+
+	/**
+	 * @throws UnsupportedOperationException
+	 *             Cannot modify this object once created.
+	 */
+	@Override
+	public void decayNodeStructure(long ticks) {
+		throw new UnsupportedOperationException(
+				"PersistentNodeStructure cannot be modified");
+	}
+}
@@ -0,0 +1,110 @@
+/*******************************************************************************
+ * Copyright (c) 2009, 2011 The University of Memphis.  All rights reserved. 
+ * This program and the accompanying materials are made available 
+ * under the terms of the LIDA Software Framework Non-Commercial License v1.0 
+ * which accompanies this distribution, and is available at
+ * http://ccrg.cs.memphis.edu/assets/papers/2010/LIDA-framework-non-commercial-v1.0.pdf
+ *******************************************************************************/
+package edu.memphis.ccrg.lida.framework.shared;
+
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Guards the writes of a {@link NodeStructureImpl}. Without stripes every
+ * write is exclusive. With stripes a write confined to the neighborhood of
+ * some nodes, such as adding a node or a link, holds the shared side of a
+ * read-write lock and the stripes of those node ids, so writes to unrelated
+ * nodes run in parallel. Writes spanning the structure, such as removals,
+ * hold the exclusive side. Stripes are always locked in ascending order.
+ */
+class StructureLock {
+
+	private final ReentrantReadWriteLock global = new ReentrantReadWriteLock();
+	private final ReentrantLock[] stripes;
+	private final int mask;
+
+	/**
+	 * @param stripeCount
+	 *            number of stripes, rounded up to a power of 2, 0 for none
+	 */
+	StructureLock(int stripeCount) {
+		if (stripeCount <= 0) {
+			stripes = null;
+			mask = 0;
+		} else {
+			int n = 1;
+			while (n < stripeCount) {
+				n <<= 1;
+			}
+			stripes = new ReentrantLock[n];
+			for (int i = 0; i < n; i++) {
+				stripes[i] = new ReentrantLock();
+			}
+			mask = n - 1;
+		}
+	}
+
+	/**
+	 * @return true if writes to distinct neighborhoods run in parallel
+	 */
+	boolean isStriped() {
+		return stripes != null;
+	}
+
+	/**
+	 * Locks the whole structure.
+	 */
+	void lockAll() {
+		global.writeLock().lock();
+	}
+
+	void unlockAll() {
+		global.writeLock().unlock();
+	}
+
+	/**
+	 * Locks the neighborhood of specified node ids.
+	 * 
+	 * @param id1
+	 *            a node id
+	 * @param id2
+	 *            a node id, may equal id1
+	 */
+	void lock(int id1, int id2) {
+		if (stripes == null) {
+			global.writeLock().lock();
+			return;
+		}
+		global.readLock().lock();
+		int i = index(id1);
+		int j = index(id2);
+		if (i == j) {
+			stripes[i].lock();
+		} else {
+			stripes[Math.min(i, j)].lock();
+			stripes[Math.max(i, j)].lock();
+		}
+	}
+
+	void unlock(int id1, int id2) {
+		if (stripes == null) {
+			global.writeLock().unlock();
+			return;
+		}
+		int i = index(id1);
+		int j = index(id2);
+		if (i == j) {
+			stripes[i].unlock();
+		} else {
+			stripes[Math.max(i, j)].unlock();
+			stripes[Math.min(i, j)].unlock();
+		}
+		global.readLock().unlock();
+	}
+
+	private int index(int id) {
+		int h = id * 0x9e3779b9;
+		return (h ^ (h >>> 16)) & mask;
+	}
+}
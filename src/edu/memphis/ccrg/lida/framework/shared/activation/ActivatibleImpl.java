@@ -21,6 +21,10 @@ import edu.memphis.ccrg.lida.framework.tasks.TaskManager;
 /**
  * Generic {@link Activatible} Implementation. Useful for classes to extend from
  * it, e.g. {@link Node} and {@link Codelet}.
+ * <p>
+ * In lazy decay mode {@link #decay(long)} has no effect. Instead the decay of
+ * the ticks elapsed since the last update is applied when a value is read or
+ * set.
  * 
  * @author Javier Snaider
  * @author Ryan J. McCall
@@ -29,7 +33,6 @@ public class ActivatibleImpl extends InitializableImpl implements Activatible {
 
 	private static final Logger logger = Logger.getLogger(ActivatibleImpl.class
 			.getCanonicalName());
-	private static final ElementFactory factory = ElementFactory.getInstance();
 //	private static final String DEFAULT_IS_DECAY = "noDecay";
 
 	private ExciteStrategy exciteStrategy;
@@ -39,16 +42,26 @@ public class ActivatibleImpl extends InitializableImpl implements Activatible {
 	private double removalThreshold;
 	private double incentiveSalience;
 
+	private static final long NOT_LAZY = -1L;
+	/*
+	 * Tick up to which the decay has been applied in lazy decay mode,
+	 * NOT_LAZY if decay is only applied by decay(long)
+	 */
+	private volatile long lastDecayTick = NOT_LAZY;
+	/*
+	 * False until the default strategies are looked up in the factory
+	 */
+	private volatile boolean strategiesResolved;
+
 	/**
-	 * Default constructor
+	 * Default constructor. The default strategies of the {@link ElementFactory}
+	 * are looked up when a strategy is first used or set, so instances that
+	 * never use them, e.g. most tasks, do not pay for it.
 	 */
 	public ActivatibleImpl() {
 		activation = DEFAULT_ACTIVATION;
 		removalThreshold = DEFAULT_ACTIVATIBLE_REMOVAL_THRESHOLD;
 		incentiveSalience = DEFAULT_INCENTIVE_SALIENCE;
-		decayStrategy = factory.getDefaultDecayStrategy();
-		exciteStrategy = factory.getDefaultExciteStrategy();
-		incentiveSalienceDecayStrategy = factory.getDefaultDecayStrategy();
 	}
 
 	/**
@@ -69,6 +82,32 @@ public class ActivatibleImpl extends InitializableImpl implements Activatible {
 		this.removalThreshold = removalThreshold;
 		this.exciteStrategy = excite;
 		this.decayStrategy = decay;
+		strategiesResolved = true;
+	}
+
+	/*
+	 * Sets the default strategies on first use. Strategies set before are
+	 * kept since every setter resolves the defaults first.
+	 */
+	final void resolveStrategies() {
+		if (!strategiesResolved) {
+			synchronized (this) {
+				if (!strategiesResolved) {
+					setDefaultStrategies(ElementFactory.getInstance());
+					strategiesResolved = true;
+				}
+			}
+		}
+	}
+
+	/*
+	 * Sets the default strategies of specified factory. Subclasses of this
+	 * package having more strategies extend it.
+	 */
+	void setDefaultStrategies(ElementFactory factory) {
+		decayStrategy = factory.getDefaultDecayStrategy();
+		exciteStrategy = factory.getDefaultExciteStrategy();
+		incentiveSalienceDecayStrategy = factory.getDefaultDecayStrategy();
 	}
 
 	@Override
@@ -78,8 +117,68 @@ public class ActivatibleImpl extends InitializableImpl implements Activatible {
 //		incentiveSalienceDecayStrategy = factory.getDecayStrategy(name);
 	}
 
+	/**
+	 * Sets whether the decay is applied lazily, for the ticks elapsed since the
+	 * last update, when a value is read instead of by {@link #decay(long)}.
+	 * 
+	 * @param lazy
+	 *            true to use lazy decay
+	 */
+	public synchronized void setLazyDecay(boolean lazy) {
+		if (lazy) {
+			if (lastDecayTick == NOT_LAZY) {
+				lastDecayTick = TaskManager.getCurrentTick();
+			}
+		} else {
+			updateLazyDecay();
+			lastDecayTick = NOT_LAZY;
+		}
+	}
+
+	/**
+	 * @return true if the decay is applied lazily
+	 */
+	public boolean isLazyDecay() {
+		return lastDecayTick != NOT_LAZY;
+	}
+
+	/**
+	 * In lazy decay mode, applies the decay of the ticks elapsed since the
+	 * last update. Does nothing otherwise.
+	 */
+	protected void updateLazyDecay() {
+		long last = lastDecayTick;
+		if (last != NOT_LAZY) {
+			long now = TaskManager.getCurrentTick();
+			if (now > last) {
+				synchronized (this) {
+					last = lastDecayTick;
+					if (last != NOT_LAZY && now > last) {
+						lastDecayTick = now;
+						applyDecay(now - last);
+					}
+				}
+			}
+		}
+	}
+
 	@Override
 	public void decay(long ticks) {
+		if (lastDecayTick == NOT_LAZY) {
+			applyDecay(ticks);
+		}
+	}
+
+	/**
+	 * Decays this Activatible specified number of ticks. Subclasses decaying
+	 * additional values should override this method instead of
+	 * {@link #decay(long)}.
+	 * 
+	 * @param ticks
+	 *            the number of ticks to decay
+	 */
+	protected void applyDecay(long ticks) {
+		resolveStrategies();
 		if (decayStrategy != null) {
 			if (logger.isLoggable(Level.FINEST)) {
 				logger.log(Level.FINEST,
@@ -108,6 +207,7 @@ public class ActivatibleImpl extends InitializableImpl implements Activatible {
 
 	@Override
 	public void exciteActivation(double amount) {
+		resolveStrategies();
 		if (exciteStrategy != null) {
 			if (logger.isLoggable(Level.FINEST)) {
 				logger.log(Level.FINEST,
@@ -129,6 +229,7 @@ public class ActivatibleImpl extends InitializableImpl implements Activatible {
 
 	@Override
 	public void exciteIncentiveSalience(double amount) {
+		resolveStrategies();
 		if (exciteStrategy != null) {
 			if (logger.isLoggable(Level.FINEST)) {
 				logger.log(Level.FINEST,
@@ -150,6 +251,7 @@ public class ActivatibleImpl extends InitializableImpl implements Activatible {
 
 	@Override
 	public void setActivation(double a) {
+		updateLazyDecay();
 		if(a > 1.0){
 			synchronized (this) {
 				activation = 1.0;
@@ -166,6 +268,7 @@ public class ActivatibleImpl extends InitializableImpl implements Activatible {
 	}
 	@Override
 	public double getActivation() {
+		updateLazyDecay();
 		return activation;
 	}
 	@Override
@@ -179,20 +282,24 @@ public class ActivatibleImpl extends InitializableImpl implements Activatible {
 
 	@Override
 	public DecayStrategy getDecayStrategy() {
+		resolveStrategies();
 		return decayStrategy;
 	}
 
 	@Override
 	public ExciteStrategy getExciteStrategy() {
+		resolveStrategies();
 		return exciteStrategy;
 	}
 	
 	@Override
 	public double getIncentiveSalience() {
+		updateLazyDecay();
 		return incentiveSalience;
 	}
 	@Override
 	public synchronized void setIncentiveSalience(double s) {
+		updateLazyDecay();
 		if(s > 1.0){
 			synchronized (this) {
 				incentiveSalience = 1.0;
@@ -219,11 +326,13 @@ public class ActivatibleImpl extends InitializableImpl implements Activatible {
 
 	@Override
 	public void setDecayStrategy(DecayStrategy s) {
+		resolveStrategies();
 		decayStrategy = s;
 	}
 
 	@Override
 	public void setExciteStrategy(ExciteStrategy s) {
+		resolveStrategies();
 		exciteStrategy = s;
 	}
 
@@ -235,11 +344,13 @@ public class ActivatibleImpl extends InitializableImpl implements Activatible {
 
 	@Override
 	public void setIncentiveSalienceDecayStrategy(DecayStrategy s) {
+		resolveStrategies();
 		incentiveSalienceDecayStrategy=s;
 	}
 
 	@Override
 	public DecayStrategy getIncentiveSalienceDecayStrategy() {
+		resolveStrategies();
 		return incentiveSalienceDecayStrategy;
 	}
 }
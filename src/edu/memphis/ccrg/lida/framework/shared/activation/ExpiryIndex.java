@@ -0,0 +1,218 @@
+/*******************************************************************************
+ * Copyright (c) 2009, 2011 The University of Memphis.  All rights reserved. 
+ * This program and the accompanying materials are made available 
+ * under the terms of the LIDA Software Framework Non-Commercial License v1.0 
+ * which accompanies this distribution, and is available at
+ * http://ccrg.cs.memphis.edu/assets/papers/2010/LIDA-framework-non-commercial-v1.0.pdf
+ *******************************************************************************/
+package edu.memphis.ccrg.lida.framework.shared.activation;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.TreeMap;
+
+import edu.memphis.ccrg.lida.framework.strategies.DecayStrategy;
+
+/**
+ * Index of {@link Activatible} objects by the tick at which they are expected
+ * to become removable, used with lazy decay to find the removal candidates
+ * without checking every element. The expiry tick is estimated from the
+ * current values and the {@link DecayStrategy}. An element excited after its
+ * estimate is checked at the old tick and indexed again. An element whose
+ * values are lowered directly is only checked at its estimated tick.
+ *
+ * @param <T>
+ *            the type of the indexed elements
+ * @see ActivatibleImpl#setLazyDecay(boolean)
+ */
+public class ExpiryIndex<T extends Activatible> {
+
+	/**
+	 * Default max number of ticks an element is left unchecked
+	 */
+	public static final long DEFAULT_MAX_HORIZON = 1L << 16;
+
+	private final long maxHorizon;
+	private final SortedMap<Long, Set<T>> index = new TreeMap<Long, Set<T>>();
+	private final Map<T, Long> expiryTicks = new HashMap<T, Long>();
+
+	/**
+	 * Constructs an index with {@link #DEFAULT_MAX_HORIZON}
+	 */
+	public ExpiryIndex() {
+		this(DEFAULT_MAX_HORIZON);
+	}
+
+	/**
+	 * Constructs an index with specified max horizon
+	 *
+	 * @param maxHorizon
+	 *            max number of ticks an element is left unchecked
+	 */
+	public ExpiryIndex(long maxHorizon) {
+		this.maxHorizon = Math.max(1L, maxHorizon);
+	}
+
+	/**
+	 * Estimates the tick at which specified element becomes removable and
+	 * (re)indexes it.
+	 *
+	 * @param a
+	 *            the element
+	 * @param currentTick
+	 *            the current tick
+	 */
+	public synchronized void update(T a, long currentTick) {
+		remove(a);
+		long ticks = getTicksUntilRemovable(a, maxHorizon);
+		long tick = currentTick + Math.max(1L, ticks);
+		Set<T> set = index.get(tick);
+		if (set == null) {
+			set = new HashSet<T>();
+			index.put(tick, set);
+		}
+		set.add(a);
+		expiryTicks.put(a, tick);
+	}
+
+	/**
+	 * Removes specified element from the index.
+	 *
+	 * @param a
+	 *            the element
+	 */
+	public synchronized void remove(T a) {
+		Long tick = expiryTicks.remove(a);
+		if (tick != null) {
+			Set<T> set = index.get(tick);
+			if (set != null) {
+				set.remove(a);
+				if (set.isEmpty()) {
+					index.remove(tick);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Checks the elements expected to expire at or before specified tick.
+	 * Removable elements are removed from the index and returned, the others
+	 * are indexed again.
+	 *
+	 * @param currentTick
+	 *            the current tick
+	 * @return the removable elements
+	 */
+	public synchronized List<T> pollRemovable(long currentTick) {
+		List<T> removable = new ArrayList<T>();
+		List<T> due = new ArrayList<T>();
+		while (!index.isEmpty() && index.firstKey() <= currentTick) {
+			Set<T> set = index.remove(index.firstKey());
+			due.addAll(set);
+		}
+		for (T a : due) {
+			expiryTicks.remove(a);
+			if (a.isRemovable()) {
+				removable.add(a);
+			} else {
+				update(a, currentTick);
+			}
+		}
+		return removable;
+	}
+
+	/**
+	 * @param a
+	 *            an element
+	 * @return the tick at which specified element is checked next or null if
+	 *         it is not indexed
+	 */
+	public synchronized Long getExpiryTick(T a) {
+		return expiryTicks.get(a);
+	}
+
+	/**
+	 * @return the number of indexed elements
+	 */
+	public synchronized int size() {
+		return expiryTicks.size();
+	}
+
+	/**
+	 * Removes all elements.
+	 */
+	public synchronized void clear() {
+		index.clear();
+		expiryTicks.clear();
+	}
+
+	/**
+	 * Estimates the number of ticks of decay after which specified element
+	 * becomes removable. For a {@link Learnable} the base-level values are
+	 * used, otherwise the current activation and incentive salience.
+	 *
+	 * @param a
+	 *            the element
+	 * @param maxTicks
+	 *            the max number of ticks returned
+	 * @return the estimated number of ticks, maxTicks if it is not removable
+	 *         within that many ticks
+	 */
+	public static long getTicksUntilRemovable(Activatible a, long maxTicks) {
+		if (a instanceof Learnable) {
+			Learnable l = (Learnable) a;
+			double threshold = l.getBaseLevelRemovalThreshold();
+			return Math.max(getTicksUntilBelow(l.getBaseLevelDecayStrategy(),
+					l.getBaseLevelActivation(), threshold, false, maxTicks),
+					getTicksUntilBelow(l.getBaseLevelDecayStrategy(), l
+							.getBaseLevelIncentiveSalience(), threshold, true,
+							maxTicks));
+		}
+		double threshold = a.getActivatibleRemovalThreshold();
+		return Math.max(getTicksUntilBelow(a.getDecayStrategy(), a
+				.getActivation(), threshold, false, maxTicks),
+				getTicksUntilBelow(a.getIncentiveSalienceDecayStrategy(), a
+						.getIncentiveSalience(), threshold, true, maxTicks));
+	}
+
+	/*
+	 * Smallest number of ticks after which the decayed value is at or below
+	 * the threshold, found with an exponential then a binary search.
+	 */
+	private static long getTicksUntilBelow(DecayStrategy strategy,
+			double value, double threshold, boolean absolute, long maxTicks) {
+		if (isBelow(value, threshold, absolute)) {
+			return 0L;
+		}
+		if (strategy == null) {
+			return maxTicks;
+		}
+		long high = 1L;
+		while (!isBelow(strategy.decay(value, high), threshold, absolute)) {
+			if (high >= maxTicks) {
+				return maxTicks;
+			}
+			high = Math.min(high << 1, maxTicks);
+		}
+		long low = high >> 1;
+		while (high - low > 1) {
+			long mid = (low + high) >>> 1;
+			if (isBelow(strategy.decay(value, mid), threshold, absolute)) {
+				high = mid;
+			} else {
+				low = mid;
+			}
+		}
+		return high;
+	}
+
+	private static boolean isBelow(double value, double threshold,
+			boolean absolute) {
+		return (absolute ? Math.abs(value) : value) <= threshold;
+	}
+}
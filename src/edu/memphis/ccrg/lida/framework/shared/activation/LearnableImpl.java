@@ -31,7 +31,6 @@ public class LearnableImpl extends ActivatibleImpl implements Learnable {
 
 	private static final Logger logger = Logger.getLogger(LearnableImpl.class
 			.getCanonicalName());
-	private static final ElementFactory factory = ElementFactory.getInstance();
 
 	private double baseLevelActivation;
 	private double learnableRemovalThreshold;
@@ -50,6 +49,11 @@ public class LearnableImpl extends ActivatibleImpl implements Learnable {
 		baseLevelActivation = DEFAULT_BASE_LEVEL_ACTIVATION;
 		learnableRemovalThreshold = DEFAULT_LEARNABLE_REMOVAL_THRESHOLD;
 		baseLevelIncentiveSalience=DEFAULT_BASE_LEVEL_INCENTIVE_SALIENCE;
+	}
+
+	@Override
+	void setDefaultStrategies(ElementFactory factory) {
+		super.setDefaultStrategies(factory);
 		baseLevelDecayStrategy = factory.getDefaultDecayStrategy();
 		baseLevelExciteStrategy = factory.getDefaultExciteStrategy();
 		totalActivationStrategy = (TotalActivationStrategy) factory
@@ -137,8 +141,10 @@ public class LearnableImpl extends ActivatibleImpl implements Learnable {
 	 */
 	@Override
 	public void init() {
+		resolveStrategies();
 		baseLevelActivation=getParam("learnable.baseLevelActivation", DEFAULT_BASE_LEVEL_ACTIVATION);
 		learnableRemovalThreshold=getParam("learnable.baseLevelRemovalThreshold",DEFAULT_LEARNABLE_REMOVAL_THRESHOLD);
+		ElementFactory factory = ElementFactory.getInstance();
 		String decayName=getParam("learnable.baseLevelDecayStrategy", factory.getDefaultDecayType());
 		baseLevelDecayStrategy = factory.getDecayStrategy(decayName);
 		String exciteName=getParam("learnable.baseLevelExciteStrategy",factory.getDefaultExciteType());
@@ -152,10 +158,12 @@ public class LearnableImpl extends ActivatibleImpl implements Learnable {
 
 	@Override
 	public double getBaseLevelIncentiveSalience() {
+		updateLazyDecay();
 		return baseLevelIncentiveSalience;
 	}
 	@Override
 	public synchronized void setBaseLevelIncentiveSalience(double s) {
+		updateLazyDecay();
 		if (s < -1.0) { 
 			synchronized (this) {
 				baseLevelIncentiveSalience = -1.0;
@@ -172,14 +180,15 @@ public class LearnableImpl extends ActivatibleImpl implements Learnable {
 	}
 	@Override
 	public double getTotalIncentiveSalience() {
+		resolveStrategies();
 		return totalActivationStrategy.calculateTotalActivation(getBaseLevelIncentiveSalience(), getIncentiveSalience());
 	}
 
 	@Override
-	public void decay(long ticks) {
+	protected void applyDecay(long ticks) {
 		decayBaseLevelActivation(ticks);
 		decayBaseLevelIncentiveSalience(ticks);
-		super.decay(ticks);
+		super.applyDecay(ticks);
 	}
 
 	@Override
@@ -190,11 +199,13 @@ public class LearnableImpl extends ActivatibleImpl implements Learnable {
 
 	@Override
 	public double getTotalActivation() {
+		resolveStrategies();
 		return totalActivationStrategy.calculateTotalActivation(getBaseLevelActivation(), getActivation());
 	}
 
 	@Override
 	public void decayBaseLevelActivation(long ticks) {
+		resolveStrategies();
 		if (baseLevelDecayStrategy != null) {
 			if (logger.isLoggable(Level.FINEST)) {
 				logger.log(Level.FINEST,
@@ -216,6 +227,7 @@ public class LearnableImpl extends ActivatibleImpl implements Learnable {
 	}
 	@Override
 	public void decayBaseLevelIncentiveSalience(long t) {
+		resolveStrategies();
 		if (baseLevelDecayStrategy != null) {
 			if (logger.isLoggable(Level.FINEST)) {
 				logger.log(Level.FINEST,
@@ -239,6 +251,7 @@ public class LearnableImpl extends ActivatibleImpl implements Learnable {
 
 	@Override
 	public void reinforceBaseLevelActivation(double amount) {
+		resolveStrategies();
 		if (baseLevelExciteStrategy != null) {
 			if (logger.isLoggable(Level.FINEST)) {
 				logger.log(Level.FINEST,
@@ -259,6 +272,7 @@ public class LearnableImpl extends ActivatibleImpl implements Learnable {
 	}
 	@Override
 	public void reinforceBaseLevelIncentiveSalience(double amount) {
+		resolveStrategies();
 		if (baseLevelExciteStrategy != null) {
 			if (logger.isLoggable(Level.FINEST)) {
 				logger.log(Level.FINEST,
@@ -280,26 +294,31 @@ public class LearnableImpl extends ActivatibleImpl implements Learnable {
 
 	@Override
 	public ExciteStrategy getBaseLevelExciteStrategy() {
+		resolveStrategies();
 		return baseLevelExciteStrategy;
 	}
 
 	@Override
 	public void setBaseLevelExciteStrategy(ExciteStrategy s) {
+		resolveStrategies();
 		baseLevelExciteStrategy = s;
 	}
 
 	@Override
 	public DecayStrategy getBaseLevelDecayStrategy() {
+		resolveStrategies();
 		return baseLevelDecayStrategy;
 	}
 
 	@Override
 	public void setBaseLevelDecayStrategy(DecayStrategy s) {
+		resolveStrategies();
 		baseLevelDecayStrategy = s;
 	}
 
 	@Override
 	public void setBaseLevelActivation(double a) {
+		updateLazyDecay();
 		if (a < -1.0) {
 			synchronized (this) {
 				baseLevelActivation = -1.0;
@@ -317,6 +336,7 @@ public class LearnableImpl extends ActivatibleImpl implements Learnable {
 
 	@Override
 	public double getBaseLevelActivation() {
+		updateLazyDecay();
 		return baseLevelActivation;
 	}
 
@@ -332,11 +352,13 @@ public class LearnableImpl extends ActivatibleImpl implements Learnable {
 
 	@Override
 	public TotalActivationStrategy getTotalActivationStrategy() {
+		resolveStrategies();
 		return totalActivationStrategy;
 	}
 
 	@Override
 	public void setTotalActivationStrategy(TotalActivationStrategy s) {
+		resolveStrategies();
 		totalActivationStrategy = s;
 	}
 }
\ No newline at end of file
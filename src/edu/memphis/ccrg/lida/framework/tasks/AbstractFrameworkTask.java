@@ -0,0 +1,649 @@
+/*******************************************************************************
+ * Copyright (c) 2009, 2011 The University of Memphis.  All rights reserved. 
+ * This program and the accompanying materials are made available 
+ * under the terms of the LIDA Software Framework Non-Commercial License v1.0 
+ * which accompanies this distribution, and is available at
+ * http://ccrg.cs.memphis.edu/assets/papers/2010/LIDA-framework-non-commercial-v1.0.pdf
+ *******************************************************************************/
+/**
+ * 
+ */
+package edu.memphis.ccrg.lida.framework.tasks;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArraySet;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import edu.memphis.ccrg.lida.framework.FrameworkModule;
+import edu.memphis.ccrg.lida.framework.ModuleDependencies;
+import edu.memphis.ccrg.lida.framework.ModuleName;
+import edu.memphis.ccrg.lida.framework.initialization.InitializableImpl;
+import edu.memphis.ccrg.lida.framework.shared.activation.LearnableImpl;
+import edu.memphis.ccrg.lida.framework.strategies.DecayStrategy;
+import edu.memphis.ccrg.lida.framework.strategies.ExciteStrategy;
+import edu.memphis.ccrg.lida.framework.strategies.TotalActivationStrategy;
+
+/**
+ * Implements the life cycle of a {@link FrameworkTask}: scheduling, parking,
+ * module dependencies and ordering. Tasks that only run once to carry out some
+ * work for a module, like the tasks of {@link TaskPool}s, should extend this
+ * class directly. Their {@link LearnableImpl} state is only created if one of
+ * the learnable methods is called. Codelets and other tasks with activation
+ * should extend {@link FrameworkTaskImpl} instead.
+ * 
+ * @see FrameworkTaskImpl
+ */
+public abstract class AbstractFrameworkTask extends InitializableImpl implements
+		FrameworkTask, ModuleDependencies {
+
+	private static final Logger logger = Logger
+			.getLogger(AbstractFrameworkTask.class.getCanonicalName());
+
+	private final static int defaultTicksPerRun = 1;
+	private static final AtomicLong nextTaskID = new AtomicLong();
+
+	/*
+	 * frequency in ticks
+	 */
+	private int ticksPerRun = defaultTicksPerRun;
+	private long taskID;
+	/*
+	 * Orders the tasks of a tick in deterministic mode, assigned by the
+	 * TaskManager when the task is first scheduled
+	 */
+	private long orderKey;
+	private boolean orderKeyAssigned;
+	/*
+	 * Number of tasks this task scheduled in deterministic mode
+	 */
+	private long scheduledTaskCount;
+	private long nextExcecutionTicksPerRun = defaultTicksPerRun;
+	/**
+	 * {@link TaskStatus} of this task. Initial value is
+	 * {@link TaskStatus#RUNNING}.
+	 */
+	protected TaskStatus status = TaskStatus.RUNNING;
+	private TaskSpawner controllingTS;
+	private long scheduledTick;
+	private volatile ChangeSignal wakeupSignal;
+	private long seenSignalVersion;
+	/*
+	 * Declared module dependencies, null until one is declared
+	 */
+	private volatile Set<ModuleName> readModules;
+	private volatile Set<ModuleName> writtenModules;
+	/*
+	 * Learnable state used for all learnable methods, null until needed
+	 */
+	private volatile LearnableImpl learnable;
+
+	/**
+	 * Constructs an {@link AbstractFrameworkTask} with default ticksPerRun
+	 */
+	public AbstractFrameworkTask() {
+		this(defaultTicksPerRun, null);
+	}
+
+	/**
+	 * Constructs an {@link AbstractFrameworkTask} with specified ticksPerRun
+	 * 
+	 * @param ticksPerRun
+	 *            task's run frequency
+	 */
+	public AbstractFrameworkTask(int ticksPerRun) {
+		this(ticksPerRun, null);
+	}
+
+	/**
+	 * Constructs an {@link AbstractFrameworkTask} with specified ticksPerRun
+	 * and controlling {@link TaskSpawner}
+	 * 
+	 * @param ticksPerRun
+	 *            task's run frequency
+	 * @param ts
+	 *            controlling {@link TaskSpawner}
+	 */
+	public AbstractFrameworkTask(int ticksPerRun, TaskSpawner ts) {
+		taskID = getNextTaskId();
+		controllingTS = ts;
+		setTicksPerRun(ticksPerRun);
+	}
+
+	/*
+	 * Ids are unique among all tasks
+	 */
+	static long getNextTaskId() {
+		return nextTaskID.getAndIncrement();
+	}
+
+	/*
+	 * Derived by the TaskManager from the key of the task scheduling this one,
+	 * so it does not depend on the thread interleaving in deterministic mode
+	 */
+	long getOrderKey() {
+		return orderKey;
+	}
+
+	boolean isOrderKeyAssigned() {
+		return orderKeyAssigned;
+	}
+
+	void setOrderKey(long key) {
+		orderKey = key;
+		orderKeyAssigned = true;
+	}
+
+	/*
+	 * Sequence number of the next task scheduled by this task
+	 */
+	long nextScheduledTaskNumber() {
+		return scheduledTaskCount++;
+	}
+
+	@Override
+	public long getScheduledTick() {
+		return scheduledTick;
+	}
+
+	@Override
+	public void setScheduledTick(long t) {
+		scheduledTick = t;
+	}
+
+	/**
+	 * This method should not be called directly nor should it be overridden.
+	 * Override {@link #runThisFrameworkTask()} instead.
+	 * 
+	 * @see java.util.concurrent.Callable#call()
+	 */
+	@Override
+	public FrameworkTask call() {
+		nextExcecutionTicksPerRun = ticksPerRun;
+		ChangeSignal signal = wakeupSignal;
+		if (signal != null) {
+			seenSignalVersion = signal.getVersion();
+		}
+		try {
+			runThisFrameworkTask();
+		} catch (Exception e) {
+			logger
+					.log(
+							Level.WARNING,
+							"Exception encountered during the execution of task {1}. \n {2}",
+							new Object[] { TaskManager.getCurrentTick(), this,
+									e });
+			e.printStackTrace();
+		}
+		if (controllingTS != null) {
+			try {
+				controllingTS.receiveFinishedTask(this);
+			} catch (Exception e) {
+				logger
+						.log(
+								Level.WARNING,
+								"Exception encountered during the execution of method 'receiveFinishedTask' in TaskSpawner: {1} \n {2}",
+								new Object[] { TaskManager.getCurrentTick(),
+										this, e });
+				e.printStackTrace();
+			}
+		} else {
+			logger.log(Level.WARNING,
+					"Task {1} does not have an assigned TaskSpawner",
+					new Object[] { TaskManager.getCurrentTick(), this });
+		}
+		return this;
+	}
+
+	/**
+	 * To be overridden by extending classes. Overriding method should execute a
+	 * handful of statements considered to constitute a single iteration of the
+	 * task. For example, a codelet might look in a buffer for some content and
+	 * make a change to it in a single iteration. The overriding method may also
+	 * change the {@link TaskStatus} of a task. For example, if the task should
+	 * only run once and stop, then the method {@link #cancel()} may be used to
+	 * stop the task from further execution (calls of this
+	 * {@link #runThisFrameworkTask()} beyond the current one.
+	 */
+	protected abstract void runThisFrameworkTask();
+
+	/**
+	 * Reports that this task has no work until its wakeup
+	 * {@link ChangeSignal} is raised. May be called from
+	 * {@link #runThisFrameworkTask()}. The {@link TaskManager} does not
+	 * schedule the task until the signal is raised. If the signal was raised
+	 * during the current run the task is scheduled again as usual. Has no
+	 * effect if the task has no wakeup signal.
+	 * 
+	 * @see #setWakeupSignal(ChangeSignal)
+	 */
+	protected void park() {
+		if (wakeupSignal == null) {
+			logger.log(Level.WARNING,
+					"Task {1} cannot be parked without a wakeup signal",
+					new Object[] { TaskManager.getCurrentTick(), this });
+			return;
+		}
+		setTaskStatus(TaskStatus.PARKED);
+	}
+
+	/**
+	 * Sets the {@link ChangeSignal} that wakes up this task once parked.
+	 * Usually the signal of the module content the task reads, set in
+	 * {@link #setAssociatedModule(FrameworkModule, String)}.
+	 * 
+	 * @param signal
+	 *            the wakeup signal or null
+	 */
+	protected void setWakeupSignal(ChangeSignal signal) {
+		wakeupSignal = signal;
+	}
+
+	/**
+	 * @return the {@link ChangeSignal} that wakes up this task or null
+	 */
+	public ChangeSignal getWakeupSignal() {
+		return wakeupSignal;
+	}
+
+	/*
+	 * Version of the wakeup signal recorded before the last run
+	 */
+	long getSeenSignalVersion() {
+		return seenSignalVersion;
+	}
+
+	@Override
+	public synchronized void setTaskStatus(TaskStatus s) {
+		if (status == TaskStatus.CANCELED) {
+			logger
+					.log(
+							Level.WARNING,
+							"Cannot set TaskStatus to {1}. TaskStatus is already CANCELED so it cannot be modified again.",
+							new Object[] { TaskManager.getCurrentTick(), s });
+		} else {
+			status = s;
+		}
+	}
+
+	/**
+	 * Resets the {@link TaskStatus} to {@link TaskStatus#RUNNING}, the
+	 * controlling {@link TaskSpawner}, the ticks per run and the declared
+	 * module dependencies so that a finished task can run again, and gives the
+	 * task a new id. Used by tasks recycled with a {@link TaskPool}.
+	 * 
+	 * @param ticks
+	 *            task's run frequency
+	 */
+	protected synchronized void resetTask(int ticks) {
+		taskID = getNextTaskId();
+		orderKey = 0L;
+		orderKeyAssigned = false;
+		scheduledTaskCount = 0L;
+		status = TaskStatus.RUNNING;
+		controllingTS = null;
+		scheduledTick = 0L;
+		wakeupSignal = null;
+		clearModuleDependencies();
+		setTicksPerRun(ticks);
+	}
+
+	@Override
+	public TaskStatus getTaskStatus() {
+		return status;
+	}
+
+	@Override
+	public long getTaskId() {
+		return taskID;
+	}
+
+	@Override
+	public synchronized int getTicksPerRun() {
+		return ticksPerRun;
+	}
+
+	@Override
+	public synchronized void setTicksPerRun(int ticks) {
+		if (ticks > 0) {
+			ticksPerRun = ticks;
+			setNextTicksPerRun(ticks);
+		}
+	}
+
+	@Deprecated
+	@Override
+	public void stopRunning() {
+		cancel();
+	}
+
+	@Override
+	public void cancel() {
+		setTaskStatus(TaskStatus.CANCELED);
+	}
+
+	@Override
+	public TaskSpawner getControllingTaskSpawner() {
+		return controllingTS;
+	}
+
+	@Override
+	public void setControllingTaskSpawner(TaskSpawner ts) {
+		controllingTS = ts;
+	}
+
+	@Override
+	public long getNextTicksPerRun() {
+		return nextExcecutionTicksPerRun;
+	}
+
+	@Override
+	public void setNextTicksPerRun(long tick) {
+		nextExcecutionTicksPerRun = tick;
+	}
+
+	/**
+	 * Subclasses may override this method.
+	 */
+	@Override
+	public void setAssociatedModule(FrameworkModule module, String moduleUsage) {
+	}
+
+	/**
+	 * Declares that this task reads the content of specified module. Once a
+	 * dependency is declared, the task is assumed to touch no other module
+	 * than the declared ones.
+	 * 
+	 * @param name
+	 *            {@link ModuleName} of the module read
+	 * @see ModuleDependencies
+	 */
+	protected synchronized void addReadModule(ModuleName name) {
+		if (name != null) {
+			declareDependencies();
+			readModules.add(name);
+		}
+	}
+
+	/**
+	 * Declares that this task writes the content of specified module. Once a
+	 * dependency is declared, the task is assumed to touch no other module
+	 * than the declared ones.
+	 * 
+	 * @param name
+	 *            {@link ModuleName} of the module written
+	 * @see ModuleDependencies
+	 */
+	protected synchronized void addWrittenModule(ModuleName name) {
+		if (name != null) {
+			declareDependencies();
+			writtenModules.add(name);
+		}
+	}
+
+	private synchronized void declareDependencies() {
+		if (writtenModules == null) {
+			readModules = new CopyOnWriteArraySet<ModuleName>();
+			writtenModules = new CopyOnWriteArraySet<ModuleName>();
+		}
+	}
+
+	/**
+	 * Removes the declared dependencies, the task is then assumed to touch
+	 * every module again.
+	 */
+	protected synchronized void clearModuleDependencies() {
+		readModules = null;
+		writtenModules = null;
+	}
+
+	/**
+	 * @return the modules declared read or null if no dependency is declared
+	 */
+	@Override
+	public Collection<ModuleName> getReadModules() {
+		Set<ModuleName> names = readModules;
+		return (names == null) ? null : Collections.unmodifiableSet(names);
+	}
+
+	/**
+	 * @return the modules declared written or null if no dependency is
+	 *         declared
+	 */
+	@Override
+	public Collection<ModuleName> getWrittenModules() {
+		Set<ModuleName> names = writtenModules;
+		return (names == null) ? null : Collections.unmodifiableSet(names);
+	}
+
+	/*
+	 * Returns the learnable state of this task, creating it on first use
+	 */
+	LearnableImpl getLearnable() {
+		LearnableImpl l = learnable;
+		if (l == null) {
+			synchronized (this) {
+				l = learnable;
+				if (l == null) {
+					l = new LearnableImpl();
+					if (getParameters() != null) {
+						l.init(getParameters());
+					}
+					learnable = l;
+				}
+			}
+		}
+		return l;
+	}
+
+	/**
+	 * Initializes the learnable state if it exists. Subclasses overriding this
+	 * method must call it first.
+	 * 
+	 * @see LearnableImpl#init()
+	 */
+	@Override
+	public void init() {
+		LearnableImpl l = learnable;
+		if (l != null) {
+			l.init(getParameters());
+		}
+	}
+
+	// LEARNABLE METHODS
+	@Override
+	public double getActivation() {
+		return getLearnable().getActivation();
+	}
+
+	@Override
+	public void setActivation(double a) {
+		getLearnable().setActivation(a);
+	}
+
+	@Override
+	public double getTotalActivation() {
+		return getLearnable().getTotalActivation();
+	}
+
+	@Override
+	public void exciteActivation(double amount) {
+		getLearnable().exciteActivation(amount);
+	}
+
+	@Override
+	public void excite(double amount) {
+		getLearnable().excite(amount);
+	}
+
+	@Override
+	public void exciteIncentiveSalience(double amount) {
+		getLearnable().exciteIncentiveSalience(amount);
+	}
+
+	@Override
+	public double getIncentiveSalience() {
+		return getLearnable().getIncentiveSalience();
+	}
+
+	@Override
+	public void setIncentiveSalience(double s) {
+		getLearnable().setIncentiveSalience(s);
+	}
+
+	@Override
+	public double getTotalIncentiveSalience() {
+		return getLearnable().getTotalIncentiveSalience();
+	}
+
+	@Override
+	public void setExciteStrategy(ExciteStrategy strategy) {
+		getLearnable().setExciteStrategy(strategy);
+	}
+
+	@Override
+	public ExciteStrategy getExciteStrategy() {
+		return getLearnable().getExciteStrategy();
+	}
+
+	@Override
+	public void decay(long ticks) {
+		getLearnable().decay(ticks);
+	}
+
+	@Override
+	public void setDecayStrategy(DecayStrategy strategy) {
+		getLearnable().setDecayStrategy(strategy);
+	}
+
+	@Override
+	public DecayStrategy getDecayStrategy() {
+		return getLearnable().getDecayStrategy();
+	}
+
+	@Override
+	public void setIncentiveSalienceDecayStrategy(DecayStrategy strategy) {
+		getLearnable().setIncentiveSalienceDecayStrategy(strategy);
+	}
+
+	@Override
+	public DecayStrategy getIncentiveSalienceDecayStrategy() {
+		return getLearnable().getIncentiveSalienceDecayStrategy();
+	}
+
+	@Override
+	public void setActivatibleRemovalThreshold(double threshold) {
+		getLearnable().setActivatibleRemovalThreshold(threshold);
+	}
+
+	@Override
+	public double getActivatibleRemovalThreshold() {
+		return getLearnable().getActivatibleRemovalThreshold();
+	}
+
+	@Override
+	public boolean isRemovable() {
+		return getLearnable().isRemovable();
+	}
+
+	@Override
+	public double getBaseLevelActivation() {
+		return getLearnable().getBaseLevelActivation();
+	}
+
+	@Override
+	public void setBaseLevelActivation(double amount) {
+		getLearnable().setBaseLevelActivation(amount);
+	}
+
+	@Override
+	public void reinforceBaseLevelActivation(double amount) {
+		getLearnable().reinforceBaseLevelActivation(amount);
+	}
+
+	@Override
+	public void decayBaseLevelActivation(long ticks) {
+		getLearnable().decayBaseLevelActivation(ticks);
+	}
+
+	@Override
+	public double getBaseLevelIncentiveSalience() {
+		return getLearnable().getBaseLevelIncentiveSalience();
+	}
+
+	@Override
+	public void setBaseLevelIncentiveSalience(double s) {
+		getLearnable().setBaseLevelIncentiveSalience(s);
+	}
+
+	@Override
+	public void reinforceBaseLevelIncentiveSalience(double amount) {
+		getLearnable().reinforceBaseLevelIncentiveSalience(amount);
+	}
+
+	@Override
+	public void decayBaseLevelIncentiveSalience(long ticks) {
+		getLearnable().decayBaseLevelIncentiveSalience(ticks);
+	}
+
+	@Override
+	public void setBaseLevelExciteStrategy(ExciteStrategy strategy) {
+		getLearnable().setBaseLevelExciteStrategy(strategy);
+	}
+
+	@Override
+	public ExciteStrategy getBaseLevelExciteStrategy() {
+		return getLearnable().getBaseLevelExciteStrategy();
+	}
+
+	@Override
+	public void setBaseLevelDecayStrategy(DecayStrategy strategy) {
+		getLearnable().setBaseLevelDecayStrategy(strategy);
+	}
+
+	@Override
+	public DecayStrategy getBaseLevelDecayStrategy() {
+		return getLearnable().getBaseLevelDecayStrategy();
+	}
+
+	@Override
+	public void setBaseLevelRemovalThreshold(double threshold) {
+		getLearnable().setBaseLevelRemovalThreshold(threshold);
+	}
+
+	@Override
+	public double getBaseLevelRemovalThreshold() {
+		return getLearnable().getBaseLevelRemovalThreshold();
+	}
+
+	@Override
+	public TotalActivationStrategy getTotalActivationStrategy() {
+		return getLearnable().getTotalActivationStrategy();
+	}
+
+	@Override
+	public void setTotalActivationStrategy(TotalActivationStrategy strategy) {
+		getLearnable().setTotalActivationStrategy(strategy);
+	}
+
+	@Override
+	public boolean equals(Object o) {
+		if (o instanceof AbstractFrameworkTask) {
+			return taskID == ((AbstractFrameworkTask) o).getTaskId();
+		}
+		return false;
+	}
+
+	@Override
+	public int hashCode() {
+		return (int) taskID;
+	}
+
+	@Override
+	public String toString() {
+		return getClass().getSimpleName() + "[" + taskID + "]";
+	}
+}
\ No newline at end of file
@@ -0,0 +1,270 @@
+/*******************************************************************************
+ * Copyright (c) 2009, 2011 The University of Memphis.  All rights reserved. 
+ * This program and the accompanying materials are made available 
+ * under the terms of the LIDA Software Framework Non-Commercial License v1.0 
+ * which accompanies this distribution, and is available at
+ * http://ccrg.cs.memphis.edu/assets/papers/2010/LIDA-framework-non-commercial-v1.0.pdf
+ *******************************************************************************/
+package edu.memphis.ccrg.lida.framework.tasks;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Resizes the {@link ThreadPoolExecutor} of a {@link TaskManager} between a
+ * min and a max number of threads according to the load of the ticks. The
+ * tasks of each tick are wrapped to measure how long they waited for a thread
+ * and how much cpu time they used. Every sample period the means of the
+ * sampled ticks decide the new size:
+ * <ul>
+ * <li>tasks waited for a thread and either the threads were often blocked or
+ * there are fewer threads than processors: the pool grows by a quarter, but
+ * not beyond the mean number of tasks per tick</li>
+ * <li>tasks did not wait and there are more threads than tasks per tick: the
+ * pool shrinks by an eighth, but not below the mean number of tasks per tick</li>
+ * </ul>
+ * The decisions are kept for offline tuning, see {@link #getDecisions()}.
+ * 
+ * @see TaskManager#setAdaptivePoolSizer(AdaptivePoolSizer)
+ */
+public class AdaptivePoolSizer {
+
+	private static final Logger logger = Logger
+			.getLogger(AdaptivePoolSizer.class.getCanonicalName());
+	private static final ThreadMXBean threadBean = ManagementFactory
+			.getThreadMXBean();
+	private static final boolean cpuTimeSupported = threadBean
+			.isCurrentThreadCpuTimeSupported();
+
+	/**
+	 * Default number of ticks sampled before each decision
+	 */
+	public static final int DEFAULT_SAMPLE_TICKS = 20;
+	/**
+	 * Default mean queue wait in nanoseconds above which the pool may grow
+	 */
+	public static final long DEFAULT_WAIT_THRESHOLD = 100000L;
+	/**
+	 * Utilization below which the threads are considered blocked
+	 */
+	private static final double BLOCKED_UTILIZATION = 0.75;
+	private static final int MAX_DECISIONS = 256;
+
+	private final int minThreads;
+	private final int maxThreads;
+	private final int sampleTicks;
+	private final long waitThreshold;
+	private final int processors = Runtime.getRuntime().availableProcessors();
+
+	private final AtomicLong queueWait = new AtomicLong();
+	private final AtomicLong cpuTime = new AtomicLong();
+	private volatile boolean cpuTimeKnown = cpuTimeSupported;
+	private int sampledTicks;
+	private long sampledTasks;
+	private long sampledThreadTime;
+
+	private final LinkedList<PoolSizingDecision> decisions = new LinkedList<PoolSizingDecision>();
+
+	/**
+	 * Constructs a sizer with {@link #DEFAULT_SAMPLE_TICKS} and
+	 * {@link #DEFAULT_WAIT_THRESHOLD}
+	 * 
+	 * @param minThreads
+	 *            min size of the pool
+	 * @param maxThreads
+	 *            max size of the pool
+	 */
+	public AdaptivePoolSizer(int minThreads, int maxThreads) {
+		this(minThreads, maxThreads, DEFAULT_SAMPLE_TICKS,
+				DEFAULT_WAIT_THRESHOLD);
+	}
+
+	/**
+	 * @param minThreads
+	 *            min size of the pool
+	 * @param maxThreads
+	 *            max size of the pool
+	 * @param sampleTicks
+	 *            number of ticks with tasks sampled before each decision
+	 * @param waitThreshold
+	 *            mean queue wait in nanoseconds above which the pool may grow
+	 */
+	public AdaptivePoolSizer(int minThreads, int maxThreads, int sampleTicks,
+			long waitThreshold) {
+		this.minThreads = Math.max(1, minThreads);
+		this.maxThreads = Math.max(this.minThreads, maxThreads);
+		this.sampleTicks = Math.max(1, sampleTicks);
+		this.waitThreshold = Math.max(0L, waitThreshold);
+	}
+
+	/**
+	 * @return min size of the pool
+	 */
+	public int getMinThreads() {
+		return minThreads;
+	}
+
+	/**
+	 * @return max size of the pool
+	 */
+	public int getMaxThreads() {
+		return maxThreads;
+	}
+
+	/**
+	 * @return the initial size of a pool: the number of processors within the
+	 *         bounds
+	 */
+	int getInitialSize() {
+		return clamp(processors);
+	}
+
+	/**
+	 * @param tasks
+	 *            the tasks of a tick
+	 * @return the tasks wrapped so that their queue wait and cpu time are
+	 *         measured
+	 */
+	List<Callable<FrameworkTask>> wrap(Collection<FrameworkTask> tasks) {
+		final long submitted = System.nanoTime();
+		List<Callable<FrameworkTask>> wrapped = new ArrayList<Callable<FrameworkTask>>(
+				tasks.size());
+		for (final FrameworkTask task : tasks) {
+			wrapped.add(new Callable<FrameworkTask>() {
+				@Override
+				public FrameworkTask call() throws Exception {
+					queueWait.addAndGet(System.nanoTime() - submitted);
+					long cpuStart = getCpuTime();
+					try {
+						return task.call();
+					} finally {
+						long cpuEnd = getCpuTime();
+						if (cpuStart >= 0 && cpuEnd >= 0) {
+							cpuTime.addAndGet(cpuEnd - cpuStart);
+						} else {
+							cpuTimeKnown = false;
+						}
+					}
+				}
+			});
+		}
+		return wrapped;
+	}
+
+	private static long getCpuTime() {
+		if (!cpuTimeSupported) {
+			return -1L;
+		}
+		try {
+			return threadBean.getCurrentThreadCpuTime();
+		} catch (UnsupportedOperationException e) {
+			return -1L;
+		}
+	}
+
+	/**
+	 * Records the end of a tick and resizes the pool at the end of each sample
+	 * period. Only called by the main loop thread.
+	 * 
+	 * @param pool
+	 *            the pool to resize
+	 * @param tick
+	 *            the executed tick
+	 * @param taskCount
+	 *            number of tasks run in the tick
+	 * @param elapsed
+	 *            time in nanoseconds the tasks of the tick took to run
+	 * @return the decision or null if the size did not change
+	 */
+	PoolSizingDecision endTick(ThreadPoolExecutor pool, long tick,
+			int taskCount, long elapsed) {
+		sampledTicks++;
+		sampledTasks += taskCount;
+		sampledThreadTime += elapsed * pool.getCorePoolSize();
+		if (sampledTicks < sampleTicks) {
+			return null;
+		}
+		double tasksPerTick = (double) sampledTasks / sampledTicks;
+		double wait = (sampledTasks == 0) ? 0.0 : (double) queueWait
+				.getAndSet(0L)
+				/ sampledTasks;
+		long cpu = cpuTime.getAndSet(0L);
+		double utilization = (!cpuTimeKnown || sampledThreadTime == 0) ? -1.0
+				: (double) cpu / sampledThreadTime;
+		sampledTicks = 0;
+		sampledTasks = 0;
+		sampledThreadTime = 0;
+
+		int size = pool.getCorePoolSize();
+		int newSize = size;
+		String reason = null;
+		int needed = clamp((int) Math.ceil(tasksPerTick));
+		if (wait > waitThreshold && size < needed) {
+			if (utilization >= 0 && utilization < BLOCKED_UTILIZATION) {
+				reason = "tasks waiting, threads blocked";
+				newSize = Math.min(needed, size + Math.max(1, size / 4));
+			} else if (size < processors) {
+				reason = "tasks waiting, idle processors";
+				newSize = Math.min(Math.min(needed, processors), size
+						+ Math.max(1, size / 4));
+			}
+		} else if (wait <= waitThreshold && size > needed) {
+			reason = "idle threads";
+			newSize = Math.max(needed, size - Math.max(1, size / 8));
+		}
+		newSize = clamp(newSize);
+		if (newSize == size) {
+			return null;
+		}
+		resize(pool, newSize);
+		PoolSizingDecision d = new PoolSizingDecision(tick, size, newSize,
+				tasksPerTick, wait, utilization, reason);
+		synchronized (decisions) {
+			decisions.add(d);
+			if (decisions.size() > MAX_DECISIONS) {
+				decisions.removeFirst();
+			}
+		}
+		logger.log(Level.FINE, "{1}", new Object[] { tick, d });
+		return d;
+	}
+
+	/**
+	 * Sets the size of the pool, keeping its max size at least as large.
+	 * 
+	 * @param pool
+	 *            the pool
+	 * @param size
+	 *            the new number of threads
+	 */
+	static void resize(ThreadPoolExecutor pool, int size) {
+		if (size > pool.getMaximumPoolSize()) {
+			pool.setMaximumPoolSize(size);
+			pool.setCorePoolSize(size);
+		} else {
+			pool.setCorePoolSize(size);
+		}
+	}
+
+	private int clamp(int size) {
+		return Math.max(minThreads, Math.min(maxThreads, size));
+	}
+
+	/**
+	 * @return the last decisions, oldest first
+	 */
+	public List<PoolSizingDecision> getDecisions() {
+		synchronized (decisions) {
+			return new ArrayList<PoolSizingDecision>(decisions);
+		}
+	}
+}
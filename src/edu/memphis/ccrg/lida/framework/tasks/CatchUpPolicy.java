@@ -0,0 +1,35 @@
+/*******************************************************************************
+ * Copyright (c) 2009, 2011 The University of Memphis.  All rights reserved. 
+ * This program and the accompanying materials are made available 
+ * under the terms of the LIDA Software Framework Non-Commercial License v1.0 
+ * which accompanies this distribution, and is available at
+ * http://ccrg.cs.memphis.edu/assets/papers/2010/LIDA-framework-non-commercial-v1.0.pdf
+ *******************************************************************************/
+package edu.memphis.ccrg.lida.framework.tasks;
+
+/**
+ * What the {@link TaskManager} does when a tick finishes after the real time
+ * at which the next tick should start.
+ * 
+ * @see TaskManager#setCatchUpPolicy(CatchUpPolicy)
+ */
+public enum CatchUpPolicy {
+
+	/**
+	 * The tick slots already missed are dropped. The next tick starts at the
+	 * next slot of the original schedule, so the ticks stay in phase with it.
+	 */
+	SKIP,
+
+	/**
+	 * The missed ticks run back to back, without pause, until the schedule is
+	 * caught up. The average tick rate is kept.
+	 */
+	BURST,
+
+	/**
+	 * The schedule is shifted by the delay: the next tick starts right away and
+	 * the following ones are paced from it. Missed time is never made up.
+	 */
+	STRETCH
+}
@@ -0,0 +1,80 @@
+/*******************************************************************************
+ * Copyright (c) 2009, 2011 The University of Memphis.  All rights reserved. 
+ * This program and the accompanying materials are made available 
+ * under the terms of the LIDA Software Framework Non-Commercial License v1.0 
+ * which accompanies this distribution, and is available at
+ * http://ccrg.cs.memphis.edu/assets/papers/2010/LIDA-framework-non-commercial-v1.0.pdf
+ *******************************************************************************/
+package edu.memphis.ccrg.lida.framework.tasks;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Signal raised by a module each time some content changes. A
+ * {@link FrameworkTaskImpl} that has nothing to do until the content changes
+ * parks itself on the signal, see {@link FrameworkTaskImpl#park()}. The
+ * {@link TaskManager} does not schedule a parked task until the signal is
+ * raised.
+ * <p>
+ * Each signal increments a version. A task records the version before it
+ * runs and is woken up right away if the version changed before it was
+ * parked, so a change made during its run is never missed.
+ */
+public class ChangeSignal {
+
+	private final AtomicLong version = new AtomicLong();
+	private final ConcurrentMap<FrameworkTask, TaskManager> parked = new ConcurrentHashMap<FrameworkTask, TaskManager>();
+
+	/**
+	 * @return the number of times this signal has been raised
+	 */
+	public long getVersion() {
+		return version.get();
+	}
+
+	/**
+	 * Raises this signal waking up all parked tasks.
+	 */
+	public void signal() {
+		version.incrementAndGet();
+		if (!parked.isEmpty()) {
+			for (FrameworkTask task : parked.keySet()) {
+				wakeUp(task);
+			}
+		}
+	}
+
+	/**
+	 * @return the number of tasks parked on this signal
+	 */
+	public int getParkedCount() {
+		return parked.size();
+	}
+
+	/*
+	 * Parks the task. Wakes it up right away if the signal was raised after
+	 * the specified version.
+	 */
+	void park(FrameworkTask task, TaskManager tm, long seenVersion) {
+		parked.put(task, tm);
+		if (version.get() != seenVersion) {
+			wakeUp(task);
+		}
+	}
+
+	/*
+	 * Removes the task without waking it up.
+	 */
+	boolean cancel(FrameworkTask task) {
+		return parked.remove(task) != null;
+	}
+
+	private void wakeUp(FrameworkTask task) {
+		TaskManager tm = parked.remove(task);
+		if (tm != null) {
+			tm.unparkTask(task);
+		}
+	}
+}
@@ -0,0 +1,168 @@
+/*******************************************************************************
+ * Copyright (c) 2009, 2011 The University of Memphis.  All rights reserved. 
+ * This program and the accompanying materials are made available 
+ * under the terms of the LIDA Software Framework Non-Commercial License v1.0 
+ * which accompanies this distribution, and is available at
+ * http://ccrg.cs.memphis.edu/assets/papers/2010/LIDA-framework-non-commercial-v1.0.pdf
+ *******************************************************************************/
+package edu.memphis.ccrg.lida.framework.tasks;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import edu.memphis.ccrg.lida.framework.ModuleDependencies;
+import edu.memphis.ccrg.lida.framework.ModuleName;
+
+/**
+ * Number of execution lanes of the {@link TaskSpawner}s of a
+ * {@link TaskManager}. The tasks of a TaskSpawner with lanes are split among
+ * them by the first module they write, or else the first module they read, as
+ * declared by {@link ModuleDependencies}. Tasks of a module that touch the same
+ * buffer thus share a lane and serialize instead of contending for its
+ * monitors. Tasks declaring no dependency are split by task id, so a task
+ * always runs in the same lane. The tasks of a lane run one after the other on
+ * a single thread of the executor, the lanes and the other tasks run in
+ * parallel, and the tick ends when all of them are done.
+ */
+class ExecutionLanes {
+
+	private static final Logger logger = Logger.getLogger(ExecutionLanes.class
+			.getCanonicalName());
+
+	private final ConcurrentMap<TaskSpawner, Integer> lanes = new ConcurrentHashMap<TaskSpawner, Integer>();
+
+	/**
+	 * @param ts
+	 *            a {@link TaskSpawner}
+	 * @param n
+	 *            number of lanes of its tasks, 0 to run them freely
+	 */
+	void setLanes(TaskSpawner ts, int n) {
+		if (n > 0) {
+			lanes.put(ts, n);
+		} else {
+			lanes.remove(ts);
+		}
+	}
+
+	/**
+	 * @param ts
+	 *            a {@link TaskSpawner}
+	 * @return number of lanes of its tasks, 0 if they run freely
+	 */
+	int getLanes(TaskSpawner ts) {
+		Integer n = (ts == null) ? null : lanes.get(ts);
+		return (n == null) ? 0 : n;
+	}
+
+	/**
+	 * @return true if no {@link TaskSpawner} has lanes
+	 */
+	boolean isEmpty() {
+		return lanes.isEmpty();
+	}
+
+	/**
+	 * Splits the tasks of a tick into the tasks that run freely and the
+	 * non-empty lanes.
+	 * 
+	 * @param tasks
+	 *            the tasks of the tick
+	 * @param free
+	 *            receives the tasks whose TaskSpawner has no lanes
+	 * @return the tasks of each lane in the order of the tick's tasks
+	 */
+	List<List<FrameworkTask>> partition(Collection<FrameworkTask> tasks,
+			List<FrameworkTask> free) {
+		Map<TaskSpawner, List<FrameworkTask>[]> bySpawner = new HashMap<TaskSpawner, List<FrameworkTask>[]>();
+		List<List<FrameworkTask>> result = new ArrayList<List<FrameworkTask>>();
+		for (FrameworkTask t : tasks) {
+			TaskSpawner ts = t.getControllingTaskSpawner();
+			int n = getLanes(ts);
+			if (n == 0) {
+				free.add(t);
+				continue;
+			}
+			List<FrameworkTask>[] spawnerLanes = bySpawner.get(ts);
+			if (spawnerLanes == null) {
+				spawnerLanes = newLanes(n);
+				bySpawner.put(ts, spawnerLanes);
+			}
+			int i = (int) ((laneKey(t) & Long.MAX_VALUE) % spawnerLanes.length);
+			if (spawnerLanes[i] == null) {
+				spawnerLanes[i] = new ArrayList<FrameworkTask>();
+				result.add(spawnerLanes[i]);
+			}
+			spawnerLanes[i].add(t);
+		}
+		return result;
+	}
+
+	/*
+	 * The first module written by the task, else the first module read, else
+	 * the task id
+	 */
+	private static long laneKey(FrameworkTask t) {
+		if (t instanceof ModuleDependencies) {
+			ModuleDependencies d = (ModuleDependencies) t;
+			ModuleName m = first(d.getWrittenModules());
+			if (m == null) {
+				m = first(d.getReadModules());
+			}
+			if (m != null) {
+				return m.name.hashCode();
+			}
+		}
+		return t.getTaskId();
+	}
+
+	private static ModuleName first(Collection<ModuleName> names) {
+		if (names != null) {
+			Iterator<ModuleName> it = names.iterator();
+			if (it.hasNext()) {
+				return it.next();
+			}
+		}
+		return null;
+	}
+
+	/*
+	 * Generic arrays cannot be created directly
+	 */
+	@SuppressWarnings({ "unchecked", "rawtypes" })
+	private static List<FrameworkTask>[] newLanes(int n) {
+		return new List[n];
+	}
+
+	/**
+	 * @param callables
+	 *            the callables of a lane
+	 * @return a callable running them one after the other
+	 */
+	static Callable<FrameworkTask> lane(
+			final List<Callable<FrameworkTask>> callables) {
+		return new Callable<FrameworkTask>() {
+			@Override
+			public FrameworkTask call() {
+				for (Callable<FrameworkTask> c : callables) {
+					try {
+						c.call();
+					} catch (Exception e) {
+						logger.log(Level.WARNING, "Task in lane failed: {1}",
+								new Object[] { TaskManager.getCurrentTick(), e });
+					}
+				}
+				return null;
+			}
+		};
+	}
+}
@@ -0,0 +1,38 @@
+/*******************************************************************************
+ * Copyright (c) 2009, 2011 The University of Memphis.  All rights reserved. 
+ * This program and the accompanying materials are made available 
+ * under the terms of the LIDA Software Framework Non-Commercial License v1.0 
+ * which accompanies this distribution, and is available at
+ * http://ccrg.cs.memphis.edu/assets/papers/2010/LIDA-framework-non-commercial-v1.0.pdf
+ *******************************************************************************/
+package edu.memphis.ccrg.lida.framework.tasks;
+
+import java.util.concurrent.ExecutorService;
+
+/**
+ * Enumeration of the kinds of {@link ExecutorService} the {@link TaskManager}
+ * can use to run the tasks of each tick.
+ */
+public enum ExecutorType {
+
+	/**
+	 * A ThreadPoolExecutor whose threads share a single task queue. Tasks are
+	 * run with invokeAll.
+	 */
+	THREAD_POOL,
+
+	/**
+	 * A ForkJoinPool whose workers have their own deques and steal work from
+	 * each other. The tasks of a tick are split recursively among the workers.
+	 */
+	FORK_JOIN,
+
+	/**
+	 * Runs each task in a new virtual thread so that tasks blocking briefly do
+	 * not hold a pool thread. Tasks are run with invokeAll and the
+	 * {@link TaskManager} records {@link TickExecutionStats} for every tick.
+	 * On JVMs without virtual threads a new or idle platform thread is used
+	 * per task instead.
+	 */
+	VIRTUAL_THREAD
+}
@@ -0,0 +1,170 @@
+/*******************************************************************************
+ * Copyright (c) 2009, 2011 The University of Memphis.  All rights reserved. 
+ * This program and the accompanying materials are made available 
+ * under the terms of the LIDA Software Framework Non-Commercial License v1.0 
+ * which accompanies this distribution, and is available at
+ * http://ccrg.cs.memphis.edu/assets/papers/2010/LIDA-framework-non-commercial-v1.0.pdf
+ *******************************************************************************/
+package edu.memphis.ccrg.lida.framework.tasks;
+
+import java.util.AbstractSet;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Default {@link TaskScheduler}. Keeps a sorted map from tick to the set of
+ * tasks scheduled for that tick. A polled set is removed from the map and then
+ * drained: no task can be added to it afterwards. A task scheduled
+ * concurrently into a drained set is added to a new set for the same tick
+ * instead, which is polled with the next tick, so no lock is shared among the
+ * ticks.
+ */
+public class MapTaskScheduler implements TaskScheduler {
+
+	private final ConcurrentNavigableMap<Long, TickSet> taskQueue = new ConcurrentSkipListMap<Long, TickSet>();
+
+	@Override
+	public long scheduleTask(FrameworkTask task, long tick) {
+		Long time = tick;
+		task.setScheduledTick(tick);
+		while (true) {
+			TickSet set = taskQueue.get(time);
+			if (set == null) {
+				TickSet set2 = new TickSet();
+				set = taskQueue.putIfAbsent(time, set2);
+				if (set == null) {// there wasn't a set already at key 'time'
+					set = set2;
+				}
+			}
+			if (set.tryAdd(task)) {
+				return tick;
+			}
+			// the set was polled meanwhile, retry with a new one
+		}
+	}
+
+	@Override
+	public boolean cancelTask(FrameworkTask task) {
+		Set<FrameworkTask> set = taskQueue.get(task.getScheduledTick());
+		if (set != null) {
+			return set.remove(task);
+		}
+		return false;
+	}
+
+	/*
+	 * Removes and drains the sets of specified tick and of earlier ticks
+	 */
+	@Override
+	public Collection<FrameworkTask> pollTasks(long tick) {
+		TickSet set = taskQueue.remove(tick);
+		if (set != null) {
+			set.drain();
+		}
+		// Tasks scheduled concurrently for a skipped tick run in this tick
+		Map.Entry<Long, TickSet> entry = taskQueue.firstEntry();
+		while (entry != null && entry.getKey() < tick) {
+			TickSet earlier = entry.getValue();
+			if (taskQueue.remove(entry.getKey(), earlier)) {
+				earlier.drain();
+				if (set == null) {
+					set = earlier;
+				} else {
+					set.tasks.addAll(earlier.tasks);
+				}
+			}
+			entry = taskQueue.firstEntry();
+		}
+		return set;
+	}
+
+	@Override
+	public long getNextScheduledTick() {
+		Map.Entry<Long, TickSet> entry = taskQueue.firstEntry();
+		return (entry == null) ? -1L : entry.getKey();
+	}
+
+	@Override
+	public Map<Long, Set<FrameworkTask>> getScheduledTasks() {
+		return Collections.<Long, Set<FrameworkTask>> unmodifiableMap(taskQueue);
+	}
+
+	@Override
+	public void clear() {
+		taskQueue.clear();
+	}
+
+	/*
+	 * The tasks scheduled for one tick. Once drained no task can be added.
+	 */
+	private static class TickSet extends AbstractSet<FrameworkTask> {
+
+		private static final int DRAINED = Integer.MIN_VALUE;
+
+		private final Set<FrameworkTask> tasks = Collections
+				.newSetFromMap(new ConcurrentHashMap<FrameworkTask, Boolean>());
+		/*
+		 * Number of adds in progress, the sign bit is set once drained
+		 */
+		private final AtomicInteger adders = new AtomicInteger();
+
+		/*
+		 * Returns false if the set was drained
+		 */
+		boolean tryAdd(FrameworkTask task) {
+			int n;
+			do {
+				n = adders.get();
+				if (n < 0) {
+					return false;
+				}
+			} while (!adders.compareAndSet(n, n + 1));
+			try {
+				tasks.add(task);
+			} finally {
+				adders.decrementAndGet();
+			}
+			return true;
+		}
+
+		/*
+		 * Closes the set to new tasks and waits for the adds in progress
+		 */
+		void drain() {
+			int n;
+			do {
+				n = adders.get();
+			} while (n >= 0 && !adders.compareAndSet(n, n | DRAINED));
+			while (adders.get() != DRAINED) {
+				Thread.yield();
+			}
+		}
+
+		@Override
+		public Iterator<FrameworkTask> iterator() {
+			return tasks.iterator();
+		}
+
+		@Override
+		public int size() {
+			return tasks.size();
+		}
+
+		@Override
+		public boolean contains(Object o) {
+			return tasks.contains(o);
+		}
+
+		@Override
+		public boolean remove(Object o) {
+			return tasks.remove(o);
+		}
+	}
+}
@@ -0,0 +1,258 @@
+/*******************************************************************************
+ * Copyright (c) 2009, 2011 The University of Memphis.  All rights reserved. 
+ * This program and the accompanying materials are made available 
+ * under the terms of the LIDA Software Framework Non-Commercial License v1.0 
+ * which accompanies this distribution, and is available at
+ * http://ccrg.cs.memphis.edu/assets/papers/2010/LIDA-framework-non-commercial-v1.0.pdf
+ *******************************************************************************/
+package edu.memphis.ccrg.lida.framework.tasks;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Holds the recurring {@link FrameworkTask}s of a {@link TaskManager} sorted by
+ * the tick of their next run. The table is a binary heap of entries created
+ * once when a task is registered. After each run a task is placed again at the
+ * current tick plus its {@link FrameworkTask#getNextTicksPerRun()}, so
+ * overrides made with {@link FrameworkTask#setNextTicksPerRun(long)} are
+ * honored, without any allocation or map insertion.
+ * <p>
+ * A recurring task is removed when it is canceled or when its
+ * {@link TaskStatus} is no longer {@link TaskStatus#RUNNING} after a run.
+ * {@link #pollTasks(long)} and {@link #reschedule(long)} are only called by the
+ * {@link TaskManager}'s main loop.
+ */
+public class PeriodicTaskTable {
+
+	private static final int INITIAL_CAPACITY = 16;
+
+	private final ConcurrentMap<FrameworkTask, Entry> entries = new ConcurrentHashMap<FrameworkTask, Entry>();
+	private Entry[] heap = new Entry[INITIAL_CAPACITY];
+	private int heapSize;
+	/*
+	 * Entries polled for the tick being executed, placed again in the heap by
+	 * reschedule.
+	 */
+	private final List<Entry> running = new ArrayList<Entry>();
+	private final List<FrameworkTask> due = new ArrayList<FrameworkTask>();
+
+	/**
+	 * Adds a recurring task whose first run is at specified tick. If the task
+	 * is already in the table only its next tick is updated.
+	 *
+	 * @param task
+	 *            the recurring task
+	 * @param tick
+	 *            the absolute tick of the first run
+	 */
+	public synchronized void add(FrameworkTask task, long tick) {
+		task.setScheduledTick(tick);
+		Entry e = entries.get(task);
+		if (e == null) {
+			e = new Entry(task);
+			entries.put(task, e);
+		} else if (e.index >= 0) {
+			removeAt(e.index);
+		}
+		e.removed = false;
+		if (!running.contains(e)) {
+			e.tick = tick;
+			offer(e);
+		}
+	}
+
+	/**
+	 * Removes specified task from the table.
+	 *
+	 * @param task
+	 *            the task to remove
+	 * @return true if the task was in the table
+	 */
+	public synchronized boolean remove(FrameworkTask task) {
+		Entry e = entries.remove(task);
+		if (e == null) {
+			return false;
+		}
+		e.removed = true;
+		if (e.index >= 0) {
+			removeAt(e.index);
+		}
+		return true;
+	}
+
+	/**
+	 * @param task
+	 *            a task
+	 * @return true if the task is in the table
+	 */
+	public boolean contains(FrameworkTask task) {
+		return task != null && entries.containsKey(task);
+	}
+
+	/**
+	 * Removes the tasks due at or before specified tick. The returned list is
+	 * reused by the next call. The tasks are placed in the table again by
+	 * {@link #reschedule(long)}.
+	 *
+	 * @param tick
+	 *            the tick being executed
+	 * @return the tasks to run or null if there are none
+	 */
+	public synchronized List<FrameworkTask> pollTasks(long tick) {
+		due.clear();
+		while (heapSize > 0 && heap[0].tick <= tick) {
+			Entry e = heap[0];
+			removeAt(0);
+			running.add(e);
+			due.add(e.task);
+		}
+		return due.isEmpty() ? null : due;
+	}
+
+	/**
+	 * Places the tasks returned by the last {@link #pollTasks(long)} at their
+	 * next tick. Tasks that were removed or are no longer running are dropped.
+	 *
+	 * @param currentTick
+	 *            the executed tick
+	 */
+	public synchronized void reschedule(long currentTick) {
+		for (Entry e : running) {
+			if (e.removed) {
+				continue;
+			}
+			if (e.task.getTaskStatus() != TaskStatus.RUNNING) {
+				entries.remove(e.task, e);
+				continue;
+			}
+			e.tick = currentTick + Math.max(1L, e.task.getNextTicksPerRun());
+			e.task.setScheduledTick(e.tick);
+			offer(e);
+		}
+		running.clear();
+		due.clear();
+	}
+
+	/**
+	 * @return the tick of the next run of a recurring task or -1 if the table
+	 *         is empty
+	 */
+	public synchronized long getNextScheduledTick() {
+		return (heapSize == 0) ? -1L : heap[0].tick;
+	}
+
+	/**
+	 * @return the number of recurring tasks
+	 */
+	public int size() {
+		return entries.size();
+	}
+
+	/**
+	 * @return an unmodifiable collection of the recurring tasks
+	 */
+	public Collection<FrameworkTask> getTasks() {
+		return Collections.unmodifiableCollection(entries.keySet());
+	}
+
+	/**
+	 * Removes all tasks.
+	 */
+	public synchronized void clear() {
+		for (Entry e : entries.values()) {
+			e.removed = true;
+		}
+		entries.clear();
+		for (int i = 0; i < heapSize; i++) {
+			heap[i] = null;
+		}
+		heapSize = 0;
+		running.clear();
+		due.clear();
+	}
+
+	private void offer(Entry e) {
+		if (heapSize == heap.length) {
+			Entry[] a = new Entry[heap.length << 1];
+			System.arraycopy(heap, 0, a, 0, heapSize);
+			heap = a;
+		}
+		e.index = heapSize++;
+		heap[e.index] = e;
+		siftUp(e.index);
+	}
+
+	private void removeAt(int i) {
+		Entry e = heap[i];
+		e.index = -1;
+		heapSize--;
+		if (i == heapSize) {
+			heap[i] = null;
+			return;
+		}
+		Entry last = heap[heapSize];
+		heap[heapSize] = null;
+		heap[i] = last;
+		last.index = i;
+		siftDown(i);
+		if (heap[i] == last) {
+			siftUp(i);
+		}
+	}
+
+	private void siftUp(int i) {
+		Entry e = heap[i];
+		while (i > 0) {
+			int parent = (i - 1) >>> 1;
+			Entry p = heap[parent];
+			if (p.tick <= e.tick) {
+				break;
+			}
+			heap[i] = p;
+			p.index = i;
+			i = parent;
+		}
+		heap[i] = e;
+		e.index = i;
+	}
+
+	private void siftDown(int i) {
+		Entry e = heap[i];
+		int half = heapSize >>> 1;
+		while (i < half) {
+			int child = (i << 1) + 1;
+			int right = child + 1;
+			if (right < heapSize && heap[right].tick < heap[child].tick) {
+				child = right;
+			}
+			if (e.tick <= heap[child].tick) {
+				break;
+			}
+			heap[i] = heap[child];
+			heap[i].index = i;
+			i = child;
+		}
+		heap[i] = e;
+		e.index = i;
+	}
+
+	/*
+	 * A recurring task, its next tick and its position in the heap (-1 if not
+	 * in the heap).
+	 */
+	private static class Entry {
+		private final FrameworkTask task;
+		private long tick;
+		private int index = -1;
+		private boolean removed;
+
+		public Entry(FrameworkTask task) {
+			this.task = task;
+		}
+	}
+}
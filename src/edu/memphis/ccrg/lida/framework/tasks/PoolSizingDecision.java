@@ -0,0 +1,107 @@
+/*******************************************************************************
+ * Copyright (c) 2009, 2011 The University of Memphis.  All rights reserved. 
+ * This program and the accompanying materials are made available 
+ * under the terms of the LIDA Software Framework Non-Commercial License v1.0 
+ * which accompanies this distribution, and is available at
+ * http://ccrg.cs.memphis.edu/assets/papers/2010/LIDA-framework-non-commercial-v1.0.pdf
+ *******************************************************************************/
+package edu.memphis.ccrg.lida.framework.tasks;
+
+/**
+ * A resize of the thread pool made by an {@link AdaptivePoolSizer} and the
+ * measurements it was based on, averaged over the sampled ticks.
+ */
+public class PoolSizingDecision {
+
+	private final long tick;
+	private final int oldSize;
+	private final int newSize;
+	private final double tasksPerTick;
+	private final double queueWait;
+	private final double utilization;
+	private final String reason;
+
+	/**
+	 * @param tick
+	 *            tick of the decision
+	 * @param oldSize
+	 *            pool size before the decision
+	 * @param newSize
+	 *            pool size after the decision
+	 * @param tasksPerTick
+	 *            mean number of tasks per tick
+	 * @param queueWait
+	 *            mean time in nanoseconds a task waited for a thread
+	 * @param utilization
+	 *            fraction of the pool's thread time spent on cpu
+	 * @param reason
+	 *            why the size changed
+	 */
+	public PoolSizingDecision(long tick, int oldSize, int newSize,
+			double tasksPerTick, double queueWait, double utilization,
+			String reason) {
+		this.tick = tick;
+		this.oldSize = oldSize;
+		this.newSize = newSize;
+		this.tasksPerTick = tasksPerTick;
+		this.queueWait = queueWait;
+		this.utilization = utilization;
+		this.reason = reason;
+	}
+
+	/**
+	 * @return tick of the decision
+	 */
+	public long getTick() {
+		return tick;
+	}
+
+	/**
+	 * @return pool size before the decision
+	 */
+	public int getOldSize() {
+		return oldSize;
+	}
+
+	/**
+	 * @return pool size after the decision
+	 */
+	public int getNewSize() {
+		return newSize;
+	}
+
+	/**
+	 * @return mean number of tasks per tick
+	 */
+	public double getTasksPerTick() {
+		return tasksPerTick;
+	}
+
+	/**
+	 * @return mean time in nanoseconds a task waited for a thread
+	 */
+	public double getQueueWait() {
+		return queueWait;
+	}
+
+	/**
+	 * @return fraction of the pool's thread time spent on cpu, -1 if unknown
+	 */
+	public double getUtilization() {
+		return utilization;
+	}
+
+	/**
+	 * @return why the size changed
+	 */
+	public String getReason() {
+		return reason;
+	}
+
+	@Override
+	public String toString() {
+		return "Tick " + tick + ": " + oldSize + " -> " + newSize + " ("
+				+ reason + ") tasks " + tasksPerTick + ", wait "
+				+ (long) queueWait + "ns, utilization " + utilization;
+	}
+}
@@ -3,6 +3,8 @@ package edu.memphis.ccrg.lida.framework.tasks;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
+import edu.memphis.ccrg.lida.framework.RandomSource;
+
 /**
  * A {@link TaskSpawner} which randomizes the execution of tasks. For each
  * execution, a task's nextTicksPerRun is randomized using a uniform
@@ -64,7 +66,7 @@ public class RandomizingTaskSpawner extends TaskSpawnerImpl {
 	 * @return new non-zero ticksPerRun value
 	 */
 	public long randomizeTicksPerRun(long ticksPerRun) {
-		long delta = Math.round((Math.random() - 0.5) * 2.0 * variation
+		long delta = Math.round((RandomSource.getCurrent().nextDouble() - 0.5) * 2.0 * variation
 				* ticksPerRun);
 		long newTicks = ticksPerRun + delta;
 		return (newTicks > 0) ? newTicks : 1;
@@ -84,6 +86,22 @@ public class RandomizingTaskSpawner extends TaskSpawnerImpl {
 		super.addTask(task);
 	}
 
+	/**
+	 * First randomizes task's ticksPerRun and then adds it as a recurring
+	 * task. Later periods are randomized by
+	 * {@link #receiveFinishedTask(FrameworkTask)}.
+	 * 
+	 * @param task
+	 *            the task to add.
+	 */
+	@Override
+	public void addRecurringTask(FrameworkTask task) {
+		task
+				.setNextTicksPerRun(randomizeTicksPerRun(task
+						.getNextTicksPerRun()));
+		super.addRecurringTask(task);
+	}
+
 	/**
 	 * First randomizes task's ticksPerRun and then adds and runs it then calls
 	 * {@link TaskSpawnerImpl#receiveFinishedTask(FrameworkTask)}.
@@ -0,0 +1,24 @@
+/*******************************************************************************
+ * Copyright (c) 2009, 2011 The University of Memphis.  All rights reserved. 
+ * This program and the accompanying materials are made available 
+ * under the terms of the LIDA Software Framework Non-Commercial License v1.0 
+ * which accompanies this distribution, and is available at
+ * http://ccrg.cs.memphis.edu/assets/papers/2010/LIDA-framework-non-commercial-v1.0.pdf
+ *******************************************************************************/
+package edu.memphis.ccrg.lida.framework.tasks;
+
+/**
+ * A {@link FrameworkTask} that can be returned to a {@link TaskPool} once it
+ * is {@link TaskStatus#CANCELED}. The {@link TaskManager} recycles these tasks
+ * at the end of the tick in which they finished, once every task of the tick
+ * has returned.
+ */
+public interface RecyclableTask extends FrameworkTask {
+
+	/**
+	 * Clears the state of this task and returns it to its {@link TaskPool}.
+	 * Does nothing if the task was not obtained from a pool or it was already
+	 * recycled.
+	 */
+	public void recycle();
+}
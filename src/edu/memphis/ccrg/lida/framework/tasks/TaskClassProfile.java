@@ -0,0 +1,154 @@
+/*******************************************************************************
+ * Copyright (c) 2009, 2011 The University of Memphis.  All rights reserved. 
+ * This program and the accompanying materials are made available 
+ * under the terms of the LIDA Software Framework Non-Commercial License v1.0 
+ * which accompanies this distribution, and is available at
+ * http://ccrg.cs.memphis.edu/assets/papers/2010/LIDA-framework-non-commercial-v1.0.pdf
+ *******************************************************************************/
+package edu.memphis.ccrg.lida.framework.tasks;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Execution statistics of all the tasks of one class, collected by a
+ * {@link TaskProfiler}. Times are in nanoseconds. The histograms have one
+ * bucket per power of two: bucket i counts the runs that took from 2^i to
+ * 2^(i+1)-1 nanoseconds, bucket 0 also counts the runs that took 0.
+ */
+public class TaskClassProfile {
+
+	/**
+	 * Number of buckets of the time histograms
+	 */
+	public static final int BUCKETS = 64;
+
+	private final String taskClassName;
+	private final AtomicLong invocations = new AtomicLong();
+	private final AtomicLong wallTime = new AtomicLong();
+	private final AtomicLong cpuTime = new AtomicLong();
+	private final AtomicLong cpuSamples = new AtomicLong();
+	private final AtomicLongArray wallHistogram = new AtomicLongArray(BUCKETS);
+	private final AtomicLongArray cpuHistogram = new AtomicLongArray(BUCKETS);
+
+	/**
+	 * @param taskClassName
+	 *            name of the profiled task class
+	 */
+	public TaskClassProfile(String taskClassName) {
+		this.taskClassName = taskClassName;
+	}
+
+	/**
+	 * Records one run.
+	 * 
+	 * @param wall
+	 *            wall time of the run
+	 * @param cpu
+	 *            cpu time of the run or -1 if unknown
+	 */
+	void record(long wall, long cpu) {
+		invocations.incrementAndGet();
+		wallTime.addAndGet(wall);
+		wallHistogram.incrementAndGet(getBucket(wall));
+		if (cpu >= 0) {
+			cpuSamples.incrementAndGet();
+			cpuTime.addAndGet(cpu);
+			cpuHistogram.incrementAndGet(getBucket(cpu));
+		}
+	}
+
+	/**
+	 * @param nanos
+	 *            a time in nanoseconds
+	 * @return the histogram bucket of specified time
+	 */
+	public static int getBucket(long nanos) {
+		return (nanos <= 1) ? 0 : 63 - Long.numberOfLeadingZeros(nanos);
+	}
+
+	/**
+	 * @return name of the profiled task class
+	 */
+	public String getTaskClassName() {
+		return taskClassName;
+	}
+
+	/**
+	 * @return number of runs
+	 */
+	public long getInvocationCount() {
+		return invocations.get();
+	}
+
+	/**
+	 * @return total wall time of the runs
+	 */
+	public long getTotalWallTime() {
+		return wallTime.get();
+	}
+
+	/**
+	 * @return total cpu time of the runs whose cpu time is known
+	 */
+	public long getTotalCpuTime() {
+		return cpuTime.get();
+	}
+
+	/**
+	 * @return number of runs whose cpu time is known
+	 */
+	public long getCpuSampleCount() {
+		return cpuSamples.get();
+	}
+
+	/**
+	 * @return mean wall time of a run, 0 if there are no runs
+	 */
+	public double getMeanWallTime() {
+		long n = invocations.get();
+		return (n == 0) ? 0.0 : (double) wallTime.get() / n;
+	}
+
+	/**
+	 * @return a copy of the wall time histogram
+	 */
+	public long[] getWallTimeHistogram() {
+		return toArray(wallHistogram);
+	}
+
+	/**
+	 * @return a copy of the cpu time histogram
+	 */
+	public long[] getCpuTimeHistogram() {
+		return toArray(cpuHistogram);
+	}
+
+	/**
+	 * Sets all the statistics to 0.
+	 */
+	void reset() {
+		invocations.set(0L);
+		wallTime.set(0L);
+		cpuTime.set(0L);
+		cpuSamples.set(0L);
+		for (int i = 0; i < BUCKETS; i++) {
+			wallHistogram.set(i, 0L);
+			cpuHistogram.set(i, 0L);
+		}
+	}
+
+	private static long[] toArray(AtomicLongArray a) {
+		long[] result = new long[a.length()];
+		for (int i = 0; i < result.length; i++) {
+			result[i] = a.get(i);
+		}
+		return result;
+	}
+
+	@Override
+	public String toString() {
+		return taskClassName + ": " + invocations.get() + " runs, wall "
+				+ wallTime.get() + "ns, cpu " + cpuTime.get() + "ns";
+	}
+}
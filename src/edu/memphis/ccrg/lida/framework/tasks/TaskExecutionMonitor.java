@@ -0,0 +1,73 @@
+/*******************************************************************************
+ * Copyright (c) 2009, 2011 The University of Memphis.  All rights reserved. 
+ * This program and the accompanying materials are made available 
+ * under the terms of the LIDA Software Framework Non-Commercial License v1.0 
+ * which accompanies this distribution, and is available at
+ * http://ccrg.cs.memphis.edu/assets/papers/2010/LIDA-framework-non-commercial-v1.0.pdf
+ *******************************************************************************/
+package edu.memphis.ccrg.lida.framework.tasks;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Wraps the tasks of one tick to count how many run at the same time and how
+ * long they take. Used by the {@link TaskManager} to produce
+ * {@link TickExecutionStats}.
+ */
+class TaskExecutionMonitor {
+
+	private final AtomicInteger inFlight = new AtomicInteger();
+	private final AtomicInteger peakInFlight = new AtomicInteger();
+	private final AtomicLong wallTime = new AtomicLong();
+
+	/**
+	 * @param tasks
+	 *            the tasks of the tick
+	 * @return the tasks wrapped so that their execution is monitored
+	 */
+	List<Callable<FrameworkTask>> wrap(Collection<FrameworkTask> tasks) {
+		List<Callable<FrameworkTask>> wrapped = new ArrayList<Callable<FrameworkTask>>(
+				tasks.size());
+		for (final FrameworkTask task : tasks) {
+			wrapped.add(new Callable<FrameworkTask>() {
+				@Override
+				public FrameworkTask call() throws Exception {
+					return monitor(task);
+				}
+			});
+		}
+		return wrapped;
+	}
+
+	private FrameworkTask monitor(FrameworkTask task) throws Exception {
+		int running = inFlight.incrementAndGet();
+		int peak = peakInFlight.get();
+		while (running > peak && !peakInFlight.compareAndSet(peak, running)) {
+			peak = peakInFlight.get();
+		}
+		long start = System.nanoTime();
+		try {
+			return task.call();
+		} finally {
+			wallTime.addAndGet(System.nanoTime() - start);
+			inFlight.decrementAndGet();
+		}
+	}
+
+	/**
+	 * @param tick
+	 *            the tick the tasks ran in
+	 * @param taskCount
+	 *            number of tasks run
+	 * @return the statistics of the monitored tasks
+	 */
+	TickExecutionStats getStats(long tick, int taskCount) {
+		return new TickExecutionStats(tick, taskCount, peakInFlight.get(),
+				wallTime.get());
+	}
+}
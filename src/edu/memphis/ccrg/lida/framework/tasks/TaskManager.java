@@ -10,24 +10,37 @@ package edu.memphis.ccrg.lida.framework.tasks;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.TreeMap;
 import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
 import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RecursiveAction;
 import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
 import edu.memphis.ccrg.lida.framework.Agent;
+import edu.memphis.ccrg.lida.framework.AgentContext;
 import edu.memphis.ccrg.lida.framework.FrameworkModule;
+import edu.memphis.ccrg.lida.framework.ModuleDependencies;
 import edu.memphis.ccrg.lida.framework.ModuleName;
+import edu.memphis.ccrg.lida.framework.RandomSource;
 import edu.memphis.ccrg.lida.framework.gui.events.FrameworkGuiEvent;
 import edu.memphis.ccrg.lida.framework.gui.events.FrameworkGuiEventListener;
+import edu.memphis.ccrg.lida.framework.gui.events.GuiEventDispatcher;
 import edu.memphis.ccrg.lida.framework.gui.events.GuiEventProvider;
 
 /**
@@ -35,9 +48,18 @@ import edu.memphis.ccrg.lida.framework.gui.events.GuiEventProvider;
  * the decay of all the {@link FrameworkModule}s in {@link Agent}. Keeps track
  * of the current tick, the unit of time in the application. Maintains a task
  * queue where each position represents the time (in ticks) when a task will be
- * executed. Multiple tasks can be scheduled for the same tick. Uses an
+ * executed. Multiple tasks can be scheduled for the same tick. The queue is
+ * ordered so that ticks without scheduled tasks are skipped. The queue is
+ * implemented by a {@link TaskScheduler}. Uses an
  * {@link ExecutorService} to obtain the threads to run all the tasks scheduled
- * in one tick concurrently.
+ * in one tick concurrently. The kind of ExecutorService is given by an
+ * {@link ExecutorType}. Recurring tasks are kept apart in a
+ * {@link PeriodicTaskTable} and are not rescheduled in the queue after every
+ * run.
+ * <p>
+ * A TaskManager belongs to the {@link AgentContext} in which it is created and
+ * binds it to the threads running its tasks. Several TaskManagers may share an
+ * ExecutorService.
  * 
  * @author Javier Snaider
  * @author Ryan J. McCall
@@ -55,6 +77,16 @@ public class TaskManager implements GuiEventProvider {
 	 * Default number of threads in the {@link ExecutorService}
 	 */
 	public static final int DEFAULT_NUMBER_OF_THREADS = 50;
+	/**
+	 * Default number of ticks executed per iteration of the main loop
+	 */
+	public static final int DEFAULT_TICKS_PER_BATCH = 1;
+	/**
+	 * Default number of consecutive ticks a codelet can be shed before it is
+	 * run regardless of the tick budget
+	 */
+	public static final int DEFAULT_MAX_SHED_TICKS = 3;
+	private static final long NANOS_PER_MILLI = 1000000L;
 	/*
 	 * Determines whether or not spawned tasks should run
 	 */
@@ -64,26 +96,119 @@ public class TaskManager implements GuiEventProvider {
 	 */
 	private volatile boolean shuttingDown = false;
 	private volatile long endOfNextInterval = 0L;
-	private volatile static long currentTick;
-	private volatile Long maxTick = 0L;
+	private volatile long currentTick;
+	private final AtomicLong maxTick = new AtomicLong();
 	/*
 	 * Represents whether the TaskManager is in step mode or not. 
 	 */
 	private volatile boolean inIntervalMode = false;
 	private final Object lock = new Object();
 
-	private ConcurrentMap<Long, Set<FrameworkTask>> taskQueue;
+	private final TaskScheduler taskScheduler;
+	private final PeriodicTaskTable periodicTasks = new PeriodicTaskTable();
 	/*
-	 * Length of time of 1 tick in milliseconds. The actual time thats the tick
+	 * Parked tasks and whether they were recurring tasks
+	 */
+	private final ConcurrentMap<FrameworkTask, Boolean> parkedTasks = new ConcurrentHashMap<FrameworkTask, Boolean>();
+	/*
+	 * Length of time of 1 tick in nanoseconds. The actual time thats the tick
 	 * unit represents. In practice tickDuration affects the speed of tasks in
 	 * the simulation.
 	 */
-	private int tickDuration = DEFAULT_TICK_DURATION;
+	private volatile long tickDuration = DEFAULT_TICK_DURATION * NANOS_PER_MILLI;
+	private final TickPacer pacer = new TickPacer();
+	/*
+	 * Number of ticks executed back to back, without pacing, in each iteration
+	 * of the main loop. Values greater than 1 put the TaskManager in
+	 * fast-forward mode.
+	 */
+	private volatile int ticksPerBatch = DEFAULT_TICKS_PER_BATCH;
+	/*
+	 * Max real time of a tick in milliseconds before codelets are shed, 0 if
+	 * there is no budget.
+	 */
+	private volatile int tickBudget;
+	private volatile int lastTickShedCount;
+	private final AtomicLong totalShedCount = new AtomicLong();
+	private volatile int maxShedTicks = DEFAULT_MAX_SHED_TICKS;
+	/*
+	 * Number of consecutive ticks each codelet shed in the last budgeted tick
+	 * has been deferred. Only used by the thread executing the ticks.
+	 */
+	private Map<FrameworkTask, Integer> shedStreaks = new HashMap<FrameworkTask, Integer>();
+	/*
+	 * Collects the execution statistics of the tasks, null if not profiling
+	 */
+	private volatile TaskProfiler profiler;
+	/*
+	 * Resizes the owned thread pool according to the tick load, null if the
+	 * size is fixed
+	 */
+	private volatile AdaptivePoolSizer poolSizer;
+	/*
+	 * Lanes in which the tasks of some TaskSpawners run serially
+	 */
+	private final ExecutionLanes executionLanes = new ExecutionLanes();
+	/*
+	 * Whether the decays and tasks of a tick run as a dependency graph
+	 */
+	private volatile boolean taskGraphEnabled;
+	/*
+	 * Whether the tasks of a tick run in a stable order, each with a random
+	 * source derived from the agent's seed
+	 */
+	private volatile boolean deterministic;
+	/*
+	 * Task run by the current thread in deterministic mode, whose key the
+	 * order keys of the tasks it schedules derive from
+	 */
+	private static final ThreadLocal<AbstractFrameworkTask> schedulingTask = new ThreadLocal<AbstractFrameworkTask>();
+	/*
+	 * Sequence number of the next task scheduled outside of a task in
+	 * deterministic mode
+	 */
+	private final AtomicLong orderSequence = new AtomicLong();
+	/*
+	 * Orders tasks by their order key, then by id
+	 */
+	private static final Comparator<FrameworkTask> orderComparator = new Comparator<FrameworkTask>() {
+		@Override
+		public int compare(FrameworkTask t1, FrameworkTask t2) {
+			long k1 = getOrderKey(t1);
+			long k2 = getOrderKey(t2);
+			if (k1 != k2) {
+				return (k1 < k2) ? -1 : 1;
+			}
+			long id1 = t1.getTaskId();
+			long id2 = t2.getTaskId();
+			return (id1 < id2) ? -1 : ((id1 == id2) ? 0 : 1);
+		}
+	};
+	/*
+	 * Orders tasks by decreasing total activation
+	 */
+	private static final Comparator<FrameworkTask> activationComparator = new Comparator<FrameworkTask>() {
+		@Override
+		public int compare(FrameworkTask t1, FrameworkTask t2) {
+			return Double.compare(t2.getTotalActivation(), t1
+					.getTotalActivation());
+		}
+	};
 
 	/*
 	 * Service used to execute the tasks
 	 */
 	private ExecutorService executorService;
+	private final ExecutorType executorType;
+	/*
+	 * Whether the ExecutorService is created by this TaskManager or shared
+	 */
+	private final boolean ownsExecutor;
+	private final AgentContext context;
+	/*
+	 * Statistics of the last tick, recorded in VIRTUAL_THREAD mode
+	 */
+	private volatile TickExecutionStats lastTickStats;
 
 	/*
 	 * Main thread of the system.
@@ -94,18 +219,18 @@ public class TaskManager implements GuiEventProvider {
 	 * List of the FrameworkModules managed by this class
 	 */
 	private List<DecayableWrapper> decayables = new ArrayList<DecayableWrapper>();
+	private volatile long ticksToDecay;
+	private volatile long lastDecayTick;
 
 	private volatile long lastGuiEventTick;
 	private volatile int guiEventsInterval = 0;
-	private List<FrameworkGuiEventListener> guiListeners = new ArrayList<FrameworkGuiEventListener>();
-	private FrameworkGuiEvent defaultGuiEvent = new FrameworkGuiEvent(
-			ModuleName.Agent, "TicksEvent", null);
+	private final GuiEventDispatcher guiDispatcher;
 	/**
 	 * Default tick at which the TaskManager will shut itself down. Default value 
 	 * implies TaskManager will never shut itself down.
 	 */
 	public static final int DEFAULT_SHUTDOWN_TICK = -1;
-	private static int shutdownTick = DEFAULT_SHUTDOWN_TICK;
+	private final int shutdownTick;
 	/*
 	 * Flag on whether System.exit(0) is called when shutdown tick is reached. 
 	 */
@@ -126,47 +251,142 @@ public class TaskManager implements GuiEventProvider {
 	 * @param canonicalName an optional canonical name of a Class whose default constructor will be invoked right before the TaskManager will shutdown. 
 	 */
 	public TaskManager(int tickDuration, int maxPoolSize, int shutdownTick, String canonicalName) {
-		currentTick = 0L; 		//Static variables reinitialized here
-		DecayableWrapper.ticksToDecay = 0L;
-		DecayableWrapper.lastDecayTick = 0L;
-		int corePoolSize = DEFAULT_NUMBER_OF_THREADS;
-		long keepAliveTime = 10;
+		this(tickDuration, maxPoolSize, shutdownTick, canonicalName,
+				new MapTaskScheduler());
+	}
+
+	/**
+	 * Constructs a new TaskManager using specified {@link TaskScheduler}.
+	 * 
+	 * @param tickDuration
+	 *            - length of time of 1 tick in milliseconds
+	 * @param maxPoolSize
+	 *            - max number of threads used by the ExecutorService
+	 * @param shutdownTick the tick at which the TaskManager will automatically shut the application down.
+	 * @param canonicalName an optional canonical name of a Class whose default constructor will be invoked right before the TaskManager will shutdown. 
+	 * @param scheduler the {@link TaskScheduler} holding the scheduled tasks
+	 */
+	public TaskManager(int tickDuration, int maxPoolSize, int shutdownTick,
+			String canonicalName, TaskScheduler scheduler) {
+		this(tickDuration, maxPoolSize, shutdownTick, canonicalName, scheduler,
+				ExecutorType.THREAD_POOL);
+	}
+
+	/**
+	 * Constructs a new TaskManager using specified {@link TaskScheduler} and
+	 * {@link ExecutorType}.
+	 * 
+	 * @param tickDuration
+	 *            - length of time of 1 tick in milliseconds
+	 * @param maxPoolSize
+	 *            - max number of threads used by the ExecutorService
+	 * @param shutdownTick the tick at which the TaskManager will automatically shut the application down.
+	 * @param canonicalName an optional canonical name of a Class whose default constructor will be invoked right before the TaskManager will shutdown. 
+	 * @param scheduler the {@link TaskScheduler} holding the scheduled tasks
+	 * @param executorType the kind of ExecutorService running the tasks
+	 */
+	public TaskManager(int tickDuration, int maxPoolSize, int shutdownTick,
+			String canonicalName, TaskScheduler scheduler,
+			ExecutorType executorType) {
+		this(tickDuration, shutdownTick, canonicalName, scheduler,
+				executorType, newExecutor(executorType, maxPoolSize), true);
+	}
+
+	/**
+	 * Constructs a new TaskManager running its tasks in specified
+	 * ExecutorService, which may be shared with the TaskManagers of other
+	 * agents. The ExecutorService is not shut down by {@link #stopRunning()}.
+	 * 
+	 * @param tickDuration
+	 *            - length of time of 1 tick in milliseconds
+	 * @param shutdownTick the tick at which the TaskManager will automatically shut the application down.
+	 * @param canonicalName an optional canonical name of a Class whose default constructor will be invoked right before the TaskManager will shutdown. 
+	 * @param scheduler the {@link TaskScheduler} holding the scheduled tasks
+	 * @param executor the ExecutorService running the tasks
+	 * @see AgentContext#getExecutorService()
+	 */
+	public TaskManager(int tickDuration, int shutdownTick,
+			String canonicalName, TaskScheduler scheduler,
+			ExecutorService executor) {
+		this(tickDuration, shutdownTick, canonicalName, scheduler,
+				(executor instanceof ForkJoinPool) ? ExecutorType.FORK_JOIN
+						: ExecutorType.THREAD_POOL, executor, false);
+	}
+
+	private TaskManager(int tickDuration, int shutdownTick,
+			String canonicalName, TaskScheduler scheduler,
+			ExecutorType executorType, ExecutorService executor,
+			boolean ownsExecutor) {
+		context = AgentContext.getCurrent();
+		context.setTaskManager(this);
+		guiDispatcher = new GuiEventDispatcher("TaskManagerGuiEvents",
+				context, GuiEventDispatcher.DEFAULT_CAPACITY);
 		if (tickDuration >= 0) {
-			this.tickDuration = tickDuration;
+			this.tickDuration = tickDuration * NANOS_PER_MILLI;
 		} else {
 			logger.log(Level.WARNING, "Tick duration must be 0 or greater",
 					currentTick);
 		}
-		if (corePoolSize > maxPoolSize) {
-			corePoolSize = maxPoolSize;
-		}
-		taskQueue = new ConcurrentHashMap<Long, Set<FrameworkTask>>();
-		executorService = new ThreadPoolExecutor(corePoolSize, maxPoolSize,
-				keepAliveTime, TimeUnit.SECONDS,
-				new LinkedBlockingQueue<Runnable>());
+		taskScheduler = scheduler;
+		this.executorType = executorType;
+		executorService = executor;
+		this.ownsExecutor = ownsExecutor;
 
-		TaskManager.shutdownTick = shutdownTick;
+		this.shutdownTick = shutdownTick;
 		postExecutationClassCanoncialName=canonicalName;
 		taskManagerThread = new Thread(new TaskManagerMainLoop());
 		taskManagerThread.start();
 	}
 
+	/*
+	 * Creates the ExecutorService of specified type.
+	 */
+	private static ExecutorService newExecutor(ExecutorType executorType,
+			int maxPoolSize) {
+		int corePoolSize = DEFAULT_NUMBER_OF_THREADS;
+		long keepAliveTime = 10;
+		if (corePoolSize > maxPoolSize) {
+			corePoolSize = maxPoolSize;
+		}
+		switch (executorType) {
+		case FORK_JOIN:
+			return new ForkJoinPool(maxPoolSize);
+		case VIRTUAL_THREAD:
+			return newThreadPerTaskExecutor();
+		default:
+			return new ThreadPoolExecutor(corePoolSize, maxPoolSize,
+					keepAliveTime, TimeUnit.SECONDS,
+					new LinkedBlockingQueue<Runnable>());
+		}
+	}
+
 	/**
 	 * Current tick in the system. Tasks scheduled for this tick have been
-	 * executed or they are being executed.
+	 * executed or they are being executed. Returns the tick of the TaskManager
+	 * of the current {@link AgentContext}.
 	 * 
 	 * @return current tick
 	 */
 	public static long getCurrentTick() {
-		return currentTick;
+		TaskManager tm = AgentContext.getCurrent().getTaskManager();
+		return (tm == null) ? 0L : tm.currentTick;
 	}
 	
 	/**
-	 * Gets the tick when the TaskManager will shut itself down.
+	 * Gets the tick when the TaskManager of the current {@link AgentContext}
+	 * will shut itself down.
 	 * @return the shutdown time tick
 	 */
 	public static int getShutdownTick(){
-		return shutdownTick; 
+		TaskManager tm = AgentContext.getCurrent().getTaskManager();
+		return (tm == null) ? DEFAULT_SHUTDOWN_TICK : tm.shutdownTick; 
+	}
+
+	/**
+	 * @return the {@link AgentContext} this TaskManager belongs to
+	 */
+	public AgentContext getAgentContext() {
+		return context;
 	}
 
 	/**
@@ -177,7 +397,7 @@ public class TaskManager implements GuiEventProvider {
 	 *         scheduled task(s).
 	 */
 	public long getMaxTick() {
-		return maxTick;
+		return maxTick.get();
 	}
 
 	/**
@@ -201,7 +421,7 @@ public class TaskManager implements GuiEventProvider {
 	 */
 	public synchronized void setTickDuration(int d) {
 		if (d >= 0) {
-			tickDuration = d;
+			tickDuration = d * NANOS_PER_MILLI;
 		} else {
 			logger.log(Level.WARNING, "Tick duration must be 0 or greater",
 					currentTick);
@@ -209,12 +429,359 @@ public class TaskManager implements GuiEventProvider {
 	}
 
 	/**
-	 * @return tickDuration
+	 * @return tickDuration in milliseconds, rounded down
 	 */
 	public int getTickDuration() {
+		return (int) (tickDuration / NANOS_PER_MILLI);
+	}
+
+	/**
+	 * Sets tickDuration with nanosecond precision, e.g. 500000 for 2000 ticks
+	 * per second.
+	 * 
+	 * @param d
+	 *            the new tick duration in nanoseconds, 0 for no pacing
+	 * @see #setCatchUpPolicy(CatchUpPolicy)
+	 */
+	public void setTickDurationNanos(long d) {
+		if (d >= 0) {
+			tickDuration = d;
+		} else {
+			logger.log(Level.WARNING, "Tick duration must be 0 or greater",
+					currentTick);
+		}
+	}
+
+	/**
+	 * @return tickDuration in nanoseconds
+	 */
+	public long getTickDurationNanos() {
 		return tickDuration;
 	}
 
+	/**
+	 * Sets what the main loop does when a tick finishes after the next tick
+	 * was due. Default is {@link CatchUpPolicy#SKIP}.
+	 * 
+	 * @param p
+	 *            the {@link CatchUpPolicy}
+	 */
+	public void setCatchUpPolicy(CatchUpPolicy p) {
+		if (p != null) {
+			pacer.setCatchUpPolicy(p);
+		} else {
+			logger.log(Level.WARNING, "Catch-up policy cannot be null",
+					currentTick);
+		}
+	}
+
+	/**
+	 * @return the {@link CatchUpPolicy} of late ticks
+	 */
+	public CatchUpPolicy getCatchUpPolicy() {
+		return pacer.getCatchUpPolicy();
+	}
+
+	/**
+	 * Returns the statistics of how far from their scheduled real time the
+	 * ticks started, since the TaskManager started or
+	 * {@link #resetTickJitterStats()} was called. Ticks run in fast-forward
+	 * mode or with a tickDuration of 0 are not paced and not counted.
+	 * 
+	 * @return the tick jitter statistics
+	 */
+	public TickJitterStats getTickJitterStats() {
+		return pacer.getStats();
+	}
+
+	/**
+	 * Sets the tick jitter statistics to 0.
+	 */
+	public void resetTickJitterStats() {
+		pacer.resetStats();
+	}
+
+	/**
+	 * Sets the number of ticks executed in each iteration of the main loop. If
+	 * greater than 1 the TaskManager runs in fast-forward mode: the ticks of a
+	 * batch are executed back to back ignoring tickDuration, and at most one
+	 * gui event is sent per batch. A batch still stops at the shutdown tick and
+	 * at the end of the current interval.
+	 * 
+	 * @param ticks
+	 *            number of ticks per batch, 1 for normal execution
+	 */
+	public void setTicksPerBatch(int ticks) {
+		if (ticks > 0) {
+			ticksPerBatch = ticks;
+		} else {
+			logger.log(Level.WARNING, "Ticks per batch must be 1 or greater",
+					currentTick);
+		}
+	}
+
+	/**
+	 * @return the number of ticks executed in each iteration of the main loop
+	 */
+	public int getTicksPerBatch() {
+		return ticksPerBatch;
+	}
+
+	/**
+	 * Sets the tick budget. With a budget the {@link Codelet}s of a tick run
+	 * after the other tasks, in decreasing order of total activation, in waves
+	 * as large as the executor's parallelism. Once the budget is used up the
+	 * remaining codelets are shed: they are deferred to the next tick without
+	 * running. A codelet shed for {@link #getMaxShedTicks()} consecutive ticks
+	 * runs with the other tasks in the next tick, so it does not starve under
+	 * a sustained overload.
+	 * 
+	 * @param ms
+	 *            max real time of a tick in milliseconds, 0 for no budget
+	 * @see #getLastTickShedCount()
+	 * @see #setMaxShedTicks(int)
+	 */
+	public void setTickBudget(int ms) {
+		if (ms >= 0) {
+			tickBudget = ms;
+		} else {
+			logger.log(Level.WARNING, "Tick budget must be 0 or greater",
+					currentTick);
+		}
+	}
+
+	/**
+	 * @return the tick budget in milliseconds, 0 if there is no budget
+	 */
+	public int getTickBudget() {
+		return tickBudget;
+	}
+
+	/**
+	 * Sets the number of consecutive ticks a codelet can be shed. Once shed
+	 * that many ticks in a row the codelet runs in the next tick regardless of
+	 * the tick budget.
+	 * 
+	 * @param ticks
+	 *            max consecutive ticks a codelet is shed, 1 or greater
+	 * @see #setTickBudget(int)
+	 */
+	public void setMaxShedTicks(int ticks) {
+		if (ticks > 0) {
+			maxShedTicks = ticks;
+		} else {
+			logger.log(Level.WARNING, "Max shed ticks must be 1 or greater",
+					currentTick);
+		}
+	}
+
+	/**
+	 * @return the number of consecutive ticks a codelet can be shed
+	 */
+	public int getMaxShedTicks() {
+		return maxShedTicks;
+	}
+
+	/**
+	 * Sets the {@link TaskProfiler} collecting the execution statistics of the
+	 * tasks of this TaskManager. The task runs of the following ticks are
+	 * wrapped in callables timing them; without a profiler the tasks are not
+	 * wrapped.
+	 * 
+	 * @param p
+	 *            the profiler, null to stop profiling
+	 */
+	public void setProfiler(TaskProfiler p) {
+		TaskProfiler old = profiler;
+		if (old != null && old != p) {
+			old.stopDumping();
+		}
+		profiler = p;
+	}
+
+	/**
+	 * @return the {@link TaskProfiler} of this TaskManager or null if it is
+	 *         not profiling
+	 */
+	public TaskProfiler getProfiler() {
+		return profiler;
+	}
+
+	/**
+	 * Sets the {@link AdaptivePoolSizer} resizing the thread pool of this
+	 * TaskManager according to the tick load. The pool is set to the sizer's
+	 * initial size. Only a {@link ThreadPoolExecutor} created by this
+	 * TaskManager can be resized; otherwise the sizer is ignored.
+	 * 
+	 * @param s
+	 *            the sizer, null to keep the current size
+	 * @return true if the sizer is used
+	 */
+	public boolean setAdaptivePoolSizer(AdaptivePoolSizer s) {
+		if (s == null) {
+			poolSizer = null;
+			return true;
+		}
+		if (!ownsExecutor || !(executorService instanceof ThreadPoolExecutor)) {
+			logger.log(Level.WARNING,
+					"Adaptive pool sizing requires an owned {1} pool, not {2}",
+					new Object[] { getCurrentTick(), ExecutorType.THREAD_POOL,
+							executorType });
+			return false;
+		}
+		AdaptivePoolSizer.resize((ThreadPoolExecutor) executorService, s
+				.getInitialSize());
+		poolSizer = s;
+		return true;
+	}
+
+	/**
+	 * @return the {@link AdaptivePoolSizer} of this TaskManager or null if the
+	 *         pool size is fixed
+	 */
+	public AdaptivePoolSizer getAdaptivePoolSizer() {
+		return poolSizer;
+	}
+
+	/**
+	 * Sets the number of execution lanes of the tasks of specified
+	 * {@link TaskSpawner}. Each task of the TaskSpawner is assigned to a lane
+	 * by the first module it declares written, or else read, see
+	 * {@link ModuleDependencies}, and by its id if it declares none. The tasks
+	 * of a lane run one after the other on one thread, so tasks touching the
+	 * same buffer do not contend for its monitors. Lanes
+	 * run in parallel with each other and with the other tasks, and a tick
+	 * still ends when all its tasks are done.
+	 * 
+	 * @param ts
+	 *            the {@link TaskSpawner}
+	 * @param lanes
+	 *            number of lanes, 0 to run its tasks freely
+	 */
+	public void setExecutionLanes(TaskSpawner ts, int lanes) {
+		if (ts != null) {
+			executionLanes.setLanes(ts, lanes);
+		}
+	}
+
+	/**
+	 * @param ts
+	 *            a {@link TaskSpawner}
+	 * @return number of execution lanes of its tasks, 0 if they run freely
+	 * @see #setExecutionLanes(TaskSpawner, int)
+	 */
+	public int getExecutionLanes(TaskSpawner ts) {
+		return executionLanes.getLanes(ts);
+	}
+
+	/**
+	 * Sets whether the decays and tasks of a tick run as a dependency graph
+	 * instead of all decays then all tasks. A task declaring its
+	 * {@link ModuleDependencies} only waits for the decay of the modules it
+	 * touches, so it runs while the other modules decay. Tasks without
+	 * declarations wait for all decays. Not used with a tick budget.
+	 * 
+	 * @param enabled
+	 *            true to run the ticks as dependency graphs
+	 * @see TickTaskGraph
+	 */
+	public void setTaskGraphEnabled(boolean enabled) {
+		taskGraphEnabled = enabled;
+	}
+
+	/**
+	 * @return true if the ticks run as dependency graphs
+	 */
+	public boolean isTaskGraphEnabled() {
+		return taskGraphEnabled;
+	}
+
+	/**
+	 * Enables the deterministic mode with specified seed. The
+	 * {@link RandomSource} of this TaskManager's {@link AgentContext} is
+	 * seeded. The tasks of a tick are submitted in a stable order and each
+	 * task run draws its random numbers from a source derived from the seed,
+	 * the task and the tick, and each module decay from one derived from the
+	 * seed, the module and the tick. The tasks still run in parallel; tasks
+	 * sharing a buffer should run in the same execution lane for their
+	 * interleaving to be reproducible, see
+	 * {@link #setExecutionLanes(TaskSpawner, int)}. Should be called before
+	 * the agent's modules are created and its tasks scheduled.
+	 * 
+	 * @param seed
+	 *            the seed
+	 */
+	public void setRandomSeed(long seed) {
+		context.setRandomSource(new RandomSource(seed));
+		orderSequence.set(0L);
+		deterministic = true;
+	}
+
+	/**
+	 * @return true if in deterministic mode
+	 * @see #setRandomSeed(long)
+	 */
+	public boolean isDeterministic() {
+		return deterministic;
+	}
+
+	/*
+	 * In deterministic mode, assigns the order key of a task scheduled for the
+	 * first time. It derives from the seed, the key of the task scheduling it
+	 * and the number of tasks that task scheduled before, or the number of
+	 * tasks scheduled outside of a task.
+	 */
+	private void assignOrderKey(FrameworkTask task) {
+		if (!deterministic || !(task instanceof AbstractFrameworkTask)) {
+			return;
+		}
+		AbstractFrameworkTask t = (AbstractFrameworkTask) task;
+		if (t.isOrderKeyAssigned()) {
+			return;
+		}
+		AbstractFrameworkTask parent = schedulingTask.get();
+		RandomSource source = context.getRandomSource();
+		if (parent == null) {
+			source = source.split(orderSequence.getAndIncrement());
+		} else {
+			source = source.split(parent.getOrderKey()).split(
+					parent.nextScheduledTaskNumber());
+		}
+		t.setOrderKey(source.getSeed());
+	}
+
+	/*
+	 * Key assigned when the task was first scheduled in deterministic mode
+	 */
+	private static long getOrderKey(FrameworkTask t) {
+		if (t instanceof AbstractFrameworkTask) {
+			return ((AbstractFrameworkTask) t).getOrderKey();
+		}
+		return t.getTaskId();
+	}
+
+	/**
+	 * @return the number of threads the executor runs tasks on
+	 */
+	public int getPoolSize() {
+		return getParallelism();
+	}
+
+	/**
+	 * @return the number of codelets shed in the last executed tick
+	 */
+	public int getLastTickShedCount() {
+		return lastTickShedCount;
+	}
+
+	/**
+	 * @return the number of times a codelet was shed since the TaskManager
+	 *         started, a codelet shed several ticks in a row counts once
+	 */
+	public long getTotalShedCount() {
+		return totalShedCount.get();
+	}
+
 	/**
 	 * Sets guiEventsInterval
 	 * 
@@ -263,10 +830,70 @@ public class TaskManager implements GuiEventProvider {
 	}
 
 	/**
-	 * @return UnmodifiableMap of the task queue
+	 * @return UnmodifiableMap of the task queue, including the next run of the
+	 *         recurring tasks
+	 */
+	public Map<Long, Set<FrameworkTask>> getTaskQueue() {
+		Map<Long, Set<FrameworkTask>> queue = taskScheduler.getScheduledTasks();
+		if (periodicTasks.size() == 0) {
+			return queue;
+		}
+		Map<Long, Set<FrameworkTask>> tasks = new TreeMap<Long, Set<FrameworkTask>>();
+		for (Map.Entry<Long, Set<FrameworkTask>> entry : queue.entrySet()) {
+			tasks.put(entry.getKey(), new HashSet<FrameworkTask>(entry
+					.getValue()));
+		}
+		for (FrameworkTask task : periodicTasks.getTasks()) {
+			Set<FrameworkTask> set = tasks.get(task.getScheduledTick());
+			if (set == null) {
+				set = new HashSet<FrameworkTask>();
+				tasks.put(task.getScheduledTick(), set);
+			}
+			set.add(task);
+		}
+		return Collections.unmodifiableMap(tasks);
+	}
+
+	/*
+	 * Creates an executor starting a new virtual thread for each task. Virtual
+	 * threads are obtained by reflection since they need Java 21. Falls back to
+	 * a cached pool of platform threads.
+	 */
+	private static ExecutorService newThreadPerTaskExecutor() {
+		try {
+			return (ExecutorService) Executors.class.getMethod(
+					"newVirtualThreadPerTaskExecutor").invoke(null);
+		} catch (Exception e) {
+			logger.log(Level.INFO,
+					"Virtual threads not available, using a thread per task instead",
+					getCurrentTick());
+			return Executors.newCachedThreadPool();
+		}
+	}
+
+	/**
+	 * Returns the execution statistics of the tasks run in the last tick. Only
+	 * recorded when the {@link ExecutorType} is
+	 * {@link ExecutorType#VIRTUAL_THREAD}.
+	 * 
+	 * @return the statistics of the last executed tick or null
+	 */
+	public TickExecutionStats getLastTickExecutionStats() {
+		return lastTickStats;
+	}
+
+	/**
+	 * @return the kind of ExecutorService running the tasks
 	 */
-	public Map<Long, Set<FrameworkTask>> getTaskQueue() {
-		return Collections.unmodifiableMap(taskQueue);
+	public ExecutorType getExecutorType() {
+		return executorType;
+	}
+
+	/**
+	 * @return the {@link TaskScheduler} holding the scheduled tasks
+	 */
+	public TaskScheduler getTaskScheduler() {
+		return taskScheduler;
 	}
 
 	/**
@@ -294,7 +921,7 @@ public class TaskManager implements GuiEventProvider {
 					.log(
 							Level.INFO,
 							"Resuming execution of all tasks. Current tick is {0}. Last scheduled task at tick {1}.",
-							new Object[] { currentTick, maxTick });
+							new Object[] { currentTick, maxTick.get() });
 
 			tasksPaused = false;
 
@@ -314,12 +941,19 @@ public class TaskManager implements GuiEventProvider {
 	 */
 	public boolean cancelTask(FrameworkTask task) {
 		if (task != null) {
+			if (periodicTasks.remove(task)) {
+				return true;
+			}
+			if (parkedTasks.remove(task) != null) {
+				ChangeSignal signal = ((AbstractFrameworkTask) task).getWakeupSignal();
+				if (signal != null) {
+					signal.cancel(task);
+				}
+				return true;
+			}
 			long time = task.getScheduledTick();
 			if (time > currentTick) {
-				Set<FrameworkTask> set = taskQueue.get(time);
-				if (set != null) {
-					return set.remove(task);
-				}
+				return taskScheduler.cancelTask(task);
 			}
 		} else {
 			logger.log(Level.WARNING, "Cannot cancel a null task", currentTick);
@@ -376,39 +1010,201 @@ public class TaskManager implements GuiEventProvider {
 							new Object[] { currentTick, task, inXTicks });
 			return false;
 		}
-		Long time = currentTick + inXTicks;
-		Set<FrameworkTask> set = taskQueue.get(time);
-		if (set == null) {
-			Set<FrameworkTask> set2 = Collections.newSetFromMap(new ConcurrentHashMap<FrameworkTask,Boolean>());
-			set = taskQueue.putIfAbsent(time, set2);
-			if (set == null) {// there wasn't a set already at key 'time'
-				set = set2;
-				synchronized (maxTick) {
-					if (time > maxTick) {
-						maxTick = time;
-						synchronized (lock) {
-							lock.notify();
-						}
-					}
+		assignOrderKey(task);
+		long time = taskScheduler.scheduleTask(task, currentTick + inXTicks);
+		updateMaxTick(time);
+		return true;
+	}
+
+	/**
+	 * Registers a recurring task. Its first run is in currentTick + inXTicks.
+	 * After each run the task is scheduled again in
+	 * {@link FrameworkTask#getNextTicksPerRun()} ticks without going through
+	 * {@link #scheduleTask(FrameworkTask, long)}, until it is canceled or its
+	 * {@link TaskStatus} is no longer {@link TaskStatus#RUNNING}.
+	 * 
+	 * @param task
+	 *            the recurring task
+	 * @param inXTicks
+	 *            the number of ticks in the future of the first run
+	 * @return true if the task was registered
+	 * @see #cancelTask(FrameworkTask)
+	 */
+	public boolean scheduleRecurringTask(FrameworkTask task, long inXTicks) {
+		if (task == null) {
+			logger.log(Level.WARNING, "Cannot schedule a null task",
+					currentTick);
+			return false;
+		}
+		if (inXTicks < 1) {
+			logger.log(Level.WARNING,
+							"task {1} was scheduled with inXTicks of {2} but this must be 1 or greater",
+							new Object[] { currentTick, task, inXTicks });
+			return false;
+		}
+		assignOrderKey(task);
+		long time = currentTick + inXTicks;
+		periodicTasks.add(task, time);
+		updateMaxTick(time);
+		return true;
+	}
+
+	/**
+	 * @param task
+	 *            a task
+	 * @return true if specified task is registered as a recurring task
+	 */
+	public boolean isRecurringTask(FrameworkTask task) {
+		return periodicTasks.contains(task);
+	}
+
+	/**
+	 * @return an unmodifiable collection of the recurring tasks
+	 */
+	public Collection<FrameworkTask> getRecurringTasks() {
+		return periodicTasks.getTasks();
+	}
+
+	/**
+	 * Parks a task whose {@link TaskStatus} is {@link TaskStatus#PARKED}. The
+	 * task is not scheduled until its wakeup {@link ChangeSignal} is raised,
+	 * then it is scheduled again in the next tick, as a recurring task if it
+	 * was one. Called by the {@link TaskSpawner} receiving the finished task.
+	 * 
+	 * @param task
+	 *            the task to park
+	 * @return true if the task was parked, false if it has no wakeup signal
+	 * @see FrameworkTaskImpl#park()
+	 */
+	public boolean parkTask(FrameworkTask task) {
+		if (!(task instanceof AbstractFrameworkTask)) {
+			return false;
+		}
+		AbstractFrameworkTask t = (AbstractFrameworkTask) task;
+		ChangeSignal signal = t.getWakeupSignal();
+		if (signal == null) {
+			return false;
+		}
+		parkedTasks.put(task, periodicTasks.remove(task));
+		logger.log(Level.FINEST, "Parked task {1}", new Object[] {
+				currentTick, task });
+		signal.park(task, this, t.getSeenSignalVersion());
+		return true;
+	}
+
+	/*
+	 * Called by the ChangeSignal waking up a parked task.
+	 */
+	void unparkTask(FrameworkTask task) {
+		Boolean recurring = parkedTasks.remove(task);
+		if (recurring == null
+				|| task.getTaskStatus() != TaskStatus.PARKED) {
+			return;
+		}
+		task.setTaskStatus(TaskStatus.RUNNING);
+		logger.log(Level.FINEST, "Unparked task {1}", new Object[] {
+				currentTick, task });
+		if (recurring) {
+			scheduleRecurringTask(task, 1);
+		} else {
+			scheduleTask(task, 1);
+		}
+	}
+
+	/**
+	 * @return the number of parked tasks
+	 */
+	public int getParkedTaskCount() {
+		return parkedTasks.size();
+	}
+
+	/**
+	 * @return an unmodifiable collection of the parked tasks
+	 */
+	public Collection<FrameworkTask> getParkedTasks() {
+		return Collections.unmodifiableCollection(parkedTasks.keySet());
+	}
+
+	private void updateMaxTick(long time) {
+		long max = maxTick.get();
+		while (time > max) {
+			if (maxTick.compareAndSet(max, time)) {
+				synchronized (lock) {
+					lock.notify();
 				}
+				break;
 			}
+			max = maxTick.get();
 		}
-		task.setScheduledTick(time);
-		set.add(task);
-		return true;
 	}
 
+	/*
+	 * Advances currentTick directly to the next tick having scheduled tasks and
+	 * executes them. Empty ticks are skipped, but the advance never goes past
+	 * the shutdown tick, the end of the current interval (in interval mode) or
+	 * the next tick at which a gui event is due.
+	 */
 	private long goNextTick() {
-		// TODO optimize this method to skip ticks until the next tick with
-		// scheduled tasks is found
-		Set<FrameworkTask> set = taskQueue.get(++currentTick);
-		taskQueue.remove(currentTick);
+		long tickStart = System.nanoTime();
+		currentTick = getNextTickToExecute();
+		Collection<FrameworkTask> set = taskScheduler.pollTasks(currentTick);
+		List<FrameworkTask> recurring = periodicTasks.pollTasks(currentTick);
+		if (recurring != null) {
+			if (set == null) {
+				set = recurring;
+			} else {
+				List<FrameworkTask> all = new ArrayList<FrameworkTask>(set);
+				all.addAll(recurring);
+				set = all;
+			}
+		}
+		if (deterministic && set != null) {
+			List<FrameworkTask> sorted = new ArrayList<FrameworkTask>(set);
+			Collections.sort(sorted, orderComparator);
+			set = sorted;
+		}
 		logger.log(Level.FINEST, "Tick {0} executed", currentTick);
 		if (set != null) {
 			try {
-				decayModules();
-				executorService.invokeAll(set); // Execute all tasks scheduled
-				// for this tick
+				TaskProfiler p = profiler;
+				long decayStart = (p == null) ? 0L : System.nanoTime();
+				boolean graph = taskGraphEnabled && tickBudget == 0;
+				if (!graph) {
+					decayModules();
+				}
+				AdaptivePoolSizer sizer = poolSizer;
+				long taskStart = (p == null && sizer == null) ? 0L : System
+						.nanoTime();
+				TaskExecutionMonitor monitor = null;
+				if (executorType == ExecutorType.VIRTUAL_THREAD) {
+					monitor = new TaskExecutionMonitor();
+				}
+				int executed = set.size();
+				if (graph) {
+					runTaskGraph(set, monitor);
+					lastTickShedCount = 0;
+				} else if (tickBudget > 0) {
+					executed = runTasksWithinBudget(set, tickStart, monitor);
+				} else {
+					runTasks(set, monitor); // Execute all tasks scheduled
+					// for this tick
+					lastTickShedCount = 0;
+				}
+				long taskTime = (taskStart == 0L) ? 0L : System.nanoTime()
+						- taskStart;
+				if (p != null) {
+					p.recordTick(currentTick, taskStart - decayStart, taskTime);
+				}
+				if (sizer != null) {
+					sizer.endTick((ThreadPoolExecutor) executorService,
+							currentTick, executed, taskTime);
+				}
+				if (monitor != null) {
+					lastTickStats = monitor.getStats(currentTick, executed);
+					logger.log(Level.FINEST, "{1}", new Object[] {
+							currentTick, lastTickStats });
+				}
+				recycleTasks(set);
 			} catch (InterruptedException e) {
 				if (!shuttingDown) {
 					logger.log(Level.WARNING,
@@ -422,22 +1218,283 @@ public class TaskManager implements GuiEventProvider {
 									currentTick);
 				}
 			}
+			if (recurring != null) {
+				periodicTasks.reschedule(currentTick);
+				updateMaxTick(periodicTasks.getNextScheduledTick());
+			}
 		}
 		return currentTick;
 	}
 
+	/*
+	 * Returns the tick the main loop should advance to next: the earliest of
+	 * the next tick with scheduled tasks, the shutdown tick, the end of the
+	 * current interval and the next gui event tick. In fast-forward mode gui
+	 * events are coalesced so they do not limit the advance.
+	 */
+	private long getNextTickToExecute() {
+		long nextTick = currentTick + 1;
+		long target = taskScheduler.getNextScheduledTick();
+		long periodic = periodicTasks.getNextScheduledTick();
+		if (periodic >= 0 && (target < 0 || periodic < target)) {
+			target = periodic;
+		}
+		if (target < 0) {
+			target = maxTick.get();
+		}
+		if (shutdownTick >= nextTick && shutdownTick < target) {
+			target = shutdownTick;
+		}
+		if (inIntervalMode && endOfNextInterval < target) {
+			target = endOfNextInterval;
+		}
+		if (ticksPerBatch == 1 && guiEventsInterval > 0
+				&& guiDispatcher.hasListeners()) {
+			long nextGuiEventTick = lastGuiEventTick + guiEventsInterval;
+			if (nextGuiEventTick < target) {
+				target = nextGuiEventTick;
+			}
+		}
+		return (target < nextTick) ? nextTick : target;
+	}
+
+	/*
+	 * Returns the finished RecyclableTasks to their pools. Called once all the
+	 * tasks of the tick have returned, so no task is recycled while its call()
+	 * is still running.
+	 */
+	private void recycleTasks(Collection<FrameworkTask> tasks) {
+		for (FrameworkTask t : tasks) {
+			if (t instanceof RecyclableTask
+					&& t.getTaskStatus() == TaskStatus.CANCELED) {
+				((RecyclableTask) t).recycle();
+			}
+		}
+	}
+
+	private void runTasks(Collection<FrameworkTask> tasks,
+			TaskExecutionMonitor monitor) throws InterruptedException {
+		if (!executionLanes.isEmpty()) {
+			List<FrameworkTask> free = new ArrayList<FrameworkTask>();
+			List<List<FrameworkTask>> lanes = executionLanes.partition(tasks,
+					free);
+			if (!lanes.isEmpty()) {
+				List<Callable<FrameworkTask>> callables = wrap(free, monitor);
+				for (List<FrameworkTask> lane : lanes) {
+					callables.add(ExecutionLanes.lane(wrap(lane, monitor)));
+				}
+				invokeAll(callables);
+				return;
+			}
+		}
+		if (monitor == null && poolSizer == null && profiler == null
+				&& !deterministic) {
+			invokeAll(tasks);
+		} else {
+			invokeAll(wrap(tasks, monitor));
+		}
+	}
+
+	/*
+	 * Decays the modules and runs the tasks as a TickTaskGraph. Lanes are
+	 * nodes of the graph waiting for the decays of all their tasks.
+	 */
+	private void runTaskGraph(Collection<FrameworkTask> tasks,
+			TaskExecutionMonitor monitor) throws InterruptedException {
+		ticksToDecay = currentTick - lastDecayTick;
+		TickTaskGraph graph = new TickTaskGraph();
+		for (DecayableWrapper d : decayables) {
+			graph.addDecay(d.module, d);
+		}
+		List<FrameworkTask> free;
+		List<List<FrameworkTask>> lanes;
+		if (executionLanes.isEmpty()) {
+			free = new ArrayList<FrameworkTask>(tasks);
+			lanes = Collections.emptyList();
+		} else {
+			free = new ArrayList<FrameworkTask>();
+			lanes = executionLanes.partition(tasks, free);
+		}
+		List<Callable<FrameworkTask>> callables = wrap(free, monitor);
+		for (int i = 0; i < free.size(); i++) {
+			graph.addTask(Collections.singletonList(free.get(i)), callables
+					.get(i));
+		}
+		for (List<FrameworkTask> lane : lanes) {
+			graph.addTask(lane, ExecutionLanes.lane(wrap(lane, monitor)));
+		}
+		graph.run(executorService, context);
+		lastDecayTick = currentTick;
+	}
+
+	/*
+	 * Returns the tasks as callables wrapped by the monitor or the pool sizer
+	 * if any, timed by the profiler if any, and in deterministic mode bound to
+	 * their random source.
+	 */
+	private List<Callable<FrameworkTask>> wrap(Collection<FrameworkTask> tasks,
+			TaskExecutionMonitor monitor) {
+		AdaptivePoolSizer sizer = poolSizer;
+		List<Callable<FrameworkTask>> callables;
+		if (monitor != null) {
+			callables = monitor.wrap(tasks);
+		} else if (sizer != null) {
+			callables = sizer.wrap(tasks);
+		} else {
+			callables = new ArrayList<Callable<FrameworkTask>>(tasks);
+		}
+		TaskProfiler p = profiler;
+		if (p != null) {
+			int i = 0;
+			for (FrameworkTask t : tasks) {
+				callables.set(i, new ProfiledCallable<FrameworkTask>(p, t
+						.getClass(), callables.get(i)));
+				i++;
+			}
+		}
+		if (deterministic) {
+			RandomSource root = context.getRandomSource();
+			int i = 0;
+			for (FrameworkTask t : tasks) {
+				RandomSource r = root.split(getOrderKey(t)).split(currentTick);
+				callables.set(i, new RandomCallable<FrameworkTask>(r, t,
+						callables.get(i)));
+				i++;
+			}
+		}
+		return callables;
+	}
+
+	/*
+	 * Runs the tasks that are not codelets together with the codelets shed for
+	 * maxShedTicks consecutive ticks, then the other codelets by decreasing
+	 * total activation in waves of the executor's parallelism while the tick
+	 * budget lasts. The codelets left are deferred to the next tick. Returns
+	 * the number of tasks run.
+	 */
+	private int runTasksWithinBudget(Collection<FrameworkTask> tasks,
+			long tickStart, TaskExecutionMonitor monitor)
+			throws InterruptedException {
+		List<FrameworkTask> required = new ArrayList<FrameworkTask>();
+		List<FrameworkTask> codelets = new ArrayList<FrameworkTask>();
+		Map<FrameworkTask, Integer> streaks = shedStreaks;
+		int maxShed = maxShedTicks;
+		for (FrameworkTask t : tasks) {
+			if (t instanceof Codelet) {
+				Integer streak = streaks.get(t);
+				if (streak != null && streak >= maxShed) {
+					// overdue, runs regardless of the budget
+					required.add(t);
+				} else {
+					codelets.add(t);
+				}
+			} else {
+				required.add(t);
+			}
+		}
+		if (!required.isEmpty()) {
+			runTasks(required, monitor);
+		}
+		Collections.sort(codelets, activationComparator);
+		long deadline = tickStart + tickBudget * 1000000L;
+		int wave = getParallelism();
+		int next = 0;
+		while (next < codelets.size() && System.nanoTime() < deadline) {
+			int end = Math.min(next + wave, codelets.size());
+			runTasks(codelets.subList(next, end), monitor);
+			next = end;
+		}
+		int shed = codelets.size() - next;
+		int newlyShed = 0;
+		Map<FrameworkTask, Integer> nextStreaks = new HashMap<FrameworkTask, Integer>();
+		for (int i = next; i < codelets.size(); i++) {
+			FrameworkTask t = codelets.get(i);
+			deferTask(t);
+			Integer streak = streaks.get(t);
+			if (streak == null) {
+				streak = 0;
+				newlyShed++;
+			}
+			nextStreaks.put(t, streak + 1);
+		}
+		shedStreaks = nextStreaks;
+		lastTickShedCount = shed;
+		if (shed > 0) {
+			totalShedCount.addAndGet(newlyShed);
+			logger.log(Level.FINE, "{1} codelets shed", new Object[] {
+					currentTick, shed });
+		}
+		return required.size() + next;
+	}
+
+	/*
+	 * Moves a task that did not run to the next tick.
+	 */
+	private void deferTask(FrameworkTask task) {
+		if (periodicTasks.contains(task)) {
+			// placed again at currentTick + nextTicksPerRun by reschedule
+			task.setNextTicksPerRun(1);
+		} else {
+			scheduleTask(task, 1);
+		}
+	}
+
+	/*
+	 * Number of tasks the executor runs at the same time
+	 */
+	private int getParallelism() {
+		if (executorService instanceof ForkJoinPool) {
+			return ((ForkJoinPool) executorService).getParallelism();
+		} else if (executorService instanceof ThreadPoolExecutor) {
+			// the queue is unbounded so no thread is started beyond the core
+			return ((ThreadPoolExecutor) executorService).getCorePoolSize();
+		}
+		return Runtime.getRuntime().availableProcessors();
+	}
+
 	private void decayModules() {
-		DecayableWrapper.setDecayInterval(currentTick);
+		ticksToDecay = currentTick - lastDecayTick;
 		try {
-			executorService.invokeAll(decayables);
+			invokeAll(decayables);
 		} catch (InterruptedException e) {
 			logger.log(Level.WARNING, "Decaying interrupted. Message: {1}",
 					new Object[] { currentTick, e.getMessage() });
 		}
-		DecayableWrapper.setLastDecayTick(currentTick);
+		lastDecayTick = currentTick;
 		logger.log(Level.FINEST, "Modules decayed", currentTick);
 	}
 
+	/*
+	 * Executes all callables and waits until they have finished. On a
+	 * ForkJoinPool the callables are split recursively among the workers
+	 * instead of being wrapped in a Future each. The callables run with the
+	 * AgentContext of this TaskManager.
+	 */
+	private <T> void invokeAll(Collection<? extends Callable<T>> callables)
+			throws InterruptedException {
+		if (executorService instanceof ForkJoinPool) {
+			ForkJoinPool pool = (ForkJoinPool) executorService;
+			Callable<?>[] array = callables.toArray(new Callable<?>[0]);
+			int leafSize = Math.max(1, array.length
+					/ (pool.getParallelism() * CallableBatch.LEAVES_PER_WORKER));
+			try {
+				pool.invoke(new CallableBatch(context, array, 0, array.length,
+						leafSize));
+			} catch (CancellationException e) {
+				throw new InterruptedException(e.getMessage());
+			}
+		} else if (context == AgentContext.getDefault()) {
+			executorService.invokeAll(callables);
+		} else {
+			List<Callable<T>> bound = new ArrayList<Callable<T>>(callables
+					.size());
+			for (Callable<T> c : callables) {
+				bound.add(new ContextCallable<T>(context, c));
+			}
+			executorService.invokeAll(bound);
+		}
+	}
+
 	/**
 	 * Set the Collection of modules for decaying.
 	 * 
@@ -458,18 +1515,21 @@ public class TaskManager implements GuiEventProvider {
 	 * This inner class implements the main loop of the system. The main loop
 	 * waits on the lock if the tasks are paused, if in interval mode and have
 	 * reached endOfNextInterval, or if no tasks are scheduled beyond current
-	 * tick.
+	 * tick. Executes either one tick with real-time pacing or, in fast-forward
+	 * mode, a batch of ticks without pacing.
 	 */
 	private class TaskManagerMainLoop implements Runnable {
 
 		@Override
 		public void run() {
+			AgentContext.setCurrent(context);
 			while (!shuttingDown) {
 				synchronized (lock) {
-					if ((currentTick >= maxTick) ||
+					if ((currentTick >= maxTick.get()) ||
 						(inIntervalMode && (currentTick >= endOfNextInterval))||
 						 tasksPaused) {
 						try {
+							pacer.restart();
 							lock.wait();
 							continue;
 						} catch (InterruptedException e) {
@@ -479,69 +1539,221 @@ public class TaskManager implements GuiEventProvider {
 						}
 					}
 				}
-				long initTime = System.currentTimeMillis(); // For real time
-
-				goNextTick(); // Execute one tick of the simulation
-
-				long duration = System.currentTimeMillis() - initTime;
-				if (duration < tickDuration) {// TODO change this if multiple
-					// ticks are executed in
-					// goNextTick()
-					try {
-						Thread.sleep(tickDuration - duration);
-					} catch (InterruptedException e) {
-						return;
-					}
-				}
-				// To update Gui
-				if (guiEventsInterval > 0 && !guiListeners.isEmpty()) {
-					if (currentTick - lastGuiEventTick >= guiEventsInterval) {
-						sendEventToGui(defaultGuiEvent);
-						lastGuiEventTick = currentTick;
-					}
+				if (ticksPerBatch > 1) {
+					pacer.restart();
+					runTickBatch();
+					continue;
 				}
-				if(currentTick == shutdownTick){//TODO check this in goNextTick if multiple ticks are run at once
-					logger.log(Level.INFO, "\nReached the shutdown tick: {0}, initiating application shutdown.", currentTick);
-					stopRunning();
+				pacer.startTick(); // For real time
+				long previousTick = currentTick;
+
+				goNextTick(); // Execute the next tick with scheduled tasks
+
+				// Skipped ticks still take tickDuration each in real time
+				pacer.awaitNextTick(tickDuration, currentTick - previousTick);
+				if (Thread.currentThread().isInterrupted()) {
+					return;
 				}
+				sendTicksEvent();
+				checkShutdownTick();
 			}// while
 		}
+
+		/*
+		 * Executes up to ticksPerBatch ticks back to back. Stops early when the
+		 * tasks are paused, the interval ends, no more tasks are scheduled or
+		 * the shutdown tick is reached. Sends at most one gui event.
+		 */
+		private void runTickBatch() {
+			int batchSize = ticksPerBatch;
+			for (int i = 0; i < batchSize; i++) {
+				if (shuttingDown || tasksPaused
+						|| currentTick >= maxTick.get()
+						|| (inIntervalMode && currentTick >= endOfNextInterval)) {
+					break;
+				}
+				goNextTick();
+				if (currentTick == shutdownTick) {
+					break;
+				}
+			}
+			sendTicksEvent();
+			checkShutdownTick();
+		}
+
+		/*
+		 * To update Gui
+		 */
+		private void sendTicksEvent() {
+			if (guiEventsInterval > 0 && guiDispatcher.hasListeners()) {
+				if (currentTick - lastGuiEventTick >= guiEventsInterval) {
+					sendEventToGui(new FrameworkGuiEvent(ModuleName.Agent,
+							"TicksEvent", currentTick, currentTick));
+					lastGuiEventTick = currentTick;
+				}
+			}
+		}
+
+		private void checkShutdownTick() {
+			if(currentTick == shutdownTick){
+				logger.log(Level.INFO, "\nReached the shutdown tick: {0}, initiating application shutdown.", currentTick);
+				stopRunning();
+			}
+		}
 	}// class
 
+	/**
+	 * Runs a range of callables in a ForkJoinPool. Ranges larger than the leaf
+	 * size are split in two halves, one of which may be stolen by another
+	 * worker.
+	 */
+	@SuppressWarnings("serial")
+	private static class CallableBatch extends RecursiveAction {
+
+		private static final int LEAVES_PER_WORKER = 8;
+		private final AgentContext context;
+		private final Callable<?>[] callables;
+		private final int start;
+		private final int end;
+		private final int leafSize;
+
+		public CallableBatch(AgentContext context, Callable<?>[] callables,
+				int start, int end, int leafSize) {
+			this.context = context;
+			this.callables = callables;
+			this.start = start;
+			this.end = end;
+			this.leafSize = leafSize;
+		}
+
+		@Override
+		protected void compute() {
+			if (end - start <= leafSize) {
+				AgentContext previous = AgentContext.setCurrent(context);
+				try {
+					for (int i = start; i < end; i++) {
+						try {
+							callables[i].call();
+						} catch (Exception e) {
+							logger.log(Level.WARNING,
+									"Exception {1} occurred executing {2}",
+									new Object[] { getCurrentTick(), e,
+											callables[i] });
+						}
+					}
+				} finally {
+					AgentContext.setCurrent(previous);
+				}
+			} else {
+				int middle = (start + end) >>> 1;
+				invokeAll(new CallableBatch(context, callables, start, middle,
+						leafSize), new CallableBatch(context, callables,
+						middle, end, leafSize));
+			}
+		}
+	}
+
+	/**
+	 * Runs a callable with an {@link AgentContext} bound to the executing
+	 * thread.
+	 */
+	private static class ContextCallable<T> implements Callable<T> {
+
+		private final AgentContext context;
+		private final Callable<T> callable;
+
+		public ContextCallable(AgentContext context, Callable<T> callable) {
+			this.context = context;
+			this.callable = callable;
+		}
+
+		@Override
+		public T call() throws Exception {
+			AgentContext previous = AgentContext.setCurrent(context);
+			try {
+				return callable.call();
+			} finally {
+				AgentContext.setCurrent(previous);
+			}
+		}
+	}
+
+	/**
+	 * Runs a callable and records its wall and cpu times in a
+	 * {@link TaskProfiler}.
+	 */
+	private static class ProfiledCallable<T> implements Callable<T> {
+
+		private final TaskProfiler profiler;
+		private final Class<?> taskClass;
+		private final Callable<T> callable;
+
+		public ProfiledCallable(TaskProfiler profiler, Class<?> taskClass,
+				Callable<T> callable) {
+			this.profiler = profiler;
+			this.taskClass = taskClass;
+			this.callable = callable;
+		}
+
+		@Override
+		public T call() throws Exception {
+			long start = System.nanoTime();
+			long cpuStart = profiler.getThreadCpuTime();
+			try {
+				return callable.call();
+			} finally {
+				long cpuEnd = (cpuStart < 0) ? -1L : profiler
+						.getThreadCpuTime();
+				profiler.recordTask(taskClass, System.nanoTime() - start,
+						(cpuEnd < 0) ? -1L : cpuEnd - cpuStart);
+			}
+		}
+	}
+
+	/**
+	 * Runs a callable with a {@link RandomSource} and the task it runs bound
+	 * to the executing thread.
+	 */
+	private static class RandomCallable<T> implements Callable<T> {
+
+		private final RandomSource source;
+		private final AbstractFrameworkTask task;
+		private final Callable<T> callable;
+
+		public RandomCallable(RandomSource source, FrameworkTask task,
+				Callable<T> callable) {
+			this.source = source;
+			this.task = (task instanceof AbstractFrameworkTask) ? (AbstractFrameworkTask) task
+					: null;
+			this.callable = callable;
+		}
+
+		@Override
+		public T call() throws Exception {
+			RandomSource previous = RandomSource.bind(source);
+			AbstractFrameworkTask previousTask = schedulingTask.get();
+			schedulingTask.set(task);
+			try {
+				return callable.call();
+			} finally {
+				schedulingTask.set(previousTask);
+				RandomSource.bind(previous);
+			}
+		}
+	}
+
 	/**
 	 * This is an auxiliary class to perform the decaying of the modules in
-	 * parallel.
+	 * parallel. The modules decay by the number of ticks since the last decay
+	 * of the enclosing TaskManager.
 	 * 
 	 * @author Javier Snaider
 	 * @author Ryan J. McCall
 	 * 
 	 */
-	private static class DecayableWrapper implements Callable<Void> {
-
-		private static long ticksToDecay;
-		private static long lastDecayTick = 0L;
-		private FrameworkModule module;
+	private class DecayableWrapper implements Callable<Void> {
 
-		/**
-		 * Updates the interval that all decayables should decay. Must be setup
-		 * before executing the run() method.
-		 * 
-		 * @param currentTick
-		 *            current tick of the task manager
-		 */
-		public static void setDecayInterval(long currentTick) {
-			ticksToDecay = currentTick - lastDecayTick;
-		}
-
-		/**
-		 * Sets the last time that the decayables were decayed.
-		 * 
-		 * @param tick
-		 *            last tick modules were decayed
-		 */
-		public static void setLastDecayTick(long tick) {
-			DecayableWrapper.lastDecayTick = tick;
-		}
+		private final FrameworkModule module;
 
 		public DecayableWrapper(FrameworkModule m) {
 			module = m;
@@ -550,6 +1762,14 @@ public class TaskManager implements GuiEventProvider {
 		@Override
 		public Void call() {
 			if (module != null) {
+				boolean seeded = deterministic;
+				RandomSource previous = null;
+				if (seeded) {
+					ModuleName name = module.getModuleName();
+					long key = (name == null) ? 0L : name.name.hashCode();
+					previous = RandomSource.bind(context.getRandomSource()
+							.split(key).split(currentTick));
+				}
 				try {
 					module.taskManagerDecayModule(ticksToDecay);
 				} catch (Exception e) {
@@ -559,6 +1779,10 @@ public class TaskManager implements GuiEventProvider {
 									"Exception occurred during the execution of the 'taskManagerDecayModule(long ticks)' method in module: {1}. \n{2}",
 									new Object[] { currentTick, module, e });
 					e.printStackTrace();
+				} finally {
+					if (seeded) {
+						RandomSource.bind(previous);
+					}
 				}
 			} else {
 				logger.log(Level.WARNING, "Cannot decay null", currentTick);
@@ -574,15 +1798,24 @@ public class TaskManager implements GuiEventProvider {
 	 */
 	public void stopRunning() {
 		shuttingDown = true;
+		guiDispatcher.shutdown();
+		TaskProfiler p = profiler;
+		if (p != null) {
+			p.stopDumping();
+		}
 		taskManagerThread.interrupt();
 		// Now that we can be sure that active tasks will no longer be executed
-		// the executor service can be shutdown.
-		executorService.shutdown();
+		// the executor service can be shutdown, unless it is shared.
+		if (ownsExecutor) {
+			executorService.shutdown();
+		}
 		logger.log(Level.INFO, "All threads and tasks told to stop",
 				currentTick);
 		try {
-			executorService.awaitTermination(800, TimeUnit.MILLISECONDS);
-			executorService.shutdownNow();
+			if (ownsExecutor) {
+				executorService.awaitTermination(800, TimeUnit.MILLISECONDS);
+				executorService.shutdownNow();
+			}
 			Thread.sleep(400);
 		} catch (InterruptedException e) {
 			logger.log(Level.INFO,"Shutdown interrupted scheduled tasks. Message: {0}",e.getMessage());
@@ -626,18 +1859,30 @@ public class TaskManager implements GuiEventProvider {
 	@Override
 	public void addFrameworkGuiEventListener(FrameworkGuiEventListener listener) {
 		if (listener != null) {
-			guiListeners.add(listener);
+			guiDispatcher.addListener(listener);
 		} else {
 			logger.log(Level.WARNING, "Can not add null as a GuiListener",
 					TaskManager.getCurrentTick());
 		}
 	}
 
+	/**
+	 * Queues the event for delivery on the gui event thread and returns right
+	 * away. Pending events of the same type are coalesced.
+	 * 
+	 * @see GuiEventDispatcher
+	 */
 	@Override
 	public void sendEventToGui(FrameworkGuiEvent event) {
-		for (FrameworkGuiEventListener listener : guiListeners) {
-			listener.receiveFrameworkGuiEvent(event);
-		}
+		guiDispatcher.dispatch(event);
+	}
+
+	/**
+	 * @return the {@link GuiEventDispatcher} delivering the gui events of this
+	 *         TaskManager
+	 */
+	public GuiEventDispatcher getGuiEventDispatcher() {
+		return guiDispatcher;
 	}
 
 	/**
@@ -647,14 +1892,22 @@ public class TaskManager implements GuiEventProvider {
 	 * only for testing. To be implemented in the framework in the future.
 	 */
 	void reset() {
-		taskQueue = new ConcurrentHashMap<Long, Set<FrameworkTask>>();
+		taskScheduler.clear();
+		periodicTasks.clear();
+		for (FrameworkTask task : parkedTasks.keySet()) {
+			ChangeSignal signal = ((AbstractFrameworkTask) task).getWakeupSignal();
+			if (signal != null) {
+				signal.cancel(task);
+			}
+		}
+		parkedTasks.clear();
 		endOfNextInterval = 0L;
 		currentTick = 0L;
-		maxTick = 0L;
+		maxTick.set(0L);
 		tasksPaused = true;
 		inIntervalMode = false;
-		DecayableWrapper.lastDecayTick = 0;
-		DecayableWrapper.ticksToDecay = 0;
+		lastDecayTick = 0L;
+		ticksToDecay = 0L;
 		lastGuiEventTick = 0;
 	}
 
@@ -0,0 +1,91 @@
+/*******************************************************************************
+ * Copyright (c) 2009, 2011 The University of Memphis.  All rights reserved. 
+ * This program and the accompanying materials are made available 
+ * under the terms of the LIDA Software Framework Non-Commercial License v1.0 
+ * which accompanies this distribution, and is available at
+ * http://ccrg.cs.memphis.edu/assets/papers/2010/LIDA-framework-non-commercial-v1.0.pdf
+ *******************************************************************************/
+package edu.memphis.ccrg.lida.framework.tasks;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+/**
+ * A bounded pool of finished tasks that can be reused instead of allocating
+ * new ones. Tasks beyond the capacity of the pool are simply dropped and
+ * garbage collected. Acquiring and releasing tasks do not allocate.
+ * 
+ * @param <T>
+ *            the type of the pooled tasks
+ * @see RecyclableTask
+ */
+public class TaskPool<T extends FrameworkTask> {
+
+	/**
+	 * Default max number of tasks kept by a pool
+	 */
+	public static final int DEFAULT_CAPACITY = 1024;
+
+	private final BlockingQueue<T> tasks;
+	private final int capacity;
+
+	/**
+	 * Constructs a pool with {@link #DEFAULT_CAPACITY}
+	 */
+	public TaskPool() {
+		this(DEFAULT_CAPACITY);
+	}
+
+	/**
+	 * Constructs a pool with specified capacity
+	 * 
+	 * @param capacity
+	 *            max number of tasks kept by the pool
+	 */
+	public TaskPool(int capacity) {
+		this.capacity = Math.max(1, capacity);
+		tasks = new ArrayBlockingQueue<T>(this.capacity);
+	}
+
+	/**
+	 * Removes a recycled task from the pool.
+	 * 
+	 * @return a recycled task or null if the pool is empty
+	 */
+	public T acquire() {
+		return tasks.poll();
+	}
+
+	/**
+	 * Returns a finished task to the pool. The task must not be referenced
+	 * anymore by any {@link TaskSpawner} or the {@link TaskManager}.
+	 * 
+	 * @param task
+	 *            the task to recycle
+	 * @return true if the task was kept, false if the pool was full
+	 */
+	public boolean release(T task) {
+		return tasks.offer(task);
+	}
+
+	/**
+	 * @return the number of tasks currently in the pool
+	 */
+	public int size() {
+		return tasks.size();
+	}
+
+	/**
+	 * @return the max number of tasks kept by the pool
+	 */
+	public int getCapacity() {
+		return capacity;
+	}
+
+	/**
+	 * Removes all tasks from the pool.
+	 */
+	public void clear() {
+		tasks.clear();
+	}
+}
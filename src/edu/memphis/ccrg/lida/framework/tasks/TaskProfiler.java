@@ -0,0 +1,311 @@
+/*******************************************************************************
+ * Copyright (c) 2009, 2011 The University of Memphis.  All rights reserved. 
+ * This program and the accompanying materials are made available 
+ * under the terms of the LIDA Software Framework Non-Commercial License v1.0 
+ * which accompanies this distribution, and is available at
+ * http://ccrg.cs.memphis.edu/assets/papers/2010/LIDA-framework-non-commercial-v1.0.pdf
+ *******************************************************************************/
+package edu.memphis.ccrg.lida.framework.tasks;
+
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.io.Writer;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Collects execution statistics of the tasks run by a {@link TaskManager}: a
+ * {@link TaskClassProfile} per task class and the time of each tick spent
+ * decaying the modules and running the tasks. All statistics are kept in
+ * atomic counters so the tasks never block on the profiler. Times are in
+ * nanoseconds. The statistics can be read through this API or written
+ * periodically to a file.
+ * 
+ * @see TaskManager#setProfiler(TaskProfiler)
+ */
+public class TaskProfiler {
+
+	private static final Logger logger = Logger.getLogger(TaskProfiler.class
+			.getCanonicalName());
+	private static final ThreadMXBean threadBean = ManagementFactory
+			.getThreadMXBean();
+	private static final boolean cpuTimeSupported = threadBean
+			.isCurrentThreadCpuTimeSupported();
+
+	private final ConcurrentMap<Class<?>, TaskClassProfile> profiles = new ConcurrentHashMap<Class<?>, TaskClassProfile>();
+	private final AtomicLong tickCount = new AtomicLong();
+	private final AtomicLong decayTime = new AtomicLong();
+	private final AtomicLong taskTime = new AtomicLong();
+	private volatile long lastTick;
+	private volatile long lastTickDecayTime;
+	private volatile long lastTickTaskTime;
+	private ScheduledExecutorService dumpService;
+
+	/**
+	 * @return the cpu time of the current thread or -1 if the JVM does not
+	 *         report it
+	 */
+	long getThreadCpuTime() {
+		if (!cpuTimeSupported) {
+			return -1L;
+		}
+		try {
+			return threadBean.getCurrentThreadCpuTime();
+		} catch (UnsupportedOperationException e) {
+			return -1L;
+		}
+	}
+
+	/**
+	 * Records one run of a task.
+	 * 
+	 * @param taskClass
+	 *            class of the task
+	 * @param wall
+	 *            wall time of the run
+	 * @param cpu
+	 *            cpu time of the run or -1 if unknown
+	 */
+	public void recordTask(Class<?> taskClass, long wall, long cpu) {
+		TaskClassProfile p = profiles.get(taskClass);
+		if (p == null) {
+			p = new TaskClassProfile(taskClass.getName());
+			TaskClassProfile old = profiles.putIfAbsent(taskClass, p);
+			if (old != null) {
+				p = old;
+			}
+		}
+		p.record(wall, cpu);
+	}
+
+	/**
+	 * Records the times of an executed tick.
+	 * 
+	 * @param tick
+	 *            the tick
+	 * @param decay
+	 *            time spent decaying the modules
+	 * @param tasks
+	 *            time spent running the tasks
+	 */
+	public void recordTick(long tick, long decay, long tasks) {
+		tickCount.incrementAndGet();
+		decayTime.addAndGet(decay);
+		taskTime.addAndGet(tasks);
+		lastTick = tick;
+		lastTickDecayTime = decay;
+		lastTickTaskTime = tasks;
+	}
+
+	/**
+	 * @param taskClass
+	 *            a task class
+	 * @return the profile of specified class or null if it has not run
+	 */
+	public TaskClassProfile getProfile(Class<?> taskClass) {
+		return profiles.get(taskClass);
+	}
+
+	/**
+	 * @return the profiles of all the task classes that have run
+	 */
+	public Collection<TaskClassProfile> getProfiles() {
+		return Collections.unmodifiableCollection(profiles.values());
+	}
+
+	/**
+	 * @return number of executed ticks
+	 */
+	public long getTickCount() {
+		return tickCount.get();
+	}
+
+	/**
+	 * @return total time spent decaying the modules
+	 */
+	public long getTotalDecayTime() {
+		return decayTime.get();
+	}
+
+	/**
+	 * @return total time spent running the tasks
+	 */
+	public long getTotalTaskTime() {
+		return taskTime.get();
+	}
+
+	/**
+	 * @return the last executed tick
+	 */
+	public long getLastTick() {
+		return lastTick;
+	}
+
+	/**
+	 * @return time spent decaying the modules in the last executed tick
+	 */
+	public long getLastTickDecayTime() {
+		return lastTickDecayTime;
+	}
+
+	/**
+	 * @return time spent running the tasks in the last executed tick
+	 */
+	public long getLastTickTaskTime() {
+		return lastTickTaskTime;
+	}
+
+	/**
+	 * Sets all the statistics to 0.
+	 */
+	public void reset() {
+		for (TaskClassProfile p : profiles.values()) {
+			p.reset();
+		}
+		tickCount.set(0L);
+		decayTime.set(0L);
+		taskTime.set(0L);
+		lastTick = 0L;
+		lastTickDecayTime = 0L;
+		lastTickTaskTime = 0L;
+	}
+
+	/**
+	 * Writes the statistics as tab separated text. The task classes are
+	 * sorted by decreasing total wall time.
+	 * 
+	 * @param writer
+	 *            where the statistics are written
+	 */
+	public void writeReport(Writer writer) {
+		PrintWriter out = new PrintWriter(writer);
+		out.printf("ticks\t%d\tdecay\t%d\ttasks\t%d%n", tickCount.get(),
+				decayTime.get(), taskTime.get());
+		List<TaskClassProfile> sorted = new ArrayList<TaskClassProfile>(
+				profiles.values());
+		Collections.sort(sorted, new Comparator<TaskClassProfile>() {
+			@Override
+			public int compare(TaskClassProfile p1, TaskClassProfile p2) {
+				long w1 = p1.getTotalWallTime();
+				long w2 = p2.getTotalWallTime();
+				return (w1 < w2) ? 1 : ((w1 == w2) ? 0 : -1);
+			}
+		});
+		out.println("class\truns\twall\tcpu\twallHistogram\tcpuHistogram");
+		for (TaskClassProfile p : sorted) {
+			out.printf("%s\t%d\t%d\t%d\t%s\t%s%n", p.getTaskClassName(), p
+					.getInvocationCount(), p.getTotalWallTime(), p
+					.getTotalCpuTime(), toString(p.getWallTimeHistogram()),
+					toString(p.getCpuTimeHistogram()));
+		}
+		out.flush();
+	}
+
+	/*
+	 * Histogram as bucket:count pairs of the non empty buckets
+	 */
+	private static String toString(long[] histogram) {
+		StringBuilder sb = new StringBuilder();
+		for (int i = 0; i < histogram.length; i++) {
+			if (histogram[i] != 0) {
+				if (sb.length() > 0) {
+					sb.append(',');
+				}
+				sb.append(i).append(':').append(histogram[i]);
+			}
+		}
+		return sb.toString();
+	}
+
+	/**
+	 * Writes the statistics to specified file replacing its content. The
+	 * statistics are written to a temporary file first, which is then renamed,
+	 * so the file is never seen half written.
+	 * 
+	 * @param file
+	 *            the file
+	 * @throws IOException
+	 *             if the file cannot be written
+	 */
+	public void dump(File file) throws IOException {
+		File tmp = new File(file.getPath() + ".tmp");
+		FileWriter writer = new FileWriter(tmp);
+		try {
+			writeReport(writer);
+		} finally {
+			writer.close();
+		}
+		if (!tmp.renameTo(file)) {
+			// some platforms do not rename over an existing file
+			file.delete();
+			if (!tmp.renameTo(file)) {
+				throw new IOException("Could not rename " + tmp + " to "
+						+ file);
+			}
+		}
+	}
+
+	/**
+	 * Starts writing the statistics to specified file every period, on a
+	 * daemon thread. Replaces any previous periodic dump.
+	 * 
+	 * @param file
+	 *            the file
+	 * @param period
+	 *            time between dumps in milliseconds
+	 */
+	public synchronized void startDumping(final File file, long period) {
+		if (period <= 0) {
+			logger.log(Level.WARNING, "Dump period must be greater than 0",
+					TaskManager.getCurrentTick());
+			return;
+		}
+		stopDumping();
+		dumpService = Executors
+				.newSingleThreadScheduledExecutor(new ThreadFactory() {
+					@Override
+					public Thread newThread(Runnable r) {
+						Thread t = new Thread(r, "TaskProfilerDump");
+						t.setDaemon(true);
+						return t;
+					}
+				});
+		dumpService.scheduleAtFixedRate(new Runnable() {
+			@Override
+			public void run() {
+				try {
+					dump(file);
+				} catch (IOException e) {
+					logger.log(Level.WARNING, "Could not write profile {1}",
+							new Object[] { TaskManager.getCurrentTick(), e });
+				}
+			}
+		}, period, period, TimeUnit.MILLISECONDS);
+	}
+
+	/**
+	 * Stops the periodic dump, if any.
+	 */
+	public synchronized void stopDumping() {
+		if (dumpService != null) {
+			dumpService.shutdown();
+			dumpService = null;
+		}
+	}
+}
@@ -0,0 +1,75 @@
+/*******************************************************************************
+ * Copyright (c) 2009, 2011 The University of Memphis.  All rights reserved. 
+ * This program and the accompanying materials are made available 
+ * under the terms of the LIDA Software Framework Non-Commercial License v1.0 
+ * which accompanies this distribution, and is available at
+ * http://ccrg.cs.memphis.edu/assets/papers/2010/LIDA-framework-non-commercial-v1.0.pdf
+ *******************************************************************************/
+package edu.memphis.ccrg.lida.framework.tasks;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * The data structure the {@link TaskManager} uses to hold the
+ * {@link FrameworkTask}s scheduled for future ticks. Tasks may be scheduled and
+ * canceled concurrently from any thread, however {@link #pollTasks(long)} and
+ * {@link #getNextScheduledTick()} are only called by the {@link TaskManager}'s
+ * main loop.
+ *
+ * @see MapTaskScheduler
+ * @see TimingWheelTaskScheduler
+ */
+public interface TaskScheduler {
+
+	/**
+	 * Schedules the task for execution at specified tick. Sets the task's
+	 * scheduled tick.
+	 *
+	 * @param task
+	 *            the task to schedule
+	 * @param tick
+	 *            the absolute tick at which the task should be executed
+	 * @return the tick at which the task was actually scheduled. This is later
+	 *         than specified tick only if that tick was already passed.
+	 */
+	public long scheduleTask(FrameworkTask task, long tick);
+
+	/**
+	 * Cancels the task if it is still scheduled.
+	 *
+	 * @param task
+	 *            the task to cancel
+	 * @return true if the task was canceled
+	 */
+	public boolean cancelTask(FrameworkTask task);
+
+	/**
+	 * Removes and returns all tasks scheduled at or before specified tick.
+	 *
+	 * @param tick
+	 *            the tick being executed
+	 * @return the tasks to be executed in the tick or null if there are none
+	 */
+	public Collection<FrameworkTask> pollTasks(long tick);
+
+	/**
+	 * Returns the earliest tick, after the last polled tick, that may have
+	 * scheduled tasks. The returned tick is never later than the earliest
+	 * scheduled task.
+	 *
+	 * @return the next tick to execute or -1 if no tasks are scheduled
+	 */
+	public long getNextScheduledTick();
+
+	/**
+	 * @return an unmodifiable Map of the scheduled tasks indexed by tick
+	 */
+	public Map<Long, Set<FrameworkTask>> getScheduledTasks();
+
+	/**
+	 * Removes all scheduled tasks and resets the scheduler to tick 0.
+	 */
+	public void clear();
+}
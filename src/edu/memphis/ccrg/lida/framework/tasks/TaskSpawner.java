@@ -46,10 +46,27 @@ public interface TaskSpawner extends Initializable {
 	 */
 	public void addTasks(Collection<? extends FrameworkTask> tasks);
 
+	/**
+	 * Adds and runs supplied FrameworkTask as a recurring task. The
+	 * {@link TaskManager} runs it again every
+	 * {@link FrameworkTask#getNextTicksPerRun()} ticks while its
+	 * {@link TaskStatus} is {@link TaskStatus#RUNNING}, without rescheduling it
+	 * after each run.
+	 * 
+	 * @param task
+	 *            the task to add.
+	 * @see TaskManager#scheduleRecurringTask(FrameworkTask, long)
+	 */
+	public void addRecurringTask(FrameworkTask task);
+
 	/**
 	 * This method receives a task that has finished. TaskSpawners can choose
 	 * what to do with the FrameworkTask each time it finishes running.
 	 * Generally the FrameworkTask's {@link TaskStatus} determines this action.
+	 * A task added with {@link #addRecurringTask(FrameworkTask)} is scheduled
+	 * again by the {@link TaskManager} itself, so it must not be scheduled
+	 * again here while it is {@link TaskStatus#RUNNING}. Its next run can still
+	 * be moved with {@link FrameworkTask#setNextTicksPerRun(long)}.
 	 * 
 	 * @param task
 	 *            finished {@link FrameworkTask}
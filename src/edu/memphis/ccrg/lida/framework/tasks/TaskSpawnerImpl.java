@@ -86,6 +86,25 @@ public class TaskSpawnerImpl extends InitializableImpl implements TaskSpawner {
 		}
 	}
 
+	@Override
+	public void addRecurringTask(FrameworkTask task) {
+		if (task == null) {
+			logger.log(Level.WARNING, "Cannot add a null task", TaskManager
+					.getCurrentTick());
+		} else if (task.getTaskStatus() == TaskStatus.CANCELED) {
+			logger.log(Level.WARNING,
+					"Cannot add task {1} because its TaskStatus is CANCELED.",
+					new Object[] { TaskManager.getCurrentTick(), task });
+		} else {
+			task.setControllingTaskSpawner(this);
+			controlledTasks.add(task);
+			task.setTaskStatus(TaskStatus.RUNNING);
+			taskManager.scheduleRecurringTask(task, task.getNextTicksPerRun());
+			logger.log(Level.FINEST, "Recurring task {1} added", new Object[] {
+					TaskManager.getCurrentTick(), task });
+		}
+	}
+
 	/*
 	 * Schedule the FrameworkTask to be executed. Sets task status to RUNNING.
 	 */
@@ -118,7 +137,20 @@ public class TaskSpawnerImpl extends InitializableImpl implements TaskSpawner {
 		case RUNNING:
 			logger.log(Level.FINEST, "RUNNING", new Object[] {
 					TaskManager.getCurrentTick(), task });
-			runTask(task);
+			// Recurring tasks are scheduled again by the TaskManager
+			if (!taskManager.isRecurringTask(task)) {
+				runTask(task);
+			}
+			break;
+		case PARKED:
+			logger.log(Level.FINEST, "PARKED {1}", new Object[] {
+					TaskManager.getCurrentTick(), task });
+			if (!taskManager.parkTask(task)) {
+				task.setTaskStatus(TaskStatus.RUNNING);
+				if (!taskManager.isRecurringTask(task)) {
+					runTask(task);
+				}
+			}
 			break;
 		}
 	}
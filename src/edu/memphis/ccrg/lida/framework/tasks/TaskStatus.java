@@ -33,5 +33,11 @@ public enum TaskStatus {
 	/**
 	 * FrameworkTask status value: Task has finished and has results to process
 	 */
-	FINISHED_WITH_RESULTS
+	FINISHED_WITH_RESULTS,
+
+	/**
+	 * FrameworkTask status value: Task has no work until its
+	 * {@link ChangeSignal} is signaled, it is not scheduled until then
+	 */
+	PARKED
 }
@@ -0,0 +1,74 @@
+/*******************************************************************************
+ * Copyright (c) 2009, 2011 The University of Memphis.  All rights reserved. 
+ * This program and the accompanying materials are made available 
+ * under the terms of the LIDA Software Framework Non-Commercial License v1.0 
+ * which accompanies this distribution, and is available at
+ * http://ccrg.cs.memphis.edu/assets/papers/2010/LIDA-framework-non-commercial-v1.0.pdf
+ *******************************************************************************/
+package edu.memphis.ccrg.lida.framework.tasks;
+
+/**
+ * Execution statistics of the tasks run in one tick by the {@link TaskManager}.
+ * 
+ * @see TaskManager#getLastTickExecutionStats()
+ */
+public class TickExecutionStats {
+
+	private final long tick;
+	private final int taskCount;
+	private final int peakInFlight;
+	private final long wallTime;
+
+	/**
+	 * @param tick
+	 *            the tick the tasks ran in
+	 * @param taskCount
+	 *            number of tasks run
+	 * @param peakInFlight
+	 *            max number of tasks running at the same time
+	 * @param wallTime
+	 *            total time in nanoseconds the tasks took to run
+	 */
+	public TickExecutionStats(long tick, int taskCount, int peakInFlight,
+			long wallTime) {
+		this.tick = tick;
+		this.taskCount = taskCount;
+		this.peakInFlight = peakInFlight;
+		this.wallTime = wallTime;
+	}
+
+	/**
+	 * @return the tick the tasks ran in
+	 */
+	public long getTick() {
+		return tick;
+	}
+
+	/**
+	 * @return number of tasks run in the tick
+	 */
+	public int getTaskCount() {
+		return taskCount;
+	}
+
+	/**
+	 * @return max number of tasks that were running at the same time
+	 */
+	public int getPeakInFlight() {
+		return peakInFlight;
+	}
+
+	/**
+	 * @return sum of the tasks' running times in nanoseconds, including the
+	 *         time they were parked or blocked
+	 */
+	public long getWallTime() {
+		return wallTime;
+	}
+
+	@Override
+	public String toString() {
+		return "Tick " + tick + ": " + taskCount + " tasks, " + peakInFlight
+				+ " in flight, wall " + wallTime + "ns";
+	}
+}
@@ -0,0 +1,99 @@
+/*******************************************************************************
+ * Copyright (c) 2009, 2011 The University of Memphis.  All rights reserved. 
+ * This program and the accompanying materials are made available 
+ * under the terms of the LIDA Software Framework Non-Commercial License v1.0 
+ * which accompanies this distribution, and is available at
+ * http://ccrg.cs.memphis.edu/assets/papers/2010/LIDA-framework-non-commercial-v1.0.pdf
+ *******************************************************************************/
+package edu.memphis.ccrg.lida.framework.tasks;
+
+/**
+ * Statistics of how far from their scheduled real time the paced ticks of the
+ * {@link TaskManager} started. Times are in nanoseconds.
+ * 
+ * @see TaskManager#getTickJitterStats()
+ */
+public class TickJitterStats {
+
+	private final long tickCount;
+	private final long lateTickCount;
+	private final long skippedSlotCount;
+	private final double meanJitter;
+	private final double jitterDeviation;
+	private final long maxJitter;
+
+	/**
+	 * @param tickCount
+	 *            number of paced ticks
+	 * @param lateTickCount
+	 *            number of ticks that finished after the next tick was due
+	 * @param skippedSlotCount
+	 *            number of tick slots dropped by {@link CatchUpPolicy#SKIP}
+	 * @param meanJitter
+	 *            mean delay between the scheduled and the actual start
+	 * @param jitterDeviation
+	 *            standard deviation of the delay
+	 * @param maxJitter
+	 *            max delay
+	 */
+	public TickJitterStats(long tickCount, long lateTickCount,
+			long skippedSlotCount, double meanJitter, double jitterDeviation,
+			long maxJitter) {
+		this.tickCount = tickCount;
+		this.lateTickCount = lateTickCount;
+		this.skippedSlotCount = skippedSlotCount;
+		this.meanJitter = meanJitter;
+		this.jitterDeviation = jitterDeviation;
+		this.maxJitter = maxJitter;
+	}
+
+	/**
+	 * @return number of paced ticks
+	 */
+	public long getTickCount() {
+		return tickCount;
+	}
+
+	/**
+	 * @return number of ticks that finished after the next tick was due
+	 */
+	public long getLateTickCount() {
+		return lateTickCount;
+	}
+
+	/**
+	 * @return number of tick slots dropped by {@link CatchUpPolicy#SKIP}
+	 */
+	public long getSkippedSlotCount() {
+		return skippedSlotCount;
+	}
+
+	/**
+	 * @return mean delay between the scheduled and the actual tick start
+	 */
+	public double getMeanJitter() {
+		return meanJitter;
+	}
+
+	/**
+	 * @return standard deviation of the delay
+	 */
+	public double getJitterDeviation() {
+		return jitterDeviation;
+	}
+
+	/**
+	 * @return max delay between the scheduled and the actual tick start
+	 */
+	public long getMaxJitter() {
+		return maxJitter;
+	}
+
+	@Override
+	public String toString() {
+		return tickCount + " ticks, " + lateTickCount + " late, "
+				+ skippedSlotCount + " skipped, jitter mean "
+				+ (long) meanJitter + "ns, sd " + (long) jitterDeviation
+				+ "ns, max " + maxJitter + "ns";
+	}
+}
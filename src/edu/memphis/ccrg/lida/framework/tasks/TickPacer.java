@@ -0,0 +1,173 @@
+/*******************************************************************************
+ * Copyright (c) 2009, 2011 The University of Memphis.  All rights reserved. 
+ * This program and the accompanying materials are made available 
+ * under the terms of the LIDA Software Framework Non-Commercial License v1.0 
+ * which accompanies this distribution, and is available at
+ * http://ccrg.cs.memphis.edu/assets/papers/2010/LIDA-framework-non-commercial-v1.0.pdf
+ *******************************************************************************/
+package edu.memphis.ccrg.lida.framework.tasks;
+
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Paces the ticks of the {@link TaskManager} in real time with
+ * {@link System#nanoTime()}. Each tick has an absolute deadline computed from
+ * the first one, so sleeping late or early does not accumulate drift. The
+ * thread parks until shortly before the deadline and spins the rest. A tick
+ * that finishes late is handled according to the {@link CatchUpPolicy}. Only
+ * used by the main loop thread.
+ */
+class TickPacer {
+
+	/*
+	 * The last part of a wait is spun, parkNanos may oversleep by about this
+	 * much
+	 */
+	private static final long SPIN_NANOS = 50000L;
+
+	private volatile CatchUpPolicy policy = CatchUpPolicy.SKIP;
+	private boolean anchored;
+	/*
+	 * Scheduled start of the next tick
+	 */
+	private long deadline;
+
+	private long tickCount;
+	private long lateTickCount;
+	private long skippedSlotCount;
+	private double meanJitter;
+	private double jitterM2;
+	private long maxJitter;
+
+	/**
+	 * @param p
+	 *            the {@link CatchUpPolicy} for late ticks
+	 */
+	void setCatchUpPolicy(CatchUpPolicy p) {
+		policy = p;
+	}
+
+	/**
+	 * @return the {@link CatchUpPolicy} for late ticks
+	 */
+	CatchUpPolicy getCatchUpPolicy() {
+		return policy;
+	}
+
+	/**
+	 * Drops the schedule, the next tick starts a new one. Called when the
+	 * ticks stop being paced, e.g. when the main loop waits.
+	 */
+	void restart() {
+		anchored = false;
+	}
+
+	/**
+	 * Called right before a tick starts.
+	 */
+	void startTick() {
+		if (!anchored) {
+			deadline = System.nanoTime();
+			anchored = true;
+		}
+	}
+
+	/**
+	 * Waits until the scheduled start of the next tick.
+	 * 
+	 * @param period
+	 *            length of a tick in nanoseconds
+	 * @param ticks
+	 *            number of ticks advanced by the last execution, skipped
+	 *            empty ticks included
+	 */
+	void awaitNextTick(long period, long ticks) {
+		if (period <= 0) {
+			anchored = false;
+			return;
+		}
+		long target = deadline + period * Math.max(1L, ticks);
+		long now = System.nanoTime();
+		boolean late = now > target;
+		long missed = 0L;
+		if (late) {
+			switch (policy) {
+			case SKIP:
+				missed = (now - target) / period + 1;
+				target += missed * period;
+				break;
+			case STRETCH:
+				target = now;
+				break;
+			default:
+				// BURST keeps the deadline, the next ticks run without pause
+				break;
+			}
+		}
+		now = waitUntil(target);
+		deadline = target;
+		recordTick(Math.max(0L, now - target), late, missed);
+	}
+
+	/*
+	 * Parks then spins until specified time, returns the time it woke up.
+	 */
+	private static long waitUntil(long target) {
+		long now = System.nanoTime();
+		long remaining = target - now;
+		while (remaining > SPIN_NANOS) {
+			LockSupport.parkNanos(remaining - SPIN_NANOS);
+			if (Thread.currentThread().isInterrupted()) {
+				return System.nanoTime();
+			}
+			now = System.nanoTime();
+			remaining = target - now;
+		}
+		while (remaining > 0) {
+			Thread.yield();
+			now = System.nanoTime();
+			remaining = target - now;
+		}
+		return now;
+	}
+
+	/*
+	 * Jitter mean and variance are computed with Welford's method
+	 */
+	private synchronized void recordTick(long jitter, boolean late,
+			long missed) {
+		if (late) {
+			lateTickCount++;
+			skippedSlotCount += missed;
+		}
+		tickCount++;
+		double delta = jitter - meanJitter;
+		meanJitter += delta / tickCount;
+		jitterM2 += delta * (jitter - meanJitter);
+		if (jitter > maxJitter) {
+			maxJitter = jitter;
+		}
+	}
+
+	/**
+	 * @return the jitter statistics since the last reset
+	 */
+	synchronized TickJitterStats getStats() {
+		double deviation = (tickCount > 1) ? Math.sqrt(jitterM2
+				/ (tickCount - 1)) : 0.0;
+		return new TickJitterStats(tickCount, lateTickCount,
+				skippedSlotCount, meanJitter, deviation, maxJitter);
+	}
+
+	/**
+	 * Sets the jitter statistics to 0.
+	 */
+	synchronized void resetStats() {
+		tickCount = 0L;
+		lateTickCount = 0L;
+		skippedSlotCount = 0L;
+		meanJitter = 0.0;
+		jitterM2 = 0.0;
+		maxJitter = 0L;
+	}
+}
@@ -0,0 +1,304 @@
+/*******************************************************************************
+ * Copyright (c) 2009, 2011 The University of Memphis.  All rights reserved. 
+ * This program and the accompanying materials are made available 
+ * under the terms of the LIDA Software Framework Non-Commercial License v1.0 
+ * which accompanies this distribution, and is available at
+ * http://ccrg.cs.memphis.edu/assets/papers/2010/LIDA-framework-non-commercial-v1.0.pdf
+ *******************************************************************************/
+package edu.memphis.ccrg.lida.framework.tasks;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import edu.memphis.ccrg.lida.framework.AgentContext;
+import edu.memphis.ccrg.lida.framework.FrameworkModule;
+import edu.memphis.ccrg.lida.framework.ModuleDependencies;
+import edu.memphis.ccrg.lida.framework.ModuleName;
+
+/**
+ * The work of one tick as a graph: the decay of each module, then the tasks
+ * that touch it. A task waits only for the decays of the modules it declares
+ * with {@link ModuleDependencies}, so tasks run while the modules they do not
+ * touch are still decaying. A task without declared dependencies waits for all
+ * decays, as with a barrier. The modules touched by a module are itself, its
+ * submodules and, transitively, the modules it declares written.
+ * 
+ * @see TaskManager#setTaskGraphEnabled(boolean)
+ */
+class TickTaskGraph {
+
+	private static final Logger logger = Logger.getLogger(TickTaskGraph.class
+			.getCanonicalName());
+
+	private final List<Callable<?>> decays = new ArrayList<Callable<?>>();
+	private final List<Set<ModuleName>> decayed = new ArrayList<Set<ModuleName>>();
+	private final Map<ModuleName, FrameworkModule> modules = new HashMap<ModuleName, FrameworkModule>();
+	/*
+	 * Decays conflicting with an access to a module, computed once per name
+	 */
+	private final Map<ModuleName, BitSet> conflicts = new HashMap<ModuleName, BitSet>();
+	private final BitSet allDecays = new BitSet();
+	private final Map<BitSet, Group> groups = new HashMap<BitSet, Group>();
+	private int taskCount;
+
+	/**
+	 * Adds the decay of a module. All decays must be added before the tasks.
+	 * 
+	 * @param module
+	 *            the decayed module
+	 * @param decay
+	 *            the callable decaying it
+	 */
+	void addDecay(FrameworkModule module, Callable<?> decay) {
+		index(module);
+		decays.add(decay);
+		decayed.add(getTouchedModules(module.getModuleName()));
+		allDecays.set(decays.size() - 1);
+	}
+
+	private void index(FrameworkModule module) {
+		if (module.getModuleName() != null) {
+			modules.put(module.getModuleName(), module);
+		}
+		Map<ModuleName, FrameworkModule> submodules = module.getSubmodules();
+		if (submodules != null) {
+			for (FrameworkModule m : submodules.values()) {
+				index(m);
+			}
+		}
+	}
+
+	/**
+	 * Adds a callable running specified tasks.
+	 * 
+	 * @param tasks
+	 *            the tasks run by the callable
+	 * @param callable
+	 *            the callable
+	 */
+	void addTask(Collection<FrameworkTask> tasks, Callable<?> callable) {
+		BitSet deps = getDependencies(tasks);
+		Group g = groups.get(deps);
+		if (g == null) {
+			g = new Group(deps);
+			groups.put(deps, g);
+		}
+		g.callables.add(callable);
+		taskCount++;
+	}
+
+	/*
+	 * Decays the tasks wait for
+	 */
+	private BitSet getDependencies(Collection<FrameworkTask> tasks) {
+		BitSet deps = new BitSet();
+		for (FrameworkTask t : tasks) {
+			if (!(t instanceof ModuleDependencies)) {
+				return allDecays;
+			}
+			ModuleDependencies md = (ModuleDependencies) t;
+			Collection<ModuleName> read = md.getReadModules();
+			Collection<ModuleName> written = md.getWrittenModules();
+			if (read == null || written == null) {
+				return allDecays;
+			}
+			for (ModuleName name : read) {
+				deps.or(getConflicts(name));
+			}
+			for (ModuleName name : written) {
+				deps.or(getConflicts(name));
+			}
+		}
+		return deps;
+	}
+
+	private BitSet getConflicts(ModuleName name) {
+		BitSet c = conflicts.get(name);
+		if (c == null) {
+			c = new BitSet();
+			Set<ModuleName> touched = getTouchedModules(name);
+			for (int i = 0; i < decayed.size(); i++) {
+				for (ModuleName n : touched) {
+					if (decayed.get(i).contains(n)) {
+						c.set(i);
+						break;
+					}
+				}
+			}
+			conflicts.put(name, c);
+		}
+		return c;
+	}
+
+	/*
+	 * The module, its submodules and the modules it declares written,
+	 * transitively
+	 */
+	private Set<ModuleName> getTouchedModules(ModuleName name) {
+		Set<ModuleName> touched = new HashSet<ModuleName>();
+		List<ModuleName> pending = new ArrayList<ModuleName>();
+		pending.add(name);
+		while (!pending.isEmpty()) {
+			ModuleName n = pending.remove(pending.size() - 1);
+			if (n == null || !touched.add(n)) {
+				continue;
+			}
+			FrameworkModule m = modules.get(n);
+			if (m == null) {
+				continue;
+			}
+			if (m.getSubmodules() != null) {
+				pending.addAll(m.getSubmodules().keySet());
+			}
+			if (m instanceof ModuleDependencies) {
+				Collection<ModuleName> written = ((ModuleDependencies) m)
+						.getWrittenModules();
+				if (written == null) {
+					// unknown, touches every module
+					pending.addAll(modules.keySet());
+				} else {
+					pending.addAll(written);
+				}
+			}
+		}
+		return touched;
+	}
+
+	/**
+	 * @return the number of groups of callables waiting for the same decays
+	 */
+	int getGroupCount() {
+		return groups.size();
+	}
+
+	/**
+	 * Runs the decays and the tasks on specified executor and waits until all
+	 * of them are done. Each group of tasks is submitted when the last decay
+	 * it waits for is done.
+	 * 
+	 * @param executor
+	 *            the executor
+	 * @param context
+	 *            the {@link AgentContext} bound to the executing threads
+	 * @throws InterruptedException
+	 *             if interrupted while waiting
+	 */
+	void run(Executor executor, AgentContext context)
+			throws InterruptedException {
+		CountDownLatch done = new CountDownLatch(decays.size() + taskCount);
+		List<List<Group>> dependents = new ArrayList<List<Group>>(decays
+				.size());
+		for (int i = 0; i < decays.size(); i++) {
+			dependents.add(new ArrayList<Group>());
+		}
+		List<Group> ready = new ArrayList<Group>();
+		for (Group g : groups.values()) {
+			int n = g.deps.cardinality();
+			g.pending.set(n);
+			if (n == 0) {
+				ready.add(g);
+			}
+			for (int i = g.deps.nextSetBit(0); i >= 0; i = g.deps
+					.nextSetBit(i + 1)) {
+				dependents.get(i).add(g);
+			}
+		}
+		for (int i = 0; i < decays.size(); i++) {
+			submit(executor, new Node(decays.get(i), dependents.get(i),
+					executor, context, done));
+		}
+		for (Group g : ready) {
+			g.submit(executor, context, done);
+		}
+		done.await();
+	}
+
+	private static void submit(Executor executor, Node node) {
+		try {
+			executor.execute(node);
+		} catch (RejectedExecutionException e) {
+			logger.log(Level.WARNING, "Task rejected: {1}", new Object[] {
+					TaskManager.getCurrentTick(), e });
+			node.release();
+		}
+	}
+
+	/*
+	 * Callables waiting for the same decays
+	 */
+	private static class Group {
+		private final BitSet deps;
+		private final List<Callable<?>> callables = new ArrayList<Callable<?>>();
+		private final AtomicInteger pending = new AtomicInteger();
+
+		public Group(BitSet deps) {
+			this.deps = deps;
+		}
+
+		private void submit(Executor executor, AgentContext context,
+				CountDownLatch done) {
+			for (Callable<?> c : callables) {
+				TickTaskGraph.submit(executor, new Node(c, null, executor,
+						context, done));
+			}
+		}
+	}
+
+	/*
+	 * Runs a callable then submits the groups whose last pending decay it was
+	 */
+	private static class Node implements Runnable {
+		private final Callable<?> callable;
+		private final List<Group> dependents;
+		private final Executor executor;
+		private final AgentContext context;
+		private final CountDownLatch done;
+
+		public Node(Callable<?> callable, List<Group> dependents,
+				Executor executor, AgentContext context, CountDownLatch done) {
+			this.callable = callable;
+			this.dependents = dependents;
+			this.executor = executor;
+			this.context = context;
+			this.done = done;
+		}
+
+		@Override
+		public void run() {
+			AgentContext previous = AgentContext.setCurrent(context);
+			try {
+				callable.call();
+			} catch (Exception e) {
+				logger.log(Level.WARNING, "Exception in tick graph: {1}",
+						new Object[] { TaskManager.getCurrentTick(), e });
+			} finally {
+				AgentContext.setCurrent(previous);
+				release();
+			}
+		}
+
+		private void release() {
+			if (dependents != null) {
+				for (Group g : dependents) {
+					if (g.pending.decrementAndGet() == 0) {
+						g.submit(executor, context, done);
+					}
+				}
+			}
+			done.countDown();
+		}
+	}
+}
@@ -0,0 +1,229 @@
+/*******************************************************************************
+ * Copyright (c) 2009, 2011 The University of Memphis.  All rights reserved. 
+ * This program and the accompanying materials are made available 
+ * under the terms of the LIDA Software Framework Non-Commercial License v1.0 
+ * which accompanies this distribution, and is available at
+ * http://ccrg.cs.memphis.edu/assets/papers/2010/LIDA-framework-non-commercial-v1.0.pdf
+ *******************************************************************************/
+package edu.memphis.ccrg.lida.framework.tasks;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * A {@link TaskScheduler} based on a hierarchical timing wheel. Each level of
+ * the wheel has {@link #WHEEL_SIZE} slots and each slot is a lock-free queue.
+ * A task is placed in the lowest level whose slot range covers its tick. As
+ * the current tick advances the slots of the higher levels are cascaded down.
+ * Scheduling and canceling a task are O(1) and never lock.
+ * <p>
+ * A task is pending at a single tick. Canceling or rescheduling a task only
+ * updates the pending tick; the stale queue entries are dropped when their
+ * slot is reached.
+ */
+public class TimingWheelTaskScheduler implements TaskScheduler {
+
+	/**
+	 * Number of bits of the tick covered by each level of the wheel
+	 */
+	public static final int WHEEL_BITS = 6;
+	/**
+	 * Number of slots in each level of the wheel
+	 */
+	public static final int WHEEL_SIZE = 1 << WHEEL_BITS;
+	private static final int WHEEL_MASK = WHEEL_SIZE - 1;
+	private static final int LEVELS = (Long.SIZE + WHEEL_BITS - 1) / WHEEL_BITS;
+
+	private final Queue<FrameworkTask>[][] wheels;
+	/*
+	 * The tick at which each task is pending. A task is executed only if it
+	 * is removed from this map at its pending tick.
+	 */
+	private final ConcurrentMap<FrameworkTask, Long> pending = new ConcurrentHashMap<FrameworkTask, Long>();
+	/*
+	 * Last polled tick. Written only by the polling thread.
+	 */
+	private volatile long wheelTick;
+	/*
+	 * Buffer reused to drain slots, only used by the polling thread.
+	 */
+	private final List<FrameworkTask> drained = new ArrayList<FrameworkTask>();
+
+	/**
+	 * Constructs a new empty timing wheel at tick 0.
+	 */
+	public TimingWheelTaskScheduler() {
+		wheels = newWheels();
+		for (int level = 0; level < LEVELS; level++) {
+			for (int slot = 0; slot < WHEEL_SIZE; slot++) {
+				wheels[level][slot] = new ConcurrentLinkedQueue<FrameworkTask>();
+			}
+		}
+	}
+
+	/*
+	 * Generic arrays cannot be created directly
+	 */
+	@SuppressWarnings({ "unchecked", "rawtypes" })
+	private static Queue<FrameworkTask>[][] newWheels() {
+		return new Queue[LEVELS][WHEEL_SIZE];
+	}
+
+	@Override
+	public long scheduleTask(FrameworkTask task, long tick) {
+		task.setScheduledTick(tick);
+		Long previous = pending.put(task, tick);
+		if (previous != null && previous == tick) {
+			return tick; // already queued for this tick
+		}
+		while (true) {
+			long w = wheelTick;
+			if (tick <= w) {
+				// Tick already polled, the task runs in the next tick instead
+				if (!pending.replace(task, tick, w + 1)) {
+					return tick; // canceled or rescheduled concurrently
+				}
+				tick = w + 1;
+				task.setScheduledTick(tick);
+				continue;
+			}
+			int level = getLevel(tick, w);
+			wheels[level][getSlot(tick, level)].offer(task);
+			long w2 = wheelTick;
+			if (w2 == w || (tick > w2 && getLevel(tick, w2) == level)) {
+				return tick;
+			}
+			// The wheel advanced and the slot may have been cascaded already.
+			// Place the task again, the duplicate entry is dropped later.
+		}
+	}
+
+	@Override
+	public boolean cancelTask(FrameworkTask task) {
+		return pending.remove(task, task.getScheduledTick());
+	}
+
+	@Override
+	public Collection<FrameworkTask> pollTasks(long tick) {
+		long w = wheelTick;
+		if (tick <= w) {
+			return null;
+		}
+		wheelTick = tick;
+		List<FrameworkTask> due = new ArrayList<FrameworkTask>();
+		int top = getLevel(tick, w);
+		for (int level = 0; level <= top; level++) {
+			if (level < top) {
+				// The whole level is behind the new tick
+				for (int slot = 0; slot < WHEEL_SIZE; slot++) {
+					drainSlot(wheels[level][slot], tick, due);
+				}
+			} else {
+				int last = getSlot(tick, level);
+				for (int slot = getSlot(w, level) + 1; slot <= last; slot++) {
+					drainSlot(wheels[level][slot], tick, due);
+				}
+			}
+		}
+		return due.isEmpty() ? null : due;
+	}
+
+	/*
+	 * Removes all entries in the slot. Tasks pending at or before the tick are
+	 * added to 'due', later tasks are placed again relative to the tick and
+	 * stale entries are dropped.
+	 */
+	private void drainSlot(Queue<FrameworkTask> queue, long tick,
+			List<FrameworkTask> due) {
+		FrameworkTask task;
+		while ((task = queue.poll()) != null) {
+			drained.add(task);
+		}
+		for (FrameworkTask t : drained) {
+			Long p = pending.get(t);
+			while (p != null) {
+				if (p > tick) {
+					int level = getLevel(p, tick);
+					wheels[level][getSlot(p, level)].offer(t);
+					break;
+				} else if (pending.remove(t, p)) {
+					due.add(t);
+					break;
+				}
+				p = pending.get(t);
+			}
+		}
+		drained.clear();
+	}
+
+	@Override
+	public long getNextScheduledTick() {
+		long w = wheelTick;
+		for (int level = 0; level < LEVELS; level++) {
+			for (int slot = getSlot(w, level) + 1; slot < WHEEL_SIZE; slot++) {
+				if (!wheels[level][slot].isEmpty()) {
+					return getSlotStart(w, level, slot);
+				}
+			}
+		}
+		return -1L;
+	}
+
+	@Override
+	public Map<Long, Set<FrameworkTask>> getScheduledTasks() {
+		SortedMap<Long, Set<FrameworkTask>> tasks = new TreeMap<Long, Set<FrameworkTask>>();
+		for (Map.Entry<FrameworkTask, Long> entry : pending.entrySet()) {
+			Set<FrameworkTask> set = tasks.get(entry.getValue());
+			if (set == null) {
+				set = new HashSet<FrameworkTask>();
+				tasks.put(entry.getValue(), set);
+			}
+			set.add(entry.getKey());
+		}
+		return Collections.unmodifiableMap(tasks);
+	}
+
+	@Override
+	public void clear() {
+		pending.clear();
+		for (Queue<FrameworkTask>[] wheel : wheels) {
+			for (Queue<FrameworkTask> slot : wheel) {
+				slot.clear();
+			}
+		}
+		wheelTick = 0L;
+	}
+
+	/*
+	 * The level at which a tick is placed when the wheel is at tick 'w': the
+	 * level of the highest bits in which they differ.
+	 */
+	private static int getLevel(long tick, long w) {
+		return (Long.SIZE - 1 - Long.numberOfLeadingZeros(tick ^ w))
+				/ WHEEL_BITS;
+	}
+
+	private static int getSlot(long tick, int level) {
+		return (int) ((tick >>> (level * WHEEL_BITS)) & WHEEL_MASK);
+	}
+
+	/*
+	 * First tick covered by a slot of a level when the wheel is at tick 'w'.
+	 */
+	private static long getSlotStart(long w, int level, int slot) {
+		int shift = (level + 1) * WHEEL_BITS;
+		long upper = (shift >= Long.SIZE) ? 0L : (w >>> shift) << shift;
+		return upper | ((long) slot << (level * WHEEL_BITS));
+	}
+}
@@ -9,9 +9,10 @@ package edu.memphis.ccrg.lida.globalworkspace;
 
 import edu.memphis.ccrg.lida.attentioncodelets.AttentionCodelet;
 import edu.memphis.ccrg.lida.attentioncodelets.AttentionCodeletImpl;
+import edu.memphis.ccrg.lida.framework.AgentContext;
 import edu.memphis.ccrg.lida.framework.shared.Linkable;
 import edu.memphis.ccrg.lida.framework.shared.NodeStructure;
-import edu.memphis.ccrg.lida.framework.shared.UnmodifiableNodeStructureImpl;
+import edu.memphis.ccrg.lida.framework.shared.PersistentNodeStructure;
 import edu.memphis.ccrg.lida.framework.shared.activation.ActivatibleImpl;
 
 /**
@@ -25,7 +26,6 @@ import edu.memphis.ccrg.lida.framework.shared.activation.ActivatibleImpl;
  */
 public class CoalitionImpl extends ActivatibleImpl implements Coalition {
 
-	private static int idCounter = 0;
 	/*
 	 * unique id
 	 */
@@ -45,7 +45,7 @@ public class CoalitionImpl extends ActivatibleImpl implements Coalition {
 	 */
 	public CoalitionImpl() {
 		super();
-		id = idCounter++;
+		id = AgentContext.getCurrent().getNextCoalitionId();
 	}
 
 	/**
@@ -87,8 +87,9 @@ public class CoalitionImpl extends ActivatibleImpl implements Coalition {
 	}
 
 	/**
-	 * Returns an {@link UnmodifiableNodeStructureImpl} containing the broadcast
-	 * content. Note that {@link UnmodifiableNodeStructureImpl} cannot be modified.
+	 * Returns a {@link PersistentNodeStructure} containing the broadcast
+	 * content. Note that {@link PersistentNodeStructure} cannot be modified, so
+	 * the receivers of the broadcast share it.
 	 */
 	@Override
 	public BroadcastContent getContent() {
@@ -97,7 +98,7 @@ public class CoalitionImpl extends ActivatibleImpl implements Coalition {
 
 	@Override
 	public void setContent(BroadcastContent c) {
-		broadcastContent = new UnmodifiableNodeStructureImpl((NodeStructure) c,true);
+		broadcastContent = PersistentNodeStructure.snapshot((NodeStructure) c);
 	}
 
 	@Override
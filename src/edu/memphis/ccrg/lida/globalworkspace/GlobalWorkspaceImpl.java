@@ -11,6 +11,7 @@
 package edu.memphis.ccrg.lida.globalworkspace;
 
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
 import java.util.Queue;
@@ -19,13 +20,16 @@ import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
+import edu.memphis.ccrg.lida.framework.FrameworkModule;
 import edu.memphis.ccrg.lida.framework.FrameworkModuleImpl;
+import edu.memphis.ccrg.lida.framework.ModuleDependencies;
+import edu.memphis.ccrg.lida.framework.ModuleName;
 import edu.memphis.ccrg.lida.framework.ModuleListener;
 import edu.memphis.ccrg.lida.framework.initialization.Initializable;
 import edu.memphis.ccrg.lida.framework.shared.ElementFactory;
 import edu.memphis.ccrg.lida.framework.strategies.DecayStrategy;
+import edu.memphis.ccrg.lida.framework.tasks.AbstractFrameworkTask;
 import edu.memphis.ccrg.lida.framework.tasks.FrameworkTask;
-import edu.memphis.ccrg.lida.framework.tasks.FrameworkTaskImpl;
 import edu.memphis.ccrg.lida.framework.tasks.TaskManager;
 import edu.memphis.ccrg.lida.globalworkspace.triggers.BroadcastTrigger;
 
@@ -40,13 +44,13 @@ import edu.memphis.ccrg.lida.globalworkspace.triggers.BroadcastTrigger;
  * @author Ryan J. McCall
  */
 public class GlobalWorkspaceImpl extends FrameworkModuleImpl implements
-		GlobalWorkspace {
+		GlobalWorkspace, ModuleDependencies {
 
 	private static final Logger logger = Logger
 			.getLogger(GlobalWorkspaceImpl.class.getCanonicalName());
-	private static final ElementFactory factory = ElementFactory.getInstance();
+	private final ElementFactory factory = ElementFactory.getInstance();
 	private static final Integer DEFAULT_REFRACTORY_PERIOD = 40;
-	private static final String DEFAULT_COALITION_DECAY = factory
+	private static final String DEFAULT_COALITION_DECAY = ElementFactory.getInstance()
 			.getDefaultDecayType();
 	private static final double DEFAULT_COALITION_REMOVAL_THRESHOLD = 0.0;
 
@@ -107,7 +111,7 @@ public class GlobalWorkspaceImpl extends FrameworkModuleImpl implements
 		taskSpawner.addTask(new StartTriggersTask());
 	}
 
-	private class StartTriggersTask extends FrameworkTaskImpl {
+	private class StartTriggersTask extends AbstractFrameworkTask {
 		public StartTriggersTask() {
 			super(1);
 		}
@@ -217,7 +221,7 @@ public class GlobalWorkspaceImpl extends FrameworkModuleImpl implements
 		return broadcastWasSent;
 	}
 
-	private class SendBroadcastTask extends FrameworkTaskImpl {
+	private class SendBroadcastTask extends AbstractFrameworkTask {
 		private BroadcastListener listener;
 		private Coalition coalition;
 
@@ -340,4 +344,30 @@ public class GlobalWorkspaceImpl extends FrameworkModuleImpl implements
 		this.coalitionDecayStrategy = coalitionDecayStrategy;
 	}
 
+	/**
+	 * The global workspace reads no other module.
+	 * 
+	 * @return an empty collection
+	 */
+	@Override
+	public Collection<ModuleName> getReadModules() {
+		return Collections.emptyList();
+	}
+
+	/**
+	 * A coalition added to the global workspace may trigger a broadcast which
+	 * is sent synchronously to the {@link BroadcastListener}s.
+	 * 
+	 * @return the {@link ModuleName}s of the listeners that are modules
+	 */
+	@Override
+	public Collection<ModuleName> getWrittenModules() {
+		List<ModuleName> names = new ArrayList<ModuleName>();
+		for (BroadcastListener bl : broadcastListeners) {
+			if (bl instanceof FrameworkModule) {
+				names.add(((FrameworkModule) bl).getModuleName());
+			}
+		}
+		return names;
+	}
 }
@@ -13,7 +13,7 @@ package edu.memphis.ccrg.lida.globalworkspace.triggers;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
-import edu.memphis.ccrg.lida.framework.tasks.FrameworkTaskImpl;
+import edu.memphis.ccrg.lida.framework.tasks.AbstractFrameworkTask;
 import edu.memphis.ccrg.lida.framework.tasks.TaskManager;
 import edu.memphis.ccrg.lida.globalworkspace.GlobalWorkspace;
 
@@ -23,7 +23,7 @@ import edu.memphis.ccrg.lida.globalworkspace.GlobalWorkspace;
  * 
  * @author Javier Snaider
  */
-public class TriggerTask extends FrameworkTaskImpl {
+public class TriggerTask extends AbstractFrameworkTask {
 
 	private Logger logger = Logger.getLogger(TriggerTask.class
 			.getCanonicalName());
@@ -6,6 +6,7 @@ import java.util.logging.Logger;
 
 import edu.memphis.ccrg.lida.framework.Agent;
 import edu.memphis.ccrg.lida.framework.initialization.FullyInitializable;
+import edu.memphis.ccrg.lida.framework.initialization.GlobalInitializer;
 import edu.memphis.ccrg.lida.framework.initialization.Initializer;
 import edu.memphis.ccrg.lida.pam.BasicPamInitializer;
 import edu.memphis.ccrg.lida.pam.PamNode;
@@ -78,7 +79,7 @@ public class MotivationPamInitializer extends BasicPamInitializer {
 						logger.log(Level.WARNING,
 								"Failed to get Node '{0}' from PAM.", label);
 					}else{
-						globalInitializer.setAttribute(label, node);
+						GlobalInitializer.getInstance().setAttribute(label, node);
 						if (nodeParams.length >= 2) {
 							parseBaseLevelActivation(nodeParams[1],node);
 						}
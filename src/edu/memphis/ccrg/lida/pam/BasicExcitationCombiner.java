@@ -0,0 +1,53 @@
+/*******************************************************************************
+ * Copyright (c) 2009, 2011 The University of Memphis.  All rights reserved. 
+ * This program and the accompanying materials are made available 
+ * under the terms of the LIDA Software Framework Non-Commercial License v1.0 
+ * which accompanies this distribution, and is available at
+ * http://ccrg.cs.memphis.edu/assets/papers/2010/LIDA-framework-non-commercial-v1.0.pdf
+ *******************************************************************************/
+package edu.memphis.ccrg.lida.pam;
+
+import edu.memphis.ccrg.lida.framework.strategies.ExciteStrategy;
+
+/**
+ * The basic ways of combining the excitations received by a {@link PamNode}.
+ */
+public enum BasicExcitationCombiner implements ExcitationCombiner {
+
+	/**
+	 * Adds the excitations
+	 */
+	SUM {
+		@Override
+		public double combine(PamNode node, double accumulated,
+				double excitation) {
+			return accumulated + excitation;
+		}
+	},
+
+	/**
+	 * Keeps the largest excitation
+	 */
+	MAX {
+		@Override
+		public double combine(PamNode node, double accumulated,
+				double excitation) {
+			return Math.max(accumulated, excitation);
+		}
+	},
+
+	/**
+	 * Combines the excitations with the {@link ExciteStrategy} of the node
+	 */
+	EXCITE_STRATEGY {
+		@Override
+		public double combine(PamNode node, double accumulated,
+				double excitation) {
+			ExciteStrategy strategy = node.getExciteStrategy();
+			if (strategy == null) {
+				return accumulated + excitation;
+			}
+			return strategy.excite(accumulated, excitation);
+		}
+	};
+}
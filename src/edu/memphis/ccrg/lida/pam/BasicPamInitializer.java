@@ -50,9 +50,13 @@ public class BasicPamInitializer implements Initializer {
 	private static final Logger logger = Logger.getLogger(BasicPamInitializer.class.getCanonicalName());
 	/**
 	 * A {@link GlobalInitializer} reference.
+	 * 
+	 * @deprecated delegates to the {@link GlobalInitializer} of the current
+	 *             agent, use {@link GlobalInitializer#getInstance()} instead
 	 */
-	protected static final GlobalInitializer globalInitializer = GlobalInitializer.getInstance();
-	private static final ElementFactory factory = ElementFactory.getInstance();
+	@Deprecated
+	protected static final GlobalInitializer globalInitializer = GlobalInitializer
+			.getContextDelegate();
 
 	@Override
 	public void initModule(FullyInitializable m, Agent agent, Map<String, ?> params) {
@@ -92,7 +96,7 @@ public class BasicPamInitializer implements Initializer {
 						logger.log(Level.WARNING,
 								"Failed to get Node '{0}' from PAM.", label);
 					}else{
-						globalInitializer.setAttribute(label, node);
+						GlobalInitializer.getInstance().setAttribute(label, node);
 						if (nodeParams.length >= 2) {
 							parseBaseLevelActivation(nodeParams[1],node);
 						}
@@ -122,13 +126,13 @@ public class BasicPamInitializer implements Initializer {
 							"Empty string found in link category specification, link category labels must be non-empty");
 				}else{
 					logger.log(Level.INFO, "Loading LinkCategory: {0}", label);
-					PamNode node=(PamNode)factory.getNode("PamNodeImpl", label);
+					PamNode node=(PamNode) ElementFactory.getInstance().getNode("PamNodeImpl", label);
 					if (node == null) {
 						logger.log(Level.WARNING,
 								"Failed to add LinkCategory '{0}' to PAM.", label);
 					}else{
 						pam.addLinkCategory(node);
-						globalInitializer.setAttribute(label, node);
+						GlobalInitializer.getInstance().setAttribute(label, node);
 						if (categoryParams.length >= 2) {
 							parseBaseLevelActivation(categoryParams[1],node);
 						}
@@ -0,0 +1,31 @@
+/*******************************************************************************
+ * Copyright (c) 2009, 2011 The University of Memphis.  All rights reserved. 
+ * This program and the accompanying materials are made available 
+ * under the terms of the LIDA Software Framework Non-Commercial License v1.0 
+ * which accompanies this distribution, and is available at
+ * http://ccrg.cs.memphis.edu/assets/papers/2010/LIDA-framework-non-commercial-v1.0.pdf
+ *******************************************************************************/
+package edu.memphis.ccrg.lida.pam;
+
+/**
+ * Combines the excitations a {@link PamNode} receives before its pending
+ * excitation is run, when {@link PerceptualAssociativeMemoryImpl} coalesces
+ * excitations.
+ * 
+ * @see BasicExcitationCombiner
+ */
+public interface ExcitationCombiner {
+
+	/**
+	 * Combines an excitation with the amount accumulated so far.
+	 * 
+	 * @param node
+	 *            the {@link PamNode} receiving the excitations
+	 * @param accumulated
+	 *            the excitation accumulated so far
+	 * @param excitation
+	 *            the new excitation
+	 * @return the combined excitation
+	 */
+	public double combine(PamNode node, double accumulated, double excitation);
+}
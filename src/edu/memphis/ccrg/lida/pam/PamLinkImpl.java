@@ -167,6 +167,16 @@ public class PamLinkImpl extends LinkImpl implements PamLink {
 		return learnable.getExciteStrategy();
 	}
 
+	@Override
+	public void setLazyDecay(boolean lazy) {
+		learnable.setLazyDecay(lazy);
+	}
+
+	@Override
+	public boolean isLazyDecay() {
+		return learnable.isLazyDecay();
+	}
+
 	@Override
 	public void decay(long ticks) {
 		learnable.decay(ticks);
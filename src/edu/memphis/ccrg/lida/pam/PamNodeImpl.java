@@ -155,6 +155,16 @@ public class PamNodeImpl extends NodeImpl implements PamNode {
 		return learnable.getExciteStrategy();
 	}
 
+	@Override
+	public void setLazyDecay(boolean lazy) {
+		learnable.setLazyDecay(lazy);
+	}
+
+	@Override
+	public boolean isLazyDecay() {
+		return learnable.isLazyDecay();
+	}
+
 	@Override
 	public void decay(long ticks) {
 		learnable.decay(ticks);
@@ -16,6 +16,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -55,7 +56,7 @@ public class PerceptualAssociativeMemoryImpl extends FrameworkModuleImpl
 
 	private static final Logger logger = Logger
 			.getLogger(PerceptualAssociativeMemoryImpl.class.getCanonicalName());
-	private static ElementFactory factory = ElementFactory.getInstance();
+	private final ElementFactory factory = ElementFactory.getInstance();
 
 	private static final String DEFAULT_NONDECAYING_PAMNODE = "NoDecayPamNode";
 
@@ -97,30 +98,45 @@ public class PerceptualAssociativeMemoryImpl extends FrameworkModuleImpl
 	private static final double DEFAULT_PROPAGATION_THRESHOLD = 0.05;
 	private double propagateActivationThreshold = DEFAULT_PROPAGATION_THRESHOLD;
 
+	private static final boolean DEFAULT_COALESCE_EXCITATIONS = false;
+	private volatile boolean coalesceExcitations = DEFAULT_COALESCE_EXCITATIONS;
+
+	private static final String DEFAULT_EXCITATION_COMBINER = "SUM";
+
+	private static final boolean DEFAULT_LAZY_DECAY = false;
+	private static final boolean DEFAULT_INT_KEYED_NODES = false;
+	private static final boolean DEFAULT_LOCK_STRIPING = false;
+	private volatile ExcitationCombiner excitationCombiner = BasicExcitationCombiner.SUM;
+
+	/*
+	 * The ExcitationTask not yet run for each PamNode, when coalescing
+	 */
+	private ConcurrentMap<PamNode, ExcitationTask> pendingExcitations = new ConcurrentHashMap<PamNode, ExcitationTask>();
+
 	private Map<Integer, LinkCategory> linkCategories = new HashMap<Integer, LinkCategory>();
 
 	/**
 	 * Primitive default {@link LinkCategory}.
 	 */
-	public static LinkCategory DEFAULT_LINK_CATEGORY = (PamNode) factory.getNode(
+	public static LinkCategory DEFAULT_LINK_CATEGORY = (PamNode) ElementFactory.getInstance().getNode(
 			DEFAULT_NONDECAYING_PAMNODE, "default-link");
 
 	/**
 	 * Primitive {@link LinkCategory} LATERAL
 	 */
-	public static LinkCategory LATERAL_LINK_CATEGORY = (PamNode) factory.getNode(
+	public static LinkCategory LATERAL_LINK_CATEGORY = (PamNode) ElementFactory.getInstance().getNode(
 			DEFAULT_NONDECAYING_PAMNODE, "lateral-link");
 
 	/**
 	 * Primitive {@link LinkCategory} PARENT
 	 */
-	public static LinkCategory PARENT_LINK_CATEGORY = (PamNode) factory.getNode(
+	public static LinkCategory PARENT_LINK_CATEGORY = (PamNode) ElementFactory.getInstance().getNode(
 			DEFAULT_NONDECAYING_PAMNODE, "parent-link");
 
 	/**
 	 * Primitive {@link LinkCategory} FEATURE
 	 */
-	public static LinkCategory FEATURE_LINK_CATEGORY = (PamNode) factory.getNode(
+	public static LinkCategory FEATURE_LINK_CATEGORY = (PamNode) ElementFactory.getInstance().getNode(
 			DEFAULT_NONDECAYING_PAMNODE, "feature-link");
 	/*
 	 * A map where an entry represents a mapping between one factory element type and another.
@@ -157,6 +173,16 @@ public class PerceptualAssociativeMemoryImpl extends FrameworkModuleImpl
 	 * <b>pam.propagateActivationThreshold</b> the amount of activation
 	 * necessary to be propagated i.e. a lesser amount is not (worth being)
 	 * passed.<br/>
+	 * <b>pam.coalesceExcitations</b> if true the excitations a PamNode receives
+	 * before its pending excitation runs are combined into it, default is false<br/>
+	 * <b>pam.excitationCombiner</b> how coalesced excitations are combined: SUM,
+	 * MAX or EXCITE_STRATEGY, default is SUM<br/>
+	 * <b>pam.lazyDecay</b> if true PamNodes and PamLinks decay lazily when read
+	 * instead of being swept every decay, default is false<br/>
+	 * <b>pam.intKeyedNodes</b> if true PamNodes are stored in an
+	 * open-addressing table with primitive int keys, default is false<br/>
+	 * <b>pam.lockStriping</b> if true adding PamNodes and PamLinks only locks
+	 * their neighborhood instead of the whole structure, default is false<br/>
 	 * <b>pam.perceptMapping.*</b> (String)- Can accept multiple mapping definitions of the form: mappingType:originalFactoryName:mappedFactoryname<br/>
 	 * 
 	 * @see Initializable
@@ -169,6 +195,18 @@ public class PerceptualAssociativeMemoryImpl extends FrameworkModuleImpl
 		excitationTaskTicksPerRun=getParam("pam.excitationTicksPerRun",DEFAULT_EXCITATION_TASK_TICKS);
 		propagationTaskTicksPerRun=getParam("pam.propagationTicksPerRun",DEFAULT_PROPAGATION_TASK_TICKS);
 		propagateActivationThreshold=getParam("pam.propagateActivationThreshold",DEFAULT_PROPAGATION_THRESHOLD);
+		coalesceExcitations=getParam("pam.coalesceExcitations",DEFAULT_COALESCE_EXCITATIONS);
+		pamNodeStructure.setLazyDecay(getParam("pam.lazyDecay",DEFAULT_LAZY_DECAY));
+		pamNodeStructure.setIntKeyedNodes(getParam("pam.intKeyedNodes",DEFAULT_INT_KEYED_NODES));
+		pamNodeStructure.setLockStriping(getParam("pam.lockStriping",DEFAULT_LOCK_STRIPING));
+		String combinerName=getParam("pam.excitationCombiner",DEFAULT_EXCITATION_COMBINER);
+		try{
+			excitationCombiner=BasicExcitationCombiner.valueOf(combinerName.trim().toUpperCase());
+		}catch(IllegalArgumentException e){
+			logger.log(Level.WARNING,"Bad excitation combiner: {1}. Using SUM.",
+					new Object[]{TaskManager.getCurrentTick(),combinerName});
+			excitationCombiner=BasicExcitationCombiner.SUM;
+		}
 		initTypeConversion();
 	}
 
@@ -221,6 +259,46 @@ public class PerceptualAssociativeMemoryImpl extends FrameworkModuleImpl
 		return propagationStrategy;
 	}
 
+	/**
+	 * Sets whether the excitations a {@link PamNode} receives before its
+	 * pending excitation runs are combined into a single excitation.
+	 * 
+	 * @param coalesce
+	 *            true to coalesce excitations
+	 */
+	public void setCoalesceExcitations(boolean coalesce) {
+		coalesceExcitations = coalesce;
+	}
+
+	/**
+	 * @return true if excitations are coalesced
+	 */
+	public boolean isCoalesceExcitations() {
+		return coalesceExcitations;
+	}
+
+	/**
+	 * Sets how coalesced excitations are combined.
+	 * 
+	 * @param c
+	 *            the {@link ExcitationCombiner}
+	 */
+	public void setExcitationCombiner(ExcitationCombiner c) {
+		if (c == null) {
+			logger.log(Level.WARNING, "Cannot set a null ExcitationCombiner",
+					TaskManager.getCurrentTick());
+		} else {
+			excitationCombiner = c;
+		}
+	}
+
+	/**
+	 * @return the {@link ExcitationCombiner} of coalesced excitations
+	 */
+	public ExcitationCombiner getExcitationCombiner() {
+		return excitationCombiner;
+	}
+
 	/**
 	 * @return the excitationTaskTicksPerRun
 	 */
@@ -391,15 +469,44 @@ public class PerceptualAssociativeMemoryImpl extends FrameworkModuleImpl
 						new Object[] { TaskManager.getCurrentTick(), linkable,
 								amount });
 			}
-			ExcitationTask task = new ExcitationTask(excitationTaskTicksPerRun,
-					linkable, amount, this);
-			taskSpawner.addTask(task);
+			if (coalesceExcitations) {
+				coalesceExcitation(linkable, amount);
+			} else {
+				ExcitationTask task = ExcitationTask.acquire(
+						excitationTaskTicksPerRun, linkable, amount, this);
+				taskSpawner.addTask(task);
+			}
 		} else {
 			logger.log(Level.WARNING, "Cannot find pamnode: {1}", new Object[] {
 					TaskManager.getCurrentTick(), linkable });
 		}
 	}
 
+	/*
+	 * Adds the excitation to the node's pending ExcitationTask or, if there
+	 * is none or it already started, schedules a new one. A new task losing
+	 * the race to another thread's is discarded, not recycled, so that only
+	 * tasks which ran are ever returned to the pool.
+	 */
+	private void coalesceExcitation(PamNode node, double amount) {
+		while (true) {
+			ExcitationTask task = pendingExcitations.get(node);
+			if (task == null) {
+				task = ExcitationTask.acquire(excitationTaskTicksPerRun, node,
+						amount, this);
+				task.setCoalescing(excitationCombiner, pendingExcitations);
+				if (pendingExcitations.putIfAbsent(node, task) == null) {
+					taskSpawner.addTask(task);
+					return;
+				}
+			} else if (task.addExcitation(node, amount)) {
+				return;
+			} else {
+				pendingExcitations.remove(node, task);
+			}
+		}
+	}
+
 	@Override
 	public void receiveExcitation(Set<PamLinkable> linkables, double amount) {
 		for (PamLinkable linkable : linkables) {
@@ -436,8 +543,8 @@ public class PerceptualAssociativeMemoryImpl extends FrameworkModuleImpl
 					"Exciting sink: {1} and connecting link {2} amount: {3}",
 					new Object[]{TaskManager.getCurrentTick(),link.getSink(),link,activation});
 		}
-		PropagationTask task = new PropagationTask(propagationTaskTicksPerRun,
-													(PamLink)link,activation,this);
+		PropagationTask task = PropagationTask.acquire(propagationTaskTicksPerRun,
+													link,activation,this);
 		taskSpawner.addTask(task);
 	}
 
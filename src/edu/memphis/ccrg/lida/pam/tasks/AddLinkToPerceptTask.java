@@ -7,9 +7,12 @@
  *******************************************************************************/
 package edu.memphis.ccrg.lida.pam.tasks;
 
+import edu.memphis.ccrg.lida.framework.AgentContext;
 import edu.memphis.ccrg.lida.framework.shared.Link;
 import edu.memphis.ccrg.lida.framework.shared.Node;
-import edu.memphis.ccrg.lida.framework.tasks.FrameworkTaskImpl;
+import edu.memphis.ccrg.lida.framework.tasks.AbstractFrameworkTask;
+import edu.memphis.ccrg.lida.framework.tasks.RecyclableTask;
+import edu.memphis.ccrg.lida.framework.tasks.TaskPool;
 import edu.memphis.ccrg.lida.pam.PamLink;
 import edu.memphis.ccrg.lida.pam.PerceptualAssociativeMemory;
 
@@ -20,10 +23,12 @@ import edu.memphis.ccrg.lida.pam.PerceptualAssociativeMemory;
  * @see ExcitationTask creates this task
  * @see PropagationTask creates this task
  */
-public class AddLinkToPerceptTask extends FrameworkTaskImpl {
+public class AddLinkToPerceptTask extends AbstractFrameworkTask implements
+		RecyclableTask {
 
 	private PerceptualAssociativeMemory pam;
 	private Link link;
+	private TaskPool<AddLinkToPerceptTask> pool;
 
 	/**
 	 * Default constructor
@@ -38,6 +43,51 @@ public class AddLinkToPerceptTask extends FrameworkTaskImpl {
 		this.link = link;
 	}
 
+	/**
+	 * Returns a recycled task, or a new one if none is available, set to add
+	 * specified {@link Link} and its sink to the percept.
+	 * 
+	 * @param link
+	 *            {@link PamLink}
+	 * @param pam
+	 *            {@link PerceptualAssociativeMemory}
+	 * @return an {@link AddLinkToPerceptTask} returned to the pool once it is
+	 *         finished
+	 */
+	public static AddLinkToPerceptTask acquire(Link link,
+			PerceptualAssociativeMemory pam) {
+		TaskPool<AddLinkToPerceptTask> p = getPool();
+		AddLinkToPerceptTask task = p.acquire();
+		if (task == null) {
+			task = new AddLinkToPerceptTask(link, pam);
+		} else {
+			task.resetTask(1);
+			task.link = link;
+			task.pam = pam;
+		}
+		task.pool = p;
+		return task;
+	}
+
+	/**
+	 * @return the pool of recycled {@link AddLinkToPerceptTask} of the current
+	 *         {@link AgentContext}
+	 */
+	public static TaskPool<AddLinkToPerceptTask> getPool() {
+		return AgentContext.getCurrent().getTaskPool(AddLinkToPerceptTask.class);
+	}
+
+	@Override
+	public void recycle() {
+		TaskPool<AddLinkToPerceptTask> p = pool;
+		if (p != null) {
+			pool = null;
+			link = null;
+			pam = null;
+			p.release(this);
+		}
+	}
+
 	/**
 	 * Adds link's sink to the percept and tries to add the link as well then
 	 * finishes.
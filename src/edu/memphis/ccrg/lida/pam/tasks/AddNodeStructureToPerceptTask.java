@@ -8,7 +8,7 @@
 package edu.memphis.ccrg.lida.pam.tasks;
 
 import edu.memphis.ccrg.lida.framework.shared.NodeStructure;
-import edu.memphis.ccrg.lida.framework.tasks.FrameworkTaskImpl;
+import edu.memphis.ccrg.lida.framework.tasks.AbstractFrameworkTask;
 import edu.memphis.ccrg.lida.pam.PerceptualAssociativeMemory;
 
 /**
@@ -16,7 +16,7 @@ import edu.memphis.ccrg.lida.pam.PerceptualAssociativeMemory;
  * 
  * @author Ryan J. McCall
  */
-public class AddNodeStructureToPerceptTask extends FrameworkTaskImpl {
+public class AddNodeStructureToPerceptTask extends AbstractFrameworkTask {
 
 	private NodeStructure ns;
 	private PerceptualAssociativeMemory pam;
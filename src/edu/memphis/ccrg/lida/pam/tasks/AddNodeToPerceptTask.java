@@ -7,8 +7,11 @@
  *******************************************************************************/
 package edu.memphis.ccrg.lida.pam.tasks;
 
+import edu.memphis.ccrg.lida.framework.AgentContext;
 import edu.memphis.ccrg.lida.framework.shared.Node;
-import edu.memphis.ccrg.lida.framework.tasks.FrameworkTaskImpl;
+import edu.memphis.ccrg.lida.framework.tasks.AbstractFrameworkTask;
+import edu.memphis.ccrg.lida.framework.tasks.RecyclableTask;
+import edu.memphis.ccrg.lida.framework.tasks.TaskPool;
 import edu.memphis.ccrg.lida.pam.PamNode;
 import edu.memphis.ccrg.lida.pam.PerceptualAssociativeMemory;
 
@@ -17,10 +20,12 @@ import edu.memphis.ccrg.lida.pam.PerceptualAssociativeMemory;
  * 
  * @author Ryan J. McCall
  */
-public class AddNodeToPerceptTask extends FrameworkTaskImpl {
+public class AddNodeToPerceptTask extends AbstractFrameworkTask implements
+		RecyclableTask {
 
 	private Node node;
 	private PerceptualAssociativeMemory pam;
+	private TaskPool<AddNodeToPerceptTask> pool;
 
 	/**
 	 * Default constructor
@@ -35,6 +40,51 @@ public class AddNodeToPerceptTask extends FrameworkTaskImpl {
 		this.pam = pam;
 	}
 
+	/**
+	 * Returns a recycled task, or a new one if none is available, set to add
+	 * specified {@link Node} to the percept.
+	 * 
+	 * @param n
+	 *            the {@link Node} to add
+	 * @param pam
+	 *            {@link PerceptualAssociativeMemory}
+	 * @return an {@link AddNodeToPerceptTask} returned to the pool once it is
+	 *         finished
+	 */
+	public static AddNodeToPerceptTask acquire(Node n,
+			PerceptualAssociativeMemory pam) {
+		TaskPool<AddNodeToPerceptTask> p = getPool();
+		AddNodeToPerceptTask task = p.acquire();
+		if (task == null) {
+			task = new AddNodeToPerceptTask(n, pam);
+		} else {
+			task.resetTask(1);
+			task.node = n;
+			task.pam = pam;
+		}
+		task.pool = p;
+		return task;
+	}
+
+	/**
+	 * @return the pool of recycled {@link AddNodeToPerceptTask} of the current
+	 *         {@link AgentContext}
+	 */
+	public static TaskPool<AddNodeToPerceptTask> getPool() {
+		return AgentContext.getCurrent().getTaskPool(AddNodeToPerceptTask.class);
+	}
+
+	@Override
+	public void recycle() {
+		TaskPool<AddNodeToPerceptTask> p = pool;
+		if (p != null) {
+			pool = null;
+			node = null;
+			pam = null;
+			p.release(this);
+		}
+	}
+
 	/**
 	 * Adds {@link Node} to the percept then finishes.
 	 */
@@ -7,29 +7,45 @@
  *******************************************************************************/
 package edu.memphis.ccrg.lida.pam.tasks;
 
+import java.util.concurrent.ConcurrentMap;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
+import edu.memphis.ccrg.lida.framework.AgentContext;
+import edu.memphis.ccrg.lida.framework.tasks.AbstractFrameworkTask;
 import edu.memphis.ccrg.lida.framework.tasks.FrameworkTask;
-import edu.memphis.ccrg.lida.framework.tasks.FrameworkTaskImpl;
+import edu.memphis.ccrg.lida.framework.tasks.RecyclableTask;
 import edu.memphis.ccrg.lida.framework.tasks.TaskManager;
+import edu.memphis.ccrg.lida.framework.tasks.TaskPool;
+import edu.memphis.ccrg.lida.pam.ExcitationCombiner;
 import edu.memphis.ccrg.lida.pam.PamLinkable;
 import edu.memphis.ccrg.lida.pam.PamNode;
 import edu.memphis.ccrg.lida.pam.PerceptualAssociativeMemory;
 
 /**
- * A task which performs the excitation of a single {@link PamNode}.
+ * A task which performs the excitation of a single {@link PamNode}. Tasks
+ * obtained with {@link #acquire(int, PamNode, double, PerceptualAssociativeMemory)}
+ * are recycled once they finish.
+ * <p>
+ * A coalescing task accepts further excitations for its node, combined with
+ * an {@link ExcitationCombiner}, until it starts running.
  * 
  * @see PerceptualAssociativeMemory#receiveExcitation(PamLinkable, double)
  * 
  * @author Ryan J. McCall
  * 
  */
-public class ExcitationTask extends FrameworkTaskImpl {
+public class ExcitationTask extends AbstractFrameworkTask implements
+		RecyclableTask {
 
 	private static final Logger logger = Logger.getLogger(ExcitationTask.class
 			.getCanonicalName());
 
+	/*
+	 * The pool this task was acquired from, null if it was not
+	 */
+	private TaskPool<ExcitationTask> pool;
+
 	/*
 	 * PamNode to be excited
 	 */
@@ -45,6 +61,21 @@ public class ExcitationTask extends FrameworkTaskImpl {
 	 */
 	private PerceptualAssociativeMemory pam;
 
+	/*
+	 * Combines further excitations, null if this task does not coalesce
+	 */
+	private ExcitationCombiner combiner;
+
+	/*
+	 * Pending tasks by node this task is removed from when it starts
+	 */
+	private ConcurrentMap<PamNode, ExcitationTask> pendingTasks;
+
+	/*
+	 * Set once the task starts running and no longer accepts excitation
+	 */
+	private boolean started;
+
 	/**
 	 * Instantiates a new excitation task to excite supplied {@link PamNode}
 	 * specified amount.
@@ -66,6 +97,108 @@ public class ExcitationTask extends FrameworkTaskImpl {
 		this.pam = pam;
 	}
 
+	/**
+	 * Returns a recycled task, or a new one if none is available, set to
+	 * excite supplied {@link PamNode} specified amount.
+	 * 
+	 * @param ticksPerRun
+	 *            the ticks per run
+	 * @param n
+	 *            to be excited
+	 * @param excitation
+	 *            amount to excite
+	 * @param pam
+	 *            PerceptualAssociativeMemory module
+	 * @return an {@link ExcitationTask} returned to the pool once it is
+	 *         finished
+	 */
+	public static ExcitationTask acquire(int ticksPerRun, PamNode n,
+			double excitation, PerceptualAssociativeMemory pam) {
+		TaskPool<ExcitationTask> p = getPool();
+		ExcitationTask task = p.acquire();
+		if (task == null) {
+			task = new ExcitationTask(ticksPerRun, n, excitation, pam);
+		} else {
+			task.reuse(ticksPerRun, n, excitation, pam);
+		}
+		task.pool = p;
+		return task;
+	}
+
+	private synchronized void reuse(int ticksPerRun, PamNode n,
+			double excitation, PerceptualAssociativeMemory pam) {
+		resetTask(ticksPerRun);
+		node = n;
+		excitationAmount = excitation;
+		this.pam = pam;
+		started = false;
+	}
+
+	/**
+	 * Makes this task accept further excitations for its node until it
+	 * starts. Must be called before the task is put in the pending map.
+	 * 
+	 * @param c
+	 *            the {@link ExcitationCombiner} combining the excitations
+	 * @param pending
+	 *            map of pending tasks by node, this task removes itself from
+	 *            it when it starts
+	 */
+	public synchronized void setCoalescing(ExcitationCombiner c,
+			ConcurrentMap<PamNode, ExcitationTask> pending) {
+		combiner = c;
+		pendingTasks = pending;
+	}
+
+	/**
+	 * Combines specified excitation into this task's excitation if this task
+	 * is coalescing, has not started and still excites specified node.
+	 * 
+	 * @param n
+	 *            the {@link PamNode} to excite
+	 * @param excitation
+	 *            amount to excite
+	 * @return true if the excitation was added to this task
+	 */
+	public synchronized boolean addExcitation(PamNode n, double excitation) {
+		if (started || combiner == null || n != node) {
+			return false;
+		}
+		excitationAmount = combiner.combine(node, excitationAmount,
+				excitation);
+		return true;
+	}
+
+	/**
+	 * @return the amount this task will excite its node
+	 */
+	public synchronized double getExcitationAmount() {
+		return excitationAmount;
+	}
+
+	/**
+	 * @return the pool of recycled {@link ExcitationTask} of the current
+	 *         {@link AgentContext}
+	 */
+	public static TaskPool<ExcitationTask> getPool() {
+		return AgentContext.getCurrent().getTaskPool(ExcitationTask.class);
+	}
+
+	@Override
+	public void recycle() {
+		TaskPool<ExcitationTask> p = pool;
+		if (p != null) {
+			pool = null;
+			synchronized (this) {
+				node = null;
+				pam = null;
+				combiner = null;
+				pendingTasks = null;
+			}
+			p.release(this);
+		}
+	}
+
 	/**
 	 * This method first excites the {@link PamNode}, if this puts the
 	 * {@link PamNode} over the percept threshold it creates an
@@ -76,13 +209,21 @@ public class ExcitationTask extends FrameworkTaskImpl {
 	 */
 	@Override
 	protected void runThisFrameworkTask() {
-		node.exciteActivation(excitationAmount);
+		double amount;
+		synchronized (this) {
+			started = true;
+			amount = excitationAmount;
+		}
+		if (pendingTasks != null) {
+			pendingTasks.remove(node, this);
+		}
+		node.exciteActivation(amount);
 		if (pam.isOverPerceptThreshold(node)) {
 			if (logger.isLoggable(Level.FINEST)) {
 				logger.log(Level.FINEST, "PamNode {1} over threshold",
 						new Object[] { TaskManager.getCurrentTick(), node });
 			}
-			FrameworkTask task = new AddNodeToPerceptTask(node, pam);
+			FrameworkTask task = AddNodeToPerceptTask.acquire(node, pam);
 			pam.getAssistingTaskSpawner().addTask(task);
 		}
 		pam.propagateActivationToParents(node);
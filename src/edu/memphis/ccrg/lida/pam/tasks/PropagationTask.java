@@ -7,7 +7,10 @@
  *******************************************************************************/
 package edu.memphis.ccrg.lida.pam.tasks;
 
-import edu.memphis.ccrg.lida.framework.tasks.FrameworkTaskImpl;
+import edu.memphis.ccrg.lida.framework.AgentContext;
+import edu.memphis.ccrg.lida.framework.tasks.AbstractFrameworkTask;
+import edu.memphis.ccrg.lida.framework.tasks.RecyclableTask;
+import edu.memphis.ccrg.lida.framework.tasks.TaskPool;
 import edu.memphis.ccrg.lida.pam.PamLink;
 import edu.memphis.ccrg.lida.pam.PamLinkable;
 import edu.memphis.ccrg.lida.pam.PamNode;
@@ -15,11 +18,14 @@ import edu.memphis.ccrg.lida.pam.PerceptualAssociativeMemory;
 
 /**
  * A task which propagates an amount of activation along a {@link PamLink} to
- * its sink.
+ * its sink. Tasks obtained with
+ * {@link #acquire(int, PamLink, double, PerceptualAssociativeMemory)} are
+ * recycled once they finish.
  * 
  * @author Ryan J. McCall
  */
-public class PropagationTask extends FrameworkTaskImpl {
+public class PropagationTask extends AbstractFrameworkTask implements
+		RecyclableTask {
 
 	/**
 	 * Link along which the excitation is being propagated.
@@ -34,6 +40,10 @@ public class PropagationTask extends FrameworkTaskImpl {
 	 */
 	protected double excitationAmount;
 	private PerceptualAssociativeMemory pam;
+	/*
+	 * The pool this task was acquired from, null if it was not
+	 */
+	private TaskPool<PropagationTask> pool;
 
 	/**
 	 * Default constructor.
@@ -56,6 +66,58 @@ public class PropagationTask extends FrameworkTaskImpl {
 		this.pam = pam;
 	}
 
+	/**
+	 * Returns a recycled task, or a new one if none is available, set to
+	 * propagate specified activation along specified link.
+	 * 
+	 * @param tpr
+	 *            task's ticks per run
+	 * @param l
+	 *            the link from the source to the parent
+	 * @param a
+	 *            the amount of excitation
+	 * @param pam
+	 *            the {@link PerceptualAssociativeMemory} module
+	 * @return a {@link PropagationTask} returned to the pool once it is
+	 *         finished
+	 */
+	public static PropagationTask acquire(int tpr, PamLink l, double a,
+			PerceptualAssociativeMemory pam) {
+		TaskPool<PropagationTask> p = getPool();
+		PropagationTask task = p.acquire();
+		if (task == null) {
+			task = new PropagationTask(tpr, l, a, pam);
+		} else {
+			task.resetTask(tpr);
+			task.link = l;
+			task.sink = (PamLinkable) l.getSink();
+			task.excitationAmount = a;
+			task.pam = pam;
+		}
+		task.pool = p;
+		return task;
+	}
+
+	/**
+	 * @return the pool of recycled {@link PropagationTask} of the current
+	 *         {@link AgentContext}
+	 */
+	public static TaskPool<PropagationTask> getPool() {
+		return AgentContext.getCurrent().getTaskPool(PropagationTask.class);
+	}
+
+	@Override
+	public void recycle() {
+		TaskPool<PropagationTask> p = pool;
+		if (p != null) {
+			pool = null;
+			link = null;
+			sink = null;
+			pam = null;
+			p.release(this);
+		}
+	}
+
 	/**
 	 * Excites the {@link PamLink}'s activation by excitationAmount.
 	 * Propagates the excitation along the link and excites the link's sink with the result. 
@@ -75,7 +137,7 @@ public class PropagationTask extends FrameworkTaskImpl {
 	 */
 	protected void runPostExcitation() {
 		if (pam.isOverPerceptThreshold(sink)) {
-			AddLinkToPerceptTask task = new AddLinkToPerceptTask(link, pam);
+			AddLinkToPerceptTask task = AddLinkToPerceptTask.acquire(link, pam);
 			pam.getAssistingTaskSpawner().addTask(task);
 		}
 		if (sink instanceof PamNode) {
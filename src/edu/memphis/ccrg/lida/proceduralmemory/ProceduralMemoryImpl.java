@@ -50,7 +50,7 @@ public class ProceduralMemoryImpl extends FrameworkModuleImpl implements
 
 	private static final Logger logger = Logger
 			.getLogger(ProceduralMemoryImpl.class.getCanonicalName());
-	private static final ElementFactory factory = ElementFactory.getInstance();
+	private final ElementFactory factory = ElementFactory.getInstance();
 
 	/**
 	 * 
@@ -15,6 +15,7 @@ import java.util.logging.Level;
 import java.util.logging.Logger;
 
 import edu.memphis.ccrg.lida.actionselection.Action;
+import edu.memphis.ccrg.lida.framework.AgentContext;
 import edu.memphis.ccrg.lida.framework.shared.activation.LearnableImpl;
 import edu.memphis.ccrg.lida.framework.tasks.TaskManager;
 import edu.memphis.ccrg.lida.proceduralmemory.ProceduralMemoryImpl.ConditionType;
@@ -29,7 +30,6 @@ public class SchemeImpl extends LearnableImpl implements Scheme {
 
 	private static final Logger logger = Logger.getLogger(SchemeImpl.class
 			.getCanonicalName());
-	private static int idCounter = 0;// TODO Factory support for Scheme
 	/*
 	 * The weight of the context in the calculation of scheme salience
 	 */
@@ -57,7 +57,7 @@ public class SchemeImpl extends LearnableImpl implements Scheme {
 	 * Constructs a new scheme with default values
 	 */
 	SchemeImpl() {
-		id = idCounter++;
+		id = AgentContext.getCurrent().getNextSchemeId();// TODO Factory support for Scheme
 	}
 
 	/**
@@ -21,7 +21,7 @@ import edu.memphis.ccrg.lida.framework.FrameworkModule;
 import edu.memphis.ccrg.lida.framework.FrameworkModuleImpl;
 import edu.memphis.ccrg.lida.framework.ModuleListener;
 import edu.memphis.ccrg.lida.framework.initialization.Initializable;
-import edu.memphis.ccrg.lida.framework.tasks.FrameworkTaskImpl;
+import edu.memphis.ccrg.lida.framework.tasks.AbstractFrameworkTask;
 import edu.memphis.ccrg.lida.framework.tasks.TaskManager;
 import edu.memphis.ccrg.lida.sensorymemory.SensoryMemoryListener;
 
@@ -112,7 +112,7 @@ public class BasicSensoryMotorMemory extends FrameworkModuleImpl implements
 		}
 	}
 
-	private class ProcessActionTask extends FrameworkTaskImpl {
+	private class ProcessActionTask extends AbstractFrameworkTask {
 		private Action action;
 
 		public ProcessActionTask(Action a) {
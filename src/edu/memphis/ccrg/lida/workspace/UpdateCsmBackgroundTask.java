@@ -15,6 +15,7 @@ import edu.memphis.ccrg.lida.framework.ModuleName;
 import edu.memphis.ccrg.lida.framework.tasks.FrameworkTaskImpl;
 import edu.memphis.ccrg.lida.framework.tasks.TaskManager;
 import edu.memphis.ccrg.lida.workspace.workspacebuffers.WorkspaceBuffer;
+import edu.memphis.ccrg.lida.workspace.workspacebuffers.WorkspaceBufferImpl;
 
 /**
  * A background task in the {@link Workspace} which transfers percepts from the
@@ -38,21 +39,35 @@ public class UpdateCsmBackgroundTask extends FrameworkTaskImpl {
 					.getSubmodule(ModuleName.PerceptualBuffer);
 			csm = (WorkspaceBuffer) module
 					.getSubmodule(ModuleName.CurrentSituationalModel);
+			if (perceptualBuffer != null && csm != null) {
+				addReadModule(perceptualBuffer.getModuleName());
+				addWrittenModule(csm.getModuleName());
+			}
+			if (perceptualBuffer instanceof WorkspaceBufferImpl) {
+				setWakeupSignal(((WorkspaceBufferImpl) perceptualBuffer)
+						.getChangeSignal());
+			}
 		}
 	}
 
 	/**
 	 * Retrieves nodes from PAM and provides them to attentional codelets. This
 	 * function gets PAM's nodes and provides them to CurrentSituationalModel,
-	 * which will be accessed by attentional codelets.
+	 * which will be accessed by attentional codelets. Parks while the
+	 * perceptual buffer is empty.
 	 */
 	@Override
 	protected void runThisFrameworkTask() {
+		WorkspaceContent content = perceptualBuffer.getBufferContent(null);
+		if (content.getLinkableCount() == 0 && getWakeupSignal() != null) {
+			park();
+			return;
+		}
 		if (logger.isLoggable(Level.FINEST)) {
 			logger.log(Level.FINEST,
 					"Updating CSM with perceptual buffer content.", TaskManager
 							.getCurrentTick());
 		}
-		csm.addBufferContent(perceptualBuffer.getBufferContent(null));
+		csm.addBufferContent(content);
 	}
 }
@@ -49,6 +49,14 @@ public class BasicStructureBuildingCodelet extends StructureBuildingCodeletImpl
 				new Object[] { TaskManager.getCurrentTick(), this });
 	}
 
+	/**
+	 * Touches only its associated modules.
+	 */
+	@Override
+	protected boolean declaresModuleDependencies() {
+		return true;
+	}
+
 	@Override
 	public NodeStructure retrieveWorkspaceContent(WorkspaceBuffer buffer) {
 		return buffer.getBufferContent(null);
@@ -61,8 +61,14 @@ public abstract class StructureBuildingCodeletImpl extends CodeletImpl
 			if (ModuleUsage.TO_READ_FROM.equals(usage)) {
 				readableBuffers.put(module.getModuleName(),
 						(WorkspaceBuffer) module);
+				if (declaresModuleDependencies()) {
+					addReadModule(module.getModuleName());
+				}
 			} else if (ModuleUsage.TO_WRITE_TO.equals(usage)) {
 				writableBuffer = (WorkspaceBuffer) module;
+				if (declaresModuleDependencies()) {
+					addWrittenModule(module.getModuleName());
+				}
 			} else {
 				logger.log(Level.WARNING,
 						"Specified usage is not supported.  See ModuleUsage",
@@ -77,6 +83,18 @@ public abstract class StructureBuildingCodeletImpl extends CodeletImpl
 		}
 	}
 
+	/**
+	 * Returns whether the associated buffers are declared as the only modules
+	 * this codelet touches. False by default since a subclass may touch other
+	 * modules; subclasses known to touch no other module return true.
+	 * 
+	 * @return true if the associated buffers are declared dependencies
+	 * @see #addReadModule(ModuleName)
+	 */
+	protected boolean declaresModuleDependencies() {
+		return false;
+	}
+
 	@Override
 	protected abstract void runThisFrameworkTask();
 
@@ -88,6 +106,7 @@ public abstract class StructureBuildingCodeletImpl extends CodeletImpl
 		readableBuffers.clear();
 		writableBuffer = null;
 		super.soughtContent = null;
+		clearModuleDependencies();
 	}
 
 	@Override
@@ -33,7 +33,7 @@ public class StructureBuildingCodeletModule extends FrameworkModuleImpl
 
 	private static final Logger logger = Logger
 			.getLogger(StructureBuildingCodeletModule.class.getCanonicalName());
-	private static final ElementFactory factory = ElementFactory.getInstance();
+	private final ElementFactory factory = ElementFactory.getInstance();
 
 	private static final double DEFAULT_CODELET_ACTIVATION = 1.0;
 	private double codeletActivation = DEFAULT_CODELET_ACTIVATION;
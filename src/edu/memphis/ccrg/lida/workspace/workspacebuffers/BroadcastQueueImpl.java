@@ -19,7 +19,7 @@ import edu.memphis.ccrg.lida.framework.initialization.Initializable;
 import edu.memphis.ccrg.lida.framework.shared.Linkable;
 import edu.memphis.ccrg.lida.framework.shared.NodeStructure;
 import edu.memphis.ccrg.lida.framework.shared.NodeStructureImpl;
-import edu.memphis.ccrg.lida.framework.shared.UnmodifiableNodeStructureImpl;
+import edu.memphis.ccrg.lida.framework.shared.PersistentNodeStructure;
 import edu.memphis.ccrg.lida.framework.tasks.TaskManager;
 import edu.memphis.ccrg.lida.globalworkspace.Coalition;
 import edu.memphis.ccrg.lida.workspace.WorkspaceContent;
@@ -79,8 +79,13 @@ public class BroadcastQueueImpl extends FrameworkModuleImpl implements
 
 	@Override
 	public void receiveBroadcast(Coalition c) {
-		UnmodifiableNodeStructureImpl content = (UnmodifiableNodeStructureImpl) c
-				.getContent();
+		NodeStructure content = (NodeStructure) c.getContent();
+		if (!isDecay && content instanceof PersistentNodeStructure) {
+			// Immutable content that is not decayed is shared with the other
+			// receivers of the broadcast
+			addBufferContent((WorkspaceContent) content);
+			return;
+		}
 		// Since content is not modifiable, a copy must be made. In this class
 		// the copy (of the content) will be decayed (modified).
 		NodeStructure contentCopy = new NodeStructureImpl();
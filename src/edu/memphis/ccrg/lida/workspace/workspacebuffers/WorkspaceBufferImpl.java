@@ -15,6 +15,7 @@ import edu.memphis.ccrg.lida.framework.shared.Linkable;
 import edu.memphis.ccrg.lida.framework.shared.NodeStructure;
 import edu.memphis.ccrg.lida.framework.shared.NodeStructureImpl;
 import edu.memphis.ccrg.lida.framework.shared.UnmodifiableNodeStructureImpl;
+import edu.memphis.ccrg.lida.framework.tasks.ChangeSignal;
 import edu.memphis.ccrg.lida.workspace.Workspace;
 import edu.memphis.ccrg.lida.workspace.WorkspaceContent;
 
@@ -26,7 +27,28 @@ import edu.memphis.ccrg.lida.workspace.WorkspaceContent;
  */
 public class WorkspaceBufferImpl extends FrameworkModuleImpl implements	WorkspaceBuffer {
 
-	private NodeStructure buffer = new NodeStructureImpl();
+	private static final boolean DEFAULT_INT_KEYED_NODES = false;
+	private static final boolean DEFAULT_LOCK_STRIPING = false;
+	private NodeStructureImpl buffer = new NodeStructureImpl();
+
+	/**
+	 * Will set parameters with the following names:<br/>
+	 * <br/>
+	 * 
+	 * <b>workspaceBuffer.intKeyedNodes</b> if true the nodes of the buffer are
+	 * stored in an open-addressing table with primitive int keys, default is
+	 * false<br/>
+	 * <b>workspaceBuffer.lockStriping</b> if true adding nodes and links only
+	 * locks their neighborhood instead of the whole buffer, default is false<br/>
+	 * 
+	 * @see NodeStructureImpl#setIntKeyedNodes(boolean)
+	 * @see NodeStructureImpl#setLockStriping(boolean)
+	 */
+	@Override
+	public void init() {
+		buffer.setIntKeyedNodes(getParam("workspaceBuffer.intKeyedNodes", DEFAULT_INT_KEYED_NODES));
+		buffer.setLockStriping(getParam("workspaceBuffer.lockStriping", DEFAULT_LOCK_STRIPING));
+	}
 	
 	/**
 	 * Note that this method <i>merges</i> the specified content into the
@@ -45,6 +67,15 @@ public class WorkspaceBufferImpl extends FrameworkModuleImpl implements	Workspac
 		return (WorkspaceContent)buffer;
 	}
 
+	/**
+	 * @return the {@link ChangeSignal} raised each time a {@link Linkable} is
+	 *         added to or removed from the buffer
+	 * @see NodeStructureImpl#getChangeSignal()
+	 */
+	public ChangeSignal getChangeSignal() {
+		return buffer.getChangeSignal();
+	}
+
 	@Override
 	public void decayModule(long t) {
 		buffer.decayNodeStructure(t);